@@ -1,14 +1,41 @@
 package ru.develop.manager;
 
 import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+import java.util.Arrays;
+
+/**
+ * Основное приложение: запись и чтение через JPA. Пакет reactive - отдельное
+ * приложение только для чтения (см. ReactiveReadApplication), здесь не поднимается
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration(exclude = {R2dbcAutoConfiguration.class, R2dbcDataAutoConfiguration.class})
+@ComponentScan(excludeFilters = {
+		@ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+		@ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+		@ComponentScan.Filter(type = FilterType.REGEX, pattern = "ru\\.develop\\.manager\\.reactive\\..*")
+})
+@EnableScheduling
 public class ManagerApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(ManagerApplication.class, args);
+		SpringApplication application = new SpringApplication(ManagerApplication.class);
+		if (Arrays.stream(args).anyMatch(arg -> arg.startsWith("--import.file="))) {
+			// загрузка задач из файла без веб-сервера, см. TaskImportRunner
+			application.setWebApplicationType(WebApplicationType.NONE);
+			System.exit(SpringApplication.exit(application.run(args)));
+		}
+		application.run(args);
 	}
 
 }
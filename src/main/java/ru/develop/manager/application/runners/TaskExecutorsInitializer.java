@@ -0,0 +1,47 @@
+package ru.develop.manager.application.runners;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Уникальность пары (задача, исполнитель) в уже существующей бд. Раньше исполнитель мог быть
+ * добавлен к задаче дважды, и ddl-auto не создаст ограничение uk_task_executors_task_executor
+ * поверх повторов. Здесь повторы удаляются и создается уникальный индекс с тем же именем.
+ * Только для PostgreSQL, выполняется до старта веб-сервера под advisory lock, как TaskSequenceInitializer
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskExecutorsInitializer implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String database;
+        try {
+            database = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    metaData -> metaData.getDatabaseProductName());
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("TaskExecutorsInitializer: database is unavailable", e);
+        }
+        if (!"PostgreSQL".equals(database)) return;
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(hashtext('task_executors'))");
+            int removed = jdbcTemplate.update("DELETE FROM task_executors a USING task_executors b " +
+                    "WHERE a.ctid > b.ctid AND a.task_id = b.task_id AND a.executors_id = b.executors_id");
+            if (removed > 0) log.warn("TaskExecutorsInitializer: {} duplicate executors are removed", removed);
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_task_executors_task_executor " +
+                    "ON task_executors (task_id, executors_id)");
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package ru.develop.manager.application.runners;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.develop.manager.application.services.PersonService;
+import ru.develop.manager.application.services.TaskImportService;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.TaskImport;
+import ru.develop.manager.domain.enums.FileFormat;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskImportResultDTO;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Загрузка задач из файла в режиме командной строки, без веб-сервера:
+ * java -jar manager.jar --import.file=tasks.ndjson[.gz] [--import.format=csv] [--import.id=7] [--import.author=email].
+ * Запускается после остальных runner'ов (администратор и последовательности уже готовы).
+ * Код выхода 0, если загрузка завершена, иначе 1 - ее можно продолжить с --import.id
+ * @see ru.develop.manager.ManagerApplication
+ */
+@Component
+@ConditionalOnProperty("import.file")
+@RequiredArgsConstructor
+@Slf4j
+public class TaskImportRunner implements ExitCodeGenerator {
+
+    private final TaskImportService taskImportService;
+    private final PersonService personService;
+
+    @Value("${import.file}")
+    private Path file;
+
+    /**
+     * Формат файла, по умолчанию - по расширению
+     */
+    @Value("${import.format:}")
+    private String format;
+
+    @Value("${import.id:#{null}}")
+    private Long importId;
+
+    /**
+     * Автор задач без author_email
+     */
+    @Value("${import.author:${admin.email}}")
+    private String authorEmail;
+
+    private int exitCode = 1;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void importTasks() {
+        try (InputStream in = open(file)) {
+            Person author = personService.findByEmail(authorEmail)
+                    .orElseThrow(() -> new NullPointerException("No author with email " + authorEmail));
+            TaskImportResultDTO result = taskImportService.importTasks(in, format(), importId, author);
+            result.getErrors().forEach(error -> log.warn("TaskImportRunner: {}", error));
+            log.info("TaskImportRunner: import {} of {} is {}: {} records, {} created, {} failed", result.getImportId(),
+                    file, result.getState(), result.getProcessed(), result.getCreated(), result.getFailed());
+            if (TaskImport.State.COMPLETED.name().equals(result.getState())) exitCode = 0;
+        } catch (Exception e) {
+            log.error("TaskImportRunner: import of {} failed", file, e);
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private FileFormat format() {
+        if (!format.isBlank()) return FileFormat.valueOf(format.toUpperCase());
+        return file.getFileName().toString().replaceFirst("\\.gz$", "").endsWith(".csv") ? FileFormat.CSV : FileFormat.NDJSON;
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file));
+        return file.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(in) : in;
+    }
+}
@@ -0,0 +1,50 @@
+package ru.develop.manager.application.runners;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Выравнивание последовательности task_seq по уже существующим задачам.
+ * Раньше id задач выдавались через IDENTITY, и созданная ddl-auto последовательность
+ * начинается с 1 - без выравнивания новые id совпали бы со старыми. Только для PostgreSQL.
+ * Выполняется после создания всех бинов (схема уже обновлена), но до старта веб-сервера,
+ * поэтому ни один запрос не получит id до выравнивания. Узлы, стартующие одновременно,
+ * выравнивают по очереди под advisory lock
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskSequenceInitializer implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String database;
+        try {
+            database = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    metaData -> metaData.getDatabaseProductName());
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("TaskSequenceInitializer: database is unavailable", e);
+        }
+        if (!"PostgreSQL".equals(database)) return;
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(hashtext('task_seq'))");
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM task", Long.class);
+            Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM task_seq", Long.class);
+            if (maxId != null && lastValue != null && lastValue < maxId) {
+                jdbcTemplate.queryForObject("SELECT setval('task_seq', ?)", Long.class, maxId + 50);
+                log.info("TaskSequenceInitializer: task_seq is moved from {} to {}", lastValue, maxId + 50);
+            }
+        });
+    }
+}
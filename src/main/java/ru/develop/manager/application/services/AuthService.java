@@ -29,5 +29,28 @@ public interface AuthService {
      */
     Person createAdmin(Person person) throws WrongDataException;
 
+    /**
+     * Хэширование пароля нового пользователя или админа.
+     * Выполняется в пуле хэширования до {@link #createPerson(Person, String)} и {@link #createAdmin(Person, String)}
+     * @param rawPassword Пароль
+     * @return Хэш пароля
+     */
+    String encodePassword(String rawPassword);
+
+    /**
+     * Регистрация пользователя с паролем, захэшированным заранее
+     * @param person Сущность нового пользователя
+     * @param encodedPassword Хэш пароля из {@link #encodePassword}
+     * @return Созданный пользователь
+     * @throws WrongDataException выбрасывается, если пароли не совпадают или почта занята
+     */
+    Person createPerson(Person person, String encodedPassword) throws WrongDataException;
+
+    /**
+     * Создание админа с паролем, захэшированным заранее
+     * @see #createPerson(Person, String)
+     */
+    Person createAdmin(Person person, String encodedPassword) throws WrongDataException;
+
 
 }
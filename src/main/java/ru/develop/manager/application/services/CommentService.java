@@ -0,0 +1,43 @@
+package ru.develop.manager.application.services;
+
+import org.springframework.data.domain.Page;
+import ru.develop.manager.domain.Comment;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface CommentService {
+
+    /**
+     * Получение страницы комментариев задачи, новые первыми
+     * @param taskId Итендификатор задачи
+     * @param offset номер страницы
+     * @param limit размер страницы
+     * @return Страница комментариев
+     */
+    Page<Comment> findTaskComments(Long taskId, Integer offset, Integer limit);
+
+    /**
+     * Количество и последние комментарии для нескольких задач (два запроса на всю пачку)
+     * @param taskIds Итендификаторы задач
+     * @return Сводка по id задачи. Для задач без комментариев сводка пустая
+     */
+    Map<Long, Summary> summarize(Collection<Long> taskIds);
+
+    /**
+     * Только количество комментариев для нескольких задач, одним запросом
+     * @param taskIds Итендификаторы задач
+     * @return Количество по id задачи. Задач без комментариев в результате нет
+     */
+    Map<Long, Long> countComments(Collection<Long> taskIds);
+
+    /**
+     * Сводка комментариев задачи
+     * @param count общее количество комментариев
+     * @param latest последние комментарии, новые первыми
+     */
+    record Summary(long count, List<Comment> latest) {
+        public static final Summary EMPTY = new Summary(0, List.of());
+    }
+}
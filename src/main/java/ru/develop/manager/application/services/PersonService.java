@@ -1,12 +1,19 @@
 package ru.develop.manager.application.services;
 
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import ru.develop.manager.domain.Person;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-public interface PersonService extends UserDetailsService {
+/**
+ * UserDetailsPasswordService используется для перехэширования пароля
+ * при входе, если изменилась стоимость BCrypt
+ */
+public interface PersonService extends UserDetailsService, UserDetailsPasswordService {
 
     /**
      * Создание пользователя (загрузка пользователя в бд)
@@ -15,6 +22,21 @@ public interface PersonService extends UserDetailsService {
      */
     Person createPerson(Person person);
 
+    /**
+     * Создание пользователя с паролем, захэшированным заранее через {@link #encodePassword}
+     * @param person Новый пользователь
+     * @param encodedPassword Хэш пароля
+     * @return Созданный пользователь
+     */
+    Person createPerson(Person person, String encodedPassword);
+
+    /**
+     * Хэширование пароля нового пользователя
+     * @param rawPassword Пароль
+     * @return Хэш пароля
+     */
+    String encodePassword(String rawPassword);
+
     /**
      * Нахождение пользователя по электронной почте (логин)
      * @param email Электронная почта
@@ -29,6 +51,28 @@ public interface PersonService extends UserDetailsService {
      */
     Optional<Person> findById(Long id);
 
+    /**
+     * Нахождение пользователей по итендификаторам одним запросом
+     * @param ids Итендификаторы пользователей
+     * @return Найденные пользователи по id, отсутствующие пропускаются
+     */
+    Map<Long, Person> findAllById(Collection<Long> ids);
+
+    /**
+     * Нахождение пользователей по электронной почте одним запросом
+     * @param emails Электронные почты
+     * @return Найденные пользователи по email, отсутствующие пропускаются
+     */
+    Map<String, Person> findAllByEmail(Collection<String> emails);
+
+    /**
+     * Изменение роли пользователя
+     * @param id Итендификатор пользователя
+     * @param role Новая роль
+     * @return Пользователь с измененной ролью
+     */
+    Person changeRole(Long id, String role);
+
     /**
      * Получение id задач, которые у пользователя на исполнеии
      * @param id Итендификатор пользователя
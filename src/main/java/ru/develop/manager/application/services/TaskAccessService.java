@@ -0,0 +1,20 @@
+package ru.develop.manager.application.services;
+
+import java.util.Collection;
+
+public interface TaskAccessService {
+
+    /**
+     * Проверка, является ли пользователь исполнителем задачи
+     * @param personId Итендификатор пользователя
+     * @param taskId Итендификатор задачи
+     * @return true, если пользователь исполнитель задачи
+     */
+    boolean isExecutor(Long personId, Long taskId);
+
+    /**
+     * Сброс закэшированных задач исполнителей (после фиксации транзакции, если она есть)
+     * @param personIds Итендификаторы исполнителей
+     */
+    void evictExecutors(Collection<Long> personIds);
+}
@@ -0,0 +1,18 @@
+package ru.develop.manager.application.services;
+
+import ru.develop.manager.domain.TaskAnalytics;
+import ru.develop.manager.domain.enums.AnalyticsSource;
+
+/**
+ * Аналитика по всем задачам для администраторов
+ */
+public interface TaskAnalyticsService {
+
+    /**
+     * Аналитика не старше task.analytics.max-staleness. Устаревшую аналитику пересчитывает
+     * один поток, остальные запросы ждут его результат
+     * @param source Способ подсчета, null - task.analytics.source
+     * @return Аналитика со временем подсчета
+     */
+    TaskAnalytics getAnalytics(AnalyticsSource source);
+}
@@ -0,0 +1,46 @@
+package ru.develop.manager.application.services;
+
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.extern.DTOs.taskDTO.BulkResultDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.CreateTaskDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskTransitionDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskTransitionResultDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.UpdateTaskDTO;
+import ru.develop.manager.extern.exceptions.WrongDataException;
+
+import java.util.List;
+
+/**
+ * Пакетные создание и обновление задач. Пачка обрабатывается частями (chunk),
+ * каждая часть в своей транзакции с JDBC batch вставками. Ошибка одной задачи
+ * не отменяет остальные, результат возвращается по каждой задаче
+ */
+public interface TaskBulkService {
+
+    /**
+     * Создание задач
+     * @param tasks Задачи для создания
+     * @param author Автор задач
+     * @return Отчет по каждой задаче в порядке запроса
+     * @throws WrongDataException выбрасывается, если задач больше task.bulk.max-items
+     */
+    BulkResultDTO createTasks(List<CreateTaskDTO> tasks, Person author) throws WrongDataException;
+
+    /**
+     * Обновление задач. Пустые поля не меняются, исполнители добавляются к текущим
+     * @param tasks Изменения задач с их id
+     * @return Отчет по каждой задаче в порядке запроса
+     * @throws WrongDataException выбрасывается, если задач больше task.bulk.max-items
+     */
+    BulkResultDTO updateTasks(List<UpdateTaskDTO> tasks) throws WrongDataException;
+
+    /**
+     * Массовое изменение статуса и/или приоритета без загрузки задач.
+     * Задачи выбираются по id и/или фильтрам и меняются UPDATE'ами по частям
+     * @param transition Выборка задач и новые значения
+     * @return Количество выбранных и измененных задач
+     * @throws WrongDataException выбрасывается, если не задана выборка или новые значения,
+     * либо id больше task.bulk.max-items
+     */
+    TaskTransitionResultDTO transitionTasks(TaskTransitionDTO transition) throws WrongDataException;
+}
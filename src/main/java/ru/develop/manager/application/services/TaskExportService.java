@@ -0,0 +1,23 @@
+package ru.develop.manager.application.services;
+
+import ru.develop.manager.domain.enums.FileFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Потоковая выгрузка всех задач для отчетов. Задачи читаются курсором бд
+ * и пишутся частями, поэтому память не зависит от количества задач
+ */
+public interface TaskExportService {
+
+    /**
+     * Выгрузка задач с автором, исполнителями и количеством комментариев, по возрастанию id.
+     * Выполняется в одной читающей транзакции
+     * @param format Формат выгрузки
+     * @param out Поток ответа, после каждой части сбрасывается клиенту
+     * @return Количество выгруженных задач
+     * @throws IOException выбрасывается, если запись в поток не удалась (например, клиент отключился)
+     */
+    long exportTasks(FileFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,34 @@
+package ru.develop.manager.application.services;
+
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.enums.FileFormat;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskImportResultDTO;
+import ru.develop.manager.extern.exceptions.WrongDataException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Загрузка задач с комментариями из файла (перенос из другого трекера).
+ * Файл разбирается по записи, задачи пишутся JDBC batch'ами частями по task.import.chunk-size,
+ * каждая часть в своей транзакции вместе с контрольной точкой TaskImport
+ */
+public interface TaskImportService {
+
+    /**
+     * Загрузка задач. NDJSON - ImportTaskDTO в строке; CSV - заголовок и колонки title, description,
+     * status, priority, author_email, executor_emails (через ;), comments (по одному в строке значения),
+     * остальные колонки (например, из выгрузки) пропускаются.
+     * Ошибочная запись пропускается, ошибка бд останавливает загрузку
+     * @param in Файл загрузки
+     * @param format Формат файла
+     * @param importId Итендификатор прерванной загрузки того же файла или null для новой.
+     *                 Уже обработанные записи пропускаются
+     * @param author Автор задач без author_email
+     * @return Отчет о загрузке
+     * @throws WrongDataException выбрасывается, если загрузка не найдена или начата в другом формате
+     * @throws IOException выбрасывается, если файл не прочитать
+     */
+    TaskImportResultDTO importTasks(InputStream in, FileFormat format, Long importId, Person author)
+            throws WrongDataException, IOException;
+}
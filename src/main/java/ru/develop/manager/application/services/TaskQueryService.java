@@ -0,0 +1,113 @@
+package ru.develop.manager.application.services;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import ru.develop.manager.domain.TaskFilter;
+import ru.develop.manager.extern.DTOs.InfoCommentDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.InfoTaskDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskCursorPageDTO;
+import ru.develop.manager.extern.exceptions.WrongDataException;
+
+import java.util.List;
+
+/**
+ * Чтение задач для API. Каждый метод выполняется в одной read-only транзакции,
+ * DTO собираются внутри нее, поэтому соединение с бд не держится
+ * на время сериализации ответа
+ */
+public interface TaskQueryService {
+
+    /**
+     * Получение задачи по id. DTO берется из кэша задач (Redis)
+     * @param id Итендификатор задачи
+     * @return DTO задачи
+     */
+    InfoTaskDTO findTaskById(Long id);
+
+    /**
+     * Получение только версии задачи, без сборки DTO
+     * @param id Итендификатор задачи
+     * @return Версия задачи
+     */
+    Long findTaskVersion(Long id);
+
+    /**
+     * Получение страницы задач автора
+     * @param authorId Итендификатор создателя
+     * @param offset номер страницы
+     * @param limit размер страницы
+     * @return Страница DTO задач
+     */
+    Page<InfoTaskDTO> findTaskByAuthorId(Long authorId, Integer offset, Integer limit);
+
+    /**
+     * Получение страницы задач исполнителя
+     * @param executorId Итендификатор исполнителя
+     * @param offset номер страницы
+     * @param limit размер страницы
+     * @return Страница DTO задач
+     */
+    Page<InfoTaskDTO> findTaskByExecutorId(Long executorId, Integer offset, Integer limit);
+
+    /**
+     * Получение страницы задач
+     * @param offset номер страницы
+     * @param limit размер страницы
+     * @return Страница DTO задач
+     */
+    Page<InfoTaskDTO> findAllTasks(Integer offset, Integer limit);
+
+    /**
+     * Получение задач после указанного id (keyset-пагинация)
+     * @param afterId id последней задачи предыдущей страницы (0 для первой страницы)
+     * @param limit размер страницы
+     * @return Страница задач с курсором следующей
+     */
+    TaskCursorPageDTO findAllTasksAfter(Long afterId, Integer limit);
+
+    /**
+     * Получение задач автора после указанного id (keyset-пагинация)
+     * @param authorId Итендификатор создателя
+     * @param afterId id последней задачи предыдущей страницы (0 для первой страницы)
+     * @param limit размер страницы
+     * @return Страница задач с курсором следующей
+     */
+    TaskCursorPageDTO findTaskByAuthorIdAfter(Long authorId, Long afterId, Integer limit);
+
+    /**
+     * Получение задач исполнителя после указанного id (keyset-пагинация)
+     * @param executorId Итендификатор исполнителя
+     * @param afterId id последней задачи предыдущей страницы (0 для первой страницы)
+     * @param limit размер страницы
+     * @return Страница задач с курсором следующей
+     */
+    TaskCursorPageDTO findTaskByExecutorIdAfter(Long executorId, Long afterId, Integer limit);
+
+    /**
+     * Поиск задач по фильтру
+     * @param filter Фильтр поиска
+     * @param offset номер страницы
+     * @param limit размер страницы
+     * @param withCount считать ли общее количество задач
+     * @return Page DTO задач, если withCount, иначе Slice
+     */
+    Slice<InfoTaskDTO> searchTasks(TaskFilter filter, Integer offset, Integer limit, boolean withCount);
+
+    /**
+     * Полнотекстовый поиск по названию, описанию и комментариям задач
+     * @param query Текст запроса
+     * @param limit Максимальное количество задач, от 1 до search.fulltext.max-limit
+     * @return DTO задач по убыванию релевантности
+     * @throws WrongDataException Если limit вне допустимых границ
+     */
+    List<InfoTaskDTO> searchFullText(String query, Integer limit) throws WrongDataException;
+
+    /**
+     * Получение страницы комментариев задачи, новые первыми
+     * @param taskId Итендификатор задачи
+     * @param offset номер страницы
+     * @param limit размер страницы
+     * @return Страница DTO комментариев
+     */
+    Page<InfoCommentDTO> findTaskComments(Long taskId, Integer offset, Integer limit);
+}
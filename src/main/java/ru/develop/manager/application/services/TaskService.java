@@ -1,9 +1,12 @@
 package ru.develop.manager.application.services;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import ru.develop.manager.domain.Comment;
 import ru.develop.manager.domain.Person;
 import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.TaskFilter;
+import ru.develop.manager.extern.exceptions.PreconditionFailedException;
 
 import java.util.List;
 
@@ -23,9 +26,11 @@ public interface TaskService {
      * @param id ID задачи
      * @param title Новое название задачи
      * @param description Новое описание задачи
+     * @param expectedVersion Версия задачи из If-Match, null - без проверки
      * @return Обновленную задачу
+     * @throws PreconditionFailedException если версия задачи уже другая
      */
-    Task updateTaskInfo(Long id, String title, String description);
+    Task updateTaskInfo(Long id, String title, String description, Long expectedVersion);
 
     /**
      * Нахождение задачи по ее ID
@@ -34,6 +39,13 @@ public interface TaskService {
      */
     Task findTaskById(Long id);
 
+    /**
+     * Нахождение версии задачи одним запросом, без загрузки задачи
+     * @param id ID задачи
+     * @return Версия задачи
+     */
+    Long findTaskVersion(Long id);
+
     /**
      * Нахождение задачи по id ее создателя
      * @param id Итендификатор создателя
@@ -61,30 +73,78 @@ public interface TaskService {
      */
     Page<Task> findAllTasks(Integer offset, Integer limit);
 
+    /**
+     * Получение задач после указанного id (keyset-пагинация, без подсчета общего количества)
+     * @param afterId id последней задачи предыдущей страницы (0 для первой страницы)
+     * @param limit размер страницы
+     * @return Срез (Slice) задач
+     */
+    Slice<Task> findAllTasksAfter(Long afterId, Integer limit);
+
+    /**
+     * Получение задач автора после указанного id (keyset-пагинация)
+     * @param authorId Итендификатор создателя
+     * @param afterId id последней задачи предыдущей страницы (0 для первой страницы)
+     * @param limit размер страницы
+     * @return Срез (Slice) задач
+     */
+    Slice<Task> findTaskByAuthorIdAfter(Long authorId, Long afterId, Integer limit);
+
+    /**
+     * Получение задач исполнителя после указанного id (keyset-пагинация)
+     * @param executorId Итендификатор исполнителя
+     * @param afterId id последней задачи предыдущей страницы (0 для первой страницы)
+     * @param limit размер страницы
+     * @return Срез (Slice) задач
+     */
+    Slice<Task> findTaskByExecutorIdAfter(Long executorId, Long afterId, Integer limit);
+
+    /**
+     * Получение задач по списку id
+     * @param ids Итендификаторы задач
+     * @return Найденные задачи в порядке переданных id, отсутствующие пропускаются
+     */
+    List<Task> findTasksByIds(List<Long> ids);
+
+    /**
+     * Поиск задач по фильтру, отсортированных по id
+     * @param filter Фильтр поиска, пустые поля не учитываются
+     * @param offset номер страницы
+     * @param limit размер страницы
+     * @param withCount считать ли общее количество задач. Если нет, возвращается Slice без count(*)
+     * @return Page, если withCount, иначе Slice
+     */
+    Slice<Task> searchTasks(TaskFilter filter, Integer offset, Integer limit, boolean withCount);
 
     /**
      * Добавление исполнителя к задачи
      * @param executorsId Итендификатор исполнителя
      * @param id Итендификатор задачи
+     * @param expectedVersion Версия задачи из If-Match, null - без проверки
      * @return Задачу, к которой добавили исполнителя
+     * @throws PreconditionFailedException если версия задачи уже другая
      */
-    Task addExecutors(List<Long> executorsId, Long id);
+    Task addExecutors(List<Long> executorsId, Long id, Long expectedVersion);
 
     /**
      * Изменение приоритета задачи
      * @param priority Новый приоритет
      * @param id Итендификатор задачи
+     * @param expectedVersion Версия задачи из If-Match, null - без проверки
      * @return Задачу с измененным приоритетом
+     * @throws PreconditionFailedException если версия задачи уже другая
      */
-    Task changeTaskPriority(String priority, Long id);
+    Task changeTaskPriority(String priority, Long id, Long expectedVersion);
 
     /**
      * Изменение статуса задачи
      * @param status Новый статус
      * @param id Итендификатор задачи
+     * @param expectedVersion Версия задачи из If-Match, null - без проверки
      * @return Задачу с измененным статусом
+     * @throws PreconditionFailedException если версия задачи уже другая
      */
-    Task changeTaskStatus(String status, Long id);
+    Task changeTaskStatus(String status, Long id, Long expectedVersion);
 
     /**
      * Отправка комментария к задаче
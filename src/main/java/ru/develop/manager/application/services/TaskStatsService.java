@@ -0,0 +1,67 @@
+package ru.develop.manager.application.services;
+
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.PersonTaskStats;
+import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.enums.Priority;
+import ru.develop.manager.domain.enums.Status;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Счетчики задач пользователей (автор и исполнитель) по статусу и приоритету.
+ * Меняются в транзакции изменения задач одним JDBC batch'ем, чтение - по ключу пользователя
+ * без запросов к задачам. Задачи без статуса или приоритета не считаются
+ */
+public interface TaskStatsService {
+
+    /**
+     * Учет изменения задач: состояния до изменения вычитаются, после - прибавляются.
+     * Вызывать в транзакции изменения
+     * @param removed Состояния задач до изменения (для новых задач - пусто)
+     * @param added Состояния задач после изменения (для удаленных задач - пусто)
+     */
+    void apply(Collection<TaskState> removed, Collection<TaskState> added);
+
+    /**
+     * Учет массового перехода по счетчикам выбранных задач.
+     * Вызывать в транзакции перехода до UPDATE
+     * @param taskIds Итендификаторы задач
+     * @param status Новый статус или null
+     * @param priority Новый приоритет или null
+     */
+    void transition(Collection<Long> taskIds, Status status, Priority priority);
+
+    /**
+     * Счетчики пользователя
+     * @param personId Итендификатор пользователя
+     * @return Ненулевые и обнуленные счетчики, отсутствующие равны 0
+     */
+    List<PersonTaskStats> findStats(Long personId);
+
+    /**
+     * Сверка счетчиков всех пользователей с задачами и исправление расхождений
+     * @return Количество исправленных счетчиков
+     */
+    long reconcile();
+
+    /**
+     * Состояние задачи, от которого зависят счетчики
+     * @param authorId Итендификатор автора
+     * @param executorIds Итендификаторы исполнителей
+     */
+    record TaskState(Long authorId, Set<Long> executorIds, Status status, Priority priority) {
+
+        public static TaskState of(Task task) {
+            Set<Long> executorIds = new HashSet<>();
+            if (task.getExecutors() != null) {
+                for (Person executor : task.getExecutors()) executorIds.add(executor.getId());
+            }
+            return new TaskState(task.getAuthor() == null ? null : task.getAuthor().getId(), executorIds,
+                    task.getStatus(), task.getPriority());
+        }
+    }
+}
@@ -44,18 +44,34 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public Person createPerson(Person person) throws WrongDataException {
-        if (!person.getPassword().equals(person.getRepeatPassword())) {
-            throw new WrongDataException("Ваши пароли не совпадают");
-        }
-
-        if (personService.findByEmail(person.getEmail()).isPresent()) {
-            throw new WrongDataException("Пользователь с указанным именем уже существует");
-        }
+        checkNewPerson(person);
         return personService.createPerson(person);
     }
 
     @Override
     public Person createAdmin(Person person) throws WrongDataException {
+        checkNewPerson(person);
+        return personService.createPerson(person);
+    }
+
+    @Override
+    public String encodePassword(String rawPassword) {
+        return personService.encodePassword(rawPassword);
+    }
+
+    @Override
+    public Person createPerson(Person person, String encodedPassword) throws WrongDataException {
+        checkNewPerson(person);
+        return personService.createPerson(person, encodedPassword);
+    }
+
+    @Override
+    public Person createAdmin(Person person, String encodedPassword) throws WrongDataException {
+        checkNewPerson(person);
+        return personService.createPerson(person, encodedPassword);
+    }
+
+    private void checkNewPerson(Person person) throws WrongDataException {
         if (!person.getPassword().equals(person.getRepeatPassword())) {
             throw new WrongDataException("Ваши пароли не совпадают");
         }
@@ -63,6 +79,5 @@ public class AuthServiceImpl implements AuthService {
         if (personService.findByEmail(person.getEmail()).isPresent()) {
             throw new WrongDataException("Пользователь с указанным именем уже существует");
         }
-        return personService.createPerson(person);
     }
 }
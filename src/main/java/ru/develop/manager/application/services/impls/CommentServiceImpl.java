@@ -0,0 +1,73 @@
+package ru.develop.manager.application.services.impls;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.develop.manager.application.services.CommentService;
+import ru.develop.manager.domain.Comment;
+import ru.develop.manager.extern.repositories.CommentRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Документацию смотреть в интерфейсах
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CommentServiceImpl implements CommentService {
+
+    private final CommentRepository commentRepository;
+
+    /**
+     * Сколько последних комментариев отдавать вместе с задачей
+     */
+    @Value("${task.comments.latest:3}")
+    private int latestLimit;
+
+    @Transactional(readOnly = true)
+    @Override
+    public Page<Comment> findTaskComments(Long taskId, Integer offset, Integer limit) {
+        Page<Comment> comments = commentRepository.findByTaskId(taskId, PageRequest.of(offset, limit));
+        log.info("CommentService: Comment page offset: {}, limit: {}, by task id {} is gotten", offset, limit, taskId);
+        return comments;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Long, Summary> summarize(Collection<Long> taskIds) {
+        Map<Long, Summary> summaries = new HashMap<>();
+        if (taskIds.isEmpty()) return summaries;
+
+        Map<Long, List<Comment>> latest = new HashMap<>();
+        if (latestLimit > 0) {
+            for (Comment comment : commentRepository.findLatestByTaskIds(taskIds, latestLimit)) {
+                latest.computeIfAbsent(comment.getTask().getId(), id -> new ArrayList<>()).add(comment);
+            }
+        }
+        for (CommentRepository.CommentCount count : commentRepository.countByTaskIds(taskIds)) {
+            summaries.put(count.getTaskId(),
+                    new Summary(count.getCount(), latest.getOrDefault(count.getTaskId(), List.of())));
+        }
+        return summaries;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Long, Long> countComments(Collection<Long> taskIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (taskIds.isEmpty()) return counts;
+        for (CommentRepository.CommentCount count : commentRepository.countByTaskIds(taskIds)) {
+            counts.put(count.getTaskId(), count.getCount());
+        }
+        return counts;
+    }
+}
@@ -1,19 +1,23 @@
 package ru.develop.manager.application.services.impls;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.develop.manager.application.services.PersonService;
 import ru.develop.manager.domain.Person;
 import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.enums.Role;
+import ru.develop.manager.extern.cache.PersonCache;
 import ru.develop.manager.extern.repositories.PersonRepository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -26,42 +30,110 @@ public class PersonServiceImpl implements PersonService {
 
     private final PersonRepository personRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PersonCache personCache;
 
-    public PersonServiceImpl(PersonRepository personRepository, @Lazy PasswordEncoder passwordEncoder) {
+    public PersonServiceImpl(PersonRepository personRepository, @Lazy PasswordEncoder passwordEncoder, PersonCache personCache) {
         this.personRepository = personRepository;
         this.passwordEncoder = passwordEncoder;
+        this.personCache = personCache;
     }
 
     @Override
     public Person createPerson(Person person){
-        person.setPassword(passwordEncoder.encode(person.getPassword()));
+        return createPerson(person, encodePassword(person.getPassword()));
+    }
+
+    @Override
+    public Person createPerson(Person person, String encodedPassword) {
+        person.setPassword(encodedPassword);
         Person createdPerson = personRepository.save(person);
+        personCache.evict(createdPerson);
         log.info("PersonService: Person with name {} {} is created", person.getFirstName(), person.getLastName());
         return createdPerson;
     }
 
+    @Override
+    public String encodePassword(String rawPassword) {
+        return passwordEncoder.encode(rawPassword);
+    }
+
+    /**
+     * Путь аутентификации: пользователь с хэшем пароля всегда из бд, в кэше пароля нет
+     */
+    @Transactional(readOnly = true)
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        Person person = personRepository
-                .findByEmail(email).orElseThrow(() -> new UsernameNotFoundException("No user with email " + email));
+        Person person = personCache.loadByEmail(email, () -> personRepository.findByEmail(email))
+                .orElseThrow(() -> new UsernameNotFoundException("No user with email " + email));
         log.info("PersonService: UserDetails with email {} is found", email);
         return person;
     }
 
+    @Transactional
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Person person = personRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("No user with email " + user.getUsername()));
+        person.setPassword(newPassword);
+        Person updatedPerson = personRepository.save(person);
+        personCache.evict(updatedPerson);
+        log.info("PersonService: password hash of person with email {} is upgraded", user.getUsername());
+        return updatedPerson;
+    }
+
+    @Transactional(readOnly = true)
     @Override
     public Optional<Person> findByEmail(String email) {
-        Optional<Person> optionalPerson =  personRepository.findByEmail(email);
+        Optional<Person> optionalPerson = personCache.getByEmail(email, () -> personRepository.findByEmail(email));
         log.info("PersonService: Optional<Person> is found with email {}", email);
         return optionalPerson;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Optional<Person> findById(Long id) {
-        Optional<Person> optionalPerson = personRepository.findById(id);
+        Optional<Person> optionalPerson = personCache.getById(id, () -> personRepository.findById(id));
         log.info("PersonService: Optional<Person> is found by id {}", id);
         return optionalPerson;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Long, Person> findAllById(Collection<Long> ids) {
+        Map<Long, Person> persons = new HashMap<>();
+        if (ids.isEmpty()) return persons;
+        for (Person person : personRepository.findAllById(ids)) persons.put(person.getId(), person);
+        log.info("PersonService: {} persons are found by {} ids", persons.size(), ids.size());
+        return persons;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<String, Person> findAllByEmail(Collection<String> emails) {
+        Map<String, Person> persons = new HashMap<>();
+        if (emails.isEmpty()) return persons;
+        for (Person person : personRepository.findByEmailIn(emails)) persons.put(person.getEmail(), person);
+        log.info("PersonService: {} persons are found by {} emails", persons.size(), emails.size());
+        return persons;
+    }
+
+    @Transactional
+    @Override
+    public Person changeRole(Long id, String role) {
+        Person person = personRepository.findById(id)
+                .orElseThrow(() -> new NullPointerException("No person with id " + id));
+        try{
+            person.setRole(Role.valueOf(role.toUpperCase()));
+        } catch (Exception e){
+            throw new EnumConstantNotPresentException(Role.class, role);
+        }
+        Person updatedPerson = personRepository.save(person);
+        personCache.evict(updatedPerson);
+        log.info("PersonService: Person with id {} got role {}", id, role);
+        return updatedPerson;
+    }
+
+    @Transactional(readOnly = true)
     @Override
     public List<Long> getTasksId(Long id) {
         Optional<Person> optionalPerson = personRepository.findById(id);
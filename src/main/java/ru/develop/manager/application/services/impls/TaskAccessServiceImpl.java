@@ -0,0 +1,94 @@
+package ru.develop.manager.application.services.impls;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.develop.manager.application.services.TaskAccessService;
+import ru.develop.manager.extern.cache.CacheInvalidationBus;
+import ru.develop.manager.extern.cache.NearCache;
+import ru.develop.manager.extern.repositories.TaskRepository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Документацию смотреть в интерфейсах
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskAccessServiceImpl implements TaskAccessService {
+
+    private final TaskRepository taskRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${task.membership.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${task.membership.cache.ttl:10m}")
+    private Duration cacheTtl;
+
+    /**
+     * Если у исполнителя больше задач, набор id не кэшируется целиком,
+     * и недостающие проверки уходят в индексированный запрос
+     */
+    @Value("${task.membership.max-task-ids:5000}")
+    private int maxTaskIds;
+
+    private NearCache<Membership> memberships;
+
+    @PostConstruct
+    void init() {
+        memberships = cacheInvalidationBus.nearCache("task-access", cacheMaxSize, cacheTtl);
+    }
+
+    @Override
+    public boolean isExecutor(Long personId, Long taskId) {
+        Membership membership = memberships.get(String.valueOf(personId), key -> loadMembership(personId));
+        if (membership.taskIds().contains(taskId)) return true;
+        if (membership.complete()) return false;
+        return taskRepository.existsExecutor(taskId, personId);
+    }
+
+    @Override
+    public void evictExecutors(Collection<Long> personIds) {
+        if (personIds == null || personIds.isEmpty()) return;
+        List<String> ids = personIds.stream().map(String::valueOf).toList();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    memberships.evict(ids);
+                }
+            });
+        } else {
+            memberships.evict(ids);
+        }
+    }
+
+    private Membership loadMembership(Long personId) {
+        List<Long> taskIds = taskRepository.findTaskIdsByExecutorId(personId, PageRequest.of(0, maxTaskIds + 1));
+        boolean complete = taskIds.size() <= maxTaskIds;
+        if (!complete) {
+            taskIds = taskIds.subList(0, maxTaskIds);
+            log.info("TaskAccessService: executor with id {} has more than {} tasks", personId, maxTaskIds);
+        }
+        return new Membership(new HashSet<>(taskIds), complete);
+    }
+
+    /**
+     * Закэшированные id задач исполнителя
+     * @param taskIds id задач
+     * @param complete true, если в наборе все задачи исполнителя
+     */
+    private record Membership(Set<Long> taskIds, boolean complete) {
+    }
+}
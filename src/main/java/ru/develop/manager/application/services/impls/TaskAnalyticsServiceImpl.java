@@ -0,0 +1,167 @@
+package ru.develop.manager.application.services.impls;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.develop.manager.application.services.TaskAnalyticsService;
+import ru.develop.manager.domain.TaskAnalytics;
+import ru.develop.manager.domain.enums.AnalyticsSource;
+import ru.develop.manager.domain.enums.Priority;
+import ru.develop.manager.domain.enums.Status;
+import ru.develop.manager.extern.analytics.TaskColumns;
+import ru.develop.manager.extern.repositories.CommentRepository;
+import ru.develop.manager.extern.repositories.TaskRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Документацию смотреть в интерфейсах
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskAnalyticsServiceImpl implements TaskAnalyticsService {
+
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${task.analytics.source:SQL}")
+    private AnalyticsSource defaultSource;
+
+    /**
+     * Насколько старую аналитику можно отдать без пересчета
+     */
+    @Value("${task.analytics.max-staleness:PT30S}")
+    private Duration maxStaleness;
+
+    /**
+     * Размер списков авторов и исполнителей
+     */
+    @Value("${task.analytics.top:10}")
+    private int top;
+
+    /**
+     * Потоки агрегации снимка, 0 - по количеству процессоров
+     */
+    @Value("${task.analytics.parallelism:0}")
+    private int parallelism;
+
+    private final Map<AnalyticsSource, TaskAnalytics> cached = new ConcurrentHashMap<>();
+    private final Map<AnalyticsSource, CompletableFuture<TaskAnalytics>> computing = new ConcurrentHashMap<>();
+
+    private ForkJoinPool pool;
+    private Counter hits;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        hits = meterRegistry.counter("task.analytics.cache.hits");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public TaskAnalytics getAnalytics(AnalyticsSource source) {
+        AnalyticsSource actual = source == null ? defaultSource : source;
+        TaskAnalytics analytics = cached.get(actual);
+        if (fresh(analytics)) {
+            hits.increment();
+            return analytics;
+        }
+
+        CompletableFuture<TaskAnalytics> own = new CompletableFuture<>();
+        CompletableFuture<TaskAnalytics> running = computing.putIfAbsent(actual, own);
+        if (running != null) return await(running);
+        try {
+            // пока этот поток ждал, аналитику мог пересчитать другой
+            analytics = cached.get(actual);
+            if (!fresh(analytics)) {
+                analytics = meterRegistry.timer("task.analytics.compute", "source", actual.name()).record(() -> compute(actual));
+                cached.put(actual, analytics);
+            }
+            own.complete(analytics);
+            return analytics;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            computing.remove(actual, own);
+        }
+    }
+
+    /**
+     * Подсчет в одной read-only транзакции REPEATABLE READ: все запросы видят одно состояние бд
+     */
+    private TaskAnalytics compute(AnalyticsSource source) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        if (source == AnalyticsSource.SNAPSHOT) {
+            TaskColumns columns = transaction.execute(status -> TaskColumns.load(jdbcTemplate));
+            TaskAnalytics analytics = columns.aggregate(pool, top);
+            log.info("TaskAnalyticsService: analytics of {} tasks are computed from snapshot", columns.size());
+            return analytics;
+        }
+        TaskAnalytics analytics = transaction.execute(status -> {
+            long tasks = taskRepository.count();
+            Map<Status, Map<Priority, Long>> counts = new EnumMap<>(Status.class);
+            for (Status taskStatus : Status.values()) {
+                Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+                for (Priority priority : Priority.values()) byPriority.put(priority, 0L);
+                counts.put(taskStatus, byPriority);
+            }
+            for (TaskRepository.GroupRow row : taskRepository.countByStatusAndPriority()) {
+                counts.get(row.getStatus()).put(row.getPriority(), row.getTasks());
+            }
+            return new TaskAnalytics(tasks, counts,
+                    toPersonTasks(taskRepository.findTopAuthors(PageRequest.of(0, top))),
+                    toPersonTasks(taskRepository.findBusiestExecutors(Status.COMPLETED, PageRequest.of(0, top))),
+                    TaskAnalytics.average(taskRepository.countExecutorLinks(), tasks),
+                    TaskAnalytics.average(commentRepository.count(), tasks),
+                    Instant.now(), AnalyticsSource.SQL);
+        });
+        log.info("TaskAnalyticsService: analytics of {} tasks are computed by queries", analytics.tasks());
+        return analytics;
+    }
+
+    private boolean fresh(TaskAnalytics analytics) {
+        return analytics != null && analytics.computedAt().plus(maxStaleness).isAfter(Instant.now());
+    }
+
+    private static List<TaskAnalytics.PersonTasks> toPersonTasks(List<TaskRepository.PersonTasksRow> rows) {
+        return rows.stream().map(row -> new TaskAnalytics.PersonTasks(row.getPersonId(), row.getTasks())).toList();
+    }
+
+    private static TaskAnalytics await(CompletableFuture<TaskAnalytics> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+}
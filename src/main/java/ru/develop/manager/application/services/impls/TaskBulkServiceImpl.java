@@ -0,0 +1,381 @@
+package ru.develop.manager.application.services.impls;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.develop.manager.application.services.PersonService;
+import ru.develop.manager.application.services.TaskAccessService;
+import ru.develop.manager.application.services.TaskBulkService;
+import ru.develop.manager.application.services.TaskStatsService;
+import ru.develop.manager.application.services.TaskStatsService.TaskState;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.TaskFilter;
+import ru.develop.manager.domain.enums.Priority;
+import ru.develop.manager.domain.enums.Status;
+import ru.develop.manager.domain.events.TaskChangedEvent;
+import ru.develop.manager.domain.events.TaskFeedEvent;
+import ru.develop.manager.extern.DTOs.taskDTO.BulkItemResultDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.BulkResultDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.CreateTaskDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskTransitionDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskTransitionResultDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.UpdateTaskDTO;
+import ru.develop.manager.extern.assemblers.TaskAssembler;
+import ru.develop.manager.extern.exceptions.WrongDataException;
+import ru.develop.manager.extern.repositories.TaskRepository;
+import ru.develop.manager.extern.repositories.TaskSpecifications;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Документацию смотреть в интерфейсах
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskBulkServiceImpl implements TaskBulkService {
+
+    private static final String CREATED = "CREATED";
+    private static final String UPDATED = "UPDATED";
+    private static final String FAILED = "FAILED";
+
+    private final TaskRepository taskRepository;
+    private final PersonService personService;
+    private final TaskAccessService taskAccessService;
+    private final TaskStatsService taskStatsService;
+    private final TaskAssembler taskAssembler;
+    private final Validator validator;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Количество задач в одной транзакции
+     */
+    @Value("${task.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Максимальное количество задач в одном запросе
+     */
+    @Value("${task.bulk.max-items:10000}")
+    private int maxItems;
+
+    @Override
+    public BulkResultDTO createTasks(List<CreateTaskDTO> tasks, Person author) throws WrongDataException {
+        checkSize(tasks);
+        BulkItemResultDTO[] results = new BulkItemResultDTO[tasks.size()];
+        Map<Long, Person> executors = personService.findAllById(executorIds(tasks));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        for (int from = 0; from < tasks.size(); from += chunkSize) {
+            int to = Math.min(tasks.size(), from + chunkSize);
+            List<Integer> indexes = new ArrayList<>();
+            List<Task> chunk = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                try {
+                    chunk.add(toNewTask(tasks.get(i), author, executors));
+                    indexes.add(i);
+                } catch (RuntimeException e) {
+                    results[i] = BulkItemResultDTO.failed(i, null, e.getMessage());
+                }
+            }
+            if (chunk.isEmpty()) continue;
+
+            try {
+                transaction.executeWithoutResult(status -> {
+                    taskRepository.saveAll(chunk);
+                    taskRepository.flush();
+                    taskStatsService.apply(List.of(), chunk.stream().map(TaskState::of).toList());
+                    for (Task task : chunk) {
+                        eventPublisher.publishEvent(TaskChangedEvent.created(task.getId(), task.getTitle(), task.getDescription()));
+                        eventPublisher.publishEvent(TaskFeedEvent.of(task, TaskChangedEvent.Type.CREATED));
+                    }
+                    taskAccessService.evictExecutors(executorIds(chunk));
+                });
+                for (int k = 0; k < chunk.size(); k++) {
+                    results[indexes.get(k)] = BulkItemResultDTO.ok(indexes.get(k), chunk.get(k).getId(), CREATED);
+                }
+            } catch (RuntimeException e) {
+                failChunk(results, indexes, i -> null, e);
+            }
+        }
+        return report(results, "created");
+    }
+
+    @Override
+    public BulkResultDTO updateTasks(List<UpdateTaskDTO> tasks) throws WrongDataException {
+        checkSize(tasks);
+        BulkItemResultDTO[] results = new BulkItemResultDTO[tasks.size()];
+        Map<Long, Person> executors = personService.findAllById(executorIds(tasks));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        for (int from = 0; from < tasks.size(); from += chunkSize) {
+            int to = Math.min(tasks.size(), from + chunkSize);
+            List<Integer> indexes = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                if (tasks.get(i).getId() == null) results[i] = BulkItemResultDTO.failed(i, null, "No task id");
+                else indexes.add(i);
+            }
+            if (indexes.isEmpty()) continue;
+
+            List<Integer> updated = new ArrayList<>();
+            try {
+                transaction.executeWithoutResult(status -> {
+                    Map<Long, Task> found = new HashMap<>();
+                    List<Long> ids = indexes.stream().map(i -> tasks.get(i).getId()).collect(Collectors.toList());
+                    for (Task task : taskRepository.findAllById(ids)) found.put(task.getId(), task);
+
+                    Set<Long> addedExecutors = new HashSet<>();
+                    List<TaskState> before = new ArrayList<>();
+                    List<TaskState> after = new ArrayList<>();
+                    for (Integer i : indexes) {
+                        UpdateTaskDTO update = tasks.get(i);
+                        Task task = found.get(update.getId());
+                        if (task == null) {
+                            results[i] = BulkItemResultDTO.failed(i, update.getId(), "No task with id " + update.getId());
+                            continue;
+                        }
+                        try {
+                            TaskState state = TaskState.of(task);
+                            addedExecutors.addAll(applyUpdate(task, update, executors));
+                            before.add(state);
+                            after.add(TaskState.of(task));
+                            updated.add(i);
+                        } catch (RuntimeException e) {
+                            results[i] = BulkItemResultDTO.failed(i, update.getId(), e.getMessage());
+                        }
+                    }
+                    taskRepository.flush();
+                    taskStatsService.apply(before, after);
+                    for (Integer i : updated) {
+                        Task task = found.get(tasks.get(i).getId());
+                        eventPublisher.publishEvent(TaskChangedEvent.updated(task.getId(), task.getTitle(), task.getDescription()));
+                        eventPublisher.publishEvent(TaskFeedEvent.of(task, TaskChangedEvent.Type.UPDATED));
+                    }
+                    taskAccessService.evictExecutors(addedExecutors);
+                });
+                for (Integer i : updated) {
+                    results[i] = BulkItemResultDTO.ok(i, tasks.get(i).getId(), UPDATED);
+                }
+            } catch (RuntimeException e) {
+                failChunk(results, indexes, i -> tasks.get(i).getId(), e);
+            }
+        }
+        return report(results, "updated");
+    }
+
+    @Override
+    public TaskTransitionResultDTO transitionTasks(TaskTransitionDTO transition) throws WrongDataException {
+        TaskFilter filter = taskAssembler.toTaskFilter(transition.getStatus(), transition.getPriority(),
+                transition.getAuthorId(), transition.getExecutorId(), null);
+        TaskFilter target = taskAssembler.toTaskFilter(transition.getToStatus(), transition.getToPriority(), null, null, null);
+        List<Long> ids = transition.getIds() == null ? null : transition.getIds().stream().distinct().sorted().toList();
+
+        if (target.status() == null && target.priority() == null)
+            throw new WrongDataException("No new status or priority for tasks");
+        if (ids == null && filter.equals(new TaskFilter(null, null, null, null, null)))
+            throw new WrongDataException("No ids or filters to select tasks");
+        if (ids != null) checkSize(ids);
+
+        Specification<Task> specification = TaskSpecifications.of(filter);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long[] counts = new long[3];
+
+        if (ids != null) {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+                transaction.executeWithoutResult(status -> transitionChunk(
+                        taskRepository.findIdsAfter(specification.and(TaskSpecifications.idIn(chunk)), 0L, chunk.size()),
+                        target, counts));
+            }
+        } else {
+            long afterId = 0L;
+            while (true) {
+                long after = afterId;
+                List<Long> chunk = transaction.execute(status -> {
+                    List<Long> selected = taskRepository.findIdsAfter(specification, after, chunkSize);
+                    transitionChunk(selected, target, counts);
+                    return selected;
+                });
+                if (chunk == null || chunk.size() < chunkSize) break;
+                afterId = chunk.get(chunk.size() - 1);
+            }
+        }
+
+        log.info("TaskBulkService: {} tasks are selected for transition, status changed in {}, priority changed in {}",
+                counts[0], counts[1], counts[2]);
+        return new TaskTransitionResultDTO(counts[0], counts[1], counts[2]);
+    }
+
+    /**
+     * Одна часть перехода: счетчики по текущим статусам и приоритетам, UPDATE по выбранным id и события для слушателей кэшей и ленты
+     * @param counts Накопители: выбрано, изменен статус, изменен приоритет
+     */
+    private void transitionChunk(List<Long> ids, TaskFilter target, long[] counts) {
+        if (ids.isEmpty()) return;
+        counts[0] += ids.size();
+        List<TaskFeedEvent> feed = feedEvents(ids, target);
+        taskStatsService.transition(ids, target.status(), target.priority());
+        if (target.status() != null) counts[1] += taskRepository.updateStatus(ids, target.status());
+        if (target.priority() != null) counts[2] += taskRepository.updatePriority(ids, target.priority());
+        for (Long id : ids) {
+            eventPublisher.publishEvent(TaskChangedEvent.changed(id));
+        }
+        feed.forEach(eventPublisher::publishEvent);
+    }
+
+    /**
+     * События ленты по задачам части. Получатели читаются до UPDATE двумя запросами без загрузки задач,
+     * статус и приоритет - уже новые
+     */
+    private List<TaskFeedEvent> feedEvents(List<Long> ids, TaskFilter target) {
+        Map<Long, Set<Long>> recipients = new HashMap<>();
+        for (TaskRepository.TaskPersonRow row : taskRepository.findExecutorRows(ids)) {
+            recipients.computeIfAbsent(row.getTaskId(), id -> new HashSet<>()).add(row.getPersonId());
+        }
+        List<TaskFeedEvent> events = new ArrayList<>();
+        for (TaskRepository.FeedRow row : taskRepository.findFeedRows(ids)) {
+            Set<Long> recipientIds = recipients.computeIfAbsent(row.getTaskId(), id -> new HashSet<>());
+            if (row.getAuthorId() != null) recipientIds.add(row.getAuthorId());
+            events.add(new TaskFeedEvent(row.getTaskId(), TaskChangedEvent.Type.CHANGED, row.getTitle(),
+                    target.status() == null ? row.getStatus() : target.status(),
+                    target.priority() == null ? row.getPriority() : target.priority(),
+                    recipientIds));
+        }
+        return events;
+    }
+
+    private void checkSize(List<?> tasks) throws WrongDataException {
+        if (tasks.size() > maxItems) {
+            throw new WrongDataException("Too many tasks in bulk request: " + tasks.size() + ", max " + maxItems);
+        }
+    }
+
+    /**
+     * Сборка новой задачи с проверкой до транзакции: ошибочная задача не попадает в batch
+     */
+    private Task toNewTask(CreateTaskDTO dto, Person author, Map<Long, Person> executors) {
+        Task task;
+        try {
+            task = taskAssembler.fromDTOToTask(dto);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Wrong status or priority: " + dto.getStatus() + ", " + dto.getPriority());
+        }
+        if (dto.getExecutorsId() != null) {
+            // повтор исполнителя в запросе нарушил бы уникальность task_executors
+            for (Long id : new LinkedHashSet<>(dto.getExecutorsId())) {
+                task.getExecutors().add(executor(executors, id));
+            }
+        }
+        task.setAuthor(author);
+        if (task.getPriority() == null) task.setPriority(Priority.MEDIUM);
+        if (task.getStatus() == null) task.setStatus(Status.APPOINTED);
+
+        Set<ConstraintViolation<Task>> violations = validator.validate(task);
+        if (!violations.isEmpty()) throw new IllegalArgumentException(describe(violations));
+        return task;
+    }
+
+    /**
+     * Все значения проверяются до изменения задачи, чтобы ошибочное обновление
+     * не попало в flush вместе с остальными
+     * @return id добавленных исполнителей
+     */
+    private List<Long> applyUpdate(Task task, UpdateTaskDTO update, Map<Long, Person> executors) {
+        Status status;
+        Priority priority;
+        try {
+            status = update.getStatus() == null ? null : Status.valueOf(update.getStatus().toUpperCase());
+            priority = update.getPriority() == null ? null : Priority.valueOf(update.getPriority().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Wrong status or priority: " + update.getStatus() + ", " + update.getPriority());
+        }
+        Set<ConstraintViolation<Task>> violations = new HashSet<>();
+        if (update.getTitle() != null) violations.addAll(validator.validateValue(Task.class, "title", update.getTitle()));
+        if (update.getDescription() != null) violations.addAll(validator.validateValue(Task.class, "description", update.getDescription()));
+        if (!violations.isEmpty()) throw new IllegalArgumentException(describe(violations));
+
+        Set<Long> current = task.getExecutors().stream().map(Person::getId).collect(Collectors.toSet());
+        List<Person> added = new ArrayList<>();
+        if (update.getExecutorsId() != null) {
+            for (Long id : update.getExecutorsId()) {
+                if (!current.contains(id) && added.stream().noneMatch(p -> p.getId().equals(id))) added.add(executor(executors, id));
+            }
+        }
+
+        if (update.getTitle() != null) task.setTitle(update.getTitle());
+        if (update.getDescription() != null) task.setDescription(update.getDescription());
+        if (status != null) task.setStatus(status);
+        if (priority != null) task.setPriority(priority);
+        task.getExecutors().addAll(added);
+        return added.stream().map(Person::getId).collect(Collectors.toList());
+    }
+
+    private static Person executor(Map<Long, Person> executors, Long id) {
+        Person executor = executors.get(id);
+        if (executor == null) throw new NullPointerException("No executor with id " + id);
+        return executor;
+    }
+
+    private static Set<Long> executorIds(Collection<? extends CreateTaskDTO> tasks) {
+        Set<Long> ids = new HashSet<>();
+        for (CreateTaskDTO task : tasks) {
+            if (task.getExecutorsId() != null) ids.addAll(task.getExecutorsId());
+        }
+        return ids;
+    }
+
+    private static Set<Long> executorIds(List<Task> tasks) {
+        Set<Long> ids = new HashSet<>();
+        for (Task task : tasks) {
+            for (Person executor : task.getExecutors()) ids.add(executor.getId());
+        }
+        return ids;
+    }
+
+    private static String describe(Set<ConstraintViolation<Task>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Транзакция части откатилась: все ее задачи без своей ошибки помечаются ошибкой транзакции
+     */
+    private static void failChunk(BulkItemResultDTO[] results, List<Integer> indexes, IntFunction<Long> idOf, RuntimeException e) {
+        String error = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        log.error("TaskBulkService: chunk of {} tasks is rolled back", indexes.size(), e);
+        for (Integer i : indexes) {
+            if (results[i] == null || !FAILED.equals(results[i].getStatus())) {
+                results[i] = BulkItemResultDTO.failed(i, idOf.apply(i), error);
+            }
+        }
+    }
+
+    private static BulkResultDTO report(BulkItemResultDTO[] results, String action) {
+        List<BulkItemResultDTO> items = Arrays.asList(results);
+        int failed = (int) items.stream().filter(item -> FAILED.equals(item.getStatus())).count();
+        log.info("TaskBulkService: {} tasks are {} in bulk, {} failed", items.size() - failed, action, failed);
+        return new BulkResultDTO(items.size() - failed, failed, items);
+    }
+}
@@ -0,0 +1,120 @@
+package ru.develop.manager.application.services.impls;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.develop.manager.application.services.CommentService;
+import ru.develop.manager.application.services.TaskExportService;
+import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.enums.FileFormat;
+import ru.develop.manager.extern.DTOs.personDTO.InfoPersonDto;
+import ru.develop.manager.extern.DTOs.taskDTO.ExportTaskDTO;
+import ru.develop.manager.extern.assemblers.TaskAssembler;
+import ru.develop.manager.extern.repositories.TaskRepository;
+import ru.develop.manager.extern.utils.Csv;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Документацию смотреть в интерфейсах
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskExportServiceImpl implements TaskExportService {
+
+    private static final String[] CSV_HEADER = {"id", "version", "title", "description", "status", "priority",
+            "author_email", "executor_emails", "comments_count"};
+
+    private final TaskRepository taskRepository;
+    private final CommentService commentService;
+    private final TaskAssembler taskAssembler;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Сколько задач собирается перед записью: на часть идет по запросу за исполнителями
+     * и количеством комментариев, после нее контекст персистентности очищается
+     */
+    @Value("${task.export.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public long exportTasks(FileFormat format, OutputStream out) throws IOException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            Long exported = transaction.execute(status -> {
+                try (Stream<Task> tasks = taskRepository.streamAll()) {
+                    return write(tasks, format, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("TaskExportService: {} tasks are exported as {}", exported, format);
+            return exported == null ? 0 : exported;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long write(Stream<Task> tasks, FileFormat format, Writer writer) throws IOException {
+        if (format == FileFormat.CSV) writer.write(Csv.line((Object[]) CSV_HEADER));
+
+        long exported = 0;
+        List<Task> batch = new ArrayList<>(batchSize);
+        Iterator<Task> iterator = tasks.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            if (batch.size() == batchSize || !iterator.hasNext()) {
+                writeBatch(batch, format, writer);
+                exported += batch.size();
+                batch.clear();
+                // загруженные задачи больше не нужны, иначе контекст растет вместе с выгрузкой
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+        return exported;
+    }
+
+    private void writeBatch(List<Task> batch, FileFormat format, Writer writer) throws IOException {
+        Map<Long, Long> commentCounts = commentService.countComments(batch.stream().map(Task::getId).toList());
+        for (Task task : batch) {
+            ExportTaskDTO dto = taskAssembler.fromTaskToExportDTO(task, commentCounts.getOrDefault(task.getId(), 0L));
+            if (format == FileFormat.NDJSON) {
+                writer.write(objectMapper.writeValueAsString(dto));
+                writer.write('\n');
+            } else {
+                writer.write(Csv.line(dto.getId(), dto.getVersion(), dto.getTitle(), dto.getDescription(),
+                        dto.getStatus(), dto.getPriority(), dto.getAuthor() == null ? null : dto.getAuthor().getEmail(),
+                        dto.getExecutors().stream().map(InfoPersonDto::getEmail).collect(Collectors.joining(";")),
+                        dto.getCommentsCount()));
+            }
+        }
+        // часть уходит клиенту сразу, ответ идет chunked
+        writer.flush();
+    }
+}
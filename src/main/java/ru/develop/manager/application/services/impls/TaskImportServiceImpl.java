@@ -0,0 +1,388 @@
+package ru.develop.manager.application.services.impls;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.develop.manager.application.services.PersonService;
+import ru.develop.manager.application.services.TaskAccessService;
+import ru.develop.manager.application.services.TaskImportService;
+import ru.develop.manager.application.services.TaskStatsService;
+import ru.develop.manager.application.services.TaskStatsService.TaskState;
+import ru.develop.manager.domain.Comment;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.TaskImport;
+import ru.develop.manager.domain.enums.FileFormat;
+import ru.develop.manager.domain.enums.Priority;
+import ru.develop.manager.domain.enums.Status;
+import ru.develop.manager.domain.events.TaskChangedEvent;
+import ru.develop.manager.domain.events.TaskFeedEvent;
+import ru.develop.manager.extern.DTOs.taskDTO.ImportTaskDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskImportResultDTO;
+import ru.develop.manager.extern.exceptions.WrongDataException;
+import ru.develop.manager.extern.repositories.TaskImportRepository;
+import ru.develop.manager.extern.repositories.TaskRepository;
+import ru.develop.manager.extern.utils.Csv;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Документацию смотреть в интерфейсах
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskImportServiceImpl implements TaskImportService {
+
+    private static final String INSERT_COMMENT = "INSERT INTO comment (comment, task_id) VALUES (?, ?)";
+
+    private final TaskRepository taskRepository;
+    private final TaskImportRepository taskImportRepository;
+    private final PersonService personService;
+    private final TaskAccessService taskAccessService;
+    private final TaskStatsService taskStatsService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Количество записей файла в одной транзакции
+     */
+    @Value("${task.import.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Сколько пользователей по email помнить за загрузку, чтобы не искать их в каждой части заново
+     */
+    @Value("${task.import.person-cache-size:10000}")
+    private int personCacheSize;
+
+    /**
+     * Сколько ошибок записей возвращать в отчете
+     */
+    @Value("${task.import.max-errors:100}")
+    private int maxErrors;
+
+    @Override
+    public TaskImportResultDTO importTasks(InputStream in, FileFormat format, Long importId, Person author)
+            throws WrongDataException, IOException {
+        TaskImport checkpoint;
+        if (importId == null) {
+            checkpoint = taskImportRepository.save(new TaskImport(format));
+        } else {
+            checkpoint = taskImportRepository.findById(importId)
+                    .orElseThrow(() -> new WrongDataException("No import with id " + importId));
+            if (checkpoint.getFormat() != format)
+                throw new WrongDataException("Import " + importId + " is started as " + checkpoint.getFormat());
+        }
+        List<String> errors = new ArrayList<>();
+        if (checkpoint.getState() == TaskImport.State.COMPLETED) return report(checkpoint, errors);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        RecordReader records = format == FileFormat.NDJSON ? ndjson(reader) : csv(reader);
+        Map<String, Optional<Person>> persons = personLookup();
+
+        long skipped = 0;
+        while (skipped < checkpoint.getProcessed() && read(records, skipped + 1) != null) skipped++;
+        if (skipped > 0) log.info("TaskImportService: import {} resumes after {} records", checkpoint.getId(), skipped);
+
+        List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+        long number = skipped;
+        ImportRecord record;
+        while ((record = read(records, ++number)) != null) {
+            chunk.add(record);
+            if (chunk.size() == chunkSize) {
+                checkpoint = writeChunk(checkpoint, chunk, author, persons, errors);
+                chunk.clear();
+                if (checkpoint.getState() == TaskImport.State.FAILED) return report(checkpoint, errors);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            checkpoint = writeChunk(checkpoint, chunk, author, persons, errors);
+            if (checkpoint.getState() == TaskImport.State.FAILED) return report(checkpoint, errors);
+        }
+
+        checkpoint.setState(TaskImport.State.COMPLETED);
+        checkpoint.setError(null);
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpoint = taskImportRepository.save(checkpoint);
+        log.info("TaskImportService: import {} is completed, {} tasks are created, {} records failed",
+                checkpoint.getId(), checkpoint.getCreated(), checkpoint.getFailed());
+        return report(checkpoint, errors);
+    }
+
+    /**
+     * Одна часть: задачи и комментарии JDBC batch'ами и контрольная точка в одной транзакции.
+     * Если транзакция откатилась, загрузка останавливается с контрольной точкой до этой части
+     * @return Сохраненная контрольная точка
+     */
+    private TaskImport writeChunk(TaskImport checkpoint, List<ImportRecord> chunk, Person author,
+                                  Map<String, Optional<Person>> persons, List<String> errors) {
+        resolvePersons(chunk, persons);
+
+        List<Task> tasks = new ArrayList<>();
+        List<List<String>> comments = new ArrayList<>();
+        List<String> chunkErrors = new ArrayList<>();
+        for (ImportRecord record : chunk) {
+            try {
+                if (record.error() != null) throw new IllegalArgumentException(record.error());
+                tasks.add(toNewTask(record.task(), author, persons));
+                comments.add(record.task().getComments() == null ? List.of() : record.task().getComments());
+            } catch (RuntimeException e) {
+                chunkErrors.add("Record " + record.number() + ": " + e.getMessage());
+            }
+        }
+
+        TaskImport next = copy(checkpoint);
+        next.setProcessed(checkpoint.getProcessed() + chunk.size());
+        next.setCreated(checkpoint.getCreated() + tasks.size());
+        next.setFailed(checkpoint.getFailed() + chunkErrors.size());
+        next.setUpdatedAt(Instant.now());
+        try {
+            TaskImport saved = new TransactionTemplate(transactionManager).execute(status -> {
+                if (!tasks.isEmpty()) {
+                    taskRepository.saveAll(tasks);
+                    taskRepository.flush();
+                    insertComments(tasks, comments);
+                    taskStatsService.apply(List.of(), tasks.stream().map(TaskState::of).toList());
+                    for (int i = 0; i < tasks.size(); i++) {
+                        Task task = tasks.get(i);
+                        eventPublisher.publishEvent(TaskChangedEvent.created(task.getId(), task.getTitle(), task.getDescription()));
+                        eventPublisher.publishEvent(TaskFeedEvent.of(task, TaskChangedEvent.Type.CREATED));
+                        for (String comment : comments.get(i)) {
+                            eventPublisher.publishEvent(TaskChangedEvent.commented(task.getId(), comment));
+                        }
+                    }
+                    taskAccessService.evictExecutors(executorIds(tasks));
+                }
+                return taskImportRepository.saveAndFlush(next);
+            });
+            for (String error : chunkErrors) {
+                if (errors.size() < maxErrors) errors.add(error);
+            }
+            return saved;
+        } catch (RuntimeException e) {
+            String error = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.error("TaskImportService: import {} is stopped after {} records", checkpoint.getId(), checkpoint.getProcessed(), e);
+            checkpoint.setState(TaskImport.State.FAILED);
+            checkpoint.setError(error == null ? null : error.substring(0, Math.min(error.length(), 1000)));
+            checkpoint.setUpdatedAt(Instant.now());
+            try {
+                return taskImportRepository.save(checkpoint);
+            } catch (RuntimeException saveError) {
+                log.error("TaskImportService: checkpoint of import {} is not saved", checkpoint.getId(), saveError);
+                return checkpoint;
+            }
+        }
+    }
+
+    /**
+     * Комментарии одним JDBC batch'ем, без id на каждую строку (id комментария - IDENTITY)
+     */
+    private void insertComments(List<Task> tasks, List<List<String>> comments) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            for (String comment : comments.get(i)) rows.add(new Object[]{comment, tasks.get(i).getId()});
+        }
+        if (!rows.isEmpty()) jdbcTemplate.batchUpdate(INSERT_COMMENT, rows);
+    }
+
+    /**
+     * Недостающие в кэше пользователи части ищутся одним запросом, ненайденные тоже запоминаются
+     */
+    private void resolvePersons(List<ImportRecord> chunk, Map<String, Optional<Person>> persons) {
+        Set<String> missing = new HashSet<>();
+        for (ImportRecord record : chunk) {
+            if (record.task() == null) continue;
+            if (record.task().getAuthorEmail() != null) missing.add(record.task().getAuthorEmail());
+            if (record.task().getExecutorEmails() != null) missing.addAll(record.task().getExecutorEmails());
+        }
+        missing.removeIf(persons::containsKey);
+        if (missing.isEmpty()) return;
+
+        Map<String, Person> found = personService.findAllByEmail(missing);
+        for (String email : missing) persons.put(email, Optional.ofNullable(found.get(email)));
+    }
+
+    /**
+     * Сборка новой задачи с проверкой до транзакции: ошибочная задача не попадает в batch
+     */
+    private Task toNewTask(ImportTaskDTO dto, Person author, Map<String, Optional<Person>> persons) {
+        Task task = new Task();
+        task.setTitle(dto.getTitle());
+        task.setDescription(dto.getDescription());
+        try {
+            task.setStatus(dto.getStatus() == null ? Status.APPOINTED : Status.valueOf(dto.getStatus().toUpperCase()));
+            task.setPriority(dto.getPriority() == null ? Priority.MEDIUM : Priority.valueOf(dto.getPriority().toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Wrong status or priority: " + dto.getStatus() + ", " + dto.getPriority());
+        }
+        task.setAuthor(dto.getAuthorEmail() == null ? author : person(persons, dto.getAuthorEmail(), "author"));
+        if (dto.getExecutorEmails() != null) {
+            for (String email : new LinkedHashSet<>(dto.getExecutorEmails())) {
+                task.getExecutors().add(person(persons, email, "executor"));
+            }
+        }
+
+        Set<ConstraintViolation<?>> violations = new HashSet<>(validator.validate(task));
+        if (dto.getComments() != null) {
+            for (String comment : dto.getComments()) {
+                violations.addAll(validator.validateValue(Comment.class, "comment", comment));
+            }
+        }
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return task;
+    }
+
+    private static Person person(Map<String, Optional<Person>> persons, String email, String role) {
+        return persons.getOrDefault(email, Optional.empty())
+                .orElseThrow(() -> new NullPointerException("No " + role + " with email " + email));
+    }
+
+    private static Set<Long> executorIds(List<Task> tasks) {
+        Set<Long> ids = new HashSet<>();
+        for (Task task : tasks) {
+            for (Person executor : task.getExecutors()) ids.add(executor.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Кэш пользователей по email на время загрузки, вытесняются давно не встречавшиеся
+     */
+    private Map<String, Optional<Person>> personLookup() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<Person>> eldest) {
+                return size() > personCacheSize;
+            }
+        };
+    }
+
+    /**
+     * Сохраняется копия: если транзакция части откатится, в памяти останется прежняя контрольная точка
+     */
+    private static TaskImport copy(TaskImport checkpoint) {
+        TaskImport copy = new TaskImport(checkpoint.getFormat());
+        copy.setId(checkpoint.getId());
+        copy.setVersion(checkpoint.getVersion());
+        copy.setState(TaskImport.State.RUNNING);
+        return copy;
+    }
+
+    private static TaskImportResultDTO report(TaskImport checkpoint, List<String> errors) {
+        return new TaskImportResultDTO(checkpoint.getId(), checkpoint.getState().name(), checkpoint.getProcessed(),
+                checkpoint.getCreated(), checkpoint.getFailed(), errors);
+    }
+
+    private static ImportRecord read(RecordReader records, long number) throws IOException {
+        try {
+            ImportTaskDTO task = records.next();
+            return task == null ? null : new ImportRecord(number, task, null);
+        } catch (IllegalArgumentException e) {
+            return new ImportRecord(number, null, e.getMessage());
+        }
+    }
+
+    private RecordReader ndjson(BufferedReader reader) {
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) return null;
+            } while (line.isBlank());
+            try {
+                return objectMapper.readValue(line, ImportTaskDTO.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+            }
+        };
+    }
+
+    private static RecordReader csv(BufferedReader reader) throws IOException {
+        List<String> header = Csv.readRecord(reader);
+        Map<String, Integer> columns = new HashMap<>();
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) columns.put(header.get(i).trim().toLowerCase(), i);
+        }
+        return () -> {
+            List<String> values;
+            do {
+                values = Csv.readRecord(reader);
+                if (values == null) return null;
+            } while (values.size() == 1 && values.get(0).isEmpty());
+
+            ImportTaskDTO task = new ImportTaskDTO();
+            task.setTitle(column(values, columns, "title"));
+            task.setDescription(column(values, columns, "description"));
+            task.setStatus(column(values, columns, "status"));
+            task.setPriority(column(values, columns, "priority"));
+            task.setAuthorEmail(column(values, columns, "author_email"));
+            String executors = column(values, columns, "executor_emails");
+            if (executors != null) task.setExecutorEmails(Arrays.asList(executors.split(";")));
+            String comments = column(values, columns, "comments");
+            if (comments != null) task.setComments(Arrays.asList(comments.split("\r?\n")));
+            return task;
+        };
+    }
+
+    /**
+     * @return Значение колонки или null, если колонки нет или значение пустое
+     */
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size() || values.get(index).isEmpty()) return null;
+        return values.get(index);
+    }
+
+    /**
+     * Разбор файла по одной записи
+     */
+    private interface RecordReader {
+        /**
+         * @return Следующая запись или null в конце файла
+         * @throws IllegalArgumentException выбрасывается, если запись не разобрать (остальные читаются дальше)
+         */
+        ImportTaskDTO next() throws IOException;
+    }
+
+    /**
+     * @param number Номер записи в файле, счет от 1
+     * @param error Ошибка разбора записи
+     */
+    private record ImportRecord(long number, ImportTaskDTO task, String error) {
+    }
+}
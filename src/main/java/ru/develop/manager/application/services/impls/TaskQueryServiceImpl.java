@@ -0,0 +1,105 @@
+package ru.develop.manager.application.services.impls;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.develop.manager.application.services.CommentService;
+import ru.develop.manager.application.services.TaskQueryService;
+import ru.develop.manager.application.services.TaskService;
+import ru.develop.manager.domain.TaskFilter;
+import ru.develop.manager.extern.DTOs.InfoCommentDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.InfoTaskDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskCursorPageDTO;
+import ru.develop.manager.extern.assemblers.TaskAssembler;
+import ru.develop.manager.extern.cache.TaskCache;
+import ru.develop.manager.extern.exceptions.WrongDataException;
+import ru.develop.manager.extern.search.FullTextIndex;
+import ru.develop.manager.extern.search.FullTextIndexer;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Документацию смотреть в интерфейсах
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TaskQueryServiceImpl implements TaskQueryService {
+
+    private final TaskService taskService;
+    private final CommentService commentService;
+    private final TaskAssembler taskAssembler;
+    private final FullTextIndexer fullTextIndexer;
+    private final TaskCache taskCache;
+
+    /**
+     * Максимальное количество задач полнотекстового поиска
+     */
+    @Value("${search.fulltext.max-limit:100}")
+    private int maxFullTextLimit;
+
+    @Override
+    public InfoTaskDTO findTaskById(Long id) {
+        return taskCache.get(id, () -> taskAssembler.fromTaskToDTO(taskService.findTaskById(id)));
+    }
+
+    @Override
+    public Long findTaskVersion(Long id) {
+        return taskService.findTaskVersion(id);
+    }
+
+    @Override
+    public Page<InfoTaskDTO> findTaskByAuthorId(Long authorId, Integer offset, Integer limit) {
+        return taskAssembler.fromTaskPageToDTO(taskService.findTaskByAuthorId(authorId, offset, limit));
+    }
+
+    @Override
+    public Page<InfoTaskDTO> findTaskByExecutorId(Long executorId, Integer offset, Integer limit) {
+        return taskAssembler.fromTaskPageToDTO(taskService.findTaskByExecutorId(executorId, offset, limit));
+    }
+
+    @Override
+    public Page<InfoTaskDTO> findAllTasks(Integer offset, Integer limit) {
+        return taskAssembler.fromTaskPageToDTO(taskService.findAllTasks(offset, limit));
+    }
+
+    @Override
+    public TaskCursorPageDTO findAllTasksAfter(Long afterId, Integer limit) {
+        return taskAssembler.fromTaskSliceToDTO(taskService.findAllTasksAfter(afterId, limit));
+    }
+
+    @Override
+    public TaskCursorPageDTO findTaskByAuthorIdAfter(Long authorId, Long afterId, Integer limit) {
+        return taskAssembler.fromTaskSliceToDTO(taskService.findTaskByAuthorIdAfter(authorId, afterId, limit));
+    }
+
+    @Override
+    public TaskCursorPageDTO findTaskByExecutorIdAfter(Long executorId, Long afterId, Integer limit) {
+        return taskAssembler.fromTaskSliceToDTO(taskService.findTaskByExecutorIdAfter(executorId, afterId, limit));
+    }
+
+    @Override
+    public Slice<InfoTaskDTO> searchTasks(TaskFilter filter, Integer offset, Integer limit, boolean withCount) {
+        return taskAssembler.fromTaskSliceToDTOs(taskService.searchTasks(filter, offset, limit, withCount));
+    }
+
+    @Override
+    public List<InfoTaskDTO> searchFullText(String query, Integer limit) throws WrongDataException {
+        if (limit < 1 || limit > maxFullTextLimit) {
+            throw new WrongDataException("Количество задач должно быть от 1 до " + maxFullTextLimit);
+        }
+        List<Long> ids = fullTextIndexer.search(query, limit).stream()
+                .map(FullTextIndex.Hit::taskId)
+                .collect(Collectors.toList());
+        return taskAssembler.fromTasksToDTO(taskService.findTasksByIds(ids));
+    }
+
+    @Override
+    public Page<InfoCommentDTO> findTaskComments(Long taskId, Integer offset, Integer limit) {
+        return commentService.findTaskComments(taskId, offset, limit).map(taskAssembler::fromCommentToDTO);
+    }
+}
@@ -4,23 +4,41 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Hibernate;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.develop.manager.application.services.PersonService;
+import ru.develop.manager.application.services.TaskAccessService;
 import ru.develop.manager.application.services.TaskService;
+import ru.develop.manager.application.services.TaskStatsService;
+import ru.develop.manager.application.services.TaskStatsService.TaskState;
 import ru.develop.manager.domain.Comment;
 import ru.develop.manager.domain.Person;
 import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.TaskFilter;
 import ru.develop.manager.domain.enums.Priority;
 import ru.develop.manager.domain.enums.Status;
+import ru.develop.manager.domain.events.TaskChangedEvent;
+import ru.develop.manager.domain.events.TaskFeedEvent;
+import ru.develop.manager.extern.exceptions.PreconditionFailedException;
+import ru.develop.manager.extern.repositories.CommentRepository;
 import ru.develop.manager.extern.repositories.TaskRepository;
+import ru.develop.manager.extern.repositories.TaskSpecifications;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Документацию смотреть в интерфейсах
@@ -31,14 +49,19 @@ import java.util.List;
 public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
     private final PersonService personService;
+    private final TaskAccessService taskAccessService;
+    private final TaskStatsService taskStatsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     @Override
     public Task createTask(@Valid Task task, Person author, List<Long> executorsId) {
 
         if (executorsId == null) executorsId = new ArrayList<>();
-        for (Long id : executorsId){
+        // пара (задача, исполнитель) уникальна
+        for (Long id : new LinkedHashSet<>(executorsId)){
             Person executor = personService.findById(id).orElseThrow(() -> new NullPointerException("No executor with id " + id));
             task.getExecutors().add(executor);
         }
@@ -50,6 +73,10 @@ public class TaskServiceImpl implements TaskService {
         if (task.getStatus() == null) task.setStatus(Status.APPOINTED);
 
         Task createdTask = taskRepository.save(task);
+        taskStatsService.apply(List.of(), List.of(TaskState.of(createdTask)));
+        taskAccessService.evictExecutors(executorsId);
+        eventPublisher.publishEvent(TaskChangedEvent.created(createdTask.getId(), createdTask.getTitle(), createdTask.getDescription()));
+        eventPublisher.publishEvent(TaskFeedEvent.of(createdTask, TaskChangedEvent.Type.CREATED));
         log.info("TaskService: Task with title {} is created", task.getTitle());
 
         return createdTask;
@@ -57,16 +84,27 @@ public class TaskServiceImpl implements TaskService {
 
     @Transactional
     @Override
-    public Task updateTaskInfo(Long id, String title, String description) {
+    public Task updateTaskInfo(Long id, String title, String description, Long expectedVersion) {
         Task task = taskRepository.findById(id).orElseThrow(() -> new NullPointerException("No task with id " + id));
+        checkVersion(task, expectedVersion);
         if (title != null) task.setTitle(title);
         if (description != null) task.setDescription(description);
 
         Task updatedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(id, updatedTask.getTitle(), updatedTask.getDescription()));
+        eventPublisher.publishEvent(TaskFeedEvent.of(updatedTask, TaskChangedEvent.Type.UPDATED));
         log.info("TaskService: Task with id {} id updated", id);
         return updatedTask;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public Long findTaskVersion(Long id) {
+        return taskRepository.findVersionById(id)
+                .orElseThrow(() -> new NullPointerException("No task with id " + id));
+    }
+
+    @Transactional(readOnly = true)
     @Override
     public Task findTaskById(Long id) {
         Task task = taskRepository.findById(id)
@@ -76,6 +114,7 @@ public class TaskServiceImpl implements TaskService {
         return task;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Page<Task> findTaskByAuthorId(Long authorId,  Integer offset, Integer limit) {
         Person author = personService.findById(authorId)
@@ -85,6 +124,7 @@ public class TaskServiceImpl implements TaskService {
         return tasks;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Page<Task> findTaskByExecutorId(Long executorId,  Integer offset, Integer limit) {
         Page<Task> tasks = taskRepository.findByExecutorsId(executorId, PageRequest.of(offset, limit));
@@ -93,6 +133,7 @@ public class TaskServiceImpl implements TaskService {
     }
 
 
+    @Transactional(readOnly = true)
     @Override
     public Page<Task> findAllTasks(Integer offset, Integer limit) {
         Page<Task> tasks = taskRepository.findAll(PageRequest.of(offset, limit));
@@ -100,68 +141,153 @@ public class TaskServiceImpl implements TaskService {
         return tasks;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<Task> findAllTasksAfter(Long afterId, Integer limit) {
+        Slice<Task> tasks = taskRepository.findAllAfter(afterId, PageRequest.of(0, limit));
+        log.info("TaskService: Task slice after id: {}, limit: {} is gotten", afterId, limit);
+        return tasks;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<Task> findTaskByAuthorIdAfter(Long authorId, Long afterId, Integer limit) {
+        Slice<Task> tasks = taskRepository.findByAuthorIdAfter(authorId, afterId, PageRequest.of(0, limit));
+        log.info("TaskService: Task slice after id: {}, limit: {}, by author id {} is gotten", afterId, limit, authorId);
+        return tasks;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<Task> findTaskByExecutorIdAfter(Long executorId, Long afterId, Integer limit) {
+        Slice<Task> tasks = taskRepository.findByExecutorIdAfter(executorId, afterId, PageRequest.of(0, limit));
+        log.info("TaskService: Task slice after id: {}, limit: {}, by executor id {} is gotten", afterId, limit, executorId);
+        return tasks;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<Task> findTasksByIds(List<Long> ids) {
+        Map<Long, Task> tasks = new HashMap<>();
+        for (Task task : taskRepository.findAllById(ids)) tasks.put(task.getId(), task);
+        log.info("TaskService: {} tasks are found by {} ids", tasks.size(), ids.size());
+        return ids.stream().map(tasks::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<Task> searchTasks(TaskFilter filter, Integer offset, Integer limit, boolean withCount) {
+        PageRequest pageRequest = PageRequest.of(offset, limit, Sort.by("id"));
+        Specification<Task> specification = TaskSpecifications.of(filter);
+        Slice<Task> tasks = withCount
+                ? taskRepository.findAll(specification, pageRequest)
+                : taskRepository.findSlice(specification, pageRequest);
+        log.info("TaskService: Task search {} offset: {}, limit: {} is done", filter, offset, limit);
+        return tasks;
+    }
+
     @Transactional
     @Override
-    public Task addExecutors(List<Long> executorsId, Long id){
+    public Task addExecutors(List<Long> executorsId, Long id, Long expectedVersion){
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new NullPointerException("No task with id " + id));
+        checkVersion(task, expectedVersion);
+        TaskState before = TaskState.of(task);
 
+        Set<Long> current = new HashSet<>();
+        for (Person executor : task.getExecutors()) current.add(executor.getId());
         for (Long executorId : executorsId){
+            // уже назначенный исполнитель не добавляется второй раз
+            if (!current.add(executorId)) continue;
             Person executor = personService.findById(executorId).orElseThrow(() -> new NullPointerException("No executor with id " + executorId));
             task.getExecutors().add(executor);
         }
         Task updatedTask = taskRepository.save(task);
+        taskStatsService.apply(List.of(before), List.of(TaskState.of(updatedTask)));
+        taskAccessService.evictExecutors(executorsId);
+        eventPublisher.publishEvent(TaskChangedEvent.changed(id));
+        eventPublisher.publishEvent(TaskFeedEvent.of(updatedTask, TaskChangedEvent.Type.CHANGED));
         log.info("TaskService: added executors in tas with id {}", id);
         return updatedTask;
     }
 
     @Transactional
     @Override
-    public Task changeTaskPriority(String priority, Long id) {
+    public Task changeTaskPriority(String priority, Long id, Long expectedVersion) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new NullPointerException("No task with id " + id));
+        checkVersion(task, expectedVersion);
+        TaskState before = TaskState.of(task);
         try{
             task.setPriority(Priority.valueOf(priority.toUpperCase()));
         } catch (Exception e){
             throw new EnumConstantNotPresentException(Priority.class, priority);
         }
         Task updatedTask = taskRepository.save(task);
+        taskStatsService.apply(List.of(before), List.of(TaskState.of(updatedTask)));
+        eventPublisher.publishEvent(TaskChangedEvent.changed(id));
+        eventPublisher.publishEvent(TaskFeedEvent.of(updatedTask, TaskChangedEvent.Type.CHANGED));
         log.info("TaskService: new priority {} in task with id {}", priority, id);
         return updatedTask;
     }
 
     @Transactional
     @Override
-    public Task changeTaskStatus(String status, Long id) {
+    public Task changeTaskStatus(String status, Long id, Long expectedVersion) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new NullPointerException("No task with id " + id));
+        checkVersion(task, expectedVersion);
+        TaskState before = TaskState.of(task);
         try{
             task.setStatus(Status.valueOf(status.toUpperCase()));
         } catch (Exception e){
             throw new EnumConstantNotPresentException(Priority.class, status);
         }
         Task updatedTask = taskRepository.save(task);
+        taskStatsService.apply(List.of(before), List.of(TaskState.of(updatedTask)));
+        eventPublisher.publishEvent(TaskChangedEvent.changed(id));
+        eventPublisher.publishEvent(TaskFeedEvent.of(updatedTask, TaskChangedEvent.Type.CHANGED));
         log.info("TaskService: new status {} in task with    id {}", status, id);
         return updatedTask;
     }
 
+    @Transactional
     @Override
     public Task sendTaskComment(@Valid Comment comment, Long id) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new NullPointerException("No task with id " + id));
-        task.getComments().add(comment);
         comment.setTask(task);
-        Task newCommentTask = taskRepository.save(task);
+        commentRepository.save(comment);
+        taskRepository.incrementVersion(id);
+        eventPublisher.publishEvent(TaskChangedEvent.commented(id, comment.getComment()));
+        eventPublisher.publishEvent(TaskFeedEvent.of(task, TaskChangedEvent.Type.COMMENTED));
         log.info("TaskService: added new comment to task with id {}", id);
-        return newCommentTask;
+        return task;
     }
 
     @Override
     @Transactional
     public void deleteTaskById(Long id) {
+        // получатели ленты и счетчики собираются до удаления, deleteById возьмет задачу из контекста персистентности
+        Task task = taskRepository.findById(id).orElse(null);
+        Set<Long> recipientIds = task == null ? Set.of() : TaskFeedEvent.recipients(task);
+        if (task != null) taskStatsService.apply(List.of(TaskState.of(task)), List.of());
         taskRepository.deleteById(id);
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(id));
+        eventPublisher.publishEvent(TaskFeedEvent.deleted(id, recipientIds));
         log.warn("Task with id {} id deleted", id);
     }
 
+    /**
+     * Быстрый отказ по If-Match до изменения задачи. Одновременные изменения
+     * после загрузки ловит @Version при flush
+     */
+    private static void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new PreconditionFailedException("Task with id " + task.getId() + " has version " + task.getVersion()
+                    + ", expected " + expectedVersion);
+        }
+    }
+
 
 }
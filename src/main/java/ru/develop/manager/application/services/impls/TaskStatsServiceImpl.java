@@ -0,0 +1,238 @@
+package ru.develop.manager.application.services.impls;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.develop.manager.application.services.TaskStatsService;
+import ru.develop.manager.domain.PersonTaskStats;
+import ru.develop.manager.domain.enums.Priority;
+import ru.develop.manager.domain.enums.Status;
+import ru.develop.manager.domain.enums.TaskRole;
+import ru.develop.manager.extern.repositories.PersonRepository;
+import ru.develop.manager.extern.repositories.PersonTaskStatsRepository;
+import ru.develop.manager.extern.repositories.TaskRepository;
+
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Документацию смотреть в интерфейсах
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskStatsServiceImpl implements TaskStatsService {
+
+    private static final String UPDATE_STATS = "UPDATE person_task_stats SET tasks = GREATEST(tasks + ?, 0) " +
+            "WHERE person_id = ? AND role = ? AND status = ? AND priority = ?";
+    private static final String INSERT_STATS = "INSERT INTO person_task_stats (person_id, role, status, priority, tasks) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * Порядок изменения счетчиков одинаковый во всех транзакциях, чтобы они не ждали друг друга по кругу.
+     * Перечисления сравниваются по именам, как их сортирует ORDER BY сверки (PersonTaskStatsRepository.lockByPersonIds)
+     */
+    private static final Comparator<PersonTaskStats.Key> KEY_ORDER = Comparator
+            .comparing(PersonTaskStats.Key::getPersonId)
+            .thenComparing(key -> key.getRole().name())
+            .thenComparing(key -> key.getStatus().name())
+            .thenComparing(key -> key.getPriority().name());
+
+    private final PersonTaskStatsRepository personTaskStatsRepository;
+    private final TaskRepository taskRepository;
+    private final PersonRepository personRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Количество пользователей в одной транзакции сверки
+     */
+    @Value("${task.stats.reconcile-batch-size:100}")
+    private int reconcileBatchSize;
+
+    private Counter repaired;
+
+    @PostConstruct
+    void init() {
+        repaired = meterRegistry.counter("task.stats.repaired");
+    }
+
+    @Override
+    public void apply(Collection<TaskState> removed, Collection<TaskState> added) {
+        Map<PersonTaskStats.Key, Long> deltas = new TreeMap<>(KEY_ORDER);
+        for (TaskState state : removed) add(deltas, state, -1);
+        for (TaskState state : added) add(deltas, state, 1);
+        write(deltas);
+    }
+
+    @Override
+    public void transition(Collection<Long> taskIds, Status status, Priority priority) {
+        if (taskIds.isEmpty() || (status == null && priority == null)) return;
+        Map<PersonTaskStats.Key, Long> deltas = new TreeMap<>(KEY_ORDER);
+        move(deltas, TaskRole.AUTHOR, taskRepository.countByAuthorForTasks(taskIds), status, priority);
+        move(deltas, TaskRole.EXECUTOR, taskRepository.countByExecutorForTasks(taskIds), status, priority);
+        write(deltas);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<PersonTaskStats> findStats(Long personId) {
+        return personTaskStatsRepository.findByPersonId(personId);
+    }
+
+    @Scheduled(initialDelayString = "${task.stats.reconcile-initial-delay:PT1M}",
+            fixedDelayString = "${task.stats.reconcile-interval:PT1H}")
+    @Override
+    public long reconcile() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long fixed = 0;
+        long afterId = 0L;
+        while (true) {
+            List<Long> personIds = personRepository.findIdsAfter(afterId, PageRequest.of(0, reconcileBatchSize));
+            if (personIds.isEmpty()) break;
+            try {
+                Long batchFixed = transaction.execute(status -> reconcileBatch(personIds));
+                fixed += batchFixed == null ? 0 : batchFixed;
+            } catch (RuntimeException e) {
+                // счетчик создали изменения задач одновременно со сверкой, пользователи сверятся в следующий раз
+                log.warn("TaskStatsService: stats of persons {}..{} are not reconciled", personIds.get(0),
+                        personIds.get(personIds.size() - 1), e);
+            }
+            afterId = personIds.get(personIds.size() - 1);
+            if (personIds.size() < reconcileBatchSize) break;
+        }
+        repaired.increment(fixed);
+        if (fixed > 0) log.warn("TaskStatsService: {} task stats are repaired", fixed);
+        return fixed;
+    }
+
+    /**
+     * Сверка части пользователей. Счетчики блокируются до подсчета задач: изменения,
+     * записавшие счетчики раньше, уже зафиксированы и видны подсчету, а остальные
+     * применят свою разницу после сверки
+     * @return Количество исправленных счетчиков
+     */
+    private long reconcileBatch(List<Long> personIds) {
+        Map<PersonTaskStats.Key, PersonTaskStats> current = new HashMap<>();
+        for (PersonTaskStats stats : personTaskStatsRepository.lockByPersonIds(personIds)) current.put(stats.key(), stats);
+
+        Map<PersonTaskStats.Key, Long> actual = new HashMap<>();
+        count(actual, TaskRole.AUTHOR, taskRepository.countByAuthors(personIds));
+        count(actual, TaskRole.EXECUTOR, taskRepository.countByExecutors(personIds));
+
+        long fixed = 0;
+        Set<PersonTaskStats.Key> keys = new HashSet<>(current.keySet());
+        keys.addAll(actual.keySet());
+        List<PersonTaskStats> created = new ArrayList<>();
+        for (PersonTaskStats.Key key : keys) {
+            long tasks = actual.getOrDefault(key, 0L);
+            PersonTaskStats stats = current.get(key);
+            if (stats == null) {
+                created.add(new PersonTaskStats(key.getPersonId(), key.getRole(), key.getStatus(), key.getPriority(), tasks));
+            } else if (stats.getTasks() != tasks) {
+                log.debug("TaskStatsService: {} is {}, expected {}", key, stats.getTasks(), tasks);
+                stats.setTasks(tasks);
+            } else {
+                continue;
+            }
+            fixed++;
+        }
+        personTaskStatsRepository.saveAll(created);
+        return fixed;
+    }
+
+    private static void add(Map<PersonTaskStats.Key, Long> deltas, TaskState state, long delta) {
+        if (state.status() == null || state.priority() == null) return;
+        if (state.authorId() != null) {
+            deltas.merge(new PersonTaskStats.Key(state.authorId(), TaskRole.AUTHOR, state.status(), state.priority()), delta, Long::sum);
+        }
+        for (Long executorId : state.executorIds()) {
+            deltas.merge(new PersonTaskStats.Key(executorId, TaskRole.EXECUTOR, state.status(), state.priority()), delta, Long::sum);
+        }
+    }
+
+    /**
+     * Перенос количества задач из текущих статуса и приоритета в новые
+     */
+    private static void move(Map<PersonTaskStats.Key, Long> deltas, TaskRole role, List<TaskRepository.StatsRow> rows,
+                             Status status, Priority priority) {
+        for (TaskRepository.StatsRow row : rows) {
+            Status newStatus = status == null ? row.getStatus() : status;
+            Priority newPriority = priority == null ? row.getPriority() : priority;
+            if (row.getStatus() != null && row.getPriority() != null) {
+                deltas.merge(new PersonTaskStats.Key(row.getPersonId(), role, row.getStatus(), row.getPriority()), -row.getTasks(), Long::sum);
+            }
+            if (newStatus != null && newPriority != null) {
+                deltas.merge(new PersonTaskStats.Key(row.getPersonId(), role, newStatus, newPriority), row.getTasks(), Long::sum);
+            }
+        }
+    }
+
+    private static void count(Map<PersonTaskStats.Key, Long> actual, TaskRole role, List<TaskRepository.StatsRow> rows) {
+        for (TaskRepository.StatsRow row : rows) {
+            if (row.getStatus() == null || row.getPriority() == null) continue;
+            actual.put(new PersonTaskStats.Key(row.getPersonId(), role, row.getStatus(), row.getPriority()), row.getTasks());
+        }
+    }
+
+    /**
+     * Изменение счетчиков одним JDBC batch'ем. Отсутствующий счетчик вставляется в savepoint:
+     * если его одновременно вставила другая транзакция, вставка откатывается и счетчик обновляется
+     */
+    private void write(Map<PersonTaskStats.Key, Long> deltas) {
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) return;
+
+        List<Map.Entry<PersonTaskStats.Key, Long>> changes = new ArrayList<>(deltas.entrySet());
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_STATS, changes.stream().map(TaskStatsServiceImpl::updateRow).toList());
+
+        for (int i = 0; i < changes.size(); i++) {
+            if (updated[i] == 0) insert(changes.get(i));
+        }
+    }
+
+    /**
+     * Savepoint ставится на соединение транзакции напрямую: JpaTransactionManager вложенные транзакции не поддерживает
+     */
+    private void insert(Map.Entry<PersonTaskStats.Key, Long> change) {
+        PersonTaskStats.Key key = change.getKey();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                jdbcTemplate.update(INSERT_STATS, key.getPersonId(), key.getRole().name(), key.getStatus().name(),
+                        key.getPriority().name(), Math.max(change.getValue(), 0));
+                connection.releaseSavepoint(savepoint);
+            } catch (DuplicateKeyException e) {
+                connection.rollback(savepoint);
+                jdbcTemplate.update(UPDATE_STATS, updateRow(change));
+            }
+            return null;
+        });
+    }
+
+    private static Object[] updateRow(Map.Entry<PersonTaskStats.Key, Long> change) {
+        PersonTaskStats.Key key = change.getKey();
+        return new Object[]{change.getValue(), key.getPersonId(), key.getRole().name(), key.getStatus().name(), key.getPriority().name()};
+    }
+}
@@ -15,6 +15,7 @@ import java.io.Serializable;
  * @see Task
  */
 @Entity
+@Table(indexes = @Index(name = "idx_comment_task_id", columnList = "task_id, id"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -36,7 +37,7 @@ public class Comment implements Serializable {
     /**
      * Задача, к которой принадлежит комментарий
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Task task;
 
     public Comment(String comment) {
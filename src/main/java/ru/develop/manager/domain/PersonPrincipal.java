@@ -0,0 +1,45 @@
+package ru.develop.manager.domain;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import ru.develop.manager.domain.enums.Role;
+
+import java.util.Collection;
+
+/**
+ * Неизменяемое представление аутентифицированного пользователя.
+ * Собирается из claims JWT токена без обращения к бд
+ * @param id Итендификатор пользователя
+ * @param email Электронная почта пользователя
+ * @param role Роль пользователя
+ * @see Person
+ */
+public record PersonPrincipal(Long id, String email, Role role) implements UserDetails {
+
+    public static PersonPrincipal of(Person person) {
+        return new PersonPrincipal(person.getId(), person.getEmail(), person.getRole());
+    }
+
+    public boolean isAdmin() {
+        return Role.ROLE_ADMIN.equals(role);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return AuthorityUtils.createAuthorityList(String.valueOf(role));
+    }
+
+    /**
+     * Пароль в токене не хранится
+     */
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
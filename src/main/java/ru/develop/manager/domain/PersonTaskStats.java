@@ -0,0 +1,63 @@
+package ru.develop.manager.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.develop.manager.domain.enums.Priority;
+import ru.develop.manager.domain.enums.Status;
+import ru.develop.manager.domain.enums.TaskRole;
+
+import java.io.Serializable;
+
+/**
+ * Счетчик задач пользователя по роли, статусу и приоритету. Меняется в транзакции
+ * изменения задачи, расхождения исправляет периодическая сверка
+ * @see ru.develop.manager.application.services.TaskStatsService
+ */
+@Entity
+@Table(name = "person_task_stats")
+@IdClass(PersonTaskStats.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonTaskStats {
+
+    @Id
+    private Long personId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private TaskRole role;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Status status;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Priority priority;
+
+    /**
+     * Количество задач
+     */
+    @Column(nullable = false)
+    private long tasks;
+
+    public Key key() {
+        return new Key(personId, role, status, priority);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long personId;
+        private TaskRole role;
+        private Status status;
+        private Priority priority;
+    }
+}
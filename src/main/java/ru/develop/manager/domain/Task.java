@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import ru.develop.manager.domain.enums.Priority;
 import ru.develop.manager.domain.enums.Status;
 
@@ -19,6 +20,13 @@ import java.util.List;
  * Сущность задачи
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_task_author_id", columnList = "author_id, id"),
+        @Index(name = "idx_task_author_status", columnList = "author_id, status, id"),
+        @Index(name = "idx_task_status_priority", columnList = "status, priority, id"),
+        @Index(name = "idx_task_priority", columnList = "priority, id"),
+        @Index(name = "idx_task_title", columnList = "title")
+})
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -26,12 +34,23 @@ import java.util.List;
 public class Task implements Serializable {
 
     /**
-     * Итендификатор задачи
+     * Итендификатор задачи. Берется из последовательности пачками по 50,
+     * поэтому вставки задач могут идти JDBC batch'ами (с IDENTITY это невозможно)
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Версия задачи для оптимистичной блокировки, отдается клиентам как ETag.
+     * Растет при любом изменении задачи, ее исполнителей и комментариев
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Название задачи
      */
@@ -62,10 +81,11 @@ public class Task implements Serializable {
     private Priority priority;
 
     /**
-     * Список комментраии к задачи
+     * Список комментраии к задачи. Загружается лениво,
+     * для чтения использовать постраничный CommentRepository
      * @see Comment
      */
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments = new ArrayList<>();
 
     /**
@@ -76,10 +96,16 @@ public class Task implements Serializable {
     private Person author;
 
     /**
-     * Список Исполнителей задачи
+     * Список Исполнителей задачи. Исполнитель входит в список один раз,
+     * повторы, записанные до ограничения, убирает TaskExecutorsInitializer
      * @see Person
      */
     @ManyToMany
+    @JoinTable(name = "task_executors",
+            joinColumns = @JoinColumn(name = "task_id"),
+            inverseJoinColumns = @JoinColumn(name = "executors_id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_task_executors_task_executor", columnNames = {"task_id", "executors_id"}),
+            indexes = @Index(name = "idx_task_executors_executor_task", columnList = "executors_id, task_id"))
     private List<Person> executors = new ArrayList<>();
 
 }
@@ -0,0 +1,42 @@
+package ru.develop.manager.domain;
+
+import ru.develop.manager.domain.enums.AnalyticsSource;
+import ru.develop.manager.domain.enums.Priority;
+import ru.develop.manager.domain.enums.Status;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Аналитика по всем задачам
+ * @param tasks Количество задач
+ * @param counts Количество задач по статусу и приоритету, задачи без статуса или приоритета не входят
+ * @param topAuthors Авторы с наибольшим количеством задач
+ * @param busiestExecutors Исполнители с наибольшим количеством незавершенных задач
+ * @param executorsPerTask Среднее количество исполнителей задачи
+ * @param commentsPerTask Среднее количество комментариев задачи
+ * @param computedAt Время подсчета
+ * @param source Способ подсчета
+ */
+public record TaskAnalytics(long tasks,
+                            Map<Status, Map<Priority, Long>> counts,
+                            List<PersonTasks> topAuthors,
+                            List<PersonTasks> busiestExecutors,
+                            double executorsPerTask,
+                            double commentsPerTask,
+                            Instant computedAt,
+                            AnalyticsSource source) {
+
+    /**
+     * Количество задач пользователя
+     * @param personId Итендификатор пользователя
+     * @param tasks Количество задач
+     */
+    public record PersonTasks(Long personId, long tasks) {
+    }
+
+    public static double average(long total, long tasks) {
+        return tasks == 0 ? 0 : (double) total / tasks;
+    }
+}
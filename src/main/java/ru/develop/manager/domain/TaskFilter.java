@@ -0,0 +1,19 @@
+package ru.develop.manager.domain;
+
+import ru.develop.manager.domain.enums.Priority;
+import ru.develop.manager.domain.enums.Status;
+
+/**
+ * Фильтр поиска задач. Null поля не участвуют в поиске
+ * @param status Статус задачи
+ * @param priority Приоритет задачи
+ * @param authorId Итендификатор автора
+ * @param executorId Итендификатор исполнителя
+ * @param titlePrefix Начало названия задачи
+ */
+public record TaskFilter(Status status,
+                         Priority priority,
+                         Long authorId,
+                         Long executorId,
+                         String titlePrefix) {
+}
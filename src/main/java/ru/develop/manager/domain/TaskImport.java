@@ -0,0 +1,67 @@
+package ru.develop.manager.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.develop.manager.domain.enums.FileFormat;
+
+import java.time.Instant;
+
+/**
+ * Контрольная точка загрузки задач из файла. Сохраняется в одной транзакции
+ * с каждой частью задач, поэтому processed всегда совпадает с загруженными записями,
+ * и прерванную загрузку можно продолжить с той же записи
+ */
+@Entity
+@Data
+@NoArgsConstructor
+public class TaskImport {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Версия для оптимистичной блокировки: одну загрузку не продолжают два процесса сразу
+     */
+    @Version
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    private FileFormat format;
+
+    @Enumerated(EnumType.STRING)
+    private State state;
+
+    /**
+     * Количество обработанных записей файла, с ошибочными
+     */
+    private long processed;
+
+    private long created;
+
+    private long failed;
+
+    /**
+     * Причина остановки загрузки
+     */
+    @Column(length = 1000)
+    private String error;
+
+    private Instant updatedAt;
+
+    public TaskImport(FileFormat format) {
+        this.format = format;
+        this.state = State.RUNNING;
+        this.updatedAt = Instant.now();
+    }
+
+    public enum State {
+        /** Идет или прервана без ошибки (например, остановлен процесс) */
+        RUNNING,
+        /** Все записи обработаны */
+        COMPLETED,
+        /** Остановлена ошибкой бд, продолжается с processed */
+        FAILED
+    }
+}
@@ -0,0 +1,44 @@
+package ru.develop.manager.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.develop.manager.domain.events.TaskChangedEvent;
+
+import java.time.Instant;
+
+/**
+ * Событие изменения задачи в outbox. Пишется в той же транзакции, что и изменение,
+ * и удаляется после публикации в Redis stream
+ * @see ru.develop.manager.extern.outbox.TaskOutboxRelay
+ */
+@Entity
+@Table(name = "task_outbox", indexes = @Index(name = "idx_task_outbox_shard_id", columnList = "shard, id"))
+@Data
+@NoArgsConstructor
+public class TaskOutboxEvent {
+
+    /**
+     * Порядок событий. IDENTITY, а не последовательность с пачками: id выдается при вставке,
+     * а вставка идет после блокировки строки задачи, поэтому у одной задачи id растут в порядке фиксаций
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TaskChangedEvent.Type type;
+
+    /**
+     * Часть outbox, которую публикует один узел за раз: taskId по модулю task.outbox.shards
+     */
+    @Column(nullable = false)
+    private int shard;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,34 @@
+package ru.develop.manager.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Часть outbox. Узел, заблокировавший строку части, единственный публикует ее события,
+ * поэтому события одной задачи уходят в Redis по порядку
+ */
+@Entity
+@Table(name = "task_outbox_shard")
+@Data
+@NoArgsConstructor
+public class TaskOutboxShard {
+
+    @Id
+    private Integer id;
+
+    /**
+     * Последнее опубликованное событие
+     */
+    private Long lastEventId;
+
+    private Instant relayedAt;
+
+    public TaskOutboxShard(Integer id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.develop.manager.domain.enums;
+
+/**
+ * Способ подсчета аналитики задач
+ * @see ru.develop.manager.domain.TaskAnalytics
+ */
+public enum AnalyticsSource {
+    /** GROUP BY запросы в бд */
+    SQL,
+    /** Колоночный снимок задач в памяти, агрегируется параллельно (fork-join) */
+    SNAPSHOT
+}
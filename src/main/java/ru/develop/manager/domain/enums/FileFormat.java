@@ -0,0 +1,27 @@
+package ru.develop.manager.domain.enums;
+
+/**
+ * Формат файла выгрузки и загрузки задач
+ */
+public enum FileFormat {
+    /** Одна задача JSON в строке */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** CSV с заголовком */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    FileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.develop.manager.domain.enums;
+
+/**
+ * Роль пользователя в задаче
+ * @see ru.develop.manager.domain.PersonTaskStats
+ */
+public enum TaskRole {
+    /** Автор задачи */
+    AUTHOR,
+    /** Исполнитель задачи */
+    EXECUTOR
+}
@@ -0,0 +1,50 @@
+package ru.develop.manager.domain.events;
+
+/**
+ * Событие изменения задачи. Публикуется сервисом задач внутри транзакции,
+ * слушатели обрабатывают его после фиксации
+ * @param taskId Итендификатор задачи
+ * @param type Тип изменения
+ * @param title Название задачи (для CREATED и UPDATED)
+ * @param description Описание задачи (для CREATED и UPDATED)
+ * @param comment Текст комментария (для COMMENTED)
+ */
+public record TaskChangedEvent(Long taskId,
+                               Type type,
+                               String title,
+                               String description,
+                               String comment) {
+
+    public enum Type {
+        /** Задача создана */
+        CREATED,
+        /** Изменены название или описание */
+        UPDATED,
+        /** Изменены статус, приоритет или исполнители */
+        CHANGED,
+        /** Добавлен комментарий */
+        COMMENTED,
+        /** Задача удалена */
+        DELETED
+    }
+
+    public static TaskChangedEvent created(Long taskId, String title, String description) {
+        return new TaskChangedEvent(taskId, Type.CREATED, title, description, null);
+    }
+
+    public static TaskChangedEvent updated(Long taskId, String title, String description) {
+        return new TaskChangedEvent(taskId, Type.UPDATED, title, description, null);
+    }
+
+    public static TaskChangedEvent changed(Long taskId) {
+        return new TaskChangedEvent(taskId, Type.CHANGED, null, null, null);
+    }
+
+    public static TaskChangedEvent commented(Long taskId, String comment) {
+        return new TaskChangedEvent(taskId, Type.COMMENTED, null, null, comment);
+    }
+
+    public static TaskChangedEvent deleted(Long taskId) {
+        return new TaskChangedEvent(taskId, Type.DELETED, null, null, null);
+    }
+}
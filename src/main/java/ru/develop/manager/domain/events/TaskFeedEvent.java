@@ -0,0 +1,44 @@
+package ru.develop.manager.domain.events;
+
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.enums.Priority;
+import ru.develop.manager.domain.enums.Status;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Изменение задачи для ленты пользователей. Публикуется сервисом задач внутри транзакции
+ * (пока исполнители загружены), подписчикам рассылается после фиксации
+ * @param taskId Итендификатор задачи
+ * @param type Тип изменения
+ * @param title Название задачи (кроме DELETED)
+ * @param status Статус задачи (кроме DELETED)
+ * @param priority Приоритет задачи (кроме DELETED)
+ * @param recipientIds Итендификаторы автора и исполнителей задачи
+ */
+public record TaskFeedEvent(Long taskId,
+                            TaskChangedEvent.Type type,
+                            String title,
+                            Status status,
+                            Priority priority,
+                            Set<Long> recipientIds) {
+
+    public static TaskFeedEvent of(Task task, TaskChangedEvent.Type type) {
+        return new TaskFeedEvent(task.getId(), type, task.getTitle(), task.getStatus(), task.getPriority(), recipients(task));
+    }
+
+    public static TaskFeedEvent deleted(Long taskId, Set<Long> recipientIds) {
+        return new TaskFeedEvent(taskId, TaskChangedEvent.Type.DELETED, null, null, null, recipientIds);
+    }
+
+    public static Set<Long> recipients(Task task) {
+        Set<Long> recipientIds = new HashSet<>();
+        if (task.getAuthor() != null) recipientIds.add(task.getAuthor().getId());
+        if (task.getExecutors() != null) {
+            for (Person executor : task.getExecutors()) recipientIds.add(executor.getId());
+        }
+        return recipientIds;
+    }
+}
@@ -0,0 +1,15 @@
+package ru.develop.manager.extern.DTOs;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Комментарий к задаче")
+public class InfoCommentDTO {
+
+    @Schema(description = "Итендификатор комментария", example = "1")
+    private Long id;
+
+    @Schema(description = "Текст коммента", example = "Хааахахаха неплохо")
+    private String text;
+}
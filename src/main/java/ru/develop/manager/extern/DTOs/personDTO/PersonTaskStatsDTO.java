@@ -0,0 +1,19 @@
+package ru.develop.manager.extern.DTOs.personDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Количество задач пользователя по статусу и приоритету")
+public class PersonTaskStatsDTO {
+    @Schema(description = "Итендификатор пользователя", example = "2")
+    private Long personId;
+    @Schema(description = "Задачи, где пользователь автор")
+    private TaskCountsDTO authored;
+    @Schema(description = "Задачи, где пользователь исполнитель")
+    private TaskCountsDTO executing;
+}
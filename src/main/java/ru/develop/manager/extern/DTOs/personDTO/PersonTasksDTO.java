@@ -0,0 +1,19 @@
+package ru.develop.manager.extern.DTOs.personDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Количество задач пользователя")
+public class PersonTasksDTO {
+    @Schema(description = "Итендификатор пользователя", example = "2")
+    private Long personId;
+    @Schema(description = "Почта пользователя", example = "ivan@mail.ru")
+    private String email;
+    @Schema(description = "Количество задач", example = "42")
+    private long tasks;
+}
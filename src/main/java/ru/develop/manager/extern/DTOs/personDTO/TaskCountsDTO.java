@@ -0,0 +1,23 @@
+package ru.develop.manager.extern.DTOs.personDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Количество задач пользователя в одной роли")
+public class TaskCountsDTO {
+    @Schema(description = "Всего задач", example = "12")
+    private long total;
+    @Schema(description = "По статусам", example = "{\"APPOINTED\": 5, \"IN_PROGRESS\": 4, \"COMPLETED\": 3}")
+    private Map<String, Long> byStatus;
+    @Schema(description = "По приоритетам", example = "{\"LOW\": 2, \"MEDIUM\": 7, \"HIGH\": 3}")
+    private Map<String, Long> byPriority;
+    @Schema(description = "По статусу и приоритету")
+    private Map<String, Map<String, Long>> byStatusAndPriority;
+}
@@ -0,0 +1,29 @@
+package ru.develop.manager.extern.DTOs.taskDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Результат обработки одной задачи из пачки")
+public class BulkItemResultDTO {
+    @Schema(description = "Номер задачи в запросе (счет от 0)", example = "0")
+    private int index;
+    @Schema(description = "Итендификатор задачи", example = "1")
+    private Long id;
+    @Schema(description = "Результат: CREATED, UPDATED или FAILED", example = "CREATED")
+    private String status;
+    @Schema(description = "Причина ошибки для FAILED", example = "No executor with id 5")
+    private String error;
+
+    public static BulkItemResultDTO ok(int index, Long id, String status) {
+        return new BulkItemResultDTO(index, id, status, null);
+    }
+
+    public static BulkItemResultDTO failed(int index, Long id, String error) {
+        return new BulkItemResultDTO(index, id, "FAILED", error);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.develop.manager.extern.DTOs.taskDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Отчет о пакетной обработке задач")
+public class BulkResultDTO {
+    @Schema(description = "Количество успешно обработанных задач", example = "4999")
+    private int succeeded;
+    @Schema(description = "Количество задач с ошибкой", example = "1")
+    private int failed;
+    @Schema(description = "Результат по каждой задаче в порядке запроса")
+    private List<BulkItemResultDTO> items;
+}
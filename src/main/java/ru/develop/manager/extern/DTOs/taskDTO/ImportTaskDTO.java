@@ -0,0 +1,27 @@
+package ru.develop.manager.extern.DTOs.taskDTO;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Schema(description = "Задача в файле загрузки /v1/tasks/import. Пользователи указываются по email")
+public class ImportTaskDTO {
+    @Schema(description = "Название задачи", example = "Написание тестов")
+    private String title;
+    @Schema(description = "Описание задачи", example = "Необходимо написать unit тесты для контроллера пользователя")
+    private String description;
+    @Schema(description = "Приоритет задачи", example = "HIGH")
+    private String priority;
+    @Schema(description = "Статус задачи", example = "IN_PROGRESS")
+    private String status;
+    @Schema(description = "Email автора, по умолчанию - загружающий", example = "alexshamox@gmail.com")
+    private String authorEmail;
+    @Schema(description = "Email исполнителей", example = "{'ivan@mail.ru'}")
+    private List<String> executorEmails;
+    @Schema(description = "Тексты комментариев, старые первыми", example = "{'Молодец', 'Норм'}")
+    private List<String> comments;
+}
@@ -11,6 +11,8 @@ import java.util.List;
 public class InfoTaskDTO {
     @Schema(description = "Итендификатор задачи", example = "1")
     private Long id;
+    @Schema(description = "Версия задачи, совпадает с ETag", example = "3")
+    private Long version;
     @Schema(description = "Название задачи", example = "Написание тестов")
     private String title;
     @Schema(description = "Описание задачи", example = "Необходимо написать unit тесты для контроллера пользователя")
@@ -19,7 +21,10 @@ public class InfoTaskDTO {
     private String priority;
     @Schema(description = "Статус задачи", example = "IN_PROGRESS")
     private String status;
-    @Schema(description = "Список комментов к задаче", example = "{'Переделать', 'Норм', 'Молодец'}")
+    @Schema(description = "Количество комментов к задаче", example = "12")
+    private Long commentsCount;
+    @Schema(description = "Последние комменты к задаче, новые первыми. Полный список - /v1/tasks/{id}/comments",
+            example = "{'Молодец', 'Норм', 'Переделать'}")
     private List<String> comments;
     @Schema(description = "DTO автора задачи")
     private InfoPersonDto author;
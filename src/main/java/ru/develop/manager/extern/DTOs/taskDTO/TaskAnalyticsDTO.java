@@ -0,0 +1,32 @@
+package ru.develop.manager.extern.DTOs.taskDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.develop.manager.extern.DTOs.personDTO.PersonTasksDTO;
+import ru.develop.manager.extern.DTOs.personDTO.TaskCountsDTO;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Аналитика по всем задачам")
+public class TaskAnalyticsDTO {
+    @Schema(description = "Количество задач. Задачи без статуса или приоритета входят только в total")
+    private TaskCountsDTO tasks;
+    @Schema(description = "Авторы с наибольшим количеством задач")
+    private List<PersonTasksDTO> topAuthors;
+    @Schema(description = "Исполнители с наибольшим количеством незавершенных задач")
+    private List<PersonTasksDTO> busiestExecutors;
+    @Schema(description = "Среднее количество исполнителей задачи", example = "1.5")
+    private double executorsPerTask;
+    @Schema(description = "Среднее количество комментариев задачи", example = "3.2")
+    private double commentsPerTask;
+    @Schema(description = "Время подсчета, аналитика может быть старше запроса на task.analytics.max-staleness")
+    private Instant computedAt;
+    @Schema(description = "Способ подсчета", example = "SQL")
+    private String source;
+}
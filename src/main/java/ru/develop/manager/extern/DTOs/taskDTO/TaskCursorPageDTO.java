@@ -0,0 +1,21 @@
+package ru.develop.manager.extern.DTOs.taskDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Страница задач при keyset-пагинации")
+public class TaskCursorPageDTO {
+    @Schema(description = "Задачи страницы")
+    private List<InfoTaskDTO> content;
+    @Schema(description = "Курсор следующей страницы, null если страница последняя", example = "aWQ6MTAw")
+    private String nextCursor;
+    @Schema(description = "Есть ли следующая страница", example = "true")
+    private boolean hasNext;
+}
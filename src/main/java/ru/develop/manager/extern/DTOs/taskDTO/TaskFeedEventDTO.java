@@ -0,0 +1,24 @@
+package ru.develop.manager.extern.DTOs.taskDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Изменение задачи в ленте /v1/tasks/stream")
+public class TaskFeedEventDTO {
+    @Schema(description = "Итендификатор задачи", example = "1")
+    private Long taskId;
+    @Schema(description = "Тип изменения: CREATED, UPDATED, CHANGED (статус, приоритет, исполнители), COMMENTED или DELETED",
+            example = "CHANGED")
+    private String type;
+    @Schema(description = "Название задачи", example = "Сделать API")
+    private String title;
+    @Schema(description = "Статус задачи", example = "IN_PROGRESS")
+    private String status;
+    @Schema(description = "Приоритет задачи", example = "HIGH")
+    private String priority;
+}
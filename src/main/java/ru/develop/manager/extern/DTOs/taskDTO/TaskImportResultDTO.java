@@ -0,0 +1,27 @@
+package ru.develop.manager.extern.DTOs.taskDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Отчет о загрузке задач из файла")
+public class TaskImportResultDTO {
+    @Schema(description = "Итендификатор загрузки, передается как importId для продолжения", example = "7")
+    private Long importId;
+    @Schema(description = "Состояние загрузки: RUNNING, COMPLETED или FAILED", example = "COMPLETED")
+    private String state;
+    @Schema(description = "Количество обработанных записей файла", example = "100000")
+    private long processed;
+    @Schema(description = "Количество созданных задач", example = "99998")
+    private long created;
+    @Schema(description = "Количество записей с ошибкой", example = "2")
+    private long failed;
+    @Schema(description = "Первые ошибки с номерами записей (счет от 1)")
+    private List<String> errors;
+}
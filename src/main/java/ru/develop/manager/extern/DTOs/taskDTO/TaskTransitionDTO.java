@@ -0,0 +1,25 @@
+package ru.develop.manager.extern.DTOs.taskDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Сущность для массового изменения статуса и приоритета задач")
+public class TaskTransitionDTO {
+    @Schema(description = "Список id задач; если не передан, задачи выбираются только по фильтрам", example = "[1, 2, 3]")
+    private List<Long> ids;
+    @Schema(description = "Фильтр: текущий статус задачи", example = "IN_PROGRESS")
+    private String status;
+    @Schema(description = "Фильтр: текущий приоритет задачи", example = "LOW")
+    private String priority;
+    @Schema(description = "Фильтр: id автора", example = "1")
+    private Long authorId;
+    @Schema(description = "Фильтр: id исполнителя", example = "2")
+    private Long executorId;
+    @Schema(description = "Новый статус задач", example = "COMPLETED")
+    private String toStatus;
+    @Schema(description = "Новый приоритет задач", example = "HIGH")
+    private String toPriority;
+}
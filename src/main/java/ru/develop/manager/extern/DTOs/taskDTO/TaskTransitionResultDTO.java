@@ -0,0 +1,19 @@
+package ru.develop.manager.extern.DTOs.taskDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Результат массового изменения задач")
+public class TaskTransitionResultDTO {
+    @Schema(description = "Количество задач, подошедших под выборку", example = "20000")
+    private long matched;
+    @Schema(description = "Количество задач с измененным статусом", example = "19850")
+    private long statusChanged;
+    @Schema(description = "Количество задач с измененным приоритетом", example = "0")
+    private long priorityChanged;
+}
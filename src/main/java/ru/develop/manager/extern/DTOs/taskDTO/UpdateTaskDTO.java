@@ -0,0 +1,13 @@
+package ru.develop.manager.extern.DTOs.taskDTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Schema(description = "Сущность для обновления задачи. Пустые поля не меняются, исполнители добавляются к текущим")
+public class UpdateTaskDTO extends CreateTaskDTO {
+    @Schema(description = "Итендификатор задачи", example = "1")
+    private Long id;
+}
@@ -0,0 +1,221 @@
+package ru.develop.manager.extern.analytics;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.develop.manager.domain.TaskAnalytics;
+import ru.develop.manager.domain.enums.AnalyticsSource;
+import ru.develop.manager.domain.enums.Priority;
+import ru.develop.manager.domain.enums.Status;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Колоночный снимок задач для аналитики: только нужные поля в массивах примитивов
+ * (задача - индекс в массивах, связь с исполнителем - индекс в массивах связей).
+ * Снимок неизменяемый, агрегируется частями в ForkJoinPool и сливается
+ */
+public final class TaskColumns {
+
+    private static final Status[] STATUSES = Status.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    /**
+     * Часть массива, которую поток считает без деления
+     */
+    static final int THRESHOLD = 8192;
+
+    private final long[] ids;
+    /** Порядковый номер статуса + 1, 0 - без статуса */
+    private final byte[] statuses;
+    /** Порядковый номер приоритета + 1, 0 - без приоритета */
+    private final byte[] priorities;
+    /** 0 - без автора */
+    private final long[] authorIds;
+    private final int[] comments;
+    private final int[] linkTasks;
+    private final long[] linkExecutors;
+
+    private TaskColumns(long[] ids, byte[] statuses, byte[] priorities, long[] authorIds, int[] comments,
+                        int[] linkTasks, long[] linkExecutors) {
+        this.ids = ids;
+        this.statuses = statuses;
+        this.priorities = priorities;
+        this.authorIds = authorIds;
+        this.comments = comments;
+        this.linkTasks = linkTasks;
+        this.linkExecutors = linkExecutors;
+    }
+
+    /**
+     * Загрузка снимка тремя последовательными чтениями. Вызывать в одной транзакции,
+     * чтобы задачи, исполнители и комментарии были из одного состояния бд
+     */
+    public static TaskColumns load(JdbcTemplate jdbcTemplate) {
+        Columns tasks = new Columns();
+        jdbcTemplate.query("SELECT id, status, priority, author_id FROM task ORDER BY id", rs -> {
+            String status = rs.getString(2);
+            String priority = rs.getString(3);
+            tasks.add(rs.getLong(1),
+                    status == null ? 0 : (byte) (Status.valueOf(status).ordinal() + 1),
+                    priority == null ? 0 : (byte) (Priority.valueOf(priority).ordinal() + 1),
+                    rs.getLong(4));
+        });
+        long[] ids = Arrays.copyOf(tasks.ids, tasks.size);
+
+        int[] comments = new int[tasks.size];
+        jdbcTemplate.query("SELECT task_id, COUNT(*) FROM comment GROUP BY task_id", rs -> {
+            int index = Arrays.binarySearch(ids, rs.getLong(1));
+            if (index >= 0) comments[index] = rs.getInt(2);
+        });
+
+        Links links = new Links();
+        jdbcTemplate.query("SELECT task_id, executors_id FROM task_executors", rs -> {
+            int index = Arrays.binarySearch(ids, rs.getLong(1));
+            if (index >= 0) links.add(index, rs.getLong(2));
+        });
+
+        return new TaskColumns(ids, Arrays.copyOf(tasks.statuses, tasks.size), Arrays.copyOf(tasks.priorities, tasks.size),
+                Arrays.copyOf(tasks.authorIds, tasks.size), comments,
+                Arrays.copyOf(links.tasks, links.size), Arrays.copyOf(links.executors, links.size));
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Параллельный подсчет аналитики
+     * @param pool Пул потоков подсчета
+     * @param top Размер списков авторов и исполнителей
+     */
+    public TaskAnalytics aggregate(ForkJoinPool pool, int top) {
+        ForkJoinTask<Partial> byTasks = pool.submit(new Aggregation(false, 0, ids.length));
+        Partial result = pool.invoke(new Aggregation(true, 0, linkTasks.length));
+        result.merge(byTasks.join());
+
+        Map<Status, Map<Priority, Long>> counts = new EnumMap<>(Status.class);
+        for (Status status : STATUSES) {
+            Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+            for (Priority priority : PRIORITIES) {
+                byPriority.put(priority, result.counts[status.ordinal() + 1][priority.ordinal() + 1]);
+            }
+            counts.put(status, byPriority);
+        }
+        return new TaskAnalytics(ids.length, counts, top(result.authors, top), top(result.executors, top),
+                TaskAnalytics.average(linkTasks.length, ids.length), TaskAnalytics.average(result.comments, ids.length),
+                Instant.now(), AnalyticsSource.SNAPSHOT);
+    }
+
+    private static List<TaskAnalytics.PersonTasks> top(Map<Long, Long> counts, int top) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .limit(top)
+                .map(entry -> new TaskAnalytics.PersonTasks(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    /**
+     * Подсчет части задач или части связей с исполнителями: делится пополам до THRESHOLD
+     */
+    private final class Aggregation extends RecursiveTask<Partial> {
+
+        private final boolean links;
+        private final int from;
+        private final int to;
+
+        private Aggregation(boolean links, int from, int to) {
+            this.links = links;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                Aggregation left = new Aggregation(links, from, middle);
+                left.fork();
+                Partial right = new Aggregation(links, middle, to).compute();
+                return right.merge(left.join());
+            }
+            Partial partial = new Partial();
+            if (links) {
+                byte done = (byte) (Status.COMPLETED.ordinal() + 1);
+                for (int i = from; i < to; i++) {
+                    if (statuses[linkTasks[i]] != done) partial.executors.merge(linkExecutors[i], 1L, Long::sum);
+                }
+                return partial;
+            }
+            for (int i = from; i < to; i++) {
+                if (statuses[i] != 0 && priorities[i] != 0) partial.counts[statuses[i]][priorities[i]]++;
+                if (authorIds[i] != 0) partial.authors.merge(authorIds[i], 1L, Long::sum);
+                partial.comments += comments[i];
+            }
+            return partial;
+        }
+    }
+
+    private static final class Partial {
+        private final long[][] counts = new long[STATUSES.length + 1][PRIORITIES.length + 1];
+        private final Map<Long, Long> authors = new HashMap<>();
+        private final Map<Long, Long> executors = new HashMap<>();
+        private long comments;
+
+        private Partial merge(Partial other) {
+            for (int s = 0; s < counts.length; s++) {
+                for (int p = 0; p < counts[s].length; p++) counts[s][p] += other.counts[s][p];
+            }
+            other.authors.forEach((id, tasks) -> authors.merge(id, tasks, Long::sum));
+            other.executors.forEach((id, tasks) -> executors.merge(id, tasks, Long::sum));
+            comments += other.comments;
+            return this;
+        }
+    }
+
+    private static final class Columns {
+        private long[] ids = new long[1024];
+        private byte[] statuses = new byte[1024];
+        private byte[] priorities = new byte[1024];
+        private long[] authorIds = new long[1024];
+        private int size;
+
+        private void add(long id, byte status, byte priority, long authorId) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+                priorities = Arrays.copyOf(priorities, capacity);
+                authorIds = Arrays.copyOf(authorIds, capacity);
+            }
+            ids[size] = id;
+            statuses[size] = status;
+            priorities[size] = priority;
+            authorIds[size] = authorId;
+            size++;
+        }
+    }
+
+    private static final class Links {
+        private int[] tasks = new int[1024];
+        private long[] executors = new long[1024];
+        private int size;
+
+        private void add(int task, long executor) {
+            if (size == tasks.length) {
+                tasks = Arrays.copyOf(tasks, size * 2);
+                executors = Arrays.copyOf(executors, size * 2);
+            }
+            tasks[size] = task;
+            executors[size] = executor;
+            size++;
+        }
+    }
+}
@@ -2,9 +2,20 @@ package ru.develop.manager.extern.assemblers;
 
 import org.springframework.stereotype.Component;
 import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.PersonTaskStats;
+import ru.develop.manager.domain.enums.Priority;
 import ru.develop.manager.domain.enums.Role;
+import ru.develop.manager.domain.enums.Status;
+import ru.develop.manager.domain.enums.TaskRole;
 import ru.develop.manager.extern.DTOs.personDTO.InfoPersonDto;
+import ru.develop.manager.extern.DTOs.personDTO.PersonTaskStatsDTO;
 import ru.develop.manager.extern.DTOs.personDTO.RegisterPersonDTO;
+import ru.develop.manager.extern.DTOs.personDTO.TaskCountsDTO;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 public class PersonAssembler {
@@ -28,4 +39,47 @@ public class PersonAssembler {
         infoPersonDto.setLastName(person.getLastName());
         return infoPersonDto;
     }
+
+    /**
+     * Счетчики пользователя со всеми статусами и приоритетами, отсутствующие равны 0
+     */
+    public PersonTaskStatsDTO toTaskStatsDTO(Long personId, List<PersonTaskStats> stats) {
+        return new PersonTaskStatsDTO(personId, toTaskCountsDTO(stats, TaskRole.AUTHOR), toTaskCountsDTO(stats, TaskRole.EXECUTOR));
+    }
+
+    /**
+     * Количество задач со всеми статусами и приоритетами, отсутствующие равны 0
+     */
+    public TaskCountsDTO toTaskCountsDTO(long total, Map<Status, Map<Priority, Long>> counts) {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        Map<String, Long> byPriority = new LinkedHashMap<>();
+        Map<String, Map<String, Long>> byStatusAndPriority = new LinkedHashMap<>();
+        for (Priority priority : Priority.values()) byPriority.put(priority.name(), 0L);
+        for (Status status : Status.values()) {
+            Map<Priority, Long> statusCounts = counts.getOrDefault(status, Map.of());
+            Map<String, Long> priorities = new LinkedHashMap<>();
+            long statusTotal = 0;
+            for (Priority priority : Priority.values()) {
+                long tasks = statusCounts.getOrDefault(priority, 0L);
+                priorities.put(priority.name(), tasks);
+                byPriority.merge(priority.name(), tasks, Long::sum);
+                statusTotal += tasks;
+            }
+            byStatus.put(status.name(), statusTotal);
+            byStatusAndPriority.put(status.name(), priorities);
+        }
+        return new TaskCountsDTO(total, byStatus, byPriority, byStatusAndPriority);
+    }
+
+    private TaskCountsDTO toTaskCountsDTO(List<PersonTaskStats> stats, TaskRole role) {
+        Map<Status, Map<Priority, Long>> counts = new EnumMap<>(Status.class);
+        long total = 0;
+        for (PersonTaskStats stat : stats) {
+            if (stat.getRole() != role) continue;
+            total += stat.getTasks();
+            counts.computeIfAbsent(stat.getStatus(), status -> new EnumMap<>(Priority.class))
+                    .merge(stat.getPriority(), stat.getTasks(), Long::sum);
+        }
+        return toTaskCountsDTO(total, counts);
+    }
 }
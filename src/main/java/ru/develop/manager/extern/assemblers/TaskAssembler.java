@@ -2,24 +2,39 @@ package ru.develop.manager.extern.assemblers;
 
 import lombok.RequiredArgsConstructor;
 import org.hibernate.Hibernate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
+import ru.develop.manager.application.services.CommentService;
 import ru.develop.manager.domain.Comment;
 import ru.develop.manager.domain.Person;
 import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.TaskAnalytics;
+import ru.develop.manager.domain.TaskFilter;
+import ru.develop.manager.domain.enums.FileFormat;
 import ru.develop.manager.domain.enums.Priority;
 import ru.develop.manager.domain.enums.Status;
+import ru.develop.manager.extern.DTOs.InfoCommentDTO;
 import ru.develop.manager.extern.DTOs.personDTO.InfoPersonDto;
+import ru.develop.manager.extern.DTOs.personDTO.PersonTasksDTO;
 import ru.develop.manager.extern.DTOs.taskDTO.CreateTaskDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.ExportTaskDTO;
 import ru.develop.manager.extern.DTOs.taskDTO.InfoTaskDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskAnalyticsDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskCursorPageDTO;
+import ru.develop.manager.extern.utils.CursorCodec;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class TaskAssembler {
     private final PersonAssembler personAssembler;
+    private final CursorCodec cursorCodec;
+    private final CommentService commentService;
 
     public Task fromDTOToTask(CreateTaskDTO createTaskDTO){
         Task task = new Task();
@@ -32,13 +47,109 @@ public class TaskAssembler {
     }
 
     public InfoTaskDTO fromTaskToDTO(Task task){
+        CommentService.Summary summary = commentService.summarize(List.of(task.getId()))
+                .getOrDefault(task.getId(), CommentService.Summary.EMPTY);
+        return fromTaskToDTO(task, summary);
+    }
+
+    /**
+     * Сборка страницы DTO: сводки комментариев всех задач страницы берутся одной пачкой
+     */
+    public Page<InfoTaskDTO> fromTaskPageToDTO(Page<Task> page){
+        Map<Long, CommentService.Summary> summaries = summarize(page.getContent());
+        return page.map(task -> fromTaskToDTO(task, summaries.getOrDefault(task.getId(), CommentService.Summary.EMPTY)));
+    }
+
+    /**
+     * Сборка списка DTO с порядком исходного списка, сводки комментариев одной пачкой
+     */
+    public List<InfoTaskDTO> fromTasksToDTO(List<Task> tasks){
+        Map<Long, CommentService.Summary> summaries = summarize(tasks);
+        return tasks.stream()
+                .map(task -> fromTaskToDTO(task, summaries.getOrDefault(task.getId(), CommentService.Summary.EMPTY)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Сборка среза DTO. Page остается Page вместе с общим количеством
+     */
+    public Slice<InfoTaskDTO> fromTaskSliceToDTOs(Slice<Task> slice){
+        if (slice instanceof Page<Task> page) return fromTaskPageToDTO(page);
+        Map<Long, CommentService.Summary> summaries = summarize(slice.getContent());
+        return slice.map(task -> fromTaskToDTO(task, summaries.getOrDefault(task.getId(), CommentService.Summary.EMPTY)));
+    }
+
+    public TaskFilter toTaskFilter(String status, String priority, Long authorId, Long executorId, String title){
+        Status filterStatus = null;
+        Priority filterPriority = null;
+        try{
+            if (status != null) filterStatus = Status.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e){
+            throw new EnumConstantNotPresentException(Status.class, status);
+        }
+        try{
+            if (priority != null) filterPriority = Priority.valueOf(priority.toUpperCase());
+        } catch (IllegalArgumentException e){
+            throw new EnumConstantNotPresentException(Priority.class, priority);
+        }
+        return new TaskFilter(filterStatus, filterPriority, authorId, executorId, title);
+    }
+
+    public FileFormat toFileFormat(String format){
+        try{
+            return FileFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e){
+            throw new EnumConstantNotPresentException(FileFormat.class, format);
+        }
+    }
+
+    public TaskCursorPageDTO fromTaskSliceToDTO(Slice<Task> slice){
+        Map<Long, CommentService.Summary> summaries = summarize(slice.getContent());
+        List<InfoTaskDTO> content = slice
+                .map(task -> fromTaskToDTO(task, summaries.getOrDefault(task.getId(), CommentService.Summary.EMPTY)))
+                .getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !content.isEmpty()) {
+            nextCursor = cursorCodec.encode(content.get(content.size() - 1).getId());
+        }
+        return new TaskCursorPageDTO(content, nextCursor, slice.hasNext());
+    }
+
+    public ExportTaskDTO fromTaskToExportDTO(Task task, long commentsCount){
+        ExportTaskDTO exportTaskDTO = new ExportTaskDTO();
+        exportTaskDTO.setId(task.getId());
+        exportTaskDTO.setVersion(task.getVersion());
+        exportTaskDTO.setTitle(task.getTitle());
+        exportTaskDTO.setDescription(task.getDescription());
+        exportTaskDTO.setStatus(String.valueOf(task.getStatus()));
+        exportTaskDTO.setPriority(String.valueOf(task.getPriority()));
+        exportTaskDTO.setCommentsCount(commentsCount);
+        if (task.getAuthor() != null) exportTaskDTO.setAuthor(personAssembler.fromPersonToDto(task.getAuthor()));
+        exportTaskDTO.setExecutors(task.getExecutors().stream().map(personAssembler::fromPersonToDto).collect(Collectors.toList()));
+        return exportTaskDTO;
+    }
+
+    public InfoCommentDTO fromCommentToDTO(Comment comment){
+        InfoCommentDTO infoCommentDTO = new InfoCommentDTO();
+        infoCommentDTO.setId(comment.getId());
+        infoCommentDTO.setText(comment.getComment());
+        return infoCommentDTO;
+    }
+
+    private Map<Long, CommentService.Summary> summarize(List<Task> tasks){
+        return commentService.summarize(tasks.stream().map(Task::getId).collect(Collectors.toList()));
+    }
+
+    private InfoTaskDTO fromTaskToDTO(Task task, CommentService.Summary summary){
         InfoTaskDTO infoTaskDTO = new InfoTaskDTO();
         infoTaskDTO.setId(task.getId());
+        infoTaskDTO.setVersion(task.getVersion());
         infoTaskDTO.setTitle(task.getTitle());
         infoTaskDTO.setDescription(task.getDescription());
         infoTaskDTO.setStatus(String.valueOf(task.getStatus()));
         infoTaskDTO.setPriority(String.valueOf(task.getPriority()));
-        infoTaskDTO.setComments(task.getComments().stream().map(Comment::getComment).collect(Collectors.toList()));
+        infoTaskDTO.setCommentsCount(summary.count());
+        infoTaskDTO.setComments(summary.latest().stream().map(Comment::getComment).collect(Collectors.toList()));
 
         InfoPersonDto author = personAssembler.fromPersonToDto(task.getAuthor());
         List<InfoPersonDto> executors = new ArrayList<>();
@@ -52,4 +163,22 @@ public class TaskAssembler {
         return infoTaskDTO;
 
     }
+
+    /**
+     * @param persons Авторы и исполнители из аналитики по id, отсутствующие остаются без почты
+     */
+    public TaskAnalyticsDTO toAnalyticsDTO(TaskAnalytics analytics, Map<Long, Person> persons) {
+        return new TaskAnalyticsDTO(personAssembler.toTaskCountsDTO(analytics.tasks(), analytics.counts()),
+                toPersonTasksDTO(analytics.topAuthors(), persons), toPersonTasksDTO(analytics.busiestExecutors(), persons),
+                analytics.executorsPerTask(), analytics.commentsPerTask(), analytics.computedAt(), analytics.source().name());
+    }
+
+    private static List<PersonTasksDTO> toPersonTasksDTO(List<TaskAnalytics.PersonTasks> personTasks, Map<Long, Person> persons) {
+        return personTasks.stream()
+                .map(tasks -> {
+                    Person person = persons.get(tasks.personId());
+                    return new PersonTasksDTO(tasks.personId(), person == null ? null : person.getEmail(), tasks.tasks());
+                })
+                .toList();
+    }
 }
@@ -0,0 +1,226 @@
+package ru.develop.manager.extern.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Рассылка сбрасываний локальных кэшей между узлами через Redis pub/sub.
+ * Версия ключа - счетчик в Redis, который растет при каждом сбрасывании и передается
+ * в сообщении. Пока узел не подписан на канал, локальные кэши не используются,
+ * а после (пере)подписки сбрасываются целиком: пропущенные сообщения не восстановить.
+ * Обрыв соединения Lettuce не отписывает узел, поэтому подписка проверяется пульсом:
+ * узел периодически публикует в канал свое сообщение и, не получив его за heartbeat-timeout,
+ * считает себя отключенным. Первый полученный после этого свой пульс снова включает локальные кэши.
+ * С cache.invalidation.enabled=false узел считается единственным, версии ведутся в памяти
+ * @see NearCache
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus implements MessageListener, SubscriptionListener {
+
+    public static final String CHANNEL = "cache:invalidation";
+    private static final String VERSION_KEY = "cache:version:";
+    private static final String HEARTBEAT = "heartbeat";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectProvider<RedisMessageListenerContainer> container;
+    private final boolean distributed;
+
+    /**
+     * Сколько хранить счетчик версии ключа после последнего сбрасывания
+     */
+    private final Duration versionTtl;
+
+    /**
+     * Сколько ждать свой пульс, прежде чем считать подписку оборванной
+     */
+    private final Duration heartbeatTimeout;
+
+    private final Map<String, NearCache<?>> regions = new ConcurrentHashMap<>();
+    private final AtomicLong localVersion = new AtomicLong();
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile boolean connected;
+    private volatile long lastHeartbeat = System.nanoTime();
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate,
+                                ObjectProvider<RedisMessageListenerContainer> container,
+                                @Value("${cache.invalidation.enabled:true}") boolean distributed,
+                                @Value("${cache.invalidation.version-ttl:1d}") Duration versionTtl,
+                                @Value("${cache.invalidation.heartbeat-timeout:15s}") Duration heartbeatTimeout) {
+        this.redisTemplate = redisTemplate;
+        this.container = container;
+        this.distributed = distributed;
+        this.versionTtl = versionTtl;
+        this.heartbeatTimeout = heartbeatTimeout;
+        this.connected = !distributed;
+    }
+
+    /**
+     * Создание локального кэша, который сбрасывается через эту шину
+     * @param region Имя кэша, общее для всех узлов
+     */
+    public <V> NearCache<V> nearCache(String region, long maxSize, Duration ttl) {
+        NearCache<V> cache = new NearCache<>(region, this, maxSize, ttl);
+        regions.put(region, cache);
+        return cache;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Текущая версия ключа
+     * @return Версия или -1, если Redis недоступен или узел не подписан на канал
+     */
+    public long version(String region, String key) {
+        if (!distributed) return localVersion.get();
+        if (!connected) return -1;
+        try {
+            String version = redisTemplate.opsForValue().get(VERSION_KEY + region + ":" + key);
+            return version == null ? 0 : Long.parseLong(version);
+        } catch (RuntimeException e) {
+            log.warn("CacheInvalidationBus: version of {}:{} is unavailable", region, key, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Сбрасывание ключей локально и на остальных узлах.
+     * Вызывать после фиксации транзакции, иначе другой узел успеет прочитать старые данные
+     */
+    public void invalidate(String region, Collection<String> keys) {
+        for (String key : keys) {
+            if (!distributed) {
+                apply(region, key, localVersion.incrementAndGet());
+                continue;
+            }
+            NearCache<?> cache = regions.get(region);
+            if (!connected) {
+                // без подписки узел не достучится до Redis, а его локальные кэши и так не используются
+                if (cache != null) cache.invalidate(key);
+                continue;
+            }
+            String versionKey = VERSION_KEY + region + ":" + key;
+            try {
+                Long version = redisTemplate.opsForValue().increment(versionKey);
+                redisTemplate.expire(versionKey, versionTtl);
+                apply(region, key, version);
+                redisTemplate.convertAndSend(CHANNEL, region + "\t" + version + "\t" + key);
+            } catch (RuntimeException e) {
+                if (cache != null) cache.invalidate(key);
+                log.warn("CacheInvalidationBus: invalidation of {}:{} is not sent to other nodes", region, key, e);
+            }
+        }
+    }
+
+    /**
+     * Запуск подписки, пока она не удалась. Дальше соединение восстанавливает Lettuce,
+     * а повторная подписка снова сбрасывает локальные кэши
+     */
+    @Scheduled(fixedDelayString = "${cache.invalidation.subscribe-interval:PT30S}")
+    public void subscribe() {
+        if (!distributed || connected) return;
+        RedisMessageListenerContainer listenerContainer = container.getIfAvailable();
+        if (listenerContainer == null || listenerContainer.isListening()) return;
+        try {
+            listenerContainer.start();
+        } catch (RuntimeException e) {
+            log.warn("CacheInvalidationBus: subscription to {} failed, local caches are bypassed", CHANNEL, e);
+        }
+    }
+
+    /**
+     * Проверка пульса и отправка следующего. Пульс отправляется и в отключенном состоянии,
+     * чтобы заметить восстановление подписки
+     */
+    @Scheduled(fixedDelayString = "${cache.invalidation.heartbeat-interval:PT5S}")
+    public void heartbeat() {
+        if (!distributed) return;
+        if (connected && System.nanoTime() - lastHeartbeat > heartbeatTimeout.toNanos()) {
+            disconnect("no heartbeat for " + heartbeatTimeout);
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, HEARTBEAT + "\t" + nodeId);
+        } catch (RuntimeException e) {
+            if (connected) disconnect("heartbeat is not sent: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\t", 3);
+        if (parts.length == 2 && HEARTBEAT.equals(parts[0])) {
+            if (nodeId.equals(parts[1])) onHeartbeat();
+            return;
+        }
+        if (parts.length != 3) {
+            log.warn("CacheInvalidationBus: malformed message {}", new String(message.getBody(), StandardCharsets.UTF_8));
+            return;
+        }
+        apply(parts[0], parts[2], Long.parseLong(parts[1]));
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        if (!isOwn(channel)) return;
+        regions.values().forEach(NearCache::invalidateAll);
+        lastHeartbeat = System.nanoTime();
+        connected = true;
+        log.info("CacheInvalidationBus: subscribed to {}, {} local caches are flushed", CHANNEL, regions.size());
+    }
+
+    @Override
+    public void onChannelUnsubscribed(byte[] channel, long count) {
+        if (isOwn(channel)) disconnect("unsubscribed");
+    }
+
+    /**
+     * Контейнер подписки общий с TaskFeedBus
+     */
+    private static boolean isOwn(byte[] channel) {
+        return CHANNEL.equals(new String(channel, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Свой пульс дошел: публикация и подписка работают. После отключения кэши сбрасываются еще раз,
+     * в них не должно остаться ничего, записанного до обрыва
+     */
+    private void onHeartbeat() {
+        lastHeartbeat = System.nanoTime();
+        if (connected) return;
+        regions.values().forEach(NearCache::invalidateAll);
+        connected = true;
+        log.info("CacheInvalidationBus: heartbeat on {} is restored, {} local caches are flushed", CHANNEL, regions.size());
+    }
+
+    /**
+     * Сообщения могли потеряться, поэтому локальные кэши сбрасываются и не используются до восстановления
+     */
+    private void disconnect(String reason) {
+        connected = false;
+        regions.values().forEach(NearCache::invalidateAll);
+        log.warn("CacheInvalidationBus: disconnected from {} ({}), local caches are flushed and bypassed", CHANNEL, reason);
+    }
+
+    private void apply(String region, String key, long version) {
+        NearCache<?> cache = regions.get(region);
+        if (cache != null) cache.invalidate(key, version);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.develop.manager.extern.cache;
+
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Скрипты Redis для записей с поколением. Удаление увеличивает поколение ключа, а загрузка
+ * записывает значение, только если поколение не изменилось с ее начала: значение, прочитанное из бд
+ * до изменения на любом узле, в Redis не попадет
+ * @see TaskCache
+ * @see PersonCache
+ */
+final class CacheScripts {
+
+    /**
+     * KEYS: поколение, запись; ARGV: поколение на начало загрузки ('' - ключа не было), значение, TTL в мс
+     */
+    static final RedisScript<Long> STORE_IF_GENERATION = RedisScript.of("""
+            if (redis.call('GET', KEYS[1]) or '') ~= ARGV[1] then return 0 end
+            redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS: пары поколение, запись; ARGV: TTL поколения в мс
+     */
+    static final RedisScript<Long> EVICT = RedisScript.of("""
+            local deleted = 0
+            for i = 1, #KEYS, 2 do
+                redis.call('INCR', KEYS[i])
+                redis.call('PEXPIRE', KEYS[i], ARGV[1])
+                deleted = deleted + redis.call('DEL', KEYS[i + 1])
+            end
+            return deleted
+            """, Long.class);
+
+    private CacheScripts() {
+    }
+}
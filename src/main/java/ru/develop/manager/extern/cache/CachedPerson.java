@@ -0,0 +1,41 @@
+package ru.develop.manager.extern.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.enums.Role;
+
+import java.io.Serializable;
+
+/**
+ * Снимок пользователя для кэша. Хранит только простые поля,
+ * без ленивых коллекций задач. Хэш пароля не хранится: снимок уходит в Redis,
+ * а пароль при входе читается из бд (PersonService.loadUserByUsername).
+ * Неизвестные поля игнорируются, чтобы старые записи с паролем читались до истечения TTL
+ * @see Person
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CachedPerson(Long id,
+                           String firstName,
+                           String lastName,
+                           String email,
+                           Role role) implements Serializable {
+
+    public static CachedPerson of(Person person) {
+        return new CachedPerson(person.getId(), person.getFirstName(), person.getLastName(),
+                person.getEmail(), person.getRole());
+    }
+
+    /**
+     * Сборка отсоединенной (detached) сущности пользователя из снимка
+     * @return Пользователь без пароля
+     */
+    public Person toPerson() {
+        Person person = new Person();
+        person.setId(id);
+        person.setFirstName(firstName);
+        person.setLastName(lastName);
+        person.setEmail(email);
+        person.setRole(role);
+        return person;
+    }
+}
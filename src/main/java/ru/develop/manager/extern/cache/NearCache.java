@@ -0,0 +1,130 @@
+package ru.develop.manager.extern.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Локальный (in-process) кэш узла, который сбрасывается изменениями на любом узле.
+ * Каждая запись помечена версией ключа, прочитанной до загрузки значения, а каждое
+ * сбрасывание поднимает нижнюю границу версии ключа. Запись с версией ниже границы
+ * не сохраняется, поэтому загрузка, начатая до изменения, или сообщения, пришедшие
+ * не по порядку, не возвращают старые данные
+ * @see CacheInvalidationBus
+ */
+public class NearCache<V> {
+
+    private final String region;
+    private final CacheInvalidationBus bus;
+    private final Cache<String, Entry<V>> entries;
+
+    /**
+     * Нижние границы версий ключей. Живут дольше записей, чтобы пережить
+     * любую загрузку, начатую до сбрасывания. Ограничены только временем: вытеснение
+     * по размеру пропустило бы загрузку, начатую до сбрасывания. Их число не больше
+     * количества сбрасываний за время жизни границы
+     */
+    private final Cache<String, Long> floors;
+
+    NearCache(String region, CacheInvalidationBus bus, long maxSize, Duration ttl) {
+        this.region = region;
+        this.bus = bus;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.floors = Caffeine.newBuilder()
+                .expireAfterWrite(ttl.multipliedBy(2))
+                .build();
+    }
+
+    public String region() {
+        return region;
+    }
+
+    /**
+     * @return Значение или null, если его нет или узел не получает сбрасывания
+     */
+    public V get(String key) {
+        if (!bus.isConnected()) return null;
+        Entry<V> entry = entries.getIfPresent(key);
+        return entry == null ? null : entry.value();
+    }
+
+    /**
+     * Версия ключа, читается до загрузки значения и передается в put
+     * @return Версия или -1, если ее не удалось получить
+     */
+    public long stamp(String key) {
+        return bus.version(region, key);
+    }
+
+    /**
+     * Сохранение значения, если ключ не сбрасывался после stamp
+     */
+    public void put(String key, V value, long stamp) {
+        if (stamp < 0 || value == null || !bus.isConnected() || stamp < floor(key)) return;
+        Entry<V> entry = new Entry<>(stamp, value);
+        entries.put(key, entry);
+        // сбрасывание могло пройти между проверкой и записью
+        if (stamp < floor(key)) entries.asMap().remove(key, entry);
+    }
+
+    /**
+     * Получение значения, на промахе - загрузка с версией, прочитанной до нее
+     * @param loader Загрузка значения, null не кэшируется
+     */
+    public V get(String key, Function<String, V> loader) {
+        V value = get(key);
+        if (value != null) return value;
+        long stamp = stamp(key);
+        value = loader.apply(key);
+        put(key, value, stamp);
+        return value;
+    }
+
+    /**
+     * Сбрасывание ключей на всех узлах
+     */
+    public void evict(Collection<String> keys) {
+        bus.invalidate(region, keys);
+    }
+
+    public void monitor(MeterRegistry meterRegistry, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, name);
+    }
+
+    public long estimatedSize() {
+        return entries.estimatedSize();
+    }
+
+    /**
+     * Запись, загруженная после этого сбрасывания, остается: сообщение пришло позже нее
+     */
+    void invalidate(String key, long version) {
+        floors.asMap().merge(key, version, Math::max);
+        entries.asMap().computeIfPresent(key, (k, entry) -> entry.version() < version ? null : entry);
+    }
+
+    void invalidate(String key) {
+        entries.invalidate(key);
+    }
+
+    void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    private long floor(String key) {
+        Long floor = floors.getIfPresent(key);
+        return floor == null ? Long.MIN_VALUE : floor;
+    }
+
+    private record Entry<V>(long version, V value) {
+    }
+}
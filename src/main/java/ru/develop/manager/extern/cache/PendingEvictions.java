@@ -0,0 +1,67 @@
+package ru.develop.manager.extern.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Удаления из Redis, не прошедшие из-за ошибки. Хранятся до успешного повтора, а пока удаление
+ * не прошло, узел не читает ключ из Redis и не пишет его туда. Если удалений накопилось больше maxSize,
+ * отдельные ключи не хранятся: Redis не используется узлом, пока не будет очищен весь кэш
+ */
+final class PendingEvictions {
+
+    private final ConcurrentHashMap<String, Long> pending = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final int maxSize;
+    private volatile boolean overflowed;
+
+    PendingEvictions(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    void add(String key) {
+        if (overflowed) return;
+        if (pending.size() >= maxSize) {
+            overflowed = true;
+            return;
+        }
+        pending.put(key, sequence.incrementAndGet());
+    }
+
+    boolean isPending(String key) {
+        return overflowed || pending.containsKey(key);
+    }
+
+    boolean isEmpty() {
+        return !overflowed && pending.isEmpty();
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    /**
+     * Повтор удалений. Ошибка Redis прерывает повтор, оставшиеся удаления ждут следующего.
+     * Удаление, добавленное заново во время повтора, остается
+     * @param evict Удаление ключа, при ошибке бросает исключение
+     * @param flush Очистка всего кэша после переполнения
+     */
+    void retry(Consumer<String> evict, Runnable flush) {
+        if (overflowed) {
+            overflowed = false;
+            pending.clear();
+            try {
+                flush.run();
+            } catch (RuntimeException e) {
+                overflowed = true;
+                throw e;
+            }
+        }
+        for (Map.Entry<String, Long> entry : pending.entrySet()) {
+            evict.accept(entry.getKey());
+            pending.remove(entry.getKey(), entry.getValue());
+        }
+    }
+}
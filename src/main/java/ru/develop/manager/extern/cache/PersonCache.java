@@ -0,0 +1,290 @@
+package ru.develop.manager.extern.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.extern.datasource.PrimaryReads;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Двухуровневый кэш пользователей: локальный кэш узла перед Redis.
+ * Пользователь доступен по двум ключам - id и email. Локальный уровень
+ * сбрасывается на всех узлах через CacheInvalidationBus.
+ * Если Redis недоступен, кэш работает только на локальном уровне,
+ * а промахи уходят в бд.
+ * <p>
+ * Как и в TaskCache, удаление увеличивает поколение обоих ключей (person:gen:*), а загрузка на промахе
+ * записывает пользователя только под искомым ключом и только если его поколение не изменилось с начала загрузки.
+ * Удаление не пропускается после ошибок Redis: не прошедшее повторяется по расписанию,
+ * а до его успеха узел не читает ключ из Redis и не пишет в него
+ * @see CacheScripts
+ * @see PendingEvictions
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PersonCache {
+
+    private static final String PREFIX = "person:";
+    private static final String GENERATION = "person:gen:";
+    private static final String ID_KEY = "id:";
+    private static final String EMAIL_KEY = "email:";
+
+    private final RedisTemplate<String, CachedPerson> personRedisTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${person.cache.local.max-size:10000}")
+    private long localMaxSize;
+
+    @Value("${person.cache.local.ttl:5m}")
+    private Duration localTtl;
+
+    @Value("${person.cache.redis.ttl:30m}")
+    private Duration redisTtl;
+
+    /**
+     * Сколько хранить поколение ключа после удаления. Должно быть больше самой долгой загрузки
+     */
+    @Value("${person.cache.redis.generation-ttl:1d}")
+    private Duration generationTtl;
+
+    /**
+     * Сколько не обращаться к Redis после ошибки соединения
+     */
+    @Value("${person.cache.redis.retry-after:30s}")
+    private Duration redisRetryAfter;
+
+    /**
+     * Сколько ключей помнить для повтора удаления из Redis, дальше после восстановления Redis очищаются все пользователи
+     */
+    @Value("${person.cache.redis.max-pending-evictions:10000}")
+    private int maxPendingEvictions;
+
+    private NearCache<CachedPerson> local;
+    private PendingEvictions pendingEvictions;
+    private final AtomicLong redisDownUntil = new AtomicLong();
+
+    private Counter requests;
+    private Counter localHits;
+    private Counter redisHits;
+    private Counter redisErrors;
+
+    @PostConstruct
+    void init() {
+        local = cacheInvalidationBus.nearCache("person", localMaxSize, localTtl);
+        local.monitor(meterRegistry, "person.local");
+        pendingEvictions = new PendingEvictions(maxPendingEvictions);
+        Gauge.builder("person.cache.evictions.pending", pendingEvictions, PendingEvictions::size).register(meterRegistry);
+
+        requests = meterRegistry.counter("person.cache.requests");
+        localHits = meterRegistry.counter("person.cache.hits", "tier", "local");
+        redisHits = meterRegistry.counter("person.cache.hits", "tier", "redis");
+        redisErrors = meterRegistry.counter("person.cache.redis.errors");
+        Gauge.builder("person.cache.hit.ratio", this, PersonCache::hitRatio).register(meterRegistry);
+        Gauge.builder("person.cache.size", local, NearCache::estimatedSize).register(meterRegistry);
+    }
+
+    /**
+     * Получение пользователя из кэша, на промахе - загрузка и сохранение в кэш
+     * @param id Итендификатор пользователя
+     * @param loader Загрузка пользователя из бд
+     * @return Пользователь (Optional), из кэша - без пароля
+     */
+    public Optional<Person> getById(Long id, Supplier<Optional<Person>> loader) {
+        return get(ID_KEY + id, loader);
+    }
+
+    /**
+     * Получение пользователя из кэша по email, на промахе - загрузка и сохранение в кэш
+     * @see #getById
+     */
+    public Optional<Person> getByEmail(String email, Supplier<Optional<Person>> loader) {
+        return get(EMAIL_KEY + email, loader);
+    }
+
+    /**
+     * Загрузка пользователя по email мимо кэша (нужен хэш пароля) с сохранением в кэш
+     * @param email Электронная почта
+     * @param loader Загрузка пользователя из бд
+     * @return Загруженный пользователь (Optional)
+     */
+    public Optional<Person> loadByEmail(String email, Supplier<Optional<Person>> loader) {
+        String key = EMAIL_KEY + email;
+        return load(key, local.stamp(key), loader);
+    }
+
+    /**
+     * Удаление пользователя из обоих уровней по обоим ключам, на всех узлах.
+     * Внутри транзакции удаление откладывается до ее фиксации
+     * @param person Измененный пользователь
+     */
+    public void evict(Person person) {
+        List<String> keys = List.of(ID_KEY + person.getId(), EMAIL_KEY + person.getEmail());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(keys);
+                }
+            });
+        } else {
+            evict(keys);
+        }
+    }
+
+    /**
+     * Повтор удалений, не прошедших из-за ошибки Redis
+     */
+    @Scheduled(fixedDelayString = "${person.cache.redis.evict-retry-interval:PT1S}")
+    public void retryEvictions() {
+        if (pendingEvictions.isEmpty()) return;
+        try {
+            pendingEvictions.retry(key -> evictFromRedis(List.of(key)), this::flushRedis);
+            log.info("PersonCache: pending evictions are written to Redis");
+        } catch (RuntimeException e) {
+            redisErrors.increment();
+            log.warn("PersonCache: {} evictions are still pending: {}", pendingEvictions.size(), e.getMessage());
+        }
+    }
+
+    public double hitRatio() {
+        double total = requests.count();
+        return total == 0 ? 0 : (localHits.count() + redisHits.count()) / total;
+    }
+
+    private Optional<Person> get(String key, Supplier<Optional<Person>> loader) {
+        requests.increment();
+        CachedPerson cachedPerson = local.get(key);
+        if (cachedPerson != null) {
+            localHits.increment();
+            return Optional.of(cachedPerson.toPerson());
+        }
+        long stamp = local.stamp(key);
+        cachedPerson = pendingEvictions.isPending(key) ? null : withRedis(() -> personRedisTemplate.opsForValue().get(PREFIX + key));
+        if (cachedPerson != null) {
+            redisHits.increment();
+            local.put(key, cachedPerson, stamp);
+            return Optional.of(cachedPerson.toPerson());
+        }
+        return load(key, stamp, loader);
+    }
+
+    /**
+     * Загрузка из основной бд с сохранением под ключом key. Поколение читается до загрузки
+     */
+    private Optional<Person> load(String key, long stamp, Supplier<Optional<Person>> loader) {
+        String generation = pendingEvictions.isPending(key) ? null
+                : withRedis(() -> Objects.requireNonNullElse(redisTemplate.opsForValue().get(GENERATION + key), ""));
+        Optional<Person> person = PrimaryReads.call(loader);
+        if (person.isPresent()) {
+            CachedPerson cachedPerson = CachedPerson.of(person.get());
+            // без Redis остается только локальный уровень, его защищает stamp
+            if (generation == null || store(key, cachedPerson, generation)) local.put(key, cachedPerson, stamp);
+        }
+        return person;
+    }
+
+    /**
+     * Запись пользователя в Redis, если поколение ключа не изменилось с начала загрузки
+     * @return true, если пользователь записан
+     */
+    @SuppressWarnings("unchecked")
+    private boolean store(String key, CachedPerson cachedPerson, String generation) {
+        RedisSerializer<CachedPerson> serializer = (RedisSerializer<CachedPerson>) personRedisTemplate.getValueSerializer();
+        String value = new String(serializer.serialize(cachedPerson), StandardCharsets.UTF_8);
+        Long stored = withRedis(() -> redisTemplate.execute(CacheScripts.STORE_IF_GENERATION, List.of(GENERATION + key, PREFIX + key),
+                generation, value, String.valueOf(redisTtl.toMillis())));
+        return stored != null && stored == 1L;
+    }
+
+    /**
+     * Сначала Redis, чтобы другие узлы на промахе не взяли из него старую запись.
+     * Ошибка Redis не пропускает удаление, а откладывает его до повтора
+     */
+    private void evict(List<String> keys) {
+        try {
+            evictFromRedis(keys);
+        } catch (RuntimeException e) {
+            keys.forEach(pendingEvictions::add);
+            redisFailed(e);
+        }
+        local.evict(keys);
+    }
+
+    /**
+     * Удаление записей с увеличением поколений, без пропуска после ошибок Redis
+     */
+    private void evictFromRedis(List<String> keys) {
+        List<String> redisKeys = new ArrayList<>();
+        for (String key : keys) {
+            redisKeys.add(GENERATION + key);
+            redisKeys.add(PREFIX + key);
+        }
+        redisTemplate.execute(CacheScripts.EVICT, redisKeys, String.valueOf(generationTtl.toMillis()));
+    }
+
+    /**
+     * Очистка всех записей пользователей после переполнения PendingEvictions. Поколения остаются
+     */
+    private void flushRedis() {
+        for (String pattern : List.of(PREFIX + ID_KEY + "*", PREFIX + EMAIL_KEY + "*")) {
+            List<String> keys = new ArrayList<>();
+            try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(pattern).count(1000).build())) {
+                while (cursor.hasNext()) {
+                    keys.add(cursor.next());
+                    if (keys.size() == 1000) {
+                        redisTemplate.delete(keys);
+                        keys.clear();
+                    }
+                }
+            }
+            if (!keys.isEmpty()) redisTemplate.delete(keys);
+        }
+        log.warn("PersonCache: too many evictions were pending, person entries are flushed from Redis");
+    }
+
+    /**
+     * Вызов Redis с деградацией: после ошибки Redis пропускается на redisRetryAfter
+     */
+    private <T> T withRedis(Supplier<T> action) {
+        if (System.currentTimeMillis() < redisDownUntil.get()) {
+            return null;
+        }
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            redisFailed(e);
+            return null;
+        }
+    }
+
+    private void redisFailed(RuntimeException e) {
+        redisErrors.increment();
+        redisDownUntil.set(System.currentTimeMillis() + redisRetryAfter.toMillis());
+        log.warn("PersonCache: Redis is unavailable, falling back to database for {}", redisRetryAfter, e);
+    }
+}
@@ -0,0 +1,282 @@
+package ru.develop.manager.extern.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.develop.manager.domain.events.TaskChangedEvent;
+import ru.develop.manager.extern.DTOs.taskDTO.InfoTaskDTO;
+import ru.develop.manager.extern.datasource.PrimaryReads;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Двухуровневый кэш собранных DTO задач (read model, а не сущность Hibernate):
+ * локальный кэш узла перед Redis. Локальный уровень сбрасывается на всех узлах
+ * через CacheInvalidationBus. На промахе задачу собирает только один поток узла,
+ * остальные запросы той же задачи ждут его результат. Запись удаляется после
+ * фиксации любого изменения задачи. Если Redis недоступен, задачи читаются из бд.
+ * <p>
+ * Удаление увеличивает поколение задачи (task:dto:gen:id) в Redis, а загрузка записывает DTO
+ * скриптом, только если поколение не изменилось с начала загрузки. Поэтому DTO, собранный
+ * до изменения на любом узле, в Redis не попадет. Задача собирается из основной бд.
+ * Удаление не пропускается после ошибок Redis: не прошедшее удаление повторяется по расписанию,
+ * а до его успеха узел не берет задачу из Redis
+ * @see CacheScripts
+ * @see PendingEvictions
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskCache {
+
+    private static final String KEY = "task:dto:";
+    private static final String GENERATION = "task:dto:gen:";
+
+    private final RedisTemplate<String, InfoTaskDTO> taskRedisTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${task.cache.local.max-size:10000}")
+    private long localMaxSize;
+
+    @Value("${task.cache.local.ttl:1m}")
+    private Duration localTtl;
+
+    @Value("${task.cache.ttl:10m}")
+    private Duration ttl;
+
+    /**
+     * Сколько хранить поколение задачи после удаления записи. Должно быть больше самой долгой загрузки
+     */
+    @Value("${task.cache.generation-ttl:1d}")
+    private Duration generationTtl;
+
+    /**
+     * Сколько не обращаться к Redis после ошибки соединения
+     */
+    @Value("${task.cache.retry-after:30s}")
+    private Duration redisRetryAfter;
+
+    /**
+     * Сколько задач помнить для повтора удаления из Redis, дальше после восстановления Redis очищается весь кэш
+     */
+    @Value("${task.cache.max-pending-evictions:10000}")
+    private int maxPendingEvictions;
+
+    /**
+     * Загрузки задач, идущие сейчас на этом узле. Удаление задачи из кэша убирает и ее загрузку,
+     * чтобы новые запросы не ждали DTO, собранный до изменения
+     */
+    private final ConcurrentHashMap<Long, CompletableFuture<InfoTaskDTO>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong redisDownUntil = new AtomicLong();
+
+    private NearCache<InfoTaskDTO> local;
+    private PendingEvictions pendingEvictions;
+
+    private Counter requests;
+    private Counter localHits;
+    private Counter hits;
+    private Counter sharedLoads;
+    private Counter redisErrors;
+
+    @PostConstruct
+    void init() {
+        local = cacheInvalidationBus.nearCache("task", localMaxSize, localTtl);
+        local.monitor(meterRegistry, "task.local");
+        pendingEvictions = new PendingEvictions(maxPendingEvictions);
+        Gauge.builder("task.cache.evictions.pending", pendingEvictions, PendingEvictions::size).register(meterRegistry);
+
+        requests = meterRegistry.counter("task.cache.requests");
+        localHits = meterRegistry.counter("task.cache.hits", "tier", "local");
+        hits = meterRegistry.counter("task.cache.hits", "tier", "redis");
+        sharedLoads = meterRegistry.counter("task.cache.loads.shared");
+        redisErrors = meterRegistry.counter("task.cache.redis.errors");
+    }
+
+    /**
+     * Получение задачи из кэша, на промахе - загрузка и сохранение в Redis
+     * @param id Итендификатор задачи
+     * @param loader Сборка DTO задачи из бд
+     * @return DTO задачи
+     */
+    public InfoTaskDTO get(Long id, Supplier<InfoTaskDTO> loader) {
+        requests.increment();
+        String localKey = String.valueOf(id);
+        InfoTaskDTO near = local.get(localKey);
+        if (near != null) {
+            localHits.increment();
+            return near;
+        }
+        long stamp = local.stamp(localKey);
+        boolean useRedis = !pendingEvictions.isPending(localKey);
+
+        InfoTaskDTO cached = !useRedis ? null : withRedis(() -> taskRedisTemplate.opsForValue().get(KEY + id));
+        if (cached != null) {
+            hits.increment();
+            local.put(localKey, cached, stamp);
+            return cached;
+        }
+
+        CompletableFuture<InfoTaskDTO> own = new CompletableFuture<>();
+        CompletableFuture<InfoTaskDTO> running = loading.putIfAbsent(id, own);
+        if (running != null) {
+            sharedLoads.increment();
+            return await(running);
+        }
+        try {
+            String generation = !useRedis ? null : withRedis(() -> Objects.requireNonNullElse(redisTemplate.opsForValue().get(GENERATION + id), ""));
+            InfoTaskDTO task = PrimaryReads.call(loader);
+            // без Redis остается только локальный уровень, его защищает stamp
+            if (generation == null || store(id, task, generation)) local.put(localKey, task, stamp);
+            own.complete(task);
+            return task;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(id, own);
+        }
+    }
+
+    /**
+     * Удаление задачи из Redis и из локальных кэшей всех узлов
+     * @param id Итендификатор задачи
+     */
+    public void evict(Long id) {
+        loading.remove(id);
+        String key = String.valueOf(id);
+        try {
+            evictFromRedis(key);
+        } catch (RuntimeException e) {
+            pendingEvictions.add(key);
+            redisFailed(e);
+        }
+        local.evict(List.of(key));
+    }
+
+    /**
+     * Повтор удалений, не прошедших из-за ошибки Redis
+     */
+    @Scheduled(fixedDelayString = "${task.cache.evict-retry-interval:PT1S}")
+    public void retryEvictions() {
+        if (pendingEvictions.isEmpty()) return;
+        try {
+            pendingEvictions.retry(this::evictFromRedis, this::flushRedis);
+            log.info("TaskCache: pending evictions are written to Redis");
+        } catch (RuntimeException e) {
+            redisErrors.increment();
+            log.warn("TaskCache: {} evictions are still pending: {}", pendingEvictions.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Любое изменение задачи (в том числе пакетное) публикует событие,
+     * запись удаляется после фиксации, чтобы ее не заполнили старыми данными.
+     * Новой задачи в кэше быть не может, ее создание (в том числе загрузкой) Redis не трогает
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.type() == TaskChangedEvent.Type.CREATED) return;
+        evict(event.taskId());
+    }
+
+    /**
+     * Запись DTO в Redis, если поколение задачи не изменилось с начала загрузки
+     * @return true, если DTO записан
+     */
+    @SuppressWarnings("unchecked")
+    private boolean store(Long id, InfoTaskDTO task, String generation) {
+        RedisSerializer<InfoTaskDTO> serializer = (RedisSerializer<InfoTaskDTO>) taskRedisTemplate.getValueSerializer();
+        String value = new String(serializer.serialize(task), StandardCharsets.UTF_8);
+        Long stored = withRedis(() -> redisTemplate.execute(CacheScripts.STORE_IF_GENERATION, List.of(GENERATION + id, KEY + id),
+                generation, value, String.valueOf(jitter(ttl).toMillis())));
+        return stored != null && stored == 1L;
+    }
+
+    /**
+     * Удаление записи с увеличением поколения, без пропуска после ошибок Redis
+     */
+    private void evictFromRedis(String id) {
+        redisTemplate.execute(CacheScripts.EVICT, List.of(GENERATION + id, KEY + id), String.valueOf(generationTtl.toMillis()));
+    }
+
+    /**
+     * Очистка всех записей задач после переполнения PendingEvictions. Поколения остаются
+     */
+    private void flushRedis() {
+        List<String> keys = new ArrayList<>();
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(KEY + "*").count(1000).build())) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                if (key.startsWith(GENERATION)) continue;
+                keys.add(key);
+                if (keys.size() == 1000) {
+                    redisTemplate.delete(keys);
+                    keys.clear();
+                }
+            }
+        }
+        if (!keys.isEmpty()) redisTemplate.delete(keys);
+        log.warn("TaskCache: too many evictions were pending, task entries are flushed from Redis");
+    }
+
+    private static InfoTaskDTO await(CompletableFuture<InfoTaskDTO> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * До +10% к TTL, чтобы записи, созданные одновременно, не истекали одновременно
+     */
+    private static Duration jitter(Duration ttl) {
+        return ttl.plusMillis(ThreadLocalRandom.current().nextLong(ttl.toMillis() / 10 + 1));
+    }
+
+    /**
+     * Вызов Redis с деградацией: после ошибки Redis пропускается на redisRetryAfter
+     */
+    private <T> T withRedis(Supplier<T> action) {
+        if (System.currentTimeMillis() < redisDownUntil.get()) {
+            return null;
+        }
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            redisFailed(e);
+            return null;
+        }
+    }
+
+    private void redisFailed(RuntimeException e) {
+        redisErrors.increment();
+        redisDownUntil.set(System.currentTimeMillis() + redisRetryAfter.toMillis());
+        log.warn("TaskCache: Redis is unavailable, falling back to database for {}", redisRetryAfter, e);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.develop.manager.extern.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import ru.develop.manager.extern.DTOs.taskDTO.InfoTaskDTO;
+import ru.develop.manager.extern.cache.CacheInvalidationBus;
+import ru.develop.manager.extern.cache.CachedPerson;
+import ru.develop.manager.extern.feed.TaskFeedBus;
+
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    public RedisTemplate<String, CachedPerson> personRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, CachedPerson> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(new Jackson2JsonRedisSerializer<>(CachedPerson.class));
+        return template;
+    }
+
+    @Bean
+    public RedisTemplate<String, InfoTaskDTO> taskRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, InfoTaskDTO> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(new Jackson2JsonRedisSerializer<>(InfoTaskDTO.class));
+        return template;
+    }
+
+    /**
+     * Подписка на сбрасывания локальных кэшей и ленту задач других узлов. Запускается CacheInvalidationBus,
+     * чтобы недоступный Redis не останавливал запуск приложения
+     */
+    @Bean
+    @ConditionalOnProperty(value = "cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationContainer(RedisConnectionFactory connectionFactory,
+                                                                    CacheInvalidationBus cacheInvalidationBus,
+                                                                    TaskFeedBus taskFeedBus,
+                                                                    Environment environment) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public boolean isAutoStartup() {
+                return false;
+            }
+        };
+        container.setConnectionFactory(connectionFactory);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // сообщения разбираются в новом потоке на каждое, с виртуальными потоками это дешево
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("cache-invalidation-");
+            executor.setVirtualThreads(true);
+            container.setTaskExecutor(executor);
+        }
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(CacheInvalidationBus.CHANNEL));
+        container.addMessageListener(taskFeedBus, new ChannelTopic(TaskFeedBus.CHANNEL));
+        return container;
+    }
+}
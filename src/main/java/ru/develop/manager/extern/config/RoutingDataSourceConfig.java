@@ -0,0 +1,87 @@
+package ru.develop.manager.extern.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.develop.manager.extern.datasource.ReadWriteRoutingDataSource;
+import ru.develop.manager.extern.datasource.ReadYourWritesInterceptor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Основная бд и реплики за одним DataSource. Включается datasource.routing.enabled=true
+ */
+@Configuration
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+@ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+public class RoutingDataSourceConfig implements WebMvcConfigurer {
+
+    private final RoutingDataSourceProperties routingProperties;
+
+    public RoutingDataSourceConfig(RoutingDataSourceProperties routingProperties) {
+        this.routingProperties = routingProperties;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < routingProperties.getReplicas().size(); i++) {
+            RoutingDataSourceProperties.Replica replica = routingProperties.getReplicas().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            dataSource.setDriverClassName(primaryDataSource.getDriverClassName());
+            dataSource.setAutoCommit(primaryDataSource.isAutoCommit());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.add(dataSource);
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, routingProperties.getReadYourWrites().isEnabled());
+    }
+
+    /**
+     * Соединение берется у маршрутизатора только на первом запросе к бд,
+     * когда уже известно, read-only ли транзакция
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource, HikariDataSource primaryDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setDefaultAutoCommit(primaryDataSource.isAutoCommit());
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.setTargetDataSource(routingDataSource);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        RoutingDataSourceProperties.ReadYourWrites readYourWrites = routingProperties.getReadYourWrites();
+        if (readYourWrites.isEnabled() && !readYourWrites.getWindow().isZero()) {
+            registry.addInterceptor(new ReadYourWritesInterceptor(readYourWrites.getWindow()));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.develop.manager.extern.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки маршрутизации чтения на реплики (datasource.routing.*).
+ * Основная бд берется из spring.datasource
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    private ReadYourWrites readYourWrites = new ReadYourWrites();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+
+    @Data
+    public static class ReadYourWrites {
+        /**
+         * Закреплять запрос за основной бд после записи в нем
+         */
+        private boolean enabled = true;
+        /**
+         * Сколько следующих запросов пользователя после записи читают из основной бд, 0 - выключено
+         */
+        private Duration window = Duration.ofSeconds(5);
+    }
+}
@@ -1,6 +1,7 @@
 package ru.develop.manager.extern.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -14,12 +15,12 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractAuthenticationFilterConfigurer;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import ru.develop.manager.application.services.PersonService;
+import ru.develop.manager.extern.utils.WorkFactorBCryptPasswordEncoder;
 
 @EnableWebSecurity
 @RequiredArgsConstructor
@@ -28,11 +29,18 @@ public class SecurityConfig {
     private final PersonService personService;
     private final JwtRequestFilter jwtRequestFilter;
 
+    /**
+     * Стоимость BCrypt. Пароли с другой стоимостью перехэшируются при входе
+     */
+    @Value("${security.password.strength:10}")
+    private int passwordStrength;
+
     @Bean
     public DaoAuthenticationProvider daoAuthenticationProvider() {
         DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
         daoAuthenticationProvider.setPasswordEncoder(passwordEncoder());
         daoAuthenticationProvider.setUserDetailsService(personService);
+        daoAuthenticationProvider.setUserDetailsPasswordService(personService);
         return daoAuthenticationProvider;
     }
 
@@ -45,6 +53,8 @@ public class SecurityConfig {
                         .requestMatchers("/v1/tasks/comment/**").authenticated()
                         .requestMatchers("/v1/tasks/status/**").authenticated()
                         .requestMatchers(HttpMethod.GET, "/v1/tasks/executor/**").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/v1/tasks/stream").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/v1/persons/*/task-stats").authenticated()
                         .requestMatchers("/registration").permitAll()
                         .requestMatchers("/auth").permitAll()
                         .requestMatchers("/v1/tasks/**").hasRole("ADMIN")
@@ -52,6 +62,8 @@ public class SecurityConfig {
                         .requestMatchers("/h2-console/**").permitAll()
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/v3/api-docs/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                 ).sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
@@ -60,7 +72,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new WorkFactorBCryptPasswordEncoder(passwordStrength);
     }
 
     @Bean
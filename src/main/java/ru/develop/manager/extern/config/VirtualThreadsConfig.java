@@ -0,0 +1,91 @@
+package ru.develop.manager.extern.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.develop.manager.extern.datasource.ReadWriteRoutingDataSource;
+import ru.develop.manager.extern.threads.BulkheadDataSource;
+import ru.develop.manager.extern.threads.PinnedThreadMonitor;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Режим виртуальных потоков, включается spring.threads.virtual.enabled=true (VIRTUAL_THREADS=true).
+ * Spring Boot сам переводит на виртуальные потоки запросы Tomcat, @Scheduled задачи и applicationTaskExecutor.
+ * Здесь - то, без чего режим небезопасен: ограничение соединений с бд и обнаружение закреплений.
+ * Хэширование паролей остается на ограниченном пуле платформенных потоков: BCrypt занимает процессор,
+ * и виртуальные потоки его не ускорят
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadsConfig {
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(value = "virtual-threads.pinning.enabled", havingValue = "true", matchIfMissing = true)
+    public PinnedThreadMonitor pinnedThreadMonitor(MeterRegistry meterRegistry,
+                                                   @Value("${virtual-threads.pinning.threshold:20ms}") Duration threshold,
+                                                   @Value("${virtual-threads.pinning.log-interval:1m}") Duration logInterval) {
+        return new PinnedThreadMonitor(meterRegistry, threshold, logInterval);
+    }
+
+    /**
+     * Ограничение соединений перед каждым физическим пулом Hikari: с маршрутизацией (datasource.routing.enabled) -
+     * перед основным пулом и каждой репликой внутри ReadWriteRoutingDataSource, без нее - перед бином dataSource.
+     * Без max-concurrent ограничение пула равно его maximum-pool-size
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceBulkhead(ObjectProvider<MeterRegistry> meterRegistry,
+                                                       @Value("${virtual-threads.db-bulkhead.max-concurrent:0}") int maxConcurrent,
+                                                       @Value("${virtual-threads.db-bulkhead.max-waiting:500}") int maxWaiting,
+                                                       @Value("${virtual-threads.db-bulkhead.timeout:2s}") Duration timeout) {
+        return new BeanPostProcessor() {
+            /**
+             * Маршрутизатор создается раньше dataSource, который его оборачивает
+             */
+            private boolean routed;
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ReadWriteRoutingDataSource routing) {
+                    routed = true;
+                    routing.wrapTargets(this::bulkhead);
+                    return bean;
+                }
+                if (routed || !"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) return bean;
+                return bulkhead("primary", dataSource);
+            }
+
+            private DataSource bulkhead(String pool, DataSource dataSource) {
+                int permits = maxConcurrent > 0 ? maxConcurrent : poolSize(dataSource);
+                log.info("VirtualThreadsConfig: database bulkhead of pool {} allows {} connections and {} waiting for {}",
+                        pool, permits, maxWaiting, timeout);
+                return new BulkheadDataSource(pool, dataSource, permits, maxWaiting, timeout, meterRegistry.getObject());
+            }
+        };
+    }
+
+    /**
+     * Размер пула до его запуска: не заданный maximum-pool-size равен -1, Hikari заменит его на 10
+     */
+    private static int poolSize(DataSource dataSource) {
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        if (hikari == null) {
+            log.warn("VirtualThreadsConfig: Hikari pool is not found, set virtual-threads.db-bulkhead.max-concurrent");
+            return HIKARI_DEFAULT_POOL_SIZE;
+        }
+        return hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+    }
+}
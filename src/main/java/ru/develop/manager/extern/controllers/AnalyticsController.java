@@ -0,0 +1,51 @@
+package ru.develop.manager.extern.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.develop.manager.application.services.PersonService;
+import ru.develop.manager.application.services.TaskAnalyticsService;
+import ru.develop.manager.domain.TaskAnalytics;
+import ru.develop.manager.domain.enums.AnalyticsSource;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskAnalyticsDTO;
+import ru.develop.manager.extern.assemblers.TaskAssembler;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "analytics_methods")
+public class AnalyticsController {
+    private final TaskAnalyticsService taskAnalyticsService;
+    private final PersonService personService;
+    private final TaskAssembler taskAssembler;
+
+    @Operation(summary = "Аналитика по всем задачам",
+            description = "Количество задач по статусу и приоритету, авторы с наибольшим количеством задач, " +
+                    "исполнители с наибольшим количеством незавершенных задач, среднее количество исполнителей и комментариев. " +
+                    "В качестве request param можно передать способ подсчета (SQL или SNAPSHOT). " +
+                    "Аналитика кэшируется и может быть старше запроса на task.analytics.max-staleness, время подсчета в computedAt")
+    @GetMapping("/admin/analytics")
+    public ResponseEntity<TaskAnalyticsDTO> getAnalytics(@RequestParam(value = "source", required = false) String source) {
+        AnalyticsSource analyticsSource = null;
+        if (source != null) {
+            try {
+                analyticsSource = AnalyticsSource.valueOf(source.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new EnumConstantNotPresentException(AnalyticsSource.class, source);
+            }
+        }
+        TaskAnalytics analytics = taskAnalyticsService.getAnalytics(analyticsSource);
+
+        Set<Long> personIds = new HashSet<>();
+        analytics.topAuthors().forEach(tasks -> personIds.add(tasks.personId()));
+        analytics.busiestExecutors().forEach(tasks -> personIds.add(tasks.personId()));
+        return new ResponseEntity<>(taskAssembler.toAnalyticsDTO(analytics, personService.findAllById(personIds)), HttpStatus.OK);
+    }
+}
@@ -15,6 +15,10 @@ import ru.develop.manager.extern.DTOs.JwtResponse;
 import ru.develop.manager.extern.DTOs.personDTO.RegisterPersonDTO;
 import ru.develop.manager.extern.assemblers.PersonAssembler;
 import ru.develop.manager.extern.exceptions.WrongDataException;
+import ru.develop.manager.extern.utils.PasswordHashingExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequiredArgsConstructor
@@ -24,23 +28,32 @@ public class AuthController {
 
     private final AuthService authService;
     private final PersonAssembler personAssembler;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     @Operation(summary = "Для создания токена",
             description = "Необходимо в качестве тела запроса передать JwtRequest, который включает " +
                     "в себя почту и пароль")
     @PostMapping("/auth")
-    public ResponseEntity<JwtResponse> createAuthToken(@RequestBody JwtRequest authRequest) {
-        JwtResponse jwtResponse = authService.createAuthToken(authRequest);
-        log.info("JwtResponse is gotten in AuthService");
-        return new ResponseEntity<>(jwtResponse, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<JwtResponse>> createAuthToken(@RequestBody JwtRequest authRequest) {
+        return passwordHashingExecutor.submit(() -> {
+            JwtResponse jwtResponse = authService.createAuthToken(authRequest);
+            log.info("JwtResponse is gotten in AuthService");
+            return new ResponseEntity<>(jwtResponse, HttpStatus.OK);
+        });
     }
 
+    /**
+     * Пароль хэшируется в пуле, а пользователь сохраняется в потоке запроса после результата:
+     * если хэширование не уложилось в таймаут и клиент получил 503, пользователь не создается
+     */
     @Operation(summary = "Регистрация нового пользователя",
             description = "Необходимо в качестве тела запроса передать RegisterPersonDTO")
     @PostMapping("/registration")
-    public ResponseEntity<InfoPersonDto> createNewPerson(@RequestBody RegisterPersonDTO registerPersonDTO) throws WrongDataException {
+    public ResponseEntity<InfoPersonDto> createNewPerson(@RequestBody RegisterPersonDTO registerPersonDTO)
+            throws WrongDataException, TimeoutException {
         Person person = personAssembler.fromRegisterDtoToPerson(registerPersonDTO);
-        Person createdPerson = authService.createPerson(person);
+        String encodedPassword = passwordHashingExecutor.await(() -> authService.encodePassword(person.getPassword()));
+        Person createdPerson = authService.createPerson(person, encodedPassword);
         return new ResponseEntity<>(personAssembler.fromPersonToDto(createdPerson), HttpStatus.OK);
     }
 
@@ -48,9 +61,11 @@ public class AuthController {
     @Operation(summary = "Создание нового админа",
             description = "Необходимо в качестве тела запроса передать RegisterPersonDTO")
     @PostMapping("/admin/registration")
-    public ResponseEntity<InfoPersonDto> createNewAdmin(@RequestBody RegisterPersonDTO registerPersonDTO) throws WrongDataException {
+    public ResponseEntity<InfoPersonDto> createNewAdmin(@RequestBody RegisterPersonDTO registerPersonDTO)
+            throws WrongDataException, TimeoutException {
         Person person = personAssembler.fromRegisterDtoToPerson(registerPersonDTO);
-        Person createdPerson = authService.createAdmin(person);
+        String encodedPassword = passwordHashingExecutor.await(() -> authService.encodePassword(person.getPassword()));
+        Person createdPerson = authService.createAdmin(person, encodedPassword);
         return new ResponseEntity<>(personAssembler.fromPersonToDto(createdPerson), HttpStatus.OK);
     }
 
@@ -0,0 +1,48 @@
+package ru.develop.manager.extern.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.PermissionDeniedDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import ru.develop.manager.application.services.PersonService;
+import ru.develop.manager.application.services.TaskStatsService;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.PersonPrincipal;
+import ru.develop.manager.extern.DTOs.personDTO.InfoPersonDto;
+import ru.develop.manager.extern.DTOs.personDTO.PersonTaskStatsDTO;
+import ru.develop.manager.extern.assemblers.PersonAssembler;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "person_methods")
+public class PersonController {
+    private final PersonService personService;
+    private final TaskStatsService taskStatsService;
+    private final PersonAssembler personAssembler;
+
+    @Operation(summary = "Изменение роли пользователя",
+            description = "Необходимо в url передать id пользователя, а в качестве request param новую роль " +
+                    "(ROLE_USER или ROLE_ADMIN)")
+    @PutMapping("/admin/persons/{id}/role")
+    public ResponseEntity<InfoPersonDto> changeRole(@RequestParam("role") String role,
+                                                    @PathVariable Long id) {
+        Person updatedPerson = personService.changeRole(id, role);
+        return new ResponseEntity<>(personAssembler.fromPersonToDto(updatedPerson), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Количество задач пользователя",
+            description = "Необходимо в url передать id пользователя. Задачи, где пользователь автор и исполнитель, " +
+                    "по статусу и приоритету. Читается из счетчиков, а не из задач. Доступно самому пользователю и администратору")
+    @GetMapping("/v1/persons/{id}/task-stats")
+    public ResponseEntity<PersonTaskStatsDTO> findTaskStats(@PathVariable Long id,
+                                                            @AuthenticationPrincipal PersonPrincipal principal) {
+        if (!principal.isAdmin() && !principal.id().equals(id))
+            throw new PermissionDeniedDataAccessException("No permission to task stats of person with id " + id, new Throwable());
+
+        return new ResponseEntity<>(personAssembler.toTaskStatsDTO(id, taskStatsService.findStats(id)), HttpStatus.OK);
+    }
+}
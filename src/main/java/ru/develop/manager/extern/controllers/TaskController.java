@@ -2,25 +2,56 @@ package ru.develop.manager.extern.controllers;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.PermissionDeniedDataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.develop.manager.application.services.PersonService;
+import ru.develop.manager.application.services.TaskAccessService;
+import ru.develop.manager.application.services.TaskBulkService;
+import ru.develop.manager.application.services.TaskExportService;
+import ru.develop.manager.application.services.TaskImportService;
+import ru.develop.manager.application.services.TaskQueryService;
 import ru.develop.manager.application.services.TaskService;
 import ru.develop.manager.domain.Comment;
 import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.PersonPrincipal;
 import ru.develop.manager.domain.Task;
-import ru.develop.manager.domain.enums.Role;
+import ru.develop.manager.domain.TaskFilter;
+import ru.develop.manager.domain.enums.FileFormat;
 import ru.develop.manager.extern.DTOs.CommentDTO;
+import ru.develop.manager.extern.DTOs.InfoCommentDTO;
 import ru.develop.manager.extern.DTOs.personDTO.ExecutorsDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.BulkResultDTO;
 import ru.develop.manager.extern.DTOs.taskDTO.CreateTaskDTO;
 import ru.develop.manager.extern.DTOs.taskDTO.InfoTaskDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskImportResultDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskCursorPageDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskTransitionDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskTransitionResultDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.UpdateTaskDTO;
 import ru.develop.manager.extern.assemblers.TaskAssembler;
+import ru.develop.manager.extern.exceptions.WrongDataException;
+import ru.develop.manager.extern.feed.TaskFeed;
+import ru.develop.manager.extern.utils.CursorCodec;
+import ru.develop.manager.extern.utils.ETags;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/v1/tasks")
@@ -29,35 +60,93 @@ import ru.develop.manager.extern.assemblers.TaskAssembler;
 public class TaskController {
     private final TaskService taskService;
     private final PersonService personService;
+    private final TaskQueryService taskQueryService;
+    private final TaskAccessService taskAccessService;
+    private final TaskBulkService taskBulkService;
+    private final TaskExportService taskExportService;
+    private final TaskImportService taskImportService;
+    private final TaskFeed taskFeed;
     private final TaskAssembler taskAssembler;
+    private final CursorCodec cursorCodec;
+
+    /**
+     * Сколько может идти выгрузка всех задач
+     */
+    @Value("${task.export.timeout:1h}")
+    private Duration exportTimeout;
 
     @Operation(summary = "Создание задачи",
             description = "Для создания необходимо в теле запроса передать CreateTaskDTO")
     @PostMapping
-    public ResponseEntity<InfoTaskDTO> createTask(@RequestBody CreateTaskDTO createTaskDTO, @AuthenticationPrincipal UserDetails userDetails){
-        Person author = personService.findByEmail(userDetails.getUsername()).orElseThrow(NullPointerException::new);
+    public ResponseEntity<InfoTaskDTO> createTask(@RequestBody CreateTaskDTO createTaskDTO, @AuthenticationPrincipal PersonPrincipal principal){
+        Person author = personService.findById(principal.id()).orElseThrow(NullPointerException::new);
         Task task = taskAssembler.fromDTOToTask(createTaskDTO);
         Task createdTask = taskService.createTask(task, author, createTaskDTO.getExecutorsId());
-        return new ResponseEntity<>(taskAssembler.fromTaskToDTO(createdTask), HttpStatus.CREATED);
+        return new ResponseEntity<>(taskQueryService.findTaskById(createdTask.getId()), HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Пакетное создание задач",
+            description = "Для создания необходимо в теле запроса передать массив CreateTaskDTO. " +
+                    "Задачи с ошибкой не создаются, остальные создаются; в ответе результат по каждой задаче")
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResultDTO> createTasks(@RequestBody List<CreateTaskDTO> createTaskDTOs,
+                                                     @AuthenticationPrincipal PersonPrincipal principal) throws WrongDataException {
+        Person author = personService.findById(principal.id()).orElseThrow(NullPointerException::new);
+        return new ResponseEntity<>(taskBulkService.createTasks(createTaskDTOs, author), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Пакетное обновление задач",
+            description = "Необходимо в теле запроса передать массив UpdateTaskDTO с id задач. " +
+                    "Пустые поля не меняются, исполнители добавляются к текущим; в ответе результат по каждой задаче")
+    @PutMapping("/bulk")
+    public ResponseEntity<BulkResultDTO> updateTasks(@RequestBody List<UpdateTaskDTO> updateTaskDTOs) throws WrongDataException {
+        return new ResponseEntity<>(taskBulkService.updateTasks(updateTaskDTOs), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Массовое изменение статуса и приоритета задач",
+            description = "Необходимо в теле запроса передать TaskTransitionDTO: список id задач и/или фильтры " +
+                    "(status, priority, authorId, executorId) и новые toStatus и/или toPriority. " +
+                    "Задачи меняются без загрузки, частями; в ответе количество выбранных и измененных задач")
+    @PutMapping("/bulk/transition")
+    public ResponseEntity<TaskTransitionResultDTO> transitionTasks(@RequestBody TaskTransitionDTO transitionDTO) throws WrongDataException {
+        return new ResponseEntity<>(taskBulkService.transitionTasks(transitionDTO), HttpStatus.OK);
     }
 
     @Operation(summary = "Обновление задачи по id",
             description = "Для обновленя задачи необходимо в RequestParam передать title и description." +
-                    "Можно ничего не передавать, в там случае название или описание останется прежним")
+                    "Можно ничего не передавать, в там случае название или описание останется прежним. " +
+                    "С заголовком If-Match задача меняется, только если ее версия совпадает, иначе 412")
     @PutMapping("/{id}")
     public ResponseEntity<InfoTaskDTO> updateTaskInfo(@PathVariable Long id,
                                                       @RequestParam("title") String title,
-                                                      @RequestParam("description") String description){
-        Task updatedTask = taskService.updateTaskInfo(id, title, description);
-        return new ResponseEntity<>(taskAssembler.fromTaskToDTO(updatedTask), HttpStatus.OK);
+                                                      @RequestParam("description") String description,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        taskService.updateTaskInfo(id, title, description, ETags.expectedVersion(ifMatch));
+        return withETag(taskQueryService.findTaskById(id));
     }
 
     @Operation(summary = "Возвращение задачи по id",
-            description = "Необходимо в url передать id задачи")
+            description = "Необходимо в url передать id задачи. Версия задачи отдается в ETag; " +
+                    "если она совпадает с заголовком If-None-Match, возвращается 304 без тела")
     @GetMapping("/{id}")
-    public ResponseEntity<InfoTaskDTO> findById(@PathVariable Long id){
-        Task foundedTask = taskService.findTaskById(id);
-        return new ResponseEntity<>(taskAssembler.fromTaskToDTO(foundedTask), HttpStatus.OK);
+    public ResponseEntity<InfoTaskDTO> findById(@PathVariable Long id,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        if (ifNoneMatch != null) {
+            Long version = taskQueryService.findTaskVersion(id);
+            if (ETags.matches(ifNoneMatch, version))
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version)).build();
+        }
+        return withETag(taskQueryService.findTaskById(id));
+    }
+
+    @Operation(summary = "Возвращение страницы комментариев задачи",
+            description = "Необходимо в url передать id задачи, а в качестве request param:" +
+                    "offset - номер страницы (счет от 0); limit - количество комментариев на 1 странице. Новые комментарии первыми")
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<Page<InfoCommentDTO>> findTaskComments(@PathVariable Long id,
+                                                                 @RequestParam("offset")  Integer offset,
+                                                                 @RequestParam("limit") Integer limit){
+        return new ResponseEntity<>(taskQueryService.findTaskComments(id, offset, limit), HttpStatus.OK);
     }
 
     @Operation(summary = "Возвращение страницы задач по id автора",
@@ -68,8 +157,7 @@ public class TaskController {
                                                                 @RequestParam("offset")  Integer offset,
                                                                 @RequestParam("limit") Integer limit){
 
-        Page<Task> taskPage = taskService.findTaskByAuthorId(authorId, offset, limit);
-        Page<InfoTaskDTO> dtoPage = taskPage.map(taskAssembler::fromTaskToDTO);
+        Page<InfoTaskDTO> dtoPage = taskQueryService.findTaskByAuthorId(authorId, offset, limit);
 
         return new ResponseEntity<>(dtoPage, HttpStatus.OK);
     }
@@ -81,13 +169,11 @@ public class TaskController {
     public ResponseEntity<Page<InfoTaskDTO>> findTaskByExecutorId(@PathVariable Long executorId,
                                                                   @RequestParam("offset")  Integer offset,
                                                                   @RequestParam("limit") Integer limit,
-                                                                  @AuthenticationPrincipal UserDetails userDetails){
-        Person person = personService.findByEmail(userDetails.getUsername()).orElseThrow();
-        if (!person.getRole().equals(Role.ROLE_ADMIN) && !person.getId().equals(executorId))
+                                                                  @AuthenticationPrincipal PersonPrincipal principal){
+        if (!principal.isAdmin() && !principal.id().equals(executorId))
             throw new PermissionDeniedDataAccessException("No permission to executor's tasks with id " + executorId, new Throwable());
 
-        Page<Task> taskPage = taskService.findTaskByExecutorId(executorId, offset, limit);
-        Page<InfoTaskDTO> dtoPage = taskPage.map(taskAssembler::fromTaskToDTO);
+        Page<InfoTaskDTO> dtoPage = taskQueryService.findTaskByExecutorId(executorId, offset, limit);
 
         return new ResponseEntity<>(dtoPage, HttpStatus.FOUND);
     }
@@ -98,33 +184,138 @@ public class TaskController {
     @GetMapping
     public ResponseEntity<Page<InfoTaskDTO>> findAllTasks(@RequestParam("offset")  Integer offset,
                                                           @RequestParam("limit") Integer limit) {
-        Page<Task> taskPage = taskService.findAllTasks(offset, limit);
-        Page<InfoTaskDTO> dtoPage = taskPage.map(taskAssembler::fromTaskToDTO);
+        Page<InfoTaskDTO> dtoPage = taskQueryService.findAllTasks(offset, limit);
 
         return new ResponseEntity<>(dtoPage, HttpStatus.FOUND);
     }
 
+    @Operation(summary = "Возвращение задач по курсору",
+            description = "Keyset-пагинация без подсчета общего количества. В качестве request param:" +
+                    "cursor - nextCursor из предыдущего ответа (пустой для первой страницы); limit - количество задач на 1 странице")
+    @GetMapping(params = "cursor")
+    public ResponseEntity<TaskCursorPageDTO> findAllTasksByCursor(@RequestParam("cursor") String cursor,
+                                                                  @RequestParam("limit") Integer limit) throws WrongDataException {
+        return new ResponseEntity<>(taskQueryService.findAllTasksAfter(cursorCodec.decode(cursor), limit), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Возвращение задач автора по курсору",
+            description = "Необходимо в url передать id автора, а в качестве request param:" +
+                    "cursor - nextCursor из предыдущего ответа (пустой для первой страницы); limit - количество задач на 1 странице")
+    @GetMapping(value = "/author/{authorId}", params = "cursor")
+    public ResponseEntity<TaskCursorPageDTO> findTaskByAuthorIdByCursor(@PathVariable Long authorId,
+                                                                        @RequestParam("cursor") String cursor,
+                                                                        @RequestParam("limit") Integer limit) throws WrongDataException {
+        return new ResponseEntity<>(taskQueryService.findTaskByAuthorIdAfter(authorId, cursorCodec.decode(cursor), limit), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Возвращение задач исполнителя по курсору",
+            description = "Необходимо в url передать id исполнителя, а в качестве request param:" +
+                    "cursor - nextCursor из предыдущего ответа (пустой для первой страницы); limit - количество задач на 1 странице")
+    @GetMapping(value = "/executor/{executorId}", params = "cursor")
+    public ResponseEntity<TaskCursorPageDTO> findTaskByExecutorIdByCursor(@PathVariable Long executorId,
+                                                                          @RequestParam("cursor") String cursor,
+                                                                          @RequestParam("limit") Integer limit,
+                                                                          @AuthenticationPrincipal PersonPrincipal principal) throws WrongDataException {
+        if (!principal.isAdmin() && !principal.id().equals(executorId))
+            throw new PermissionDeniedDataAccessException("No permission to executor's tasks with id " + executorId, new Throwable());
+
+        return new ResponseEntity<>(taskQueryService.findTaskByExecutorIdAfter(executorId, cursorCodec.decode(cursor), limit), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Лента изменений задач",
+            description = "Server-Sent Events: событие task (TaskFeedEventDTO) при создании, изменении, смене статуса, " +
+                    "приоритета или исполнителей, комментарии и удалении задач, где пользователь автор или исполнитель " +
+                    "(администратор получает все). Событие resync - часть событий пропущена, список задач нужно перечитать")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskChanges(@AuthenticationPrincipal PersonPrincipal principal) {
+        return taskFeed.subscribe(principal);
+    }
+
+    @Operation(summary = "Выгрузка всех задач",
+            description = "Потоковая выгрузка всех задач с автором, исполнителями и количеством комментариев, " +
+                    "format - ndjson (по умолчанию, одна задача в строке) или csv. Ответ идет частями (chunked), " +
+                    "сжимается gzip при Accept-Encoding: gzip")
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportTasks(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                          HttpServletResponse response) {
+        FileFormat exportFormat = taskAssembler.toFileFormat(format);
+        response.setContentType(exportFormat.contentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + exportFormat.extension() + "\"");
+
+        // таймаут только у выгрузки, остальные асинхронные запросы живут с таймаутом по умолчанию
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            OutputStream out = response.getOutputStream();
+            taskExportService.exportTasks(exportFormat, out);
+            out.flush();
+            return null;
+        });
+    }
+
+    @Operation(summary = "Загрузка задач из файла",
+            description = "Тело запроса - файл NDJSON (ImportTaskDTO в строке) или CSV (format=csv) с заголовком " +
+                    "title, description, status, priority, author_email, executor_emails, comments; поддерживает " +
+                    "Content-Encoding: gzip. Записи с ошибкой пропускаются. Если загрузка остановлена (state FAILED), " +
+                    "повторить запрос с тем же файлом и importId из ответа - она продолжится с необработанной записи")
+    @PostMapping("/import")
+    public ResponseEntity<TaskImportResultDTO> importTasks(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                                           @RequestParam(value = "importId", required = false) Long importId,
+                                                           @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+                                                           InputStream body,
+                                                           @AuthenticationPrincipal PersonPrincipal principal) throws WrongDataException, IOException {
+        FileFormat importFormat = taskAssembler.toFileFormat(format);
+        Person author = personService.findById(principal.id()).orElseThrow(NullPointerException::new);
+        InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body) : body;
+        return new ResponseEntity<>(taskImportService.importTasks(in, importFormat, importId, author), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Поиск задач",
+            description = "Все фильтры необязательны и объединяются через И: status, priority, authorId, executorId, " +
+                    "title - начало названия. offset - номер страницы (счет от 0); limit - количество задач на 1 странице. " +
+                    "Общее количество (totalElements) считается только при count=true")
+    @GetMapping("/search")
+    public ResponseEntity<Slice<InfoTaskDTO>> searchTasks(@RequestParam(value = "status", required = false) String status,
+                                                          @RequestParam(value = "priority", required = false) String priority,
+                                                          @RequestParam(value = "authorId", required = false) Long authorId,
+                                                          @RequestParam(value = "executorId", required = false) Long executorId,
+                                                          @RequestParam(value = "title", required = false) String title,
+                                                          @RequestParam(value = "offset", defaultValue = "0") Integer offset,
+                                                          @RequestParam(value = "limit", defaultValue = "20") Integer limit,
+                                                          @RequestParam(value = "count", defaultValue = "false") boolean count) {
+        TaskFilter filter = taskAssembler.toTaskFilter(status, priority, authorId, executorId, title);
+        return new ResponseEntity<>(taskQueryService.searchTasks(filter, offset, limit, count), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Полнотекстовый поиск задач",
+            description = "Ищет слова запроса q в названии, описании и комментариях задач. " +
+                    "Задачи отсортированы по релевантности (BM25), limit - максимальное количество задач (от 1 до search.fulltext.max-limit)")
+    @GetMapping("/fulltext")
+    public ResponseEntity<List<InfoTaskDTO>> searchFullText(@RequestParam("q") String query,
+                                                            @RequestParam(value = "limit", defaultValue = "20") Integer limit) throws WrongDataException {
+        return new ResponseEntity<>(taskQueryService.searchFullText(query, limit), HttpStatus.OK);
+    }
+
     @Operation(summary = "Изменение приоритета задачи",
-            description = "Необходимо в url передать id задачи, а в качестве request param новый приоритет")
+            description = "Необходимо в url передать id задачи, а в качестве request param новый приоритет. Поддерживает If-Match")
     @PutMapping("/priority/{id}")
     public ResponseEntity<InfoTaskDTO> changeTaskPriority(@RequestParam("priority") String priority,
-                                                          @PathVariable Long id) {
-        Task updatedTask = taskService.changeTaskPriority(priority, id);
-        return new ResponseEntity<>(taskAssembler.fromTaskToDTO(updatedTask), HttpStatus.OK);
+                                                          @PathVariable Long id,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        taskService.changeTaskPriority(priority, id, ETags.expectedVersion(ifMatch));
+        return withETag(taskQueryService.findTaskById(id));
     }
 
     @Operation(summary = "Изменение статуса задачи",
-            description = "Необходимо в url передать id задачи, а в качестве request param новый статус")
+            description = "Необходимо в url передать id задачи, а в качестве request param новый статус. Поддерживает If-Match")
     @PutMapping("/status/{id}")
     public ResponseEntity<InfoTaskDTO> changeTaskStatus(@RequestParam("status")String status,
                                                         @PathVariable Long id,
-                                                        @AuthenticationPrincipal UserDetails userDetails) {
-        Person person = personService.findByEmail(userDetails.getUsername()).orElseThrow();
-        if (!person.getRole().equals(Role.ROLE_ADMIN) && !personService.getTasksId(person.getId()).contains(id))
-            throw new PermissionDeniedDataAccessException("No permission to executor's tasks with id " + person.getId(), new Throwable());
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                        @AuthenticationPrincipal PersonPrincipal principal) {
+        if (!principal.isAdmin() && !taskAccessService.isExecutor(principal.id(), id))
+            throw new PermissionDeniedDataAccessException("No permission to executor's tasks with id " + principal.id(), new Throwable());
 
-        Task updatedTask = taskService.changeTaskStatus(status, id);
-        return new ResponseEntity<>(taskAssembler.fromTaskToDTO(updatedTask), HttpStatus.OK);
+        taskService.changeTaskStatus(status, id, ETags.expectedVersion(ifMatch));
+        return withETag(taskQueryService.findTaskById(id));
     }
 
     @Operation(summary = "Отправление комментария к задаче",
@@ -132,25 +323,25 @@ public class TaskController {
     @PutMapping("/comment/{id}")
     public ResponseEntity<InfoTaskDTO> sendTaskComment(@RequestBody CommentDTO commentDTO,
                                                        @PathVariable Long id,
-                                                       @AuthenticationPrincipal UserDetails userDetails) {
-        Person person = personService.findByEmail(userDetails.getUsername()).orElseThrow();
-        if (!person.getRole().equals(Role.ROLE_ADMIN) && !personService.getTasksId(person.getId()).contains(id))
-            throw new PermissionDeniedDataAccessException("No permission to executor's tasks with id " + person.getId(), new Throwable());
+                                                       @AuthenticationPrincipal PersonPrincipal principal) {
+        if (!principal.isAdmin() && !taskAccessService.isExecutor(principal.id(), id))
+            throw new PermissionDeniedDataAccessException("No permission to executor's tasks with id " + principal.id(), new Throwable());
 
         Comment comment = new Comment(commentDTO.getText());
-        Task commentedTask = taskService.sendTaskComment(comment, id);
-        return new ResponseEntity<>(taskAssembler.fromTaskToDTO(commentedTask), HttpStatus.OK);
+        taskService.sendTaskComment(comment, id);
+        return withETag(taskQueryService.findTaskById(id));
     }
 
     @Operation(summary = "Добавление исполнителей к задачи",
             description = "Необходимо в url передать id задачи, а телом запроса DTO списка id пользователей, " +
-                    "которых хотите сделать исполнителями")
+                    "которых хотите сделать исполнителями. Поддерживает If-Match")
     @PutMapping("/executor/{id}")
     public ResponseEntity<InfoTaskDTO> addExecutors(@RequestBody ExecutorsDTO executorsDTO,
-                                                    @PathVariable Long id){
+                                                    @PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
 
-        Task updatedTask = taskService.addExecutors(executorsDTO.getExecutorsId(), id);
-        return new ResponseEntity<>(taskAssembler.fromTaskToDTO(updatedTask), HttpStatus.OK);
+        taskService.addExecutors(executorsDTO.getExecutorsId(), id, ETags.expectedVersion(ifMatch));
+        return withETag(taskQueryService.findTaskById(id));
     }
 
     @Operation(summary = "Удаление задачи по id",
@@ -160,4 +351,8 @@ public class TaskController {
         taskService.deleteTaskById(id);
         return new ResponseEntity<>(HttpStatus.OK);
     }
+
+    private static ResponseEntity<InfoTaskDTO> withETag(InfoTaskDTO task) {
+        return ResponseEntity.ok().eTag(ETags.of(task.getVersion())).body(task);
+    }
 }
@@ -0,0 +1,34 @@
+package ru.develop.manager.extern.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Чтение из основной бд внутри read-only транзакции. Нужно там, где прочитанное живет дольше запроса
+ * (заполнение кэша): отстающая реплика сохранила бы старые данные надолго.
+ * В отличие от ReadYourWrites не закрепляет запрос за основной бд после вызова.
+ * Соединение должно быть взято внутри {@link #call}, поэтому работает через LazyConnectionDataSourceProxy
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> FORCED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    /**
+     * Выполнение action с чтением из основной бд
+     */
+    public static <T> T call(Supplier<T> action) {
+        if (FORCED.get() != null) return action.get();
+        FORCED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            FORCED.remove();
+        }
+    }
+
+    public static boolean isForced() {
+        return FORCED.get() != null;
+    }
+}
@@ -0,0 +1,79 @@
+package ru.develop.manager.extern.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Маршрутизация соединений: read-only транзакции уходят на реплики по кругу,
+ * все остальное - на основную бд.
+ * Должен использоваться через LazyConnectionDataSourceProxy, чтобы соединение
+ * бралось после того, как транзакция пометит себя read-only
+ * @see ReadYourWrites
+ * @see PrimaryReads
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica-";
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final boolean readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param primary основная бд
+     * @param replicas реплики для read-only транзакций
+     * @param readYourWrites закреплять запрос за основной бд после первой записи в нем
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, boolean readYourWrites) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readYourWrites = readYourWrites;
+        wrapTargets((name, target) -> target);
+    }
+
+    /**
+     * Замена пулов обертками, например ограничением соединений перед каждым пулом.
+     * Закрываются по-прежнему сами пулы
+     * @param wrapper Имя пула (primary, replica-N) и пул - обертка
+     */
+    public void wrapTargets(BiFunction<String, DataSource, DataSource> wrapper) {
+        Map<Object, Object> targets = new HashMap<>();
+        DataSource wrappedPrimary = wrapper.apply(PRIMARY, primary);
+        targets.put(PRIMARY, wrappedPrimary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(REPLICA + i, wrapper.apply(REPLICA + i, replicas.get(i)));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(wrappedPrimary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (readYourWrites && TransactionSynchronizationManager.isActualTransactionActive()) ReadYourWrites.pin();
+            return PRIMARY;
+        }
+        if (replicas.isEmpty() || ReadYourWrites.isPinned() || PrimaryReads.isForced()) return PRIMARY;
+        return REPLICA + Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+
+    /**
+     * Закрытие пулов реплик. Основная бд закрывается отдельно, как бин
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.develop.manager.extern.datasource;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Чтение своих записей: запрос, который уже писал в основную бд, читает тоже из нее,
+ * чтобы не увидеть отстающую реплику.
+ * Флаг хранится в атрибутах текущего http запроса, поэтому живет ровно один запрос
+ * и не утекает в потоки пулов, где запроса нет
+ */
+public final class ReadYourWrites {
+
+    private static final String PINNED = ReadYourWrites.class.getName() + ".PINNED";
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Закрепить текущий запрос за основной бд
+     */
+    public static void pin() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) attributes.setAttribute(PINNED, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    public static boolean isPinned() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null && attributes.getAttribute(PINNED, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+}
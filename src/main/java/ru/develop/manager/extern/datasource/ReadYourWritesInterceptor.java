@@ -0,0 +1,49 @@
+package ru.develop.manager.extern.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.develop.manager.domain.PersonPrincipal;
+
+import java.time.Duration;
+
+/**
+ * Продлевает чтение своих записей на следующие запросы того же пользователя:
+ * после записи его запросы в течение window читают из основной бд
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long personId = currentPersonId();
+        if (personId != null && recentWriters.getIfPresent(personId) != null) ReadYourWrites.pin();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Long personId = currentPersonId();
+        if (personId != null && ReadYourWrites.isPinned()) recentWriters.put(personId, Boolean.TRUE);
+    }
+
+    private static Long currentPersonId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof PersonPrincipal principal) {
+            return principal.id();
+        }
+        return null;
+    }
+}
@@ -2,10 +2,15 @@ package ru.develop.manager.extern.exceptions;
 
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.dao.PermissionDeniedDataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -14,6 +19,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 @ControllerAdvice
 @Slf4j
@@ -43,6 +49,45 @@ public class HandlerController {
         return new ResponseEntity<>(new AppError(HttpStatus.BAD_REQUEST, ex.getMessage()), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<AppError> handlePreconditionFailedException(PreconditionFailedException ex) {
+        log.warn(ex.getMessage());
+        return new ResponseEntity<>(new AppError(HttpStatus.PRECONDITION_FAILED, ex.getMessage()), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<AppError> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        log.warn(ex.getMessage());
+        return new ResponseEntity<>(new AppError(HttpStatus.CONFLICT, "Задача изменена параллельно, повторите запрос"), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<AppError> handleServiceOverloadedException(ServiceOverloadedException ex) {
+        log.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new AppError(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+    }
+
+    /**
+     * Соединение с бд не получено: пул или ограничение соединений (BulkheadDataSource) заполнены, бд недоступна
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<AppError> handleNoConnectionException(RuntimeException ex) {
+        log.warn("No database connection: {}", NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new AppError(HttpStatus.SERVICE_UNAVAILABLE, "Сервис перегружен, попробуйте позже"));
+    }
+
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<AppError> handleTimeoutException(TimeoutException ex) {
+        log.warn("Request timed out in a bounded executor");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new AppError(HttpStatus.SERVICE_UNAVAILABLE, "Сервис перегружен, попробуйте позже"));
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public Map<String, String> methodArgumentNotValidException(MethodArgumentNotValidException e){
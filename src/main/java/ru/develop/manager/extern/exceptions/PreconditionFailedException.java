@@ -0,0 +1,11 @@
+package ru.develop.manager.extern.exceptions;
+
+/**
+ * Выбрасывается, когда версия задачи из If-Match не совпадает с текущей.
+ * Отдается клиенту как 412
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
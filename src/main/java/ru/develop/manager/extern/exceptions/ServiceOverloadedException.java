@@ -0,0 +1,11 @@
+package ru.develop.manager.extern.exceptions;
+
+/**
+ * Выбрасывается, когда ограниченный ресурс (пул, очередь) переполнен.
+ * Отдается клиенту как 503 с заголовком Retry-After
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
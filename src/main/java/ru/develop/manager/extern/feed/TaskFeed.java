@@ -0,0 +1,277 @@
+package ru.develop.manager.extern.feed;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.develop.manager.domain.PersonPrincipal;
+import ru.develop.manager.domain.events.TaskFeedEvent;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskFeedEventDTO;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Лента изменений задач (Server-Sent Events) вместо опроса списка задач исполнителя.
+ * Пользователь получает изменения задач, где он автор или исполнитель, администратор - все.
+ * События рассылаются после фиксации транзакции. У каждого подписчика своя ограниченная очередь,
+ * которую отправляет виртуальный поток: медленный клиент не задерживает ни транзакцию, ни других.
+ * Несколько изменений одной задачи в очереди сливаются в последнее, а при переполнении
+ * старые события выбрасываются и клиент получает событие resync (перечитать список задач).
+ * События других узлов приходят через {@link TaskFeedBus}
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskFeed {
+
+    /**
+     * Имя события, после которого клиент должен перечитать задачи: часть событий потеряна
+     */
+    public static final String RESYNC = "resync";
+    public static final String TASK = "task";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Максимальное количество задач в очереди одного подписчика
+     */
+    @Value("${task.feed.buffer-size:256}")
+    private int bufferSize;
+
+    /**
+     * Время жизни соединения, после него клиент переподключается (EventSource делает это сам)
+     */
+    @Value("${task.feed.timeout:30m}")
+    private Duration timeout;
+
+    /**
+     * Подписчики по итендификатору пользователя, администраторы отдельно
+     */
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Set<Subscription> admins = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService executor;
+    private Counter dropped;
+    private Counter coalesced;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-feed-", 0).factory());
+        dropped = meterRegistry.counter("task.feed.events.dropped");
+        coalesced = meterRegistry.counter("task.feed.events.coalesced");
+        Gauge.builder("task.feed.subscribers", this, TaskFeed::subscribers).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscriptions.values().forEach(set -> set.forEach(Subscription::complete));
+        admins.forEach(Subscription::complete);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Подписка пользователя на ленту
+     * @param principal Пользователь
+     * @return Открытое соединение, первым уходит комментарий, чтобы клиент сразу получил заголовки
+     */
+    public SseEmitter subscribe(PersonPrincipal principal) {
+        SseEmitter emitter = createEmitter(timeout);
+        Subscription subscription = new Subscription(principal.id(), principal.isAdmin(), emitter);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+
+        if (subscription.admin) {
+            admins.add(subscription);
+        } else {
+            subscriptions.computeIfAbsent(subscription.personId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        }
+        subscription.ping();
+        log.debug("TaskFeed: person with id {} is subscribed", principal.id());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskFeedEvent event) {
+        deliver(toDTO(event), event.recipientIds());
+    }
+
+    /**
+     * Рассылка события подписчикам этого узла
+     * @param recipientIds Итендификаторы автора и исполнителей задачи
+     */
+    public void deliver(TaskFeedEventDTO event, Collection<Long> recipientIds) {
+        for (Long personId : recipientIds) {
+            Set<Subscription> personSubscriptions = subscriptions.get(personId);
+            if (personSubscriptions != null) personSubscriptions.forEach(s -> s.offer(event));
+        }
+        admins.forEach(s -> s.offer(event));
+    }
+
+    /**
+     * Событие resync всем подписчикам узла: часть событий других узлов потеряна
+     */
+    public void resync() {
+        subscriptions.values().forEach(set -> set.forEach(Subscription::resync));
+        admins.forEach(Subscription::resync);
+    }
+
+    public static TaskFeedEventDTO toDTO(TaskFeedEvent event) {
+        return new TaskFeedEventDTO(event.taskId(), event.type().name(), event.title(),
+                event.status() == null ? null : event.status().name(),
+                event.priority() == null ? null : event.priority().name());
+    }
+
+    /**
+     * Комментарий в простаивающие соединения: прокси не закрывают их по таймауту,
+     * а закрытые клиентом соединения обнаруживаются при записи
+     */
+    @Scheduled(fixedDelayString = "${task.feed.heartbeat:PT15S}")
+    public void heartbeat() {
+        subscriptions.values().forEach(set -> set.forEach(Subscription::ping));
+        admins.forEach(Subscription::ping);
+    }
+
+    public int subscribers() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum() + admins.size();
+    }
+
+    protected SseEmitter createEmitter(Duration timeout) {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    private void remove(Subscription subscription) {
+        subscription.close();
+        if (subscription.admin) {
+            admins.remove(subscription);
+            return;
+        }
+        subscriptions.computeIfPresent(subscription.personId, (id, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * Соединение подписчика с очередью событий. Очередь разбирает не больше одного
+     * виртуального потока, он запускается при первом событии и завершается на пустой очереди
+     */
+    private final class Subscription {
+
+        private final Long personId;
+        private final boolean admin;
+        private final SseEmitter emitter;
+
+        /**
+         * Последнее событие по каждой задаче в порядке первого изменения
+         */
+        private final LinkedHashMap<Long, TaskFeedEventDTO> pending = new LinkedHashMap<>();
+        private boolean overflowed;
+        private boolean ping;
+        private boolean draining;
+        private volatile boolean closed;
+
+        private Subscription(Long personId, boolean admin, SseEmitter emitter) {
+            this.personId = personId;
+            this.admin = admin;
+            this.emitter = emitter;
+        }
+
+        private synchronized void offer(TaskFeedEventDTO event) {
+            if (closed) return;
+            if (pending.containsKey(event.getTaskId())) {
+                coalesced.increment();
+            } else if (pending.size() >= bufferSize) {
+                Iterator<Long> eldest = pending.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                overflowed = true;
+                dropped.increment();
+            }
+            pending.put(event.getTaskId(), event);
+            startDraining();
+        }
+
+        private synchronized void resync() {
+            if (closed) return;
+            overflowed = true;
+            startDraining();
+        }
+
+        private synchronized void ping() {
+            if (closed) return;
+            ping = true;
+            startDraining();
+        }
+
+        private void startDraining() {
+            if (draining) return;
+            draining = true;
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining = false;
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<SseEmitter.SseEventBuilder> batch = new ArrayList<>();
+                synchronized (this) {
+                    if (closed || (pending.isEmpty() && !overflowed && !ping)) {
+                        draining = false;
+                        return;
+                    }
+                    if (overflowed) batch.add(SseEmitter.event().name(RESYNC).data("", MediaType.TEXT_PLAIN));
+                    for (TaskFeedEventDTO event : pending.values()) {
+                        batch.add(SseEmitter.event().name(TASK).data(event, MediaType.APPLICATION_JSON));
+                    }
+                    if (batch.isEmpty() && ping) batch.add(SseEmitter.event().comment("ping"));
+                    pending.clear();
+                    overflowed = false;
+                    ping = false;
+                }
+                try {
+                    for (SseEmitter.SseEventBuilder event : batch) emitter.send(event);
+                } catch (Exception e) {
+                    log.debug("TaskFeed: connection of person with id {} is closed", personId, e);
+                    remove(this);
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+
+        private synchronized void close() {
+            closed = true;
+            pending.clear();
+        }
+
+        private void complete() {
+            close();
+            emitter.complete();
+        }
+    }
+}
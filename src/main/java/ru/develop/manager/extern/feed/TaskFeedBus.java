@@ -0,0 +1,165 @@
+package ru.develop.manager.extern.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.develop.manager.domain.events.TaskFeedEvent;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskFeedEventDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Рассылка ленты задач между узлами через Redis pub/sub (канал task:feed).
+ * Подписчикам своего узла событие отдает TaskFeed сразу после фиксации, а в Redis оно публикуется
+ * пачками из отдельного виртуального потока, чтобы транзакции не ждали Redis. Свои сообщения узел пропускает.
+ * Если события не опубликованы (Redis недоступен, очередь переполнена), следующее сообщение помечается resync,
+ * и подписчики остальных узлов перечитывают задачи. Подписка общая с CacheInvalidationBus и запускается им,
+ * после (пере)подписки подписчики узла тоже получают resync.
+ * С cache.invalidation.enabled=false узел считается единственным
+ * @see TaskFeed
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskFeedBus implements MessageListener, SubscriptionListener {
+
+    public static final String CHANNEL = "task:feed";
+
+    private final TaskFeed taskFeed;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cache.invalidation.enabled:true}")
+    private boolean distributed;
+
+    /**
+     * Максимальное количество событий, ждущих публикации
+     */
+    @Value("${task.feed.publish-buffer:10000}")
+    private int publishBuffer;
+
+    @Value("${task.feed.publish-batch-size:500}")
+    private int publishBatchSize;
+
+    /**
+     * Пауза публикации после ошибки Redis
+     */
+    @Value("${task.feed.retry-after:5s}")
+    private Duration retryAfter;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicBoolean lost = new AtomicBoolean();
+
+    private BlockingQueue<Item> outgoing;
+    private Thread publisher;
+    private Counter dropped;
+
+    /**
+     * Событие с получателями
+     */
+    record Item(TaskFeedEventDTO event, Set<Long> recipientIds) {
+    }
+
+    /**
+     * Сообщение канала
+     * @param origin Узел-отправитель
+     * @param resync Часть событий отправителя потеряна
+     */
+    record Batch(String origin, boolean resync, List<Item> items) {
+    }
+
+    @PostConstruct
+    void init() {
+        dropped = meterRegistry.counter("task.feed.events.unpublished");
+        if (!distributed) return;
+        outgoing = new ArrayBlockingQueue<>(publishBuffer);
+        publisher = Thread.ofVirtual().name("task-feed-publisher").start(this::publishLoop);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (publisher != null) publisher.interrupt();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskFeedEvent event) {
+        if (!distributed) return;
+        if (!outgoing.offer(new Item(TaskFeed.toDTO(event), event.recipientIds()))) {
+            lost.set(true);
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Batch batch;
+        try {
+            batch = objectMapper.readValue(message.getBody(), Batch.class);
+        } catch (Exception e) {
+            log.warn("TaskFeedBus: malformed message {}", new String(message.getBody(), StandardCharsets.UTF_8), e);
+            return;
+        }
+        if (nodeId.equals(batch.origin())) return;
+        if (batch.resync()) taskFeed.resync();
+        for (Item item : batch.items()) taskFeed.deliver(item.event(), item.recipientIds());
+    }
+
+    /**
+     * Пока узел не был подписан, события других узлов терялись
+     */
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        taskFeed.resync();
+        log.info("TaskFeedBus: subscribed to {}", CHANNEL);
+    }
+
+    /**
+     * Публикация очереди пачками. После ошибки события пачки считаются потерянными:
+     * повтор мог бы доставить их после более новых
+     */
+    private void publishLoop() {
+        List<Item> items = new ArrayList<>();
+        while (true) {
+            try {
+                items.add(outgoing.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            outgoing.drainTo(items, publishBatchSize - 1);
+            boolean resync = lost.getAndSet(false);
+            try {
+                redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(new Batch(nodeId, resync, items)));
+            } catch (Exception e) {
+                lost.set(true);
+                dropped.increment(items.size());
+                log.warn("TaskFeedBus: {} events are not published, next attempt in {}: {}", items.size(), retryAfter, e.getMessage());
+                try {
+                    Thread.sleep(retryAfter);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+            items.clear();
+        }
+    }
+}
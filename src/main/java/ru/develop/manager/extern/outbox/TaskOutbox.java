@@ -0,0 +1,90 @@
+package ru.develop.manager.extern.outbox;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.develop.manager.domain.events.TaskChangedEvent;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запись событий изменения задач в outbox (таблица task_outbox) в транзакции изменения.
+ * Слушатель синхронный: события транзакции копятся и вставляются одним JDBC batch'ем
+ * перед фиксацией, после flush изменений задач - к этому моменту строки задач заблокированы,
+ * и события одной задачи из разных транзакций получают id в порядке фиксаций.
+ * Откат транзакции отменяет и события. Событие вне транзакции пишется в своей транзакции:
+ * с выключенным auto-commit без нее вставка откатилась бы при возврате соединения в пул
+ * @see TaskOutboxRelay
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskOutbox {
+
+    private static final String INSERT_EVENT = "INSERT INTO task_outbox (task_id, type, shard, created_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Количество частей outbox. Менять только с пустым outbox, иначе события
+     * одной задачи окажутся в разных частях и могут уйти не по порядку
+     */
+    @Value("${task.outbox.shards:16}")
+    private int shards;
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> insert(List.of(event)));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<TaskChangedEvent> pending = (List<TaskChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<TaskChangedEvent> events = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    entityManager.flush();
+                    insert(events);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TaskOutbox.this);
+                }
+            });
+            pending = events;
+        }
+        pending.add(event);
+    }
+
+    public int shard(Long taskId) {
+        return (int) Math.floorMod(taskId, (long) shards);
+    }
+
+    private void insert(List<TaskChangedEvent> events) {
+        if (events.isEmpty()) return;
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (TaskChangedEvent event : events) {
+            rows.add(new Object[]{event.taskId(), event.type().name(), shard(event.taskId()), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, rows);
+    }
+}
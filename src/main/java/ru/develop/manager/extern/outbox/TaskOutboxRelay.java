@@ -0,0 +1,225 @@
+package ru.develop.manager.extern.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.develop.manager.domain.TaskOutboxEvent;
+import ru.develop.manager.domain.TaskOutboxShard;
+import ru.develop.manager.extern.repositories.TaskOutboxRepository;
+import ru.develop.manager.extern.repositories.TaskOutboxShardRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Публикация outbox в Redis stream task.outbox.stream пачками. Часть outbox блокируется
+ * на время транзакции (FOR UPDATE SKIP LOCKED), поэтому узлы публикуют разные части,
+ * а события одной задачи уходят по порядку id. События удаляются в той же транзакции после XADD:
+ * если фиксация не удалась, пачка уйдет повторно (at-least-once, повторы отсеивать по полю id).
+ * Пока Redis недоступен, события копятся в бд. Публикует свой поток task-outbox-relay, не занимая общий планировщик.
+ * Пустой outbox проверяется одним запросом по первичному ключу, части перебираются только при наличии событий
+ * @see TaskOutbox
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskOutboxRelay {
+
+    private final TaskOutboxRepository taskOutboxRepository;
+    private final TaskOutboxShardRepository taskOutboxShardRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${task.outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${task.outbox.shards:16}")
+    private int shards;
+
+    @Value("${task.outbox.poll-interval:PT0.5S}")
+    private Duration pollInterval;
+
+    @Value("${task.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${task.outbox.stream:task:events}")
+    private String stream;
+
+    /**
+     * Примерная максимальная длина stream (XADD MAXLEN ~)
+     */
+    @Value("${task.outbox.stream-max-length:100000}")
+    private long streamMaxLength;
+
+    /**
+     * Сколько не обращаться к Redis после ошибки публикации
+     */
+    @Value("${task.outbox.retry-after:5s}")
+    private Duration retryAfter;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private volatile long redisDownUntil;
+
+    private Counter published;
+    private Counter failures;
+    private Timer delivery;
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        published = meterRegistry.counter("task.outbox.published");
+        failures = meterRegistry.counter("task.outbox.failures");
+        delivery = meterRegistry.timer("task.outbox.delivery");
+        Gauge.builder("task.outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("task.outbox.lag.seconds", lagMillis, lag -> lag.get() / 1000.0).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+        createShards();
+        executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("task-outbox-relay").daemon().factory());
+        executor.scheduleWithFixedDelay(this::relay, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) executor.shutdown();
+    }
+
+    /**
+     * Создание недостающих строк частей. Узлы могут стартовать одновременно, поэтому конфликт не ошибка
+     */
+    public void createShards() {
+        List<TaskOutboxShard> missing = IntStream.range(0, shards)
+                .filter(id -> !taskOutboxShardRepository.existsById(id))
+                .mapToObj(TaskOutboxShard::new)
+                .toList();
+        if (missing.isEmpty()) return;
+        try {
+            taskOutboxShardRepository.saveAll(missing);
+            log.info("TaskOutboxRelay: {} outbox shards are created", missing.size());
+        } catch (DataIntegrityViolationException e) {
+            log.info("TaskOutboxRelay: outbox shards are created by another node");
+        }
+    }
+
+    public void relay() {
+        if (!enabled) return;
+        if (!updateBacklog() || System.currentTimeMillis() < redisDownUntil) return;
+        List<Integer> order = new ArrayList<>(IntStream.range(0, shards).boxed().toList());
+        // узлы начинают с разных частей и реже сталкиваются на блокировках
+        Collections.shuffle(order);
+        try {
+            for (Integer shard : order) {
+                int sent;
+                do {
+                    sent = relayBatch(shard);
+                } while (sent == batchSize);
+            }
+        } catch (RuntimeException e) {
+            failures.increment();
+            redisDownUntil = System.currentTimeMillis() + retryAfter.toMillis();
+            log.warn("TaskOutboxRelay: events are not published, next attempt in {}: {}", retryAfter, e.getMessage());
+        }
+    }
+
+    /**
+     * Публикация одной пачки части в отдельной транзакции
+     * @return Количество опубликованных событий, 0 - часть пуста или ее публикует другой узел
+     */
+    public int relayBatch(int shard) {
+        Integer sent = new TransactionTemplate(transactionManager).execute(status -> {
+            TaskOutboxShard lock = taskOutboxShardRepository.tryLock(shard).orElse(null);
+            if (lock == null) return 0;
+            List<TaskOutboxEvent> events = taskOutboxRepository.findBatch(shard, PageRequest.of(0, batchSize));
+            if (events.isEmpty()) return 0;
+
+            publish(events);
+            taskOutboxRepository.deleteByIds(events.stream().map(TaskOutboxEvent::getId).toList());
+            lock.setLastEventId(events.get(events.size() - 1).getId());
+            lock.setRelayedAt(Instant.now());
+            return events.size();
+        });
+        return sent == null ? 0 : sent;
+    }
+
+    /**
+     * XADD пачки одним pipeline, порядок команд сохраняется
+     */
+    private void publish(List<TaskOutboxEvent> events) {
+        byte[] key = stream.getBytes(StandardCharsets.UTF_8);
+        RedisStreamCommands.XAddOptions options = RedisStreamCommands.XAddOptions.maxlen(streamMaxLength).approximateTrimming(true);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (TaskOutboxEvent event : events) {
+                Map<byte[], byte[]> fields = new LinkedHashMap<>();
+                fields.put(bytes("id"), bytes(event.getId()));
+                fields.put(bytes("taskId"), bytes(event.getTaskId()));
+                fields.put(bytes("type"), bytes(event.getType().name()));
+                fields.put(bytes("createdAt"), bytes(event.getCreatedAt().toEpochMilli()));
+                connection.streamCommands().xAdd(StreamRecords.rawBytes(fields).withStreamKey(key), options);
+            }
+            return null;
+        });
+        Instant now = Instant.now();
+        for (TaskOutboxEvent event : events) delivery.record(Duration.between(event.getCreatedAt(), now));
+        published.increment(events.size());
+    }
+
+    /**
+     * Возраст самого старого события и оценка размера outbox по крайним id (сверху: откаты оставляют пропуски),
+     * оба значения читаются по первичному ключу
+     * @return Есть ли события
+     */
+    private boolean updateBacklog() {
+        try {
+            TaskOutboxEvent oldest = taskOutboxRepository.findFirstByOrderByIdAsc().orElse(null);
+            if (oldest == null) {
+                pending.set(0);
+                lagMillis.set(0);
+                return false;
+            }
+            Long lastId = taskOutboxRepository.findLastId();
+            pending.set(lastId == null ? 0 : Math.max(0, lastId - oldest.getId() + 1));
+            lagMillis.set(Math.max(0, Duration.between(oldest.getCreatedAt(), Instant.now()).toMillis()));
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("TaskOutboxRelay: outbox backlog is unavailable", e);
+            return false;
+        }
+    }
+
+    private static byte[] bytes(Object value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+}
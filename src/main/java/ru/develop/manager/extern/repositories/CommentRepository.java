@@ -0,0 +1,51 @@
+package ru.develop.manager.extern.repositories;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.develop.manager.domain.Comment;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+    @Query(value = "SELECT c FROM Comment c WHERE c.task.id = :taskId ORDER BY c.id DESC",
+            countQuery = "SELECT COUNT(c) FROM Comment c WHERE c.task.id = :taskId")
+    Page<Comment> findByTaskId(@Param("taskId") Long taskId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.task.id IN :taskIds")
+    List<Comment> findByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Количество комментариев по каждой задаче одним запросом
+     */
+    @Query("SELECT c.task.id AS taskId, COUNT(c) AS count FROM Comment c WHERE c.task.id IN :taskIds GROUP BY c.task.id")
+    List<CommentCount> countByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Последние limit комментариев каждой задачи одним запросом.
+     * Native query без указанных таблиц сбрасывает (flush) весь контекст,
+     * а вместе с ним и очередь batch-загрузки, поэтому таблица указана явно
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "comment"))
+    @Query(value = "SELECT r.id, r.comment, r.task_id FROM (" +
+            "SELECT c.id, c.comment, c.task_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.task_id ORDER BY c.id DESC) AS rn " +
+            "FROM comment c WHERE c.task_id IN :taskIds) r " +
+            "WHERE r.rn <= :limit ORDER BY r.task_id, r.id DESC",
+            nativeQuery = true)
+    List<Comment> findLatestByTaskIds(@Param("taskIds") Collection<Long> taskIds, @Param("limit") int limit);
+
+    interface CommentCount {
+        Long getTaskId();
+        Long getCount();
+    }
+}
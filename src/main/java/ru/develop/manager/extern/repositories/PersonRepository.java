@@ -1,11 +1,14 @@
 package ru.develop.manager.extern.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.develop.manager.domain.Person;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +17,10 @@ public interface PersonRepository extends JpaRepository<Person, Long> {
     @Query("SELECT p FROM Person p WHERE p.email = :email")
     Optional<Person> findByEmail(@Param("email") String email);
 
+    @Query("SELECT p FROM Person p WHERE p.email IN :emails")
+    List<Person> findByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT p.id FROM Person p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
 }
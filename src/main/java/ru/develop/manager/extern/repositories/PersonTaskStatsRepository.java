@@ -0,0 +1,29 @@
+package ru.develop.manager.extern.repositories;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.develop.manager.domain.PersonTaskStats;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PersonTaskStatsRepository extends JpaRepository<PersonTaskStats, PersonTaskStats.Key> {
+
+    /**
+     * Счетчики пользователя по первичному ключу, без чтения задач
+     */
+    List<PersonTaskStats> findByPersonId(Long personId);
+
+    /**
+     * Счетчики пользователей с блокировкой до конца транзакции: изменения задач этих
+     * пользователей ждут сверку, а сверка - уже начатые изменения
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM PersonTaskStats s WHERE s.personId IN :personIds ORDER BY s.personId, s.role, s.status, s.priority")
+    List<PersonTaskStats> lockByPersonIds(@Param("personIds") Collection<Long> personIds);
+}
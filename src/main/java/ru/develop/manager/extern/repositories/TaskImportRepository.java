@@ -0,0 +1,9 @@
+package ru.develop.manager.extern.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.develop.manager.domain.TaskImport;
+
+@Repository
+public interface TaskImportRepository extends JpaRepository<TaskImport, Long> {
+}
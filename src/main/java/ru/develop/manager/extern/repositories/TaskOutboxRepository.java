@@ -0,0 +1,32 @@
+package ru.develop.manager.extern.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.develop.manager.domain.TaskOutboxEvent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskOutboxRepository extends JpaRepository<TaskOutboxEvent, Long> {
+
+    @Query("SELECT e FROM TaskOutboxEvent e WHERE e.shard = :shard ORDER BY e.id")
+    List<TaskOutboxEvent> findBatch(@Param("shard") int shard, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM TaskOutboxEvent e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Самое старое событие по первичному ключу, без просмотра таблицы
+     */
+    Optional<TaskOutboxEvent> findFirstByOrderByIdAsc();
+
+    @Query("SELECT MAX(e.id) FROM TaskOutboxEvent e")
+    Long findLastId();
+}
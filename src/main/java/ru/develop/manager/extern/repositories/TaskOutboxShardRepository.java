@@ -0,0 +1,21 @@
+package ru.develop.manager.extern.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.develop.manager.domain.TaskOutboxShard;
+
+import java.util.Optional;
+
+@Repository
+public interface TaskOutboxShardRepository extends JpaRepository<TaskOutboxShard, Integer> {
+
+    /**
+     * Блокировка части до конца транзакции без ожидания. Запрос нативный: H2Dialect
+     * заменяет SKIP LOCKED из lock timeout на обычный FOR UPDATE, хотя H2 его поддерживает
+     * @return Пусто, если часть уже публикует другой узел
+     */
+    @Query(value = "SELECT * FROM task_outbox_shard WHERE id = :id FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<TaskOutboxShard> tryLock(@Param("id") Integer id);
+}
@@ -2,18 +2,210 @@ package ru.develop.manager.extern.repositories;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.develop.manager.domain.Person;
 import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.enums.Priority;
+import ru.develop.manager.domain.enums.Status;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskSearchRepository {
+
+    /*
+     * Страницы задач подтягивают автора join'ом, а исполнители и комментарии
+     * догружаются пачками (hibernate.default_batch_fetch_size),
+     * поэтому число запросов на страницу не зависит от ее размера
+     */
+
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Page<Task> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Page<Task> findAll(Specification<Task> specification, Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
     Page<Task> findByAuthor(Person author, Pageable pageable);
 
+    @EntityGraph(attributePaths = "author")
     Page<Task> findByExecutorsId(Long executorId, Pageable pageable);
 
+    /*
+     * Keyset-пагинация: страница начинается сразу после последнего id предыдущей
+     * и читается по индексу, без OFFSET и без count(*)
+     */
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT t FROM Task t WHERE t.id > :afterId ORDER BY t.id")
+    Slice<Task> findAllAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT t FROM Task t WHERE t.author.id = :authorId AND t.id > :afterId ORDER BY t.id")
+    Slice<Task> findByAuthorIdAfter(@Param("authorId") Long authorId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT t FROM Task t JOIN t.executors e WHERE e.id = :executorId AND t.id > :afterId ORDER BY t.id")
+    Slice<Task> findByExecutorIdAfter(@Param("executorId") Long executorId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Все задачи по возрастанию id курсором бд (fetch size), для потоковой выгрузки.
+     * Читать в транзакции и закрывать поток; загруженные задачи очищать из контекста частями
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.author ORDER BY t.id")
+    Stream<Task> streamAll();
+
+    /**
+     * Проверка, что пользователь является исполнителем задачи.
+     * Использует индекс (executors_id, task_id) таблицы task_executors
+     */
+    @Query("SELECT CASE WHEN COUNT(t) > 0 THEN true ELSE false END " +
+            "FROM Task t JOIN t.executors e WHERE t.id = :taskId AND e.id = :executorId")
+    boolean existsExecutor(@Param("taskId") Long taskId, @Param("executorId") Long executorId);
+
+    /**
+     * Id задач исполнителя без загрузки самих задач
+     */
+    @Query("SELECT t.id FROM Task t JOIN t.executors e WHERE e.id = :executorId ORDER BY t.id")
+    List<Long> findTaskIdsByExecutorId(@Param("executorId") Long executorId, Pageable pageable);
+
+    /**
+     * Только версия задачи, для проверки ETag без сборки DTO
+     */
+    @Query("SELECT t.version FROM Task t WHERE t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Увеличение версии задачи, когда меняются не ее поля (например, добавлен комментарий)
+     */
+    @Modifying
+    @Query("UPDATE Task t SET t.version = t.version + 1 WHERE t.id = :id")
+    int incrementVersion(@Param("id") Long id);
+
+    /*
+     * Массовые переходы одним UPDATE без загрузки задач. Строки, где значение
+     * уже совпадает, не трогаются и не попадают в количество измененных
+     */
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = :status, t.version = t.version + 1 WHERE t.id IN :ids AND (t.status IS NULL OR t.status <> :status)")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") Status status);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.priority = :priority, t.version = t.version + 1 WHERE t.id IN :ids AND (t.priority IS NULL OR t.priority <> :priority)")
+    int updatePriority(@Param("ids") Collection<Long> ids, @Param("priority") Priority priority);
+
+    /*
+     * Количество задач по пользователю, статусу и приоритету для счетчиков person_task_stats:
+     * по выбранным задачам (до массового перехода) и по выбранным пользователям (сверка)
+     */
+
+    @Query("SELECT t.author.id AS personId, t.status AS status, t.priority AS priority, COUNT(t) AS tasks FROM Task t " +
+            "WHERE t.id IN :ids AND t.author IS NOT NULL GROUP BY t.author.id, t.status, t.priority")
+    List<StatsRow> countByAuthorForTasks(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT e.id AS personId, t.status AS status, t.priority AS priority, COUNT(DISTINCT t.id) AS tasks FROM Task t " +
+            "JOIN t.executors e WHERE t.id IN :ids GROUP BY e.id, t.status, t.priority")
+    List<StatsRow> countByExecutorForTasks(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.author.id AS personId, t.status AS status, t.priority AS priority, COUNT(t) AS tasks FROM Task t " +
+            "WHERE t.author.id IN :personIds GROUP BY t.author.id, t.status, t.priority")
+    List<StatsRow> countByAuthors(@Param("personIds") Collection<Long> personIds);
+
+    @Query("SELECT e.id AS personId, t.status AS status, t.priority AS priority, COUNT(DISTINCT t.id) AS tasks FROM Task t " +
+            "JOIN t.executors e WHERE e.id IN :personIds GROUP BY e.id, t.status, t.priority")
+    List<StatsRow> countByExecutors(@Param("personIds") Collection<Long> personIds);
+
+    /*
+     * Лента задач при массовом переходе: название, статус, приоритет и получатели без загрузки сущностей
+     */
+
+    @Query("SELECT t.id AS taskId, t.title AS title, t.status AS status, t.priority AS priority, a.id AS authorId " +
+            "FROM Task t LEFT JOIN t.author a WHERE t.id IN :ids")
+    List<FeedRow> findFeedRows(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.id AS taskId, e.id AS personId FROM Task t JOIN t.executors e WHERE t.id IN :ids")
+    List<TaskPersonRow> findExecutorRows(@Param("ids") Collection<Long> ids);
+
+    /*
+     * Аналитика по всем задачам (GET /admin/analytics)
+     */
+
+    @Query("SELECT t.status AS status, t.priority AS priority, COUNT(t) AS tasks FROM Task t " +
+            "WHERE t.status IS NOT NULL AND t.priority IS NOT NULL GROUP BY t.status, t.priority")
+    List<GroupRow> countByStatusAndPriority();
+
+    @Query("SELECT t.author.id AS personId, COUNT(t) AS tasks FROM Task t WHERE t.author IS NOT NULL " +
+            "GROUP BY t.author.id ORDER BY COUNT(t) DESC, t.author.id")
+    List<PersonTasksRow> findTopAuthors(Pageable pageable);
+
+    @Query("SELECT e.id AS personId, COUNT(t) AS tasks FROM Task t JOIN t.executors e " +
+            "WHERE t.status IS NULL OR t.status <> :done GROUP BY e.id ORDER BY COUNT(t) DESC, e.id")
+    List<PersonTasksRow> findBusiestExecutors(@Param("done") Status done, Pageable pageable);
+
+    @Query("SELECT COUNT(e) FROM Task t JOIN t.executors e")
+    long countExecutorLinks();
+
+    interface GroupRow {
+        Status getStatus();
+
+        Priority getPriority();
+
+        long getTasks();
+    }
+
+    interface PersonTasksRow {
+        Long getPersonId();
+
+        long getTasks();
+    }
+
+    interface FeedRow {
+        Long getTaskId();
+
+        String getTitle();
+
+        Status getStatus();
+
+        Priority getPriority();
+
+        Long getAuthorId();
+    }
+
+    interface TaskPersonRow {
+        Long getTaskId();
+
+        Long getPersonId();
+    }
+
+    interface StatsRow {
+        Long getPersonId();
+
+        Status getStatus();
+
+        Priority getPriority();
 
+        long getTasks();
+    }
 }
@@ -0,0 +1,29 @@
+package ru.develop.manager.extern.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import ru.develop.manager.domain.Task;
+
+import java.util.List;
+
+public interface TaskSearchRepository {
+
+    /**
+     * Срез задач по условию без count(*): запрашивается на одну строку больше страницы,
+     * чтобы узнать, есть ли следующая
+     * @param specification Условие поиска
+     * @param pageable Страница, сортировка по id если не задана
+     * @return Срез (Slice) задач с загруженным автором
+     */
+    Slice<Task> findSlice(Specification<Task> specification, Pageable pageable);
+
+    /**
+     * Id задач по условию без загрузки самих задач, keyset по id
+     * @param specification Условие поиска
+     * @param afterId Id, после которого начинается выборка (0 - с начала)
+     * @param limit Максимальное количество id
+     * @return Id задач по возрастанию
+     */
+    List<Long> findIdsAfter(Specification<Task> specification, Long afterId, int limit);
+}
@@ -0,0 +1,67 @@
+package ru.develop.manager.extern.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.develop.manager.domain.Task;
+
+import java.util.List;
+
+/**
+ * Реализация фрагмента TaskRepository, подключается Spring Data по суффиксу Impl
+ */
+public class TaskSearchRepositoryImpl implements TaskSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Task> findSlice(Specification<Task> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> root = query.from(Task.class);
+        root.fetch("author", JoinType.LEFT);
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        List<Task> tasks = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = tasks.size() > pageable.getPageSize();
+        List<Task> content = hasNext ? tasks.subList(0, pageable.getPageSize()) : tasks;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public List<Long> findIdsAfter(Specification<Task> specification, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(root.get("id"));
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        Predicate after = cb.greaterThan(root.get("id"), afterId);
+        query.where(predicate == null ? after : cb.and(predicate, after));
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
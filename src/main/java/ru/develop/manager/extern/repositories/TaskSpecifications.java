@@ -0,0 +1,69 @@
+package ru.develop.manager.extern.repositories;
+
+import jakarta.persistence.criteria.Join;
+import org.springframework.data.jpa.domain.Specification;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.TaskFilter;
+import ru.develop.manager.domain.enums.Priority;
+import ru.develop.manager.domain.enums.Status;
+
+import java.util.Collection;
+
+/**
+ * Условия поиска задач. Каждое условие опирается на один из индексов задачи:
+ * (status, priority, id), (author_id, status, id), (executors_id, task_id), (title)
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    /**
+     * Сборка условия из фильтра, пустые поля фильтра пропускаются
+     */
+    public static Specification<Task> of(TaskFilter filter) {
+        Specification<Task> specification = Specification.where(null);
+        if (filter.status() != null) specification = specification.and(hasStatus(filter.status()));
+        if (filter.priority() != null) specification = specification.and(hasPriority(filter.priority()));
+        if (filter.authorId() != null) specification = specification.and(hasAuthor(filter.authorId()));
+        if (filter.executorId() != null) specification = specification.and(hasExecutor(filter.executorId()));
+        if (filter.titlePrefix() != null && !filter.titlePrefix().isBlank())
+            specification = specification.and(titleStartsWith(filter.titlePrefix()));
+        return specification;
+    }
+
+    public static Specification<Task> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Task> hasStatus(Status status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Task> hasPriority(Priority priority) {
+        return (root, query, cb) -> cb.equal(root.get("priority"), priority);
+    }
+
+    public static Specification<Task> hasAuthor(Long authorId) {
+        return (root, query, cb) -> cb.equal(root.get("author").get("id"), authorId);
+    }
+
+    /**
+     * Пара (задача, исполнитель) уникальна (uk_task_executors_task_executor), поэтому join не дублирует строки
+     */
+    public static Specification<Task> hasExecutor(Long executorId) {
+        return (root, query, cb) -> {
+            Join<Task, Person> executors = root.join("executors");
+            return cb.equal(executors.get("id"), executorId);
+        };
+    }
+
+    /**
+     * LIKE 'prefix%' без ведущего шаблона, чтобы бд могла пройти по индексу
+     */
+    public static Specification<Task> titleStartsWith(String prefix) {
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("title"), pattern, '\\');
+    }
+}
@@ -0,0 +1,629 @@
+package ru.develop.manager.extern.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс задач с ранжированием BM25.
+ * Документ - задача: ее название, описание и все комментарии.
+ * <p>
+ * На диске индекс хранится в двух файлах каталога:
+ * сегмент (segment.ftx) - снимок всех документов, читается через отображение в память (mmap);
+ * журнал (journal.ftx) - изменения после снимка, дописывается на каждое изменение.
+ * При открытии сегмент загружается, журнал проигрывается поверх.
+ * {@link #compact()} пишет новый сегмент и очищает журнал.
+ * Полная перестройка загружает задачи через {@link #load} между {@link #beginLoad()} и {@link #endLoad()}
+ * <p>
+ * Вместе с документами хранится позиция - до какого события stream индекс согласован с бд.
+ * Журнал сбрасывается на диск (fsync) только при записи позиции {@link #setPosition}, поэтому сбой ОС
+ * может потерять изменения после последней позиции, но не саму позицию без предшествующих ей изменений:
+ * потерянное заново применяется из stream начиная с сохраненной позиции
+ */
+public class FullTextIndex implements Closeable {
+
+    private static final int SEGMENT_MAGIC = 0x46545831;
+    private static final int SEGMENT_VERSION = 2;
+
+    private static final byte OP_TASK = 1;
+    private static final byte OP_COMMENT = 2;
+    private static final byte OP_DELETE = 3;
+    private static final byte OP_REPLACE = 4;
+    private static final byte OP_POSITION = 5;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Path segmentPath;
+    private final Path journalPath;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * Запись журнала: изменения пишут под lock.writeLock, а сжатие заменяет журнал под lock.readLock.
+     * ReentrantLock вместо synchronized, чтобы ожидание не закрепляло виртуальный поток за носителем
+     */
+    private final ReentrantLock journalLock = new ReentrantLock();
+    /**
+     * Сжатие идет под lock.readLock, поэтому два сжатия (по расписанию и в конце перестройки) разводятся отдельной блокировкой
+     */
+    private final ReentrantLock compactLock = new ReentrantLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private long totalLength;
+
+    private DataOutputStream journal;
+    private FileChannel journalChannel;
+    private long journalOps;
+    private String position;
+
+    /**
+     * Счетчик изменений (indexTask, addComment, replaceTask, delete)
+     */
+    private long changes;
+    /**
+     * Номер последнего изменения каждой задачи во время перестройки, null вне ее
+     */
+    private Map<Long, Long> changedDuringLoad;
+    /**
+     * Задачи, загруженные перестройкой, null вне ее
+     */
+    private Set<Long> loaded;
+
+    /**
+     * Результат поиска
+     * @param taskId Итендификатор задачи
+     * @param score Оценка BM25
+     */
+    public record Hit(Long taskId, double score) {
+    }
+
+    /**
+     * Термы документа раздельно по задаче и комментариям,
+     * чтобы изменение задачи не требовало перечитывать комментарии
+     */
+    private static final class Document {
+        private Map<String, Integer> taskTerms = new HashMap<>();
+        private final Map<String, Integer> commentTerms = new HashMap<>();
+        private int length;
+    }
+
+    public FullTextIndex(Path directory) {
+        this.segmentPath = directory.resolve("segment.ftx");
+        this.journalPath = directory.resolve("journal.ftx");
+    }
+
+    /**
+     * Загрузка сегмента и проигрывание журнала. Оборванная последняя запись журнала отбрасывается
+     */
+    public void open() throws IOException {
+        lock.writeLock().lock();
+        try {
+            Files.createDirectories(segmentPath.getParent());
+            if (Files.exists(segmentPath)) loadSegment();
+            if (Files.exists(journalPath)) replayJournal();
+            journal = openJournal(StandardOpenOption.APPEND);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return documents.isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Позиция stream, до которой индекс согласован с бд
+     * @return null, если индекс не согласовывался (новый или построенный без stream)
+     */
+    public String position() {
+        lock.readLock().lock();
+        try {
+            return position;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Запись позиции в журнал со сбросом журнала на диск. Все изменения до нее тоже оказываются на диске
+     */
+    public void setPosition(String position) {
+        lock.writeLock().lock();
+        try {
+            this.position = position;
+            writeJournal(OP_POSITION, 0L, position);
+            journalLock.lock();
+            try {
+                journalChannel.force(false);
+            } finally {
+                journalLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Full-text journal sync failed", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Количество изменений в журнале после последнего сегмента
+     */
+    public long journalOps() {
+        lock.readLock().lock();
+        try {
+            return journalOps;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Индексация (или переиндексация) названия и описания задачи, комментарии сохраняются
+     */
+    public void indexTask(Long taskId, String title, String description) {
+        lock.writeLock().lock();
+        try {
+            applyTask(taskId, title, description);
+            writeJournal(OP_TASK, taskId, title, description);
+            touch(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Добавление текста комментария к документу задачи
+     */
+    public void addComment(Long taskId, String comment) {
+        lock.writeLock().lock();
+        try {
+            applyComment(taskId, comment);
+            writeJournal(OP_COMMENT, taskId, comment);
+            touch(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Замена документа задачи целиком: название, описание и все комментарии
+     */
+    public void replaceTask(Long taskId, String title, String description, Collection<String> comments) {
+        lock.writeLock().lock();
+        try {
+            applyDelete(taskId);
+            applyTask(taskId, title, description);
+            for (String comment : comments) applyComment(taskId, comment);
+            writeJournal(OP_REPLACE, taskId, out -> {
+                writeString(out, title);
+                writeString(out, description);
+                out.writeInt(comments.size());
+                for (String comment : comments) writeString(out, comment);
+            });
+            touch(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(Long taskId) {
+        lock.writeLock().lock();
+        try {
+            applyDelete(taskId);
+            writeJournal(OP_DELETE, taskId);
+            touch(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Начало полной перестройки: с этого момента запоминается, какие задачи менялись,
+     * чтобы {@link #load} не затер их данными, прочитанными раньше изменения
+     */
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad = new HashMap<>();
+            loaded = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Номер последнего изменения. Берется перед чтением пачки задач из бд и передается в {@link #load}
+     */
+    public long changeMark() {
+        lock.readLock().lock();
+        try {
+            return changes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Загрузка задачи целиком без записи в журнал. Используется при полной перестройке,
+     * которая завершается {@link #compact()}
+     * @param mark {@link #changeMark()} до чтения задачи из бд
+     * @return false, если задача менялась (или удалена) после mark и не загружена - ее надо перечитать
+     */
+    public boolean load(Long taskId, String title, String description, Collection<String> comments, long mark) {
+        lock.writeLock().lock();
+        try {
+            Long changed = changedDuringLoad == null ? null : changedDuringLoad.get(taskId);
+            if (changed != null && changed > mark) return false;
+            applyDelete(taskId);
+            applyTask(taskId, title, description);
+            for (String comment : comments) applyComment(taskId, comment);
+            loaded.add(taskId);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаление задач, которых не было среди загруженных и которые не менялись во время перестройки
+     * (удалены из бд, пока индекс не получал изменений). Без журнала, как и {@link #load}
+     * @return Количество удаленных задач
+     */
+    public int removeNotLoaded() {
+        lock.writeLock().lock();
+        try {
+            List<Long> missing = documents.keySet().stream()
+                    .filter(taskId -> !loaded.contains(taskId) && !changedDuringLoad.containsKey(taskId))
+                    .toList();
+            missing.forEach(this::applyDelete);
+            return missing.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endLoad() {
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad = null;
+            loaded = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Поиск по всем термам запроса (OR) с ранжированием BM25
+     * @param query Текст запроса
+     * @param limit Максимальное количество результатов
+     * @return Задачи по убыванию оценки
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty() || terms.isEmpty() || limit <= 0) return List.of();
+            int documentsCount = documents.size();
+            double averageLength = (double) totalLength / documentsCount;
+
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Integer> termPostings = postings.get(term);
+                if (termPostings == null) continue;
+                int df = termPostings.size();
+                double idf = Math.log(1 + (documentsCount - df + 0.5) / (df + 0.5));
+                for (Map.Entry<Long, Integer> posting : termPostings.entrySet()) {
+                    int tf = posting.getValue();
+                    int length = documents.get(posting.getKey()).length;
+                    double score = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                    scores.merge(posting.getKey(), score, Double::sum);
+                }
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+            for (Map.Entry<Long, Double> score : scores.entrySet()) {
+                top.add(new Hit(score.getKey(), score.getValue()));
+                if (top.size() > limit) top.poll();
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Запись нового сегмента (через временный файл и атомарную замену) и очистка журнала.
+     * Сегмент сбрасывается на диск до замены, а замена - до очистки журнала,
+     * чтобы сбой не оставил ни пустой сегмент, ни очищенный журнал без сегмента.
+     * Поиск во время записи продолжает работать, изменения ждут ее окончания
+     */
+    public void compact() throws IOException {
+        compactLock.lock();
+        lock.readLock().lock();
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(segmentPath.getParent(), "segment-", ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+                out.writeInt(SEGMENT_MAGIC);
+                out.writeInt(SEGMENT_VERSION);
+                writeString(out, position);
+                out.writeInt(documents.size());
+                for (Map.Entry<Long, Document> entry : documents.entrySet()) {
+                    out.writeLong(entry.getKey());
+                    writeTerms(out, entry.getValue().taskTerms);
+                    writeTerms(out, entry.getValue().commentTerms);
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, segmentPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory();
+            journalLock.lock();
+            try {
+                journal.close();
+                journal = openJournal(StandardOpenOption.TRUNCATE_EXISTING);
+                journalOps = 0;
+            } finally {
+                journalLock.unlock();
+            }
+        } finally {
+            lock.readLock().unlock();
+            compactLock.unlock();
+            if (temp != null) Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (journal != null) journal.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void touch(Long taskId) {
+        changes++;
+        if (changedDuringLoad != null) changedDuringLoad.put(taskId, changes);
+    }
+
+    /**
+     * Сброс на диск записи каталога после замены сегмента. Не все ОС позволяют открыть каталог (Windows),
+     * там замена остается на файловой системе
+     */
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(segmentPath.getParent(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // каталог не открывается как файл
+        }
+    }
+
+    private void applyTask(Long taskId, String title, String description) {
+        Document document = documents.computeIfAbsent(taskId, id -> new Document());
+        adjust(taskId, document, document.taskTerms, -1);
+        document.taskTerms = Tokenizer.frequencies(title, description);
+        adjust(taskId, document, document.taskTerms, 1);
+    }
+
+    private void applyComment(Long taskId, String comment) {
+        Document document = documents.computeIfAbsent(taskId, id -> new Document());
+        Map<String, Integer> terms = Tokenizer.frequencies(comment);
+        adjust(taskId, document, terms, 1);
+        terms.forEach((term, tf) -> document.commentTerms.merge(term, tf, Integer::sum));
+    }
+
+    private void applyDelete(Long taskId) {
+        Document document = documents.remove(taskId);
+        if (document == null) return;
+        adjust(taskId, document, document.taskTerms, -1);
+        adjust(taskId, document, document.commentTerms, -1);
+    }
+
+    /**
+     * Добавление (sign = 1) или вычитание (sign = -1) частот термов в postings и длину документа
+     */
+    private void adjust(Long taskId, Document document, Map<String, Integer> terms, int sign) {
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            int delta = sign * term.getValue();
+            Map<Long, Integer> termPostings = postings.computeIfAbsent(term.getKey(), t -> new HashMap<>());
+            if (termPostings.merge(taskId, delta, Integer::sum) <= 0) termPostings.remove(taskId);
+            if (termPostings.isEmpty()) postings.remove(term.getKey());
+            document.length += delta;
+            totalLength += delta;
+        }
+    }
+
+    private void loadSegment() throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int magic = buffer.getInt();
+            int version = buffer.getInt();
+            if (magic != SEGMENT_MAGIC || version < 1 || version > SEGMENT_VERSION) {
+                throw new IOException("Unknown full-text segment format: " + segmentPath);
+            }
+            // в сегменте первой версии позиции нет, индекс согласуется заново
+            if (version >= 2) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                position = bytes.length == 0 ? null : new String(bytes, StandardCharsets.UTF_8);
+            }
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                long taskId = buffer.getLong();
+                Document document = new Document();
+                document.taskTerms = readTerms(buffer);
+                document.commentTerms.putAll(readTerms(buffer));
+                documents.put(taskId, document);
+                adjust(taskId, document, document.taskTerms, 1);
+                adjust(taskId, document, document.commentTerms, 1);
+            }
+        }
+    }
+
+    /**
+     * Проигрывание журнала. Оборванная последняя запись (сбой во время записи) отрезается,
+     * чтобы новые записи не дописывались после нее
+     */
+    private void replayJournal() throws IOException {
+        long validLength = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalPath), 1 << 16))) {
+            while (true) {
+                long recordLength = Byte.BYTES + Long.BYTES;
+                byte op = in.readByte();
+                long taskId = in.readLong();
+                switch (op) {
+                    case OP_TASK -> {
+                        String title = readString(in);
+                        String description = readString(in);
+                        recordLength += stringLength(title) + stringLength(description);
+                        applyTask(taskId, title, description);
+                    }
+                    case OP_COMMENT -> {
+                        String comment = readString(in);
+                        recordLength += stringLength(comment);
+                        applyComment(taskId, comment);
+                    }
+                    case OP_DELETE -> applyDelete(taskId);
+                    case OP_REPLACE -> {
+                        String title = readString(in);
+                        String description = readString(in);
+                        int count = in.readInt();
+                        List<String> comments = new ArrayList<>(count);
+                        for (int i = 0; i < count; i++) comments.add(readString(in));
+                        recordLength += stringLength(title) + stringLength(description) + Integer.BYTES;
+                        for (String comment : comments) recordLength += stringLength(comment);
+                        applyDelete(taskId);
+                        applyTask(taskId, title, description);
+                        for (String comment : comments) applyComment(taskId, comment);
+                    }
+                    case OP_POSITION -> {
+                        String value = readString(in);
+                        recordLength += stringLength(value);
+                        position = value;
+                    }
+                    default -> throw new EOFException("Unknown full-text journal op " + op);
+                }
+                validLength += recordLength;
+                journalOps++;
+            }
+        } catch (EOFException e) {
+            try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+                if (channel.size() > validLength) channel.truncate(validLength);
+            }
+        }
+    }
+
+    private void writeJournal(byte op, Long taskId, String... values) {
+        writeJournal(op, taskId, out -> {
+            for (String value : values) writeString(out, value);
+        });
+    }
+
+    private void writeJournal(byte op, Long taskId, JournalRecord record) {
+        journalLock.lock();
+        try {
+            journal.writeByte(op);
+            journal.writeLong(taskId);
+            record.write(journal);
+            journal.flush();
+            journalOps++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Full-text journal write failed", e);
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private DataOutputStream openJournal(StandardOpenOption mode) throws IOException {
+        journalChannel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode);
+        return new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(journalChannel)));
+    }
+
+    /**
+     * Тело записи журнала после операции и id задачи
+     */
+    @FunctionalInterface
+    private interface JournalRecord {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static void writeTerms(DataOutputStream out, Map<String, Integer> terms) throws IOException {
+        out.writeInt(terms.size());
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            writeString(out, term.getKey());
+            out.writeInt(term.getValue());
+        }
+    }
+
+    private static Map<String, Integer> readTerms(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        Map<String, Integer> terms = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            terms.put(new String(bytes, StandardCharsets.UTF_8), buffer.getInt());
+        }
+        return terms;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static long stringLength(String value) {
+        return Integer.BYTES + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
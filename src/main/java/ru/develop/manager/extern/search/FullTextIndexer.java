@@ -0,0 +1,341 @@
+package ru.develop.manager.extern.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.develop.manager.domain.Comment;
+import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.events.TaskChangedEvent;
+import ru.develop.manager.extern.repositories.CommentRepository;
+import ru.develop.manager.extern.repositories.TaskRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поддержка полнотекстового индекса в актуальном состоянии:
+ * изменения задач применяются после фиксации транзакции,
+ * журнал периодически сворачивается в новый сегмент,
+ * пустой индекс при первом запуске строится из бд в фоне.
+ * <p>
+ * Своих событий узлу недостаточно: изменения других узлов, события, потерянные при сбое, и ошибки индексации
+ * расходили бы индекс с бд. Поэтому каждый узел читает весь stream outbox (task.outbox.stream) XREAD'ом
+ * от позиции, сохраненной в индексе, перечитывает задачи событий из основной бд и заменяет их документы целиком,
+ * после чего сохраняет позицию. Повторное применение события безвредно.
+ * Если события после позиции могли быть отрезаны (MAXLEN) или потеряны Redis, а также у индекса нет позиции,
+ * индекс перестраивается из бд, позицией становится последнее событие stream до перестройки.
+ * Stream читает свой поток fulltext-sync, перестройка идет в нем же
+ * @see FullTextIndex
+ * @see ru.develop.manager.extern.outbox.TaskOutboxRelay
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FullTextIndexer {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int REBUILD_RETRIES = 3;
+    /**
+     * Позиция перестройки при пустом stream
+     */
+    private static final String STREAM_START = "0-0";
+
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${search.fulltext.directory:./data/fulltext}")
+    private Path directory;
+
+    /**
+     * Сколько изменений должно накопиться в журнале, чтобы записать новый сегмент
+     */
+    @Value("${search.fulltext.compact-after-ops:10000}")
+    private long compactAfterOps;
+
+    /**
+     * Согласование индекса по stream outbox. Без него индекс получает только изменения своего узла
+     */
+    @Value("${search.fulltext.sync.enabled:true}")
+    private boolean syncEnabled;
+
+    @Value("${search.fulltext.sync.poll-interval:PT1S}")
+    private Duration syncPollInterval;
+
+    @Value("${search.fulltext.sync.batch-size:500}")
+    private int syncBatchSize;
+
+    /**
+     * Пауза согласования после ошибки
+     */
+    @Value("${search.fulltext.sync.retry-after:5s}")
+    private Duration syncRetryAfter;
+
+    @Value("${task.outbox.stream:task:events}")
+    private String stream;
+
+    @Value("${task.outbox.stream-max-length:100000}")
+    private long streamMaxLength;
+
+    private FullTextIndex index;
+    private ScheduledExecutorService executor;
+    /**
+     * Пустой индекс уже построен без позиции, пока Redis был недоступен
+     */
+    private boolean builtWithoutStream;
+    private long syncPausedUntil;
+
+    @PostConstruct
+    void open() throws IOException {
+        index = new FullTextIndex(directory);
+        index.open();
+        log.info("FullTextIndexer: {} tasks loaded from {}", index.size(), directory);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!syncEnabled) {
+            if (index.isEmpty()) Thread.ofPlatform().name("fulltext-rebuild").daemon().start(this::rebuild);
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("fulltext-sync").daemon().factory());
+        executor.scheduleWithFixedDelay(() -> {
+            if (System.currentTimeMillis() < syncPausedUntil) return;
+            try {
+                sync();
+            } catch (RuntimeException e) {
+                syncPausedUntil = System.currentTimeMillis() + syncRetryAfter.toMillis();
+                log.warn("FullTextIndexer: sync failed, next attempt in {}: {}", syncRetryAfter, e.getMessage());
+            }
+        }, 0, syncPollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        try {
+            switch (event.type()) {
+                case CREATED, UPDATED -> index.indexTask(event.taskId(), event.title(), event.description());
+                case COMMENTED -> index.addComment(event.taskId(), event.comment());
+                case DELETED -> index.delete(event.taskId());
+                case CHANGED -> {
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("FullTextIndexer: task {} is not indexed until the event is read from the stream", event.taskId(), e);
+        }
+    }
+
+    /**
+     * Применение событий stream после позиции индекса пачками по syncBatchSize.
+     * Наличие события не позже позиции проверяется после чтения: stream отрезается с начала,
+     * значит, в момент чтения ничего после позиции еще не было отрезано
+     */
+    public void sync() {
+        String position = index.position();
+        String tail;
+        try {
+            if (position != null) {
+                while (true) {
+                    List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                            StreamReadOptions.empty().count(syncBatchSize), StreamOffset.create(stream, ReadOffset.from(position)));
+                    if (!isContinuous(position, records)) break;
+                    if (records == null || records.isEmpty()) return;
+                    position = apply(records);
+                    if (records.size() < syncBatchSize) return;
+                }
+            }
+            tail = lastRecordId();
+        } catch (RuntimeException e) {
+            if (!index.isEmpty() || builtWithoutStream) throw e;
+            // без Redis пустой индекс строится один раз без позиции и согласуется, когда Redis вернется
+            log.warn("FullTextIndexer: stream is unavailable, index is built without position: {}", e.getMessage());
+            builtWithoutStream = true;
+            rebuild();
+            return;
+        }
+        log.info("FullTextIndexer: events after position {} may be lost, index is rebuilt up to {}", position, tail);
+        if (rebuild()) index.setPosition(tail);
+    }
+
+    @Scheduled(fixedDelayString = "${search.fulltext.compact-interval:PT10M}")
+    public void compactIfNeeded() {
+        if (index.journalOps() < compactAfterOps) return;
+        compact();
+    }
+
+    /**
+     * Поиск задач
+     * @param query Текст запроса
+     * @param limit Максимальное количество результатов
+     * @return Задачи по убыванию релевантности
+     */
+    public List<FullTextIndex.Hit> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    /**
+     * Полная перестройка индекса из бд пачками по id (keyset), без журнала,
+     * в конце пишется сегмент.
+     * Живые изменения идут параллельно, поэтому задачи, изменившиеся или удаленные после чтения пачки,
+     * не загружаются, а перечитываются в конце. Чтение не read-only, чтобы идти в основную бд, а не в отстающую реплику
+     */
+    public boolean rebuild() {
+        log.info("FullTextIndexer: rebuild started");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Set<Long> stale = new TreeSet<>();
+        long afterId = 0L;
+        int total = 0;
+        index.beginLoad();
+        try {
+            while (true) {
+                long from = afterId;
+                long mark = index.changeMark();
+                Slice<Task> tasks = transaction.execute(status -> {
+                    Slice<Task> batch = taskRepository.findAllAfter(from, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                    load(batch.getContent(), mark, stale);
+                    return batch;
+                });
+                if (tasks == null || !tasks.hasContent()) break;
+                total += tasks.getNumberOfElements();
+                afterId = tasks.getContent().get(tasks.getNumberOfElements() - 1).getId();
+                if (!tasks.hasNext()) break;
+            }
+            for (int attempt = 0; attempt < REBUILD_RETRIES && !stale.isEmpty(); attempt++) {
+                List<Long> ids = List.copyOf(stale);
+                stale.clear();
+                long mark = index.changeMark();
+                transaction.executeWithoutResult(status -> load(taskRepository.findAllById(ids), mark, stale));
+            }
+            if (!stale.isEmpty()) log.warn("FullTextIndexer: tasks {} kept changing during rebuild and are indexed from events only", stale);
+            int removed = index.removeNotLoaded();
+            if (removed > 0) log.info("FullTextIndexer: {} tasks missing in the database are removed", removed);
+        } finally {
+            index.endLoad();
+        }
+        boolean written = compact();
+        log.info("FullTextIndexer: rebuild finished, {} tasks indexed", total);
+        return written;
+    }
+
+    /**
+     * Замена документов задач пачки событий данными основной бд, удаленные задачи убираются
+     * @return Id последнего события пачки - новая позиция
+     */
+    private String apply(List<MapRecord<String, Object, Object>> records) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (MapRecord<String, Object, Object> record : records) {
+            Object taskId = record.getValue().get("taskId");
+            if (taskId != null) ids.add(Long.valueOf(taskId.toString()));
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Map<Long, List<String>> comments = comments(ids);
+            Set<Long> missing = new HashSet<>(ids);
+            for (Task task : taskRepository.findAllById(ids)) {
+                index.replaceTask(task.getId(), task.getTitle(), task.getDescription(), comments.getOrDefault(task.getId(), List.of()));
+                missing.remove(task.getId());
+            }
+            missing.forEach(index::delete);
+        });
+        String position = records.get(records.size() - 1).getId().getValue();
+        index.setPosition(position);
+        return position;
+    }
+
+    /**
+     * События после позиции не отрезаны, если в stream еще есть событие не позже нее.
+     * От начала stream (индекс перестроен при пустом stream) события непрерывны, пока stream не дорос
+     * до MAXLEN и не отрезался
+     */
+    private boolean isContinuous(String position, List<MapRecord<String, Object, Object>> records) {
+        if (STREAM_START.equals(position)) {
+            if (records == null || records.isEmpty()) return true;
+            Long length = redisTemplate.opsForStream().size(stream);
+            return length != null && length < streamMaxLength;
+        }
+        List<MapRecord<String, Object, Object>> previous = redisTemplate.opsForStream().reverseRange(stream,
+                Range.leftUnbounded(Range.Bound.inclusive(position)), Limit.limit().count(1));
+        return previous != null && !previous.isEmpty();
+    }
+
+    private String lastRecordId() {
+        List<MapRecord<String, Object, Object>> last = redisTemplate.opsForStream().reverseRange(stream, Range.unbounded(), Limit.limit().count(1));
+        return last == null || last.isEmpty() ? STREAM_START : last.get(0).getId().getValue();
+    }
+
+    /**
+     * Загрузка задач с комментариями в индекс. Задачи, изменившиеся после mark, попадают в stale
+     */
+    private void load(List<Task> tasks, long mark, Set<Long> stale) {
+        Map<Long, List<String>> comments = comments(tasks.stream().map(Task::getId).toList());
+        for (Task task : tasks) {
+            if (!index.load(task.getId(), task.getTitle(), task.getDescription(), comments.getOrDefault(task.getId(), List.of()), mark)) {
+                stale.add(task.getId());
+            }
+        }
+    }
+
+    private Map<Long, List<String>> comments(Collection<Long> taskIds) {
+        Map<Long, List<String>> comments = new HashMap<>();
+        if (taskIds.isEmpty()) return comments;
+        for (Comment comment : commentRepository.findByTaskIds(taskIds)) {
+            comments.computeIfAbsent(comment.getTask().getId(), id -> new ArrayList<>()).add(comment.getComment());
+        }
+        return comments;
+    }
+
+    private boolean compact() {
+        try {
+            index.compact();
+            log.info("FullTextIndexer: segment with {} tasks is written", index.size());
+            return true;
+        } catch (IOException e) {
+            log.error("FullTextIndexer: segment is not written", e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        index.close();
+    }
+}
@@ -0,0 +1,55 @@
+package ru.develop.manager.extern.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Разбиение текста на термы: буквы и цифры в нижнем регистре, 'ё' приводится к 'е',
+ * термы короче двух символов отбрасываются
+ */
+final class Tokenizer {
+
+    private static final int MIN_LENGTH = 2;
+
+    private Tokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) return terms;
+        StringBuilder term = new StringBuilder();
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); ) {
+            int codePoint = lower.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                term.appendCodePoint(codePoint == 'ё' ? 'е' : codePoint);
+            } else {
+                flush(term, terms);
+            }
+        }
+        flush(term, terms);
+        return terms;
+    }
+
+    /**
+     * Частоты термов во всех переданных текстах
+     */
+    static Map<String, Integer> frequencies(String... texts) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String text : texts) {
+            for (String term : tokenize(text)) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+        }
+        return frequencies;
+    }
+
+    private static void flush(StringBuilder term, List<String> terms) {
+        if (term.length() >= MIN_LENGTH) terms.add(term.toString());
+        term.setLength(0);
+    }
+}
@@ -0,0 +1,117 @@
+package ru.develop.manager.extern.threads;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ограничение одновременных соединений перед пулом Hikari. С виртуальными потоками запросы
+ * больше не ограничены пулом потоков Tomcat, и без ограничения тысячи запросов встали бы
+ * в очередь Hikari на connectionTimeout. Здесь соединение получают не больше maxConcurrent
+ * потоков, ждут не больше maxWaiting и не дольше timeout, остальные сразу получают
+ * SQLTransientConnectionException (клиенту - 503). Разрешение возвращается при закрытии соединения.
+ * Метрики помечаются тегом pool - у основной бд и каждой реплики свое ограничение
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final Duration timeout;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter rejected;
+
+    /**
+     * @param pool Имя пула для метрик
+     */
+    public BulkheadDataSource(String pool, DataSource target, int maxConcurrent, int maxWaiting, Duration timeout,
+                              MeterRegistry meterRegistry) {
+        super(target);
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.timeout = timeout;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.rejected = meterRegistry.counter("db.bulkhead.rejected", "pool", pool);
+        Gauge.builder("db.bulkhead.active", this, BulkheadDataSource::active).tag("pool", pool).register(meterRegistry);
+        Gauge.builder("db.bulkhead.waiting", waiting, AtomicInteger::get).tag("pool", pool).register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.tryAcquire()) return;
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            rejected.increment();
+            throw new SQLTransientConnectionException("Database bulkhead is full: " + maxConcurrent + " connections, "
+                    + maxWaiting + " waiting");
+        }
+        try {
+            if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new SQLTransientConnectionException("No database connection in " + timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for database connection", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Соединение, возвращающее разрешение при первом close
+     */
+    private Connection guard(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("equals")) return proxy == args[0];
+                    if (method.getName().equals("hashCode")) return System.identityHashCode(proxy);
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) permits.release();
+                    }
+                });
+    }
+}
@@ -0,0 +1,97 @@
+package ru.develop.manager.extern.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Обнаружение закрепления виртуальных потоков за потоком-носителем (блокировка внутри
+ * synchronized или native-вызова): пока поток закреплен, носитель не обслуживает другие запросы.
+ * Слушает событие JFR jdk.VirtualThreadPinned дольше threshold, считает закрепления
+ * в virtual.threads.pinned по месту в коде приложения и пишет стек места в лог не чаще logInterval
+ */
+@Slf4j
+public class PinnedThreadMonitor implements AutoCloseable {
+
+    static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "ru.develop.manager.";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Duration logInterval;
+
+    /**
+     * Время последней записи в лог по месту закрепления
+     */
+    private final Map<String, Long> logged = new ConcurrentHashMap<>();
+
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor(MeterRegistry meterRegistry, Duration threshold, Duration logInterval) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+        this.logInterval = logInterval;
+    }
+
+    public void start() {
+        try {
+            stream = new RecordingStream();
+            stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(EVENT, this::onPinned);
+            stream.startAsync();
+            log.info("PinnedThreadMonitor: virtual thread pinning longer than {} is tracked", threshold);
+        } catch (RuntimeException e) {
+            // JFR может быть выключен в сборке JVM, приложение работает без обнаружения
+            log.warn("PinnedThreadMonitor: JFR is unavailable, virtual thread pinning is not tracked", e);
+            stream = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (stream != null) stream.close();
+    }
+
+    void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String site = site(frames);
+        meterRegistry.counter("virtual.threads.pinned", "site", site).increment();
+
+        long now = System.currentTimeMillis();
+        Long last = logged.get(site);
+        if (last != null && now - last < logInterval.toMillis()) return;
+        logged.put(site, now);
+        log.warn("PinnedThreadMonitor: virtual thread is pinned for {} ms at {}\n{}",
+                event.getDuration().toMillis(), site, format(event.getStackTrace()));
+    }
+
+    /**
+     * Место закрепления - первый кадр кода приложения, иначе верхний кадр
+     */
+    static String site(List<RecordedFrame> frames) {
+        RecordedFrame site = frames.stream()
+                .filter(frame -> frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .orElse(frames.isEmpty() ? null : frames.get(0));
+        if (site == null) return "unknown";
+        return site.getMethod().getType().getName() + "." + site.getMethod().getName();
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) return "";
+        return stackTrace.getFrames().stream()
+                .limit(20)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,84 @@
+package ru.develop.manager.extern.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Строки CSV по RFC 4180: значения с запятой, кавычкой или переводом строки
+ * берутся в кавычки, кавычки внутри удваиваются
+ */
+public final class Csv {
+
+    private Csv() {
+    }
+
+    /**
+     * @param values Значения колонок, null пишется пустым значением
+     * @return Строка CSV с переводом строки CRLF
+     */
+    public static String line(Object... values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) line.append(',');
+            if (values[i] != null) line.append(escape(values[i].toString()));
+        }
+        return line.append("\r\n").toString();
+    }
+
+    public static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Чтение одной записи CSV. Значение в кавычках может содержать перевод строки,
+     * поэтому запись может занимать несколько строк файла
+     * @param reader Поток CSV, читается посимвольно (передавать буферизованный)
+     * @return Значения колонок или null в конце потока
+     * @throws IOException выбрасывается, если кавычка не закрыта до конца потока
+     */
+    public static List<String> readRecord(Reader reader) throws IOException {
+        int c = reader.read();
+        if (c < 0) return null;
+
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) throw new IOException("Unclosed quote in CSV record");
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        value.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    value.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c == '\r' || c == '\n' || c < 0) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') reader.reset();
+                }
+                values.add(value.toString());
+                return values;
+            } else {
+                value.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.develop.manager.extern.utils;
+
+import org.springframework.stereotype.Component;
+import ru.develop.manager.extern.exceptions.WrongDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Кодирование непрозрачного курсора keyset-пагинации.
+ * Внутри курсора id последней отданной задачи
+ */
+@Component
+public class CursorCodec {
+
+    private static final String PREFIX = "id:";
+
+    public String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor Курсор из предыдущего ответа, пустой для первой страницы
+     * @return id, после которого начинается страница
+     * @throws WrongDataException если курсор поврежден
+     */
+    public Long decode(String cursor) throws WrongDataException {
+        if (cursor == null || cursor.isBlank()) return 0L;
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) throw new IllegalArgumentException(value);
+            return Long.parseLong(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new WrongDataException("Некорректный курсор страницы");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.develop.manager.extern.utils;
+
+import ru.develop.manager.extern.exceptions.PreconditionFailedException;
+
+/**
+ * ETag задачи - ее версия в кавычках, например "3"
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Проверка If-None-Match: список ETag через запятую, слабые (W/) сравниваются как обычные
+     * @param header Значение заголовка
+     * @param version Текущая версия задачи
+     * @return true, если один из ETag совпадает с версией или передан *
+     */
+    public static boolean matches(String header, Long version) {
+        for (String tag : header.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || strip(tag).equals(String.valueOf(version))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Версия из If-Match
+     * @param header Значение заголовка
+     * @return Версия или null, если заголовка нет или передан *
+     * @throws PreconditionFailedException если ETag не является версией задачи
+     */
+    public static Long expectedVersion(String header) {
+        if (header == null || header.trim().equals("*")) return null;
+        try {
+            return Long.valueOf(strip(header.trim()));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Wrong If-Match: " + header);
+        }
+    }
+
+    private static String strip(String tag) {
+        if (tag.startsWith("W/")) tag = tag.substring(2);
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) tag = tag.substring(1, tag.length() - 1);
+        return tag;
+    }
+}
@@ -1,30 +1,74 @@
 package ru.develop.manager.extern.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.PersonPrincipal;
+import ru.develop.manager.domain.enums.Role;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 public class JwtTokenUtils {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.lifetime}")
     private long jwtLifeTime;
 
+    /**
+     * Максимальное количество проверенных токенов в кэше
+     */
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    private SecretKey key;
+    private JwtParser parser;
+
+    /**
+     * Кэш уже проверенных токенов: ключ - SHA-256 от токена, значение - его claims.
+     * Запись живет не дольше, чем сам токен
+     */
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(key).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
+    }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
@@ -32,35 +76,103 @@ public class JwtTokenUtils {
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
         claims.put("roles", rolesList);
+        if (userDetails instanceof Person person) {
+            claims.put("id", person.getId());
+        }
 
         Date issuedDate = new Date();
         Date expiredDate = new Date(issuedDate.getTime() + jwtLifeTime);
-        Key key = Keys.hmacShaKeyFor(secret.getBytes());
 
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(issuedDate)
-                .setExpiration(expiredDate)
-                .signWith(key, SignatureAlgorithm.HS256)
+                .claims(claims)
+                .subject(userDetails.getUsername())
+                .issuedAt(issuedDate)
+                .expiration(expiredDate)
+                .signWith(key, Jwts.SIG.HS256)
                 .compact();
     }
 
     public String getUsername(String token) {
-        return getAllClaimsFromToken(token).getSubject();
+        return getClaims(token).getSubject();
     }
 
     public List<String> getRoles(String token) {
-        return getAllClaimsFromToken(token).get("roles", List.class);
+        return getRoles(getClaims(token));
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> getRoles(Claims claims) {
+        return claims.get("roles", List.class);
+    }
+
+    /**
+     * Сборка principal из claims токена без обращения к бд
+     * @param claims claims проверенного токена
+     * @return principal или null, если токен выпущен без id пользователя
+     */
+    public PersonPrincipal getPrincipal(Claims claims) {
+        Number id = claims.get("id", Number.class);
+        List<String> roles = getRoles(claims);
+        if (id == null || roles == null || roles.isEmpty()) {
+            return null;
+        }
+        return new PersonPrincipal(id.longValue(), claims.getSubject(), Role.valueOf(roles.get(0)));
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        Key key = Keys.hmacShaKeyFor(secret.getBytes());
-        return Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Проверка подписи и разбор токена. Повторные запросы с тем же токеном
+     * берут claims из кэша без HMAC и разбора JSON
+     * @param token JWT токен
+     * @return claims токена
+     * @throws io.jsonwebtoken.JwtException если токен невалиден или просрочен
+     */
+    public Claims getClaims(String token) {
+        String digest = digest(token);
+        Claims claims = verifiedTokens.getIfPresent(digest);
+        if (claims != null && !isExpired(claims)) {
+            return claims;
+        }
+        claims = parser.parseSignedClaims(token).getPayload();
+        verifiedTokens.put(digest, claims);
+        return claims;
     }
 
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Время жизни записи в кэше равно оставшемуся времени жизни токена
+     */
+    private class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            long ttlMillis = expiration == null
+                    ? jwtLifeTime
+                    : expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package ru.develop.manager.extern.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import ru.develop.manager.extern.exceptions.ServiceOverloadedException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Отдельный пул для хэширования паролей (вход и регистрация).
+ * Количество потоков ограничивает процессорное время на BCrypt,
+ * а ограниченная очередь не дает нагрузке на /auth занять потоки Tomcat:
+ * при переполнении запрос сразу получает 503.
+ * Таймаут только завершает future, начатая задача доводится до конца, поэтому задача не должна
+ * менять данные: запись после хэширования делает вызывающий поток через {@link #await}
+ */
+@Component
+@RequiredArgsConstructor
+public class PasswordHashingExecutor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.password.hashing.threads:2}")
+    private int threads;
+
+    @Value("${security.password.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    /**
+     * Максимальное время ожидания результата, включая время в очереди
+     */
+    @Value("${security.password.hashing.timeout:5s}")
+    private Duration timeout;
+
+    private ThreadPoolExecutor executor;
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        rejected = meterRegistry.counter("password.hashing.rejected");
+        Gauge.builder("password.hashing.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Выполнение задачи, которая хэширует или проверяет пароль
+     * @param action Задача
+     * @return Результат задачи, завершается с TimeoutException по истечении timeout
+     * @throws ServiceOverloadedException если очередь пула заполнена
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> action) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) return;
+                try {
+                    future.complete(action.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Слишком много запросов на вход, попробуйте позже");
+        }
+        return future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Выполнение задачи с ожиданием результата в вызывающем потоке. После таймаута вызывающий поток
+     * получает исключение и не продолжает, даже если задача еще идет
+     * @param action Задача
+     * @return Результат задачи
+     * @throws TimeoutException по истечении timeout
+     * @throws ServiceOverloadedException если очередь пула заполнена
+     */
+    public <T> T await(Callable<T> action) throws TimeoutException {
+        CompletableFuture<T> future = submit(action);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new ServiceOverloadedException("Хэширование пароля прервано");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException timeoutException) throw timeoutException;
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
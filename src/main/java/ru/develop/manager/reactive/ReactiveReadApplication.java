@@ -0,0 +1,44 @@
+package ru.develop.manager.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import ru.develop.manager.extern.utils.CursorCodec;
+import ru.develop.manager.extern.utils.JwtTokenUtils;
+
+/**
+ * Отдельное приложение только для чтения задач: WebFlux + R2DBC, без JPA, Redis и пула потоков на запрос.
+ * Запускается своим main на отдельных узлах, запись остается в ManagerApplication.
+ * Настройки - application.yml (общие, в том числе jwt) и поверх него reactive.yml.
+ * Из собранного jar: java -cp manager.jar -Dloader.main=ru.develop.manager.reactive.ReactiveReadApplication
+ * org.springframework.boot.loader.launch.PropertiesLauncher
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableAutoConfiguration(exclude = {
+        DataSourceAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        RedisAutoConfiguration.class,
+        RedisReactiveAutoConfiguration.class,
+        RedisRepositoriesAutoConfiguration.class,
+        ReactiveUserDetailsServiceAutoConfiguration.class
+})
+@ComponentScan
+@Import({JwtTokenUtils.class, CursorCodec.class})
+public class ReactiveReadApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveReadApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties("spring.config.name=application,reactive")
+                .run(args);
+    }
+}
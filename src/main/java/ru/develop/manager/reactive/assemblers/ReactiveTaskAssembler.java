@@ -0,0 +1,46 @@
+package ru.develop.manager.reactive.assemblers;
+
+import org.springframework.stereotype.Component;
+import ru.develop.manager.extern.DTOs.personDTO.InfoPersonDto;
+import ru.develop.manager.extern.DTOs.taskDTO.InfoTaskDTO;
+import ru.develop.manager.reactive.repositories.ReactiveTaskRepository.ExecutorRow;
+import ru.develop.manager.reactive.repositories.ReactiveTaskRepository.PersonRow;
+import ru.develop.manager.reactive.repositories.ReactiveTaskRepository.TaskRow;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Сборка тех же DTO, что отдает TaskController, из строк ReactiveTaskRepository
+ */
+@Component
+public class ReactiveTaskAssembler {
+
+    /**
+     * @param executors Исполнители задачи
+     * @param commentsCount Количество комментариев
+     * @param comments Последние комментарии, новые первыми
+     */
+    public InfoTaskDTO fromRowToDTO(TaskRow task, Collection<ExecutorRow> executors, long commentsCount, List<String> comments) {
+        InfoTaskDTO infoTaskDTO = new InfoTaskDTO();
+        infoTaskDTO.setId(task.id());
+        infoTaskDTO.setVersion(task.version());
+        infoTaskDTO.setTitle(task.title());
+        infoTaskDTO.setDescription(task.description());
+        infoTaskDTO.setStatus(String.valueOf(task.status()));
+        infoTaskDTO.setPriority(String.valueOf(task.priority()));
+        infoTaskDTO.setCommentsCount(commentsCount);
+        infoTaskDTO.setComments(comments);
+        infoTaskDTO.setAuthor(task.author() == null ? null : fromPersonRowToDto(task.author()));
+        infoTaskDTO.setExecutors(executors.stream().map(executor -> fromPersonRowToDto(executor.executor())).toList());
+        return infoTaskDTO;
+    }
+
+    private InfoPersonDto fromPersonRowToDto(PersonRow person) {
+        InfoPersonDto infoPersonDto = new InfoPersonDto();
+        infoPersonDto.setEmail(person.email());
+        infoPersonDto.setFirstName(person.firstName());
+        infoPersonDto.setLastName(person.lastName());
+        return infoPersonDto;
+    }
+}
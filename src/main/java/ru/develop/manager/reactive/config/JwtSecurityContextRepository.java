@@ -0,0 +1,62 @@
+package ru.develop.manager.reactive.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.server.context.ServerSecurityContextRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import ru.develop.manager.domain.PersonPrincipal;
+import ru.develop.manager.extern.utils.JwtTokenUtils;
+
+/**
+ * Аутентификация по JWT для WebFlux, аналог JwtRequestFilter: та же проверка токена в JwtTokenUtils
+ * (с кэшем проверенных токенов), principal собирается из claims. Бд пользователей здесь нет,
+ * поэтому токен без id пользователя не принимается. Контекст не сохраняется между запросами
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JwtSecurityContextRepository implements ServerSecurityContextRepository {
+
+    private final JwtTokenUtils jwtTokenUtils;
+
+    @Override
+    public Mono<Void> save(ServerWebExchange exchange, SecurityContext context) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<SecurityContext> load(ServerWebExchange exchange) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return Mono.empty();
+        }
+        Claims claims;
+        try {
+            claims = jwtTokenUtils.getClaims(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Токен не прошел проверку: {}", e.getMessage());
+            return Mono.empty();
+        }
+        PersonPrincipal principal = jwtTokenUtils.getPrincipal(claims);
+        if (principal == null) {
+            log.debug("В токене нет id пользователя");
+            return Mono.empty();
+        }
+
+        UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                jwtTokenUtils.getRoles(claims).stream().map(SimpleGrantedAuthority::new).toList()
+        );
+        return Mono.just(new SecurityContextImpl(token));
+    }
+}
@@ -0,0 +1,41 @@
+package ru.develop.manager.reactive.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+
+/**
+ * Те же правила доступа, что в SecurityConfig, для эндпоинтов чтения
+ */
+@EnableWebFluxSecurity
+@RequiredArgsConstructor
+@Configuration
+public class ReactiveSecurityConfig {
+    private final JwtSecurityContextRepository jwtSecurityContextRepository;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .cors(ServerHttpSecurity.CorsSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(jwtSecurityContextRepository)
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers(HttpMethod.GET, "/v1/tasks/executor/**").authenticated()
+                        .pathMatchers(HttpMethod.GET, "/v1/tasks/**").hasRole("ADMIN")
+                        .pathMatchers("/actuator/health").permitAll()
+                        .pathMatchers("/actuator/**").hasRole("ADMIN")
+                        .anyExchange().denyAll()
+                )
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .build();
+    }
+}
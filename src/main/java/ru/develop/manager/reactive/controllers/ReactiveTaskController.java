@@ -0,0 +1,78 @@
+package ru.develop.manager.reactive.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.PermissionDeniedDataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.develop.manager.domain.PersonPrincipal;
+import ru.develop.manager.extern.DTOs.taskDTO.InfoTaskDTO;
+import ru.develop.manager.extern.exceptions.WrongDataException;
+import ru.develop.manager.extern.utils.CursorCodec;
+import ru.develop.manager.extern.utils.ETags;
+import ru.develop.manager.reactive.services.ReactiveTaskQueryService;
+
+@RestController
+@RequestMapping("/v1/tasks")
+@RequiredArgsConstructor
+@Tag(name = "reactive_task_methods")
+public class ReactiveTaskController {
+    private final ReactiveTaskQueryService reactiveTaskQueryService;
+    private final CursorCodec cursorCodec;
+
+    @Operation(summary = "Возвращение задачи по id",
+            description = "Необходимо в url передать id задачи. Версия задачи отдается в ETag; " +
+                    "если она совпадает с заголовком If-None-Match, возвращается 304 без тела")
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<InfoTaskDTO>> findById(@PathVariable Long id,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return reactiveTaskQueryService.findTaskById(id)
+                .map(task -> ifNoneMatch != null && ETags.matches(ifNoneMatch, task.getVersion())
+                        ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(task.getVersion())).<InfoTaskDTO>build()
+                        : ResponseEntity.ok().eTag(ETags.of(task.getVersion())).body(task))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Поток задач автора",
+            description = "Необходимо в url передать id автора, а в качестве request param (необязательные):" +
+                    "cursor - курсор keyset-пагинации TaskController, задачи после него; limit - максимум задач, без него все задачи. " +
+                    "application/x-ndjson - по задаче на строку по мере чтения из бд, application/json - массив")
+    @GetMapping(value = "/author/{authorId}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<InfoTaskDTO> findTaskByAuthorId(@PathVariable Long authorId,
+                                                @RequestParam(value = "cursor", required = false) String cursor,
+                                                @RequestParam(value = "limit", required = false) Integer limit) throws WrongDataException {
+        return reactiveTaskQueryService.findTaskByAuthorId(authorId, cursorCodec.decode(cursor), checkLimit(limit));
+    }
+
+    @Operation(summary = "Поток задач исполнителя",
+            description = "Необходимо в url передать id исполнителя, а в качестве request param (необязательные):" +
+                    "cursor - курсор keyset-пагинации TaskController, задачи после него; limit - максимум задач, без него все задачи. " +
+                    "application/x-ndjson - по задаче на строку по мере чтения из бд, application/json - массив")
+    @GetMapping(value = "/executor/{executorId}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<InfoTaskDTO> findTaskByExecutorId(@PathVariable Long executorId,
+                                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "limit", required = false) Integer limit,
+                                                  @AuthenticationPrincipal PersonPrincipal principal) throws WrongDataException {
+        if (!principal.isAdmin() && !principal.id().equals(executorId))
+            throw new PermissionDeniedDataAccessException("No permission to executor's tasks with id " + executorId, new Throwable());
+
+        return reactiveTaskQueryService.findTaskByExecutorId(executorId, cursorCodec.decode(cursor), checkLimit(limit));
+    }
+
+    private static Integer checkLimit(Integer limit) throws WrongDataException {
+        if (limit != null && limit < 1) throw new WrongDataException("Количество задач должно быть больше 0");
+        return limit;
+    }
+}
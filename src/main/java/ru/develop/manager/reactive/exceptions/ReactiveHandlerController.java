@@ -0,0 +1,45 @@
+package ru.develop.manager.reactive.exceptions;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.PermissionDeniedDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import ru.develop.manager.extern.exceptions.AppError;
+import ru.develop.manager.extern.exceptions.WrongDataException;
+
+/**
+ * Ответы об ошибках ReactiveReadApplication в том же формате, что у HandlerController
+ */
+@ControllerAdvice
+@Slf4j
+public class ReactiveHandlerController {
+
+    @ExceptionHandler(WrongDataException.class)
+    public ResponseEntity<AppError> handleWrongDataException(WrongDataException ex) {
+        log.error(ex.getMessage());
+        return new ResponseEntity<>(new AppError(HttpStatus.BAD_REQUEST, ex.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(PermissionDeniedDataAccessException.class)
+    public ResponseEntity<AppError> handlePermissionDeniedDataAccessException(PermissionDeniedDataAccessException ex) {
+        log.error(ex.getMessage());
+        return new ResponseEntity<>(new AppError(HttpStatus.BAD_REQUEST, ex.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Соединение R2DBC не получено за spring.r2dbc.pool.max-acquire-time или бд временно недоступна
+     */
+    @ExceptionHandler({DataAccessResourceFailureException.class, TransientDataAccessException.class})
+    public ResponseEntity<AppError> handleNoConnectionException(RuntimeException ex) {
+        log.warn("No database connection: {}", NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new AppError(HttpStatus.SERVICE_UNAVAILABLE, "Сервис перегружен, попробуйте позже"));
+    }
+}
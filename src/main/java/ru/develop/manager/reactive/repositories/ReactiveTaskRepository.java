@@ -0,0 +1,119 @@
+package ru.develop.manager.reactive.repositories;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Чтение задач через R2DBC. Запросы те же, что у JPA репозиториев, но без сущностей:
+ * строки сразу читаются в записи ниже
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveTaskRepository {
+
+    private static final String SELECT_TASKS = "SELECT t.id, t.version, t.title, t.description, t.status, t.priority, " +
+            "a.first_name, a.last_name, a.email FROM task t LEFT JOIN person a ON a.id = t.author_id ";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<TaskRow> findById(Long id) {
+        return databaseClient.sql(SELECT_TASKS + "WHERE t.id = :id")
+                .bind("id", id)
+                .map(ReactiveTaskRepository::toTaskRow)
+                .one();
+    }
+
+    /**
+     * Страница задач автора по возрастанию id (keyset, индекс idx_task_author_id)
+     * @param afterId id последней полученной задачи, 0 для первой страницы
+     */
+    public Flux<TaskRow> findByAuthorIdAfter(Long authorId, Long afterId, int limit) {
+        return databaseClient.sql(SELECT_TASKS + "WHERE t.author_id = :authorId AND t.id > :afterId ORDER BY t.id LIMIT :limit")
+                .bind("authorId", authorId)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveTaskRepository::toTaskRow)
+                .all();
+    }
+
+    /**
+     * Страница задач исполнителя по возрастанию id (keyset, индекс idx_task_executors_executor_task)
+     * @param afterId id последней полученной задачи, 0 для первой страницы
+     */
+    public Flux<TaskRow> findByExecutorIdAfter(Long executorId, Long afterId, int limit) {
+        return databaseClient.sql(SELECT_TASKS + "JOIN task_executors te ON te.task_id = t.id " +
+                        "WHERE te.executors_id = :executorId AND t.id > :afterId ORDER BY t.id LIMIT :limit")
+                .bind("executorId", executorId)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveTaskRepository::toTaskRow)
+                .all();
+    }
+
+    public Flux<ExecutorRow> findExecutors(Collection<Long> taskIds) {
+        return databaseClient.sql("SELECT te.task_id, p.first_name, p.last_name, p.email FROM task_executors te " +
+                        "JOIN person p ON p.id = te.executors_id WHERE te.task_id IN (:taskIds) ORDER BY te.task_id, te.executors_id")
+                .bind("taskIds", taskIds)
+                .map(row -> new ExecutorRow(row.get("task_id", Long.class),
+                        new PersonRow(row.get("first_name", String.class), row.get("last_name", String.class), row.get("email", String.class))))
+                .all();
+    }
+
+    /**
+     * Количество комментариев по каждой задаче одним запросом
+     */
+    public Flux<CommentCount> countComments(Collection<Long> taskIds) {
+        return databaseClient.sql("SELECT task_id, COUNT(*) AS comments FROM comment WHERE task_id IN (:taskIds) GROUP BY task_id")
+                .bind("taskIds", taskIds)
+                .map(row -> new CommentCount(row.get("task_id", Long.class), row.get("comments", Long.class)))
+                .all();
+    }
+
+    /**
+     * Последние limit комментариев каждой задачи одним запросом, новые первыми
+     */
+    public Flux<CommentRow> findLatestComments(Collection<Long> taskIds, int limit) {
+        return databaseClient.sql("SELECT r.task_id, r.comment FROM (" +
+                        "SELECT c.id, c.comment, c.task_id, " +
+                        "ROW_NUMBER() OVER (PARTITION BY c.task_id ORDER BY c.id DESC) AS rn " +
+                        "FROM comment c WHERE c.task_id IN (:taskIds)) r " +
+                        "WHERE r.rn <= :limit ORDER BY r.task_id, r.id DESC")
+                .bind("taskIds", taskIds)
+                .bind("limit", limit)
+                .map(row -> new CommentRow(row.get("task_id", Long.class), row.get("comment", String.class)))
+                .all();
+    }
+
+    private static TaskRow toTaskRow(Readable row) {
+        String email = row.get("email", String.class);
+        PersonRow author = email == null ? null
+                : new PersonRow(row.get("first_name", String.class), row.get("last_name", String.class), email);
+        return new TaskRow(row.get("id", Long.class), row.get("version", Long.class), row.get("title", String.class),
+                row.get("description", String.class), row.get("status", String.class), row.get("priority", String.class), author);
+    }
+
+    /**
+     * @param author Автор задачи, null если автора нет
+     */
+    public record TaskRow(Long id, Long version, String title, String description, String status, String priority,
+                          PersonRow author) {
+    }
+
+    public record PersonRow(String firstName, String lastName, String email) {
+    }
+
+    public record ExecutorRow(Long taskId, PersonRow executor) {
+    }
+
+    public record CommentCount(Long taskId, Long count) {
+    }
+
+    public record CommentRow(Long taskId, String comment) {
+    }
+}
@@ -0,0 +1,33 @@
+package ru.develop.manager.reactive.services;
+
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.develop.manager.extern.DTOs.taskDTO.InfoTaskDTO;
+
+/**
+ * Неблокирующее чтение задач для ReactiveReadApplication.
+ * Списки отдаются потоком: следующая пачка читается из бд, только когда клиент забрал предыдущую
+ */
+@Service
+public interface ReactiveTaskQueryService {
+
+    /**
+     * @return Задача или пустой Mono, если задачи нет
+     */
+    Mono<InfoTaskDTO> findTaskById(Long id);
+
+    /**
+     * Задачи автора по возрастанию id
+     * @param afterId id последней полученной задачи, 0 с начала
+     * @param limit Максимум задач, null - все задачи автора
+     */
+    Flux<InfoTaskDTO> findTaskByAuthorId(Long authorId, Long afterId, Integer limit);
+
+    /**
+     * Задачи исполнителя по возрастанию id
+     * @param afterId id последней полученной задачи, 0 с начала
+     * @param limit Максимум задач, null - все задачи исполнителя
+     */
+    Flux<InfoTaskDTO> findTaskByExecutorId(Long executorId, Long afterId, Integer limit);
+}
@@ -0,0 +1,117 @@
+package ru.develop.manager.reactive.services.impls;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.develop.manager.extern.DTOs.taskDTO.InfoTaskDTO;
+import ru.develop.manager.reactive.assemblers.ReactiveTaskAssembler;
+import ru.develop.manager.reactive.repositories.ReactiveTaskRepository;
+import ru.develop.manager.reactive.repositories.ReactiveTaskRepository.CommentCount;
+import ru.develop.manager.reactive.repositories.ReactiveTaskRepository.CommentRow;
+import ru.develop.manager.reactive.repositories.ReactiveTaskRepository.ExecutorRow;
+import ru.develop.manager.reactive.repositories.ReactiveTaskRepository.TaskRow;
+import ru.develop.manager.reactive.services.ReactiveTaskQueryService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Документацию смотреть в интерфейсах
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveTaskQueryServiceImpl implements ReactiveTaskQueryService {
+
+    private final ReactiveTaskRepository reactiveTaskRepository;
+    private final ReactiveTaskAssembler reactiveTaskAssembler;
+
+    /**
+     * Задач в одном запросе к бд. Исполнители и комментарии дочитываются сразу на всю пачку
+     */
+    @Value("${reactive.tasks.batch-size:100}")
+    private int batchSize;
+
+    @Value("${task.comments.latest:3}")
+    private int latestLimit;
+
+    @Override
+    public Mono<InfoTaskDTO> findTaskById(Long id) {
+        return reactiveTaskRepository.findById(id)
+                .flatMap(task -> toDTOs(List.of(task)).next());
+    }
+
+    @Override
+    public Flux<InfoTaskDTO> findTaskByAuthorId(Long authorId, Long afterId, Integer limit) {
+        return stream((after, size) -> reactiveTaskRepository.findByAuthorIdAfter(authorId, after, size), afterId, limit);
+    }
+
+    @Override
+    public Flux<InfoTaskDTO> findTaskByExecutorId(Long executorId, Long afterId, Integer limit) {
+        return stream((after, size) -> reactiveTaskRepository.findByExecutorIdAfter(executorId, after, size), afterId, limit);
+    }
+
+    /**
+     * Задачи keyset-страницами по batchSize. Каждая страница - отдельный короткий запрос, поэтому соединение
+     * не держится, пока клиент медленно читает ответ. Следующая пачка собирается, только когда подписчик
+     * забрал текущую (concatMap по одной), вперед читается не больше одной страницы
+     */
+    private Flux<InfoTaskDTO> stream(PageQuery query, Long afterId, Integer limit) {
+        return page(query, afterId, limit == null ? Long.MAX_VALUE : limit)
+                .expand(page -> page.hasNext() ? page(query, page.lastId(), page.remaining()) : Mono.empty())
+                .map(Page::tasks)
+                .filter(tasks -> !tasks.isEmpty())
+                .concatMap(this::toDTOs, 1);
+    }
+
+    private Mono<Page> page(PageQuery query, long afterId, long remaining) {
+        int size = (int) Math.min(batchSize, remaining);
+        return query.find(afterId, size)
+                .collectList()
+                .map(tasks -> new Page(tasks, size, remaining - tasks.size()));
+    }
+
+    /**
+     * Исполнители, количество и последние комментарии пачки задач - три параллельных запроса
+     */
+    private Flux<InfoTaskDTO> toDTOs(List<TaskRow> tasks) {
+        List<Long> ids = tasks.stream().map(TaskRow::id).toList();
+        Mono<Map<Long, Collection<ExecutorRow>>> executors = reactiveTaskRepository.findExecutors(ids)
+                .collectMultimap(ExecutorRow::taskId);
+        Mono<Map<Long, Long>> counts = reactiveTaskRepository.countComments(ids)
+                .collectMap(CommentCount::taskId, CommentCount::count);
+        Mono<Map<Long, Collection<String>>> latest = latestLimit > 0
+                ? reactiveTaskRepository.findLatestComments(ids, latestLimit).collectMultimap(CommentRow::taskId, CommentRow::comment)
+                : Mono.just(Map.of());
+
+        return Mono.zip(executors, counts, latest)
+                .flatMapIterable(result -> tasks.stream()
+                        .map(task -> reactiveTaskAssembler.fromRowToDTO(task,
+                                result.getT1().getOrDefault(task.id(), List.of()),
+                                result.getT2().getOrDefault(task.id(), 0L),
+                                List.copyOf(result.getT3().getOrDefault(task.id(), List.of()))))
+                        .toList());
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+        Flux<TaskRow> find(long afterId, int limit);
+    }
+
+    /**
+     * @param size Запрошенный размер страницы
+     * @param remaining Сколько задач еще можно отдать после этой страницы
+     */
+    private record Page(List<TaskRow> tasks, int size, long remaining) {
+
+        private boolean hasNext() {
+            return tasks.size() == size && remaining > 0;
+        }
+
+        private long lastId() {
+            return tasks.get(tasks.size() - 1).id();
+        }
+    }
+}
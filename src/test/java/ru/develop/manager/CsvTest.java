@@ -0,0 +1,31 @@
+package ru.develop.manager;
+
+import org.junit.jupiter.api.Test;
+import ru.develop.manager.extern.utils.Csv;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTest {
+
+    @Test
+    void line_shouldQuoteOnlyValuesThatNeedIt() {
+        // Act & Assert
+        assertEquals("1,Task,,2\r\n", Csv.line(1L, "Task", null, 2));
+        assertEquals("\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\"\r\n", Csv.line("a,b", "say \"hi\"", "two\nlines"));
+    }
+
+    @Test
+    void readRecord_shouldReadQuotedValuesAcrossLines() throws Exception {
+        // Arrange
+        BufferedReader reader = new BufferedReader(new StringReader("a,\"b,\"\"c\"\"\nd\",\r\ne\n"));
+
+        // Act & Assert
+        assertEquals(List.of("a", "b,\"c\"\nd", ""), Csv.readRecord(reader));
+        assertEquals(List.of("e"), Csv.readRecord(reader));
+        assertNull(Csv.readRecord(reader));
+    }
+}
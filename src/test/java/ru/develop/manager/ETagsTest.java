@@ -0,0 +1,28 @@
+package ru.develop.manager;
+
+import org.junit.jupiter.api.Test;
+import ru.develop.manager.extern.exceptions.PreconditionFailedException;
+import ru.develop.manager.extern.utils.ETags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    void matches_shouldAcceptListsWeakTagsAndWildcard() {
+        // Act & Assert
+        assertEquals("\"3\"", ETags.of(3L));
+        assertTrue(ETags.matches("\"1\", W/\"3\"", 3L));
+        assertTrue(ETags.matches("*", 3L));
+        assertFalse(ETags.matches("\"2\"", 3L));
+    }
+
+    @Test
+    void expectedVersion_shouldParseIfMatch() {
+        // Act & Assert
+        assertEquals(3L, ETags.expectedVersion("\"3\""));
+        assertNull(ETags.expectedVersion(null));
+        assertNull(ETags.expectedVersion("*"));
+        assertThrows(PreconditionFailedException.class, () -> ETags.expectedVersion("\"abc\""));
+    }
+}
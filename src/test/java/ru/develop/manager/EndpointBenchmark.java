@@ -0,0 +1,207 @@
+package ru.develop.manager;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Сравнение платформенных и виртуальных потоков на эндпоинтах приложения. Не тест: запускается вручную,
+ * поднимает приложение дважды (spring.threads.virtual.enabled=false и true) и для каждого сценария
+ * держит benchmark.concurrency одновременных запросов benchmark.duration, печатает запросы в секунду,
+ * p50/p99 и ошибки (503 отдельно).
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) ru.develop.manager.EndpointBenchmark
+ * </pre>
+ * Параметры (-D): benchmark.concurrency (400), benchmark.duration (PT15S), benchmark.warmup (PT5S), benchmark.tasks (2000),
+ * benchmark.datasource.url/username/password - без них H2 в памяти. Задержку JDBC, на которой виртуальные потоки
+ * выигрывают, показывает только настоящая бд: H2 в памяти почти не блокирует поток
+ */
+public class EndpointBenchmark {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final int concurrency = Integer.getInteger("benchmark.concurrency", 400);
+    private final Duration duration = Duration.parse(System.getProperty("benchmark.duration", "PT15S"));
+    private final Duration warmup = Duration.parse(System.getProperty("benchmark.warmup", "PT5S"));
+    private final int tasks = Integer.getInteger("benchmark.tasks", 2000);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        EndpointBenchmark benchmark = new EndpointBenchmark();
+        Map<String, Map<String, Result>> results = new LinkedHashMap<>();
+        results.put("platform", benchmark.run(false));
+        results.put("virtual", benchmark.run(true));
+
+        System.out.printf("%nconcurrency %d, duration %s%n", benchmark.concurrency, benchmark.duration);
+        System.out.printf("%-10s %-32s %10s %9s %9s %8s %8s%n", "mode", "scenario", "req/s", "p50 ms", "p99 ms", "errors", "503");
+        results.forEach((mode, scenarios) -> scenarios.forEach((scenario, result) ->
+                System.out.printf("%-10s %-32s %10.1f %9.1f %9.1f %8d %8d%n", mode, scenario, result.throughput(),
+                        result.p50(), result.p99(), result.errors(), result.overloaded())));
+        System.exit(0);
+    }
+
+    private Map<String, Result> run(boolean virtual) throws Exception {
+        Path fulltext = Files.createTempDirectory("benchmark-fulltext");
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.threads.virtual.enabled=" + virtual,
+                "search.fulltext.directory=" + fulltext,
+                "task.outbox.relay.enabled=false",
+                "cache.invalidation.enabled=false",
+                "logging.level.root=WARN"));
+        String url = System.getProperty("benchmark.datasource.url");
+        if (url == null) {
+            properties.addAll(List.of(
+                    "spring.datasource.url=jdbc:h2:mem:benchmark-" + virtual + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.driver-class-name=org.h2.Driver",
+                    "spring.datasource.username=sa",
+                    "spring.datasource.password=",
+                    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"));
+        } else {
+            properties.addAll(List.of("spring.datasource.url=" + url,
+                    "spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "postgres"),
+                    "spring.datasource.password=" + System.getProperty("benchmark.datasource.password", "password")));
+        }
+
+        // аргументами командной строки, чтобы перекрыть application.yml
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ManagerApplication.class)
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new))) {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String admin = token(base, context.getEnvironment().getProperty("admin.email"),
+                    context.getEnvironment().getProperty("admin.password"));
+            long[] ids = seed(base, admin);
+            String login = "{\"email\":\"" + context.getEnvironment().getProperty("admin.email") + "\",\"password\":\""
+                    + context.getEnvironment().getProperty("admin.password") + "\"}";
+
+            Map<String, IntFunction<HttpRequest>> scenarios = new LinkedHashMap<>();
+            scenarios.put("GET /v1/tasks/{id}", i -> get(base + "/v1/tasks/" + ids[ThreadLocalRandom.current().nextInt(ids.length)], admin));
+            scenarios.put("GET /v1/tasks/search", i -> get(base + "/v1/tasks/search?status=APPOINTED&limit=20&offset="
+                    + ThreadLocalRandom.current().nextInt(10), admin));
+            scenarios.put("GET /v1/persons/{id}/task-stats", i -> get(base + "/v1/persons/1/task-stats", admin));
+            scenarios.put("POST /auth", i -> HttpRequest.newBuilder(URI.create(base + "/auth"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(login))
+                    .build());
+
+            Map<String, Result> results = new LinkedHashMap<>();
+            for (Map.Entry<String, IntFunction<HttpRequest>> scenario : scenarios.entrySet()) {
+                load(scenario.getValue(), warmup);
+                Result result = load(scenario.getValue(), duration);
+                System.out.printf("%s %s: %.1f req/s%n", virtual ? "virtual" : "platform", scenario.getKey(), result.throughput());
+                results.put(scenario.getKey(), result);
+            }
+            return results;
+        }
+    }
+
+    /**
+     * concurrency потоков, каждый отправляет следующий запрос сразу после ответа на предыдущий
+     */
+    private Result load(IntFunction<HttpRequest> requests, Duration time) throws InterruptedException {
+        long deadline = System.nanoTime() + time.toNanos();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong overloaded = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<long[]>> workers = IntStream.range(0, concurrency)
+                    .mapToObj(worker -> executor.submit(() -> {
+                        long[] own = new long[1024];
+                        int size = 0;
+                        for (int i = 0; System.nanoTime() < deadline; i++) {
+                            long start = System.nanoTime();
+                            try {
+                                int status = client.send(requests.apply(i), HttpResponse.BodyHandlers.discarding()).statusCode();
+                                if (status == 503) overloaded.incrementAndGet();
+                                else if (status >= 400) errors.incrementAndGet();
+                            } catch (Exception e) {
+                                errors.incrementAndGet();
+                            }
+                            if (size == own.length) own = Arrays.copyOf(own, size * 2);
+                            own[size++] = System.nanoTime() - start;
+                        }
+                        return Arrays.copyOf(own, size);
+                    }))
+                    .collect(Collectors.toList());
+            for (Future<long[]> worker : workers) {
+                try {
+                    latencies.add(worker.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all.length / (time.toMillis() / 1000.0), percentile(all, 0.5), percentile(all, 0.99),
+                errors.get(), overloaded.get());
+    }
+
+    private long[] seed(String base, String admin) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int from = 0; from < tasks; from += 1000) {
+            String body = IntStream.range(from, Math.min(tasks, from + 1000))
+                    .mapToObj(i -> "{\"title\":\"Task " + i + "\",\"description\":\"Benchmark task " + i + "\",\"executorsId\":[1]}")
+                    .collect(Collectors.joining(",", "[", "]"));
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/v1/tasks/bulk"))
+                    .header("Authorization", "Bearer " + admin)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = ID.matcher(response.body());
+            while (matcher.find()) ids.add(Long.parseLong(matcher.group(1)));
+        }
+        if (ids.isEmpty()) throw new IllegalStateException("No tasks are created for benchmark");
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private String token(String base, String email, String password) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/auth"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (!matcher.find()) throw new IllegalStateException("No token: " + response.body());
+        return matcher.group(1);
+    }
+
+    private static HttpRequest get(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Authorization", "Bearer " + token).GET().build();
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))] / 1_000_000.0;
+    }
+
+    private record Result(double throughput, double p50, double p99, long errors, long overloaded) {
+    }
+}
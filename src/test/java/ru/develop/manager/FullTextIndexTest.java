@@ -0,0 +1,214 @@
+package ru.develop.manager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.develop.manager.extern.search.FullTextIndex;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FullTextIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private FullTextIndex open() throws IOException {
+        FullTextIndex index = new FullTextIndex(directory);
+        index.open();
+        return index;
+    }
+
+    private static List<Long> ids(List<FullTextIndex.Hit> hits) {
+        return hits.stream().map(FullTextIndex.Hit::taskId).toList();
+    }
+
+    @Test
+    void search_shouldRankTasksByBm25() throws IOException {
+        // Arrange
+        try (FullTextIndex index = open()) {
+            index.indexTask(1L, "Написание тестов", "Тесты для контроллера пользователя");
+            index.indexTask(2L, "Деплой", "Выкатить сервис на стенд");
+            index.indexTask(3L, "Рефакторинг", "Переписать контроллер задач");
+            index.addComment(2L, "Тесты после деплоя");
+
+            // Act
+            List<FullTextIndex.Hit> hits = index.search("тесты контроллера", 10);
+
+            // Assert
+            assertEquals(List.of(1L, 2L), ids(hits));
+            assertTrue(hits.get(0).score() > hits.get(1).score());
+        }
+    }
+
+    @Test
+    void indexTask_shouldReplaceOldTermsAndKeepComments() throws IOException {
+        // Arrange
+        try (FullTextIndex index = open()) {
+            index.indexTask(1L, "Старое название", "Описание задачи");
+            index.addComment(1L, "Ёлка в комментарии");
+
+            // Act
+            index.indexTask(1L, "Новое название", "Описание задачи");
+
+            // Assert
+            assertTrue(index.search("старое", 10).isEmpty());
+            assertEquals(List.of(1L), ids(index.search("новое", 10)));
+            assertEquals(List.of(1L), ids(index.search("елка", 10)));
+        }
+    }
+
+    @Test
+    void delete_shouldRemoveTaskFromResults() throws IOException {
+        // Arrange
+        try (FullTextIndex index = open()) {
+            index.indexTask(1L, "Первая задача", "Описание");
+            index.indexTask(2L, "Вторая задача", "Описание");
+
+            // Act
+            index.delete(1L);
+
+            // Assert
+            assertEquals(List.of(2L), ids(index.search("задача", 10)));
+            assertEquals(1, index.size());
+        }
+    }
+
+    @Test
+    void open_shouldRestoreIndexFromSegmentAndJournal() throws IOException {
+        // Arrange
+        try (FullTextIndex index = open()) {
+            index.indexTask(1L, "Миграция базы", "Перенести данные");
+            index.compact();
+            index.indexTask(2L, "Миграция кэша", "Перенести Redis");
+            index.addComment(1L, "Готово");
+        }
+        Files.write(directory.resolve("journal.ftx"), new byte[]{1, 0, 0}, StandardOpenOption.APPEND);
+
+        // Act
+        try (FullTextIndex reopened = open()) {
+            reopened.indexTask(3L, "Миграция логов", "Перенести логи");
+        }
+        try (FullTextIndex reopened = open()) {
+
+            // Assert
+            assertEquals(3, reopened.size());
+            assertEquals(List.of(1L), ids(reopened.search("готово", 10)));
+            assertEquals(3, reopened.search("миграция", 10).size());
+        }
+    }
+
+    @Test
+    void load_shouldSkipTasksChangedAfterMark() throws IOException {
+        // Arrange
+        try (FullTextIndex index = open()) {
+            index.beginLoad();
+            long mark = index.changeMark();
+            index.delete(1L);
+            index.indexTask(2L, "Новое название", "Описание");
+
+            // Act
+            boolean deleted = index.load(1L, "Удаленная задача", "Описание", List.of(), mark);
+            boolean updated = index.load(2L, "Старое название", "Описание", List.of(), mark);
+            boolean unchanged = index.load(3L, "Третья задача", "Описание", List.of("Комментарий"), mark);
+            index.endLoad();
+
+            // Assert
+            assertFalse(deleted);
+            assertFalse(updated);
+            assertTrue(unchanged);
+            assertTrue(index.search("удаленная", 10).isEmpty());
+            assertTrue(index.search("старое", 10).isEmpty());
+            assertEquals(List.of(2L), ids(index.search("новое", 10)));
+            assertEquals(List.of(3L), ids(index.search("комментарий", 10)));
+        }
+    }
+
+    @Test
+    void replaceTask_shouldReplaceCommentsAndRestoreWithPosition() throws IOException {
+        // Arrange
+        try (FullTextIndex index = open()) {
+            index.indexTask(1L, "Старое название", "Описание");
+            index.addComment(1L, "Удаленный комментарий");
+            index.setPosition("1-0");
+            index.compact();
+
+            // Act
+            index.replaceTask(1L, "Новое название", "Описание", List.of("Первый ответ", "Второй ответ"));
+            index.replaceTask(2L, "Без комментариев", "Описание", List.of());
+            index.setPosition("2-0");
+        }
+        try (FullTextIndex reopened = open()) {
+
+            // Assert
+            assertEquals("2-0", reopened.position());
+            assertEquals(2, reopened.size());
+            assertTrue(reopened.search("удаленный", 10).isEmpty());
+            assertTrue(reopened.search("старое", 10).isEmpty());
+            assertEquals(List.of(1L), ids(reopened.search("ответ", 10)));
+            assertEquals(List.of(2L), ids(reopened.search("комментариев", 10)));
+            reopened.compact();
+        }
+        try (FullTextIndex compacted = open()) {
+            assertEquals("2-0", compacted.position());
+            assertEquals(2, compacted.size());
+        }
+    }
+
+    @Test
+    void removeNotLoaded_shouldRemoveOnlyTasksMissingInLoadAndUnchanged() throws IOException {
+        // Arrange
+        try (FullTextIndex index = open()) {
+            index.indexTask(1L, "Удаленная задача", "Описание");
+            index.indexTask(2L, "Оставшаяся задача", "Описание");
+            index.beginLoad();
+            long mark = index.changeMark();
+            index.load(2L, "Оставшаяся задача", "Описание", List.of(), mark);
+            index.indexTask(3L, "Созданная задача", "Описание");
+
+            // Act
+            int removed = index.removeNotLoaded();
+            index.endLoad();
+
+            // Assert
+            assertEquals(1, removed);
+            assertEquals(List.of(2L, 3L), ids(index.search("задача", 10)).stream().sorted().toList());
+        }
+    }
+
+    @Test
+    void compact_shouldAllowConcurrentCompactions() throws Exception {
+        // Arrange
+        try (FullTextIndex index = open()) {
+            for (long id = 1; id <= 200; id++) index.indexTask(id, "Задача " + id, "Описание");
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            List<Future<?>> futures = new ArrayList<>();
+
+            // Act
+            for (int i = 0; i < 20; i++) {
+                futures.add(executor.submit(() -> {
+                    index.compact();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+            executor.shutdown();
+        }
+
+        // Assert
+        try (FullTextIndex reopened = open(); Stream<Path> files = Files.list(directory)) {
+            assertEquals(200, reopened.size());
+            assertEquals(0, reopened.journalOps());
+            assertEquals(List.of("journal.ftx", "segment.ftx"), files.map(file -> file.getFileName().toString()).sorted().toList());
+        }
+    }
+}
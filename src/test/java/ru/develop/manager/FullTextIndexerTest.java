@@ -0,0 +1,141 @@
+package ru.develop.manager;
+
+import com.github.fppt.jedismock.RedisServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.develop.manager.domain.Comment;
+import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.events.TaskChangedEvent;
+import ru.develop.manager.extern.repositories.CommentRepository;
+import ru.develop.manager.extern.repositories.TaskRepository;
+import ru.develop.manager.extern.search.FullTextIndex;
+import ru.develop.manager.extern.search.FullTextIndexer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class FullTextIndexerTest {
+
+    private static final String STREAM = "task:events";
+
+    @TempDir
+    Path directory;
+
+    private RedisServer redis;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+    private FullTextIndexer indexer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        redis = RedisServer.newRedisServer().start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", redis.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        indexer = indexer();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        ReflectionTestUtils.invokeMethod(indexer, "close");
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    private FullTextIndexer indexer() {
+        FullTextIndexer fullTextIndexer = new FullTextIndexer(taskRepository, commentRepository,
+                mock(PlatformTransactionManager.class), redisTemplate);
+        ReflectionTestUtils.setField(fullTextIndexer, "directory", directory);
+        ReflectionTestUtils.setField(fullTextIndexer, "compactAfterOps", 10000L);
+        ReflectionTestUtils.setField(fullTextIndexer, "syncEnabled", true);
+        ReflectionTestUtils.setField(fullTextIndexer, "syncPollInterval", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(fullTextIndexer, "syncBatchSize", 2);
+        ReflectionTestUtils.setField(fullTextIndexer, "stream", STREAM);
+        ReflectionTestUtils.setField(fullTextIndexer, "streamMaxLength", 100L);
+        ReflectionTestUtils.invokeMethod(fullTextIndexer, "open");
+        return fullTextIndexer;
+    }
+
+    private static Task task(Long id, String title) {
+        return Task.builder().id(id).title(title).description("Описание").build();
+    }
+
+    /**
+     * Событие, опубликованное relay любого узла
+     */
+    private void publish(Long taskId, String type) {
+        redisTemplate.opsForStream().add(StreamRecords.string(Map.of("taskId", taskId.toString(), "type", type)).withStreamKey(STREAM));
+    }
+
+    private static List<Long> ids(List<FullTextIndex.Hit> hits) {
+        return hits.stream().map(FullTextIndex.Hit::taskId).sorted().toList();
+    }
+
+    @Test
+    void sync_shouldApplyEventsOfOtherNodesFromDatabaseAndResumeAfterRestart() {
+        // Arrange
+        when(taskRepository.findAllAfter(anyLong(), any())).thenReturn(new SliceImpl<>(List.of(task(1L, "Первая задача"))));
+        indexer.sync();
+        publish(2L, "CREATED");
+        publish(1L, "DELETED");
+        publish(2L, "COMMENTED");
+        Task created = task(2L, "Задача другого узла");
+        when(taskRepository.findAllById(anyCollection())).thenReturn(List.of(created));
+        when(commentRepository.findByTaskIds(anyCollection())).thenReturn(List.of(new Comment(1L, "Ответ из другого узла", created)));
+
+        // Act
+        indexer.sync();
+        ReflectionTestUtils.invokeMethod(indexer, "close");
+        indexer = indexer();
+        publish(3L, "CREATED");
+        when(taskRepository.findAllById(anyCollection())).thenReturn(List.of(task(3L, "Задача после перезапуска")));
+        indexer.sync();
+
+        // Assert
+        verify(taskRepository, times(1)).findAllAfter(anyLong(), any());
+        assertTrue(indexer.search("первая", 10).isEmpty());
+        assertEquals(List.of(2L), ids(indexer.search("ответ", 10)));
+        assertEquals(List.of(2L, 3L), ids(indexer.search("задача", 10)));
+    }
+
+    @Test
+    void sync_shouldRebuildWhenEventsAfterPositionAreTrimmed() {
+        // Arrange
+        publish(1L, "CREATED");
+        when(taskRepository.findAllAfter(anyLong(), any())).thenReturn(new SliceImpl<>(List.of(task(1L, "Первая задача"))));
+        indexer.sync();
+        indexer.onTaskChanged(TaskChangedEvent.created(5L, "Удаленная задача", "Описание"));
+        publish(2L, "CREATED");
+        publish(5L, "DELETED");
+        redisTemplate.opsForStream().trim(STREAM, 1);
+        when(taskRepository.findAllAfter(anyLong(), any())).thenReturn(new SliceImpl<>(List.of(task(1L, "Первая задача"), task(2L, "Вторая задача"))));
+
+        // Act
+        indexer.sync();
+
+        // Assert
+        verify(taskRepository, times(2)).findAllAfter(anyLong(), any());
+        verify(taskRepository, never()).findAllById(anyCollection());
+        assertEquals(List.of(1L, 2L), ids(indexer.search("задача", 10)));
+    }
+}
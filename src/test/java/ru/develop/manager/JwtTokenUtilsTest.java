@@ -0,0 +1,83 @@
+package ru.develop.manager;
+
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.PersonPrincipal;
+import ru.develop.manager.domain.enums.Role;
+import ru.develop.manager.extern.utils.JwtTokenUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenUtilsTest {
+
+    private MeterRegistry meterRegistry;
+    private JwtTokenUtils jwtTokenUtils;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtTokenUtils = new JwtTokenUtils(meterRegistry);
+        ReflectionTestUtils.setField(jwtTokenUtils, "secret", "984hg493gh0439rthr0429uruj2309yh937gc763fe87t3f89723gf");
+        ReflectionTestUtils.setField(jwtTokenUtils, "jwtLifeTime", 60_000L);
+        ReflectionTestUtils.setField(jwtTokenUtils, "cacheMaxSize", 100L);
+        ReflectionTestUtils.invokeMethod(jwtTokenUtils, "init");
+    }
+
+    @Test
+    void getClaims_shouldVerifyTokenOnceAndServeRepeatsFromCache() {
+        // Arrange
+        Person person = new Person();
+        person.setEmail("test@example.com");
+        person.setRole(Role.ROLE_USER);
+        String token = jwtTokenUtils.generateToken(person);
+
+        // Act
+        String username = jwtTokenUtils.getUsername(token);
+        List<String> roles = jwtTokenUtils.getRoles(token);
+
+        // Assert
+        assertEquals("test@example.com", username);
+        assertEquals(List.of("ROLE_USER"), roles);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void getClaims_shouldRejectTamperedToken() {
+        // Arrange
+        Person person = new Person();
+        person.setEmail("test@example.com");
+        person.setRole(Role.ROLE_USER);
+        String token = jwtTokenUtils.generateToken(person);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act & Assert
+        assertThrows(SignatureException.class, () -> jwtTokenUtils.getClaims(tampered));
+    }
+
+    @Test
+    void getPrincipal_shouldBuildPrincipalFromClaims() {
+        // Arrange
+        Person person = new Person();
+        person.setId(7L);
+        person.setEmail("admin@example.com");
+        person.setRole(Role.ROLE_ADMIN);
+        String token = jwtTokenUtils.generateToken(person);
+
+        // Act
+        PersonPrincipal principal = jwtTokenUtils.getPrincipal(jwtTokenUtils.getClaims(token));
+
+        // Assert
+        assertNotNull(principal);
+        assertEquals(7L, principal.id());
+        assertEquals("admin@example.com", principal.getUsername());
+        assertTrue(principal.isAdmin());
+    }
+}
@@ -0,0 +1,148 @@
+package ru.develop.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import ru.develop.manager.extern.cache.CacheInvalidationBus;
+import ru.develop.manager.extern.cache.NearCache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NearCacheTest {
+
+    /**
+     * Счетчики версий, заменяющие Redis в тестах
+     */
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    private StringRedisTemplate redisTemplate;
+    private CacheInvalidationBus bus;
+    private NearCache<String> cache;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenAnswer(inv -> {
+            Long version = versions.get(inv.<String>getArgument(0));
+            return version == null ? null : String.valueOf(version);
+        });
+        when(valueOperations.increment(anyString())).thenAnswer(inv -> versions.merge(inv.getArgument(0), 1L, Long::sum));
+
+        bus = new CacheInvalidationBus(redisTemplate, null, true, Duration.ofDays(1), Duration.ofSeconds(15));
+        cache = bus.nearCache("task", 100, Duration.ofMinutes(1));
+        bus.onChannelSubscribed(CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8), 1);
+    }
+
+    private void receive(String key, long version) {
+        bus.onMessage(message("task\t" + version + "\t" + key), null);
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void put_shouldRejectValueLoadedBeforeInvalidation() {
+        // Arrange
+        long stamp = cache.stamp("1");
+
+        // Act
+        cache.evict(List.of("1"));
+        cache.put("1", "Old", stamp);
+
+        // Assert
+        assertNull(cache.get("1"));
+        verify(redisTemplate, times(1)).convertAndSend(CacheInvalidationBus.CHANNEL, "task\t1\t1");
+        cache.put("1", "New", cache.stamp("1"));
+        assertEquals("New", cache.get("1"));
+    }
+
+    @Test
+    void onMessage_shouldIgnoreReorderedOlderMessage() {
+        // Arrange
+        receive("1", 5);
+        cache.put("1", "Value", 5);
+
+        // Act
+        receive("1", 4);
+
+        // Assert
+        assertEquals("Value", cache.get("1"));
+        cache.put("1", "Stale", 4);
+        assertEquals("Value", cache.get("1"));
+    }
+
+    @Test
+    void onChannelSubscribed_shouldFlushAfterReconnect() {
+        // Arrange
+        cache.put("1", "Value", cache.stamp("1"));
+
+        // Act
+        bus.onChannelUnsubscribed(CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8), 0);
+        Object whileDisconnected = cache.get("1");
+        bus.onChannelSubscribed(CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8), 1);
+
+        // Assert
+        assertNull(whileDisconnected);
+        assertNull(cache.get("1"));
+        assertEquals(0, cache.estimatedSize());
+    }
+
+    @Test
+    void heartbeat_shouldBypassLocalCacheUntilOwnHeartbeatReturns() {
+        // Arrange
+        bus = new CacheInvalidationBus(redisTemplate, null, true, Duration.ofDays(1), Duration.ZERO);
+        cache = bus.nearCache("task", 100, Duration.ofMinutes(1));
+        bus.onChannelSubscribed(CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8), 1);
+        cache.put("1", "Value", cache.stamp("1"));
+        ArgumentCaptor<String> heartbeat = ArgumentCaptor.forClass(String.class);
+
+        // Act
+        bus.heartbeat();
+        boolean afterSilence = bus.isConnected();
+        Object whileDisconnected = cache.get("1");
+        verify(redisTemplate).convertAndSend(eq(CacheInvalidationBus.CHANNEL), heartbeat.capture());
+        bus.onMessage(message("heartbeat\tother-node"), null);
+        boolean afterOtherNode = bus.isConnected();
+        bus.onMessage(message(heartbeat.getValue()), null);
+
+        // Assert
+        assertFalse(afterSilence);
+        assertNull(whileDisconnected);
+        assertEquals(0, cache.estimatedSize());
+        assertFalse(afterOtherNode);
+        assertTrue(bus.isConnected());
+        cache.put("1", "New", cache.stamp("1"));
+        assertEquals("New", cache.get("1"));
+    }
+
+    @Test
+    void put_shouldRejectStaleValueAfterManyInvalidations() {
+        // Arrange
+        long stamp = cache.stamp("1");
+        receive("1", 1);
+
+        // Act
+        for (int key = 2; key <= 10_000; key++) receive(String.valueOf(key), 1);
+        cache.put("1", "Old", stamp);
+
+        // Assert
+        assertNull(cache.get("1"));
+    }
+}
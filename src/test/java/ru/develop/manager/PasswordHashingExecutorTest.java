@@ -0,0 +1,104 @@
+package ru.develop.manager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.develop.manager.extern.exceptions.ServiceOverloadedException;
+import ru.develop.manager.extern.utils.PasswordHashingExecutor;
+import ru.develop.manager.extern.utils.WorkFactorBCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        executor = new PasswordHashingExecutor(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(executor, "threads", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(executor, "timeout", Duration.ofMillis(200));
+        ReflectionTestUtils.invokeMethod(executor, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        ReflectionTestUtils.invokeMethod(executor, "shutdown");
+    }
+
+    @Test
+    void submit_shouldReturnResultOfTask() throws Exception {
+        // Act
+        String result = executor.submit(() -> "hash").get();
+
+        // Assert
+        assertEquals("hash", result);
+    }
+
+    @Test
+    void submit_shouldRejectImmediatelyWhenQueueIsFull() {
+        // Arrange
+        executor.submit(() -> { release.await(); return 1; });
+        executor.submit(() -> 2);
+
+        // Act & Assert
+        assertThrows(ServiceOverloadedException.class, () -> executor.submit(() -> 3));
+    }
+
+    @Test
+    void submit_shouldTimeOutWhenTaskWaitsTooLong() {
+        // Arrange
+        CompletableFuture<Integer> future = executor.submit(() -> { release.await(); return 1; });
+
+        // Act & Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+    }
+
+    @Test
+    void await_shouldThrowTimeoutSoCallerSkipsWriteWhileTaskStillRuns() throws Exception {
+        // Arrange
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicBoolean written = new AtomicBoolean();
+
+        // Act
+        assertThrows(TimeoutException.class, () -> {
+            executor.await(() -> {
+                release.await();
+                finished.countDown();
+                return "hash";
+            });
+            written.set(true);
+        });
+        release.countDown();
+
+        // Assert
+        assertTrue(finished.await(1, TimeUnit.SECONDS));
+        assertFalse(written.get());
+        assertEquals("hash", executor.await(() -> "hash"));
+    }
+
+    @Test
+    void upgradeEncoding_shouldRehashPasswordsWithOtherWorkFactor() {
+        // Arrange
+        WorkFactorBCryptPasswordEncoder encoder = new WorkFactorBCryptPasswordEncoder(5);
+
+        // Act & Assert
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password")));
+        assertTrue(encoder.upgradeEncoding(new WorkFactorBCryptPasswordEncoder(4).encode("password")));
+        assertTrue(encoder.upgradeEncoding(new WorkFactorBCryptPasswordEncoder(6).encode("password")));
+    }
+}
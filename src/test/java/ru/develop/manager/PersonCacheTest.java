@@ -0,0 +1,264 @@
+package ru.develop.manager;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.github.fppt.jedismock.operations.server.MockExecutor;
+import com.github.fppt.jedismock.server.Response;
+import com.github.fppt.jedismock.server.ServiceOptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.enums.Role;
+import ru.develop.manager.extern.cache.CacheInvalidationBus;
+import ru.develop.manager.extern.cache.CachedPerson;
+import ru.develop.manager.extern.cache.PersonCache;
+import ru.develop.manager.extern.config.RedisConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersonCacheTest {
+
+    /**
+     * Redis в памяти процесса (jedis-mock), скрипты выполняются через luaj
+     */
+    private RedisServer redis;
+    /**
+     * Сколько следующих команд GET и скриптов завершить ошибкой, как при таймауте команды
+     */
+    private final AtomicInteger failingGets = new AtomicInteger();
+    private final AtomicInteger failingScripts = new AtomicInteger();
+    private final AtomicInteger gets = new AtomicInteger();
+    private final List<LettuceConnectionFactory> connectionFactories = new ArrayList<>();
+
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        redis = RedisServer.newRedisServer()
+                .setOptions(ServiceOptions.withInterceptor((state, command, params) -> {
+                    String name = command.toLowerCase();
+                    if (name.equals("get")) gets.incrementAndGet();
+                    if (name.equals("get") && failingGets.getAndUpdate(n -> Math.max(0, n - 1)) > 0
+                            || name.startsWith("eval") && failingScripts.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                        return Response.error("ERR injected failure");
+                    }
+                    return MockExecutor.proceed(state, command, params);
+                }))
+                .start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionFactories.forEach(LettuceConnectionFactory::destroy);
+        redis.stop();
+    }
+
+    private PersonCache newCache() {
+        return newCache(new SimpleMeterRegistry());
+    }
+
+    /**
+     * Кэш отдельного узла: свое соединение с Redis и свой локальный уровень
+     */
+    private PersonCache newCache(MeterRegistry meterRegistry) {
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", redis.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactories.add(connectionFactory);
+        RedisTemplate<String, CachedPerson> personRedisTemplate = new RedisConfig().personRedisTemplate(connectionFactory);
+        personRedisTemplate.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        PersonCache cache = new PersonCache(personRedisTemplate, redisTemplate, meterRegistry,
+                new CacheInvalidationBus(null, null, false, Duration.ofDays(1), Duration.ofSeconds(15)));
+        ReflectionTestUtils.setField(cache, "localMaxSize", 100L);
+        ReflectionTestUtils.setField(cache, "localTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(cache, "redisTtl", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(cache, "generationTtl", Duration.ofDays(1));
+        ReflectionTestUtils.setField(cache, "redisRetryAfter", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(cache, "maxPendingEvictions", 10);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+        return cache;
+    }
+
+    private static Person person(String firstName) {
+        Person person = new Person();
+        person.setId(1L);
+        person.setEmail("test@example.com");
+        person.setFirstName(firstName);
+        person.setLastName("Person");
+        person.setRole(Role.ROLE_USER);
+        return person;
+    }
+
+    private static Supplier<Optional<Person>> loader(String firstName) {
+        return () -> Optional.of(person(firstName));
+    }
+
+    private static Supplier<Optional<Person>> noLoad() {
+        return () -> fail("Person must be taken from the cache");
+    }
+
+    @Test
+    void get_shouldFindPersonByIdAndEmailAfterLoad() {
+        // Arrange
+        PersonCache cache = newCache();
+
+        // Act
+        cache.getById(1L, loader("Test"));
+        cache.loadByEmail("test@example.com", loader("Test"));
+
+        // Assert
+        assertEquals("test@example.com", cache.getById(1L, noLoad()).orElseThrow().getEmail());
+        assertEquals(1L, cache.getByEmail("test@example.com", noLoad()).orElseThrow().getId());
+        assertEquals(2.0 / 3, cache.hitRatio(), 1e-9);
+    }
+
+    @Test
+    void get_shouldNotCachePasswordHash() {
+        // Arrange
+        Person person = person("Test");
+        person.setPassword("$2a$10$hash");
+
+        // Act
+        newCache().getById(1L, () -> Optional.of(person));
+
+        // Assert
+        assertFalse(redisTemplate.opsForValue().get("person:id:1").contains("hash"));
+        assertNull(newCache().getById(1L, noLoad()).orElseThrow().getPassword());
+    }
+
+    @Test
+    void cachedPerson_shouldReadEntriesWrittenWithPassword() {
+        // Arrange
+        Jackson2JsonRedisSerializer<CachedPerson> serializer = new Jackson2JsonRedisSerializer<>(CachedPerson.class);
+        byte[] old = "{\"id\":1,\"email\":\"test@example.com\",\"password\":\"hash\",\"role\":\"ROLE_USER\"}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        CachedPerson cachedPerson = serializer.deserialize(old);
+
+        // Assert
+        assertEquals("test@example.com", cachedPerson.email());
+        assertNull(cachedPerson.toPerson().getPassword());
+    }
+
+    @Test
+    void get_shouldLoadFromRedisOnLocalMiss() {
+        // Arrange
+        newCache().getById(1L, loader("Test"));
+        PersonCache otherNode = newCache();
+
+        // Act
+        Optional<Person> result = otherNode.getById(1L, noLoad());
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(Role.ROLE_USER, result.get().getRole());
+    }
+
+    @Test
+    void evict_shouldRemoveBothKeysFromBothTiers() {
+        // Arrange
+        PersonCache cache = newCache();
+        cache.getById(1L, loader("Old"));
+        cache.getByEmail("test@example.com", loader("Old"));
+
+        // Act
+        cache.evict(person("New"));
+
+        // Assert
+        assertFalse(redisTemplate.hasKey("person:id:1"));
+        assertFalse(redisTemplate.hasKey("person:email:test@example.com"));
+        assertEquals("New", cache.getById(1L, loader("New")).orElseThrow().getFirstName());
+        assertEquals("New", cache.getByEmail("test@example.com", loader("New")).orElseThrow().getFirstName());
+    }
+
+    @Test
+    void get_shouldDegradeToLoaderWhenRedisIsUnavailable() {
+        // Arrange
+        PersonCache cache = newCache();
+        failingGets.set(1);
+
+        // Act
+        Optional<Person> first = cache.getById(2L, loader("First"));
+        Optional<Person> second = cache.getByEmail("other@example.com", loader("Second"));
+
+        // Assert
+        assertEquals("First", first.orElseThrow().getFirstName());
+        assertEquals("Second", second.orElseThrow().getFirstName());
+        assertEquals(1, gets.get());
+    }
+
+    @Test
+    void get_shouldKeepLoadStartedBeforeChangeOnOtherNodeOutOfRedis() {
+        // Arrange
+        PersonCache cache = newCache();
+        PersonCache otherNode = newCache();
+
+        // Act
+        Optional<Person> loaded = cache.getById(1L, () -> {
+            otherNode.evict(person("New"));
+            return Optional.of(person("Old"));
+        });
+
+        // Assert
+        assertEquals("Old", loaded.orElseThrow().getFirstName());
+        assertFalse(redisTemplate.hasKey("person:id:1"));
+        assertEquals("New", otherNode.getById(1L, loader("New")).orElseThrow().getFirstName());
+    }
+
+    @Test
+    void evict_shouldReachRedisAfterRedisErrorSoOtherNodeReadsNewPerson() {
+        // Arrange
+        PersonCache cache = newCache();
+        PersonCache otherNode = newCache();
+        otherNode.getById(1L, loader("Old"));
+        failingGets.set(1);
+        cache.getById(2L, loader("Other"));
+
+        // Act
+        cache.evict(person("New"));
+
+        // Assert
+        assertFalse(redisTemplate.hasKey("person:id:1"));
+        assertEquals("New", newCache().getById(1L, loader("New")).orElseThrow().getFirstName());
+    }
+
+    @Test
+    void retryEvictions_shouldRepeatFailedEvictionAndBypassRedisUntilThen() {
+        // Arrange
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PersonCache cache = newCache(meterRegistry);
+        newCache().getById(1L, loader("Old"));
+        failingScripts.set(1);
+        cache.evict(person("New"));
+
+        // Act
+        Optional<Person> whilePending = cache.getById(1L, loader("New"));
+        cache.retryEvictions();
+
+        // Assert
+        assertEquals("New", whilePending.orElseThrow().getFirstName());
+        assertEquals(1.0, meterRegistry.counter("person.cache.redis.errors").count());
+        assertFalse(redisTemplate.hasKey("person:id:1"));
+        assertEquals("1", redisTemplate.opsForValue().get("person:gen:email:test@example.com"));
+        assertEquals("New", newCache().getById(1L, loader("New")).orElseThrow().getFirstName());
+    }
+}
@@ -11,14 +11,19 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import ru.develop.manager.application.services.impls.PersonServiceImpl;
 import ru.develop.manager.domain.Person;
 import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.enums.Role;
+import ru.develop.manager.extern.cache.PersonCache;
 import ru.develop.manager.extern.repositories.PersonRepository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class PersonServiceTest {
@@ -29,12 +34,19 @@ class PersonServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PersonCache personCache;
+
     @InjectMocks
     private PersonServiceImpl personService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // пустой кэш: каждый запрос уходит в загрузку
+        when(personCache.getById(any(), any())).thenAnswer(inv -> inv.<Supplier<Optional<Person>>>getArgument(1).get());
+        when(personCache.getByEmail(any(), any())).thenAnswer(inv -> inv.<Supplier<Optional<Person>>>getArgument(1).get());
+        when(personCache.loadByEmail(any(), any())).thenAnswer(inv -> inv.<Supplier<Optional<Person>>>getArgument(1).get());
     }
 
     @Test
@@ -76,6 +88,28 @@ class PersonServiceTest {
         verify(personRepository, times(1)).findByEmail(email);
     }
 
+    @Test
+    void loadUserByUsername_shouldReadPasswordFromDatabaseNotCache() {
+        // Arrange
+        String email = "test@example.com";
+        Person cached = new Person();
+        cached.setEmail(email);
+        Person stored = new Person();
+        stored.setEmail(email);
+        stored.setPassword("hash");
+
+        doReturn(Optional.of(cached)).when(personCache).getByEmail(eq(email), any());
+        when(personRepository.findByEmail(email)).thenReturn(Optional.of(stored));
+
+        // Act
+        UserDetails userDetails = personService.loadUserByUsername(email);
+
+        // Assert
+        assertEquals("hash", userDetails.getPassword());
+        verify(personCache, never()).getByEmail(eq(email), any());
+        verify(personCache, times(1)).loadByEmail(eq(email), any());
+    }
+
     @Test
     void loadUserByUsername_shouldThrowExceptionWhenUserNotFound() {
         // Arrange
@@ -124,6 +158,43 @@ class PersonServiceTest {
         verify(personRepository, times(1)).findById(id);
     }
 
+    @Test
+    void findById_shouldReturnCachedPersonWithoutDatabase() {
+        // Arrange
+        Long id = 1L;
+        Person person = new Person();
+        person.setId(id);
+
+        doReturn(Optional.of(person)).when(personCache).getById(eq(id), any());
+
+        // Act
+        Optional<Person> result = personService.findById(id);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(id, result.get().getId());
+        verifyNoInteractions(personRepository);
+    }
+
+    @Test
+    void changeRole_shouldUpdateRoleAndEvictPerson() {
+        // Arrange
+        Long id = 1L;
+        Person person = new Person();
+        person.setId(id);
+        person.setRole(Role.ROLE_USER);
+
+        when(personRepository.findById(id)).thenReturn(Optional.of(person));
+        when(personRepository.save(person)).thenReturn(person);
+
+        // Act
+        Person updatedPerson = personService.changeRole(id, "role_admin");
+
+        // Assert
+        assertEquals(Role.ROLE_ADMIN, updatedPerson.getRole());
+        verify(personCache, times(1)).evict(person);
+    }
+
     @Test
     void findById_shouldReturnEmptyOptionalIfPersonNotFound() {
         // Arrange
@@ -0,0 +1,154 @@
+package ru.develop.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.enums.Role;
+import ru.develop.manager.extern.DTOs.taskDTO.InfoTaskDTO;
+import ru.develop.manager.extern.utils.CursorCodec;
+import ru.develop.manager.extern.utils.JwtTokenUtils;
+import ru.develop.manager.reactive.ReactiveReadApplication;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = ReactiveReadApplication.class, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.config.name=application,reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-test;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "reactive.tasks.batch-size=2"
+})
+@AutoConfigureWebTestClient
+class ReactiveTaskApiTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private JwtTokenUtils jwtTokenUtils;
+
+    @Autowired
+    private CursorCodec cursorCodec;
+
+    @BeforeEach
+    void setUp() {
+        Flux.just("DROP TABLE IF EXISTS comment", "DROP TABLE IF EXISTS task_executors", "DROP TABLE IF EXISTS task",
+                        "DROP TABLE IF EXISTS person",
+                        "CREATE TABLE person (id BIGINT PRIMARY KEY, first_name VARCHAR(255), last_name VARCHAR(255), " +
+                                "email VARCHAR(255), role VARCHAR(255))",
+                        "CREATE TABLE task (id BIGINT PRIMARY KEY, version BIGINT, title VARCHAR(255), description VARCHAR(255), " +
+                                "status VARCHAR(255), priority VARCHAR(255), author_id BIGINT)",
+                        "CREATE TABLE task_executors (task_id BIGINT, executors_id BIGINT)",
+                        "CREATE TABLE comment (id BIGINT PRIMARY KEY, comment VARCHAR(255), task_id BIGINT)",
+                        "INSERT INTO person VALUES (1, 'Admin', 'Admin', 'admin@example.com', 'ROLE_ADMIN'), " +
+                                "(2, 'Author', 'Author', 'author@example.com', 'ROLE_USER'), " +
+                                "(3, 'Executor', 'Executor', 'executor@example.com', 'ROLE_USER')",
+                        "INSERT INTO task VALUES (1, 4, 'Task 1', 'Description', 'APPOINTED', 'HIGH', 2), " +
+                                "(2, 0, 'Task 2', 'Description', 'IN_PROGRESS', 'LOW', 2), " +
+                                "(3, 0, 'Task 3', 'Description', 'APPOINTED', NULL, 2), " +
+                                "(4, 0, 'Task 4', 'Description', 'COMPLETED', 'MEDIUM', 2), " +
+                                "(5, 0, 'Task 5', 'Description', 'APPOINTED', 'HIGH', 2), " +
+                                "(6, 0, 'Task 6', 'Description', 'APPOINTED', 'HIGH', 3)",
+                        "INSERT INTO task_executors VALUES (1, 3), (1, 2), (3, 3), (5, 3)",
+                        "INSERT INTO comment VALUES (1, 'c1', 1), (2, 'c2', 1), (3, 'c3', 1), (4, 'c4', 1), (5, 'other', 3)")
+                .concatMap(sql -> databaseClient.sql(sql).then())
+                .blockLast();
+    }
+
+    @Test
+    void findTaskByAuthorId_shouldStreamAllPagesAndContinueFromCursor() {
+        // Arrange
+        String admin = token(1L, "admin@example.com", Role.ROLE_ADMIN);
+
+        // Act
+        List<InfoTaskDTO> all = webTestClient.get().uri("/v1/tasks/author/2")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + admin)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(InfoTaskDTO.class).getResponseBody().collectList().block();
+        List<InfoTaskDTO> page = webTestClient.get().uri("/v1/tasks/author/2?cursor={cursor}&limit=2", cursorCodec.encode(2L))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + admin)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(InfoTaskDTO.class).returnResult().getResponseBody();
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), all.stream().map(InfoTaskDTO::getId).toList());
+        InfoTaskDTO first = all.get(0);
+        assertEquals(4L, first.getCommentsCount());
+        assertEquals(List.of("c4", "c3", "c2"), first.getComments());
+        assertEquals("author@example.com", first.getAuthor().getEmail());
+        assertEquals(List.of("author@example.com", "executor@example.com"),
+                first.getExecutors().stream().map(executor -> executor.getEmail()).toList());
+        assertEquals("null", all.get(2).getPriority());
+        assertEquals(0L, all.get(1).getCommentsCount());
+        assertEquals(List.of(3L, 4L), page.stream().map(InfoTaskDTO::getId).toList());
+    }
+
+    @Test
+    void findTaskByExecutorId_shouldAllowOnlyOwnTasksForUser() {
+        // Arrange
+        String executor = token(3L, "executor@example.com", Role.ROLE_USER);
+
+        // Act & Assert
+        webTestClient.get().uri("/v1/tasks/executor/3").exchange().expectStatus().isUnauthorized();
+        webTestClient.get().uri("/v1/tasks/executor/3").header(HttpHeaders.AUTHORIZATION, "Bearer broken")
+                .exchange().expectStatus().isUnauthorized();
+        webTestClient.get().uri("/v1/tasks/executor/2").header(HttpHeaders.AUTHORIZATION, "Bearer " + executor)
+                .exchange().expectStatus().isBadRequest();
+        webTestClient.get().uri("/v1/tasks/1").header(HttpHeaders.AUTHORIZATION, "Bearer " + executor)
+                .exchange().expectStatus().isForbidden();
+
+        List<InfoTaskDTO> own = webTestClient.get().uri("/v1/tasks/executor/3")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + executor)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(InfoTaskDTO.class).getResponseBody().collectList().block();
+        assertEquals(List.of(1L, 3L, 5L), own.stream().map(InfoTaskDTO::getId).toList());
+    }
+
+    @Test
+    void findById_shouldAnswerNotModifiedForSameVersion() {
+        // Arrange
+        String admin = token(1L, "admin@example.com", Role.ROLE_ADMIN);
+
+        // Act & Assert
+        webTestClient.get().uri("/v1/tasks/1").header(HttpHeaders.AUTHORIZATION, "Bearer " + admin)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"4\"")
+                .expectBody().jsonPath("$.title").isEqualTo("Task 1");
+        webTestClient.get().uri("/v1/tasks/1").header(HttpHeaders.AUTHORIZATION, "Bearer " + admin)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"4\"")
+                .exchange()
+                .expectStatus().isNotModified();
+        webTestClient.get().uri("/v1/tasks/100").header(HttpHeaders.AUTHORIZATION, "Bearer " + admin)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private String token(Long id, String email, Role role) {
+        Person person = new Person();
+        person.setId(id);
+        person.setEmail(email);
+        person.setRole(role);
+        return jwtTokenUtils.generateToken(person);
+    }
+}
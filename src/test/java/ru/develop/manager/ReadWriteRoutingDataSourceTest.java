@@ -0,0 +1,94 @@
+package ru.develop.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.develop.manager.extern.datasource.PrimaryReads;
+import ru.develop.manager.extern.datasource.ReadWriteRoutingDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readTransaction;
+    private TransactionTemplate writeTransaction;
+
+    @BeforeEach
+    void setUp() {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(
+                h2("primary"), List.of(h2("replica")), true);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private String database(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldGoToReplica() {
+        assertEquals("REPLICA", database(readTransaction));
+    }
+
+    @Test
+    void writeTransaction_shouldGoToPrimary() {
+        assertEquals("PRIMARY", database(writeTransaction));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldGoToPrimaryAfterWriteInSameRequest() {
+        // Arrange
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+
+        // Act & Assert
+        assertEquals("PRIMARY", database(readTransaction));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldNotBePinnedByOtherRequest() {
+        // Arrange
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        // Act & Assert
+        assertEquals("REPLICA", database(readTransaction));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldGoToPrimaryOnlyInsidePrimaryReads() {
+        // Act
+        String forced = PrimaryReads.call(() -> database(readTransaction));
+        String after = database(readTransaction);
+
+        // Assert
+        assertEquals("PRIMARY", forced);
+        assertEquals("REPLICA", after);
+    }
+}
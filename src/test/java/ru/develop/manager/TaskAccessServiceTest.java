@@ -0,0 +1,83 @@
+package ru.develop.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.develop.manager.application.services.impls.TaskAccessServiceImpl;
+import ru.develop.manager.extern.cache.CacheInvalidationBus;
+import ru.develop.manager.extern.repositories.TaskRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class TaskAccessServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Spy
+    private CacheInvalidationBus cacheInvalidationBus = new CacheInvalidationBus(null, null, false, Duration.ofDays(1), Duration.ofSeconds(15));
+
+    @InjectMocks
+    private TaskAccessServiceImpl taskAccessService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(taskAccessService, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(taskAccessService, "cacheTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(taskAccessService, "maxTaskIds", 3);
+        ReflectionTestUtils.invokeMethod(taskAccessService, "init");
+    }
+
+    @Test
+    void isExecutor_shouldAnswerFromCachedTaskIds() {
+        // Arrange
+        when(taskRepository.findTaskIdsByExecutorId(1L, PageRequest.of(0, 4))).thenReturn(List.of(10L, 11L));
+
+        // Act & Assert
+        assertTrue(taskAccessService.isExecutor(1L, 10L));
+        assertTrue(taskAccessService.isExecutor(1L, 11L));
+        assertFalse(taskAccessService.isExecutor(1L, 12L));
+        verify(taskRepository, times(1)).findTaskIdsByExecutorId(1L, PageRequest.of(0, 4));
+        verify(taskRepository, never()).existsExecutor(anyLong(), anyLong());
+    }
+
+    @Test
+    void isExecutor_shouldUseExistenceQueryForLargeMemberships() {
+        // Arrange
+        when(taskRepository.findTaskIdsByExecutorId(1L, PageRequest.of(0, 4))).thenReturn(List.of(1L, 2L, 3L, 4L));
+        when(taskRepository.existsExecutor(50L, 1L)).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(taskAccessService.isExecutor(1L, 2L));
+        assertTrue(taskAccessService.isExecutor(1L, 50L));
+        verify(taskRepository, times(1)).existsExecutor(50L, 1L);
+    }
+
+    @Test
+    void evictExecutors_shouldReloadTaskIdsOnNextCheck() {
+        // Arrange
+        when(taskRepository.findTaskIdsByExecutorId(1L, PageRequest.of(0, 4)))
+                .thenReturn(List.of(10L))
+                .thenReturn(List.of(10L, 20L));
+        assertFalse(taskAccessService.isExecutor(1L, 20L));
+
+        // Act
+        taskAccessService.evictExecutors(List.of(1L));
+
+        // Assert
+        assertTrue(taskAccessService.isExecutor(1L, 20L));
+        verify(taskRepository, times(2)).findTaskIdsByExecutorId(anyLong(), any());
+    }
+}
@@ -0,0 +1,138 @@
+package ru.develop.manager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.develop.manager.application.services.impls.TaskAnalyticsServiceImpl;
+import ru.develop.manager.domain.Comment;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.TaskAnalytics;
+import ru.develop.manager.domain.enums.AnalyticsSource;
+import ru.develop.manager.domain.enums.Priority;
+import ru.develop.manager.domain.enums.Role;
+import ru.develop.manager.domain.enums.Status;
+import ru.develop.manager.extern.repositories.CommentRepository;
+import ru.develop.manager.extern.repositories.TaskRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class TaskAnalyticsServiceTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private TaskAnalyticsServiceImpl taskAnalyticsService;
+    private Person first;
+    private Person second;
+
+    @BeforeEach
+    void setUp() {
+        taskAnalyticsService = new TaskAnalyticsServiceImpl(taskRepository, commentRepository, jdbcTemplate,
+                transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(taskAnalyticsService, "defaultSource", AnalyticsSource.SQL);
+        ReflectionTestUtils.setField(taskAnalyticsService, "maxStaleness", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(taskAnalyticsService, "top", 1);
+        ReflectionTestUtils.setField(taskAnalyticsService, "parallelism", 2);
+        ReflectionTestUtils.invokeMethod(taskAnalyticsService, "init");
+
+        first = person("first@example.com");
+        second = person("second@example.com");
+        task(first, Status.APPOINTED, Priority.HIGH, List.of(second), 2);
+        task(first, Status.COMPLETED, Priority.HIGH, List.of(first, second), 0);
+        task(second, Status.IN_PROGRESS, Priority.LOW, List.of(second), 1);
+        entityManager.flush();
+    }
+
+    @Test
+    void getAnalytics_shouldCountSameBySqlAndSnapshot() {
+        // Act
+        TaskAnalytics sql = taskAnalyticsService.getAnalytics(AnalyticsSource.SQL);
+        TaskAnalytics snapshot = taskAnalyticsService.getAnalytics(AnalyticsSource.SNAPSHOT);
+
+        // Assert
+        assertEquals(3, sql.tasks());
+        assertEquals(1, sql.counts().get(Status.APPOINTED).get(Priority.HIGH));
+        assertEquals(0, sql.counts().get(Status.APPOINTED).get(Priority.LOW));
+        assertEquals(List.of(new TaskAnalytics.PersonTasks(first.getId(), 2)), sql.topAuthors());
+        assertEquals(List.of(new TaskAnalytics.PersonTasks(second.getId(), 2)), sql.busiestExecutors());
+        assertEquals(4.0 / 3, sql.executorsPerTask(), 1e-9);
+        assertEquals(1.0, sql.commentsPerTask(), 1e-9);
+
+        assertEquals(AnalyticsSource.SNAPSHOT, snapshot.source());
+        assertEquals(sql.tasks(), snapshot.tasks());
+        assertEquals(sql.counts(), snapshot.counts());
+        assertEquals(sql.topAuthors(), snapshot.topAuthors());
+        assertEquals(sql.busiestExecutors(), snapshot.busiestExecutors());
+        assertEquals(sql.executorsPerTask(), snapshot.executorsPerTask(), 1e-9);
+        assertEquals(sql.commentsPerTask(), snapshot.commentsPerTask(), 1e-9);
+    }
+
+    @Test
+    void getAnalytics_shouldRecomputeOnlyStaleAnalytics() {
+        // Arrange
+        TaskAnalytics cached = taskAnalyticsService.getAnalytics(null);
+        task(second, Status.APPOINTED, Priority.LOW, List.of(), 0);
+        entityManager.flush();
+
+        // Act
+        TaskAnalytics fresh = taskAnalyticsService.getAnalytics(AnalyticsSource.SQL);
+        ReflectionTestUtils.setField(taskAnalyticsService, "maxStaleness", Duration.ZERO);
+        TaskAnalytics recomputed = taskAnalyticsService.getAnalytics(AnalyticsSource.SQL);
+
+        // Assert
+        assertSame(cached, fresh);
+        assertEquals(3, fresh.tasks());
+        assertEquals(4, recomputed.tasks());
+    }
+
+    private void task(Person author, Status status, Priority priority, List<Person> executors, int comments) {
+        Task task = new Task();
+        task.setTitle("Task");
+        task.setDescription("Description");
+        task.setStatus(status);
+        task.setPriority(priority);
+        task.setAuthor(author);
+        task.setExecutors(new ArrayList<>(executors));
+        entityManager.persist(task);
+        for (int i = 0; i < comments; i++) {
+            Comment comment = new Comment("Comment " + i);
+            comment.setTask(task);
+            entityManager.persist(comment);
+        }
+    }
+
+    private Person person(String email) {
+        Person person = new Person();
+        person.setFirstName("First");
+        person.setLastName("Last");
+        person.setEmail(email);
+        person.setPassword("password");
+        person.setRole(Role.ROLE_USER);
+        entityManager.persist(person);
+        return person;
+    }
+}
@@ -0,0 +1,266 @@
+package ru.develop.manager;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.develop.manager.application.services.PersonService;
+import ru.develop.manager.application.services.TaskAccessService;
+import ru.develop.manager.application.services.TaskStatsService;
+import ru.develop.manager.application.services.impls.TaskBulkServiceImpl;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.enums.Status;
+import ru.develop.manager.domain.events.TaskChangedEvent;
+import ru.develop.manager.domain.events.TaskFeedEvent;
+import ru.develop.manager.extern.DTOs.taskDTO.BulkResultDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.CreateTaskDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskTransitionDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskTransitionResultDTO;
+import ru.develop.manager.extern.DTOs.taskDTO.UpdateTaskDTO;
+import ru.develop.manager.extern.assemblers.TaskAssembler;
+import ru.develop.manager.extern.exceptions.WrongDataException;
+import ru.develop.manager.extern.repositories.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TaskBulkServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PersonService personService;
+
+    @Mock
+    private TaskAccessService taskAccessService;
+
+    @Mock
+    private TaskStatsService taskStatsService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TaskBulkServiceImpl taskBulkService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        taskBulkService = new TaskBulkServiceImpl(taskRepository, personService, taskAccessService, taskStatsService,
+                new TaskAssembler(null, null, null), Validation.buildDefaultValidatorFactory().getValidator(),
+                transactionManager, eventPublisher);
+        ReflectionTestUtils.setField(taskBulkService, "chunkSize", 2);
+        ReflectionTestUtils.setField(taskBulkService, "maxItems", 10);
+    }
+
+    @Test
+    void createTasks_shouldResolveExecutorsOnceAndReportEachTask() throws WrongDataException {
+        // Arrange
+        Person executor = new Person();
+        executor.setId(1L);
+        when(personService.findAllById(Set.of(1L, 2L))).thenReturn(Map.of(1L, executor));
+        AtomicLong ids = new AtomicLong();
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            tasks.forEach(task -> task.setId(ids.incrementAndGet()));
+            return tasks;
+        });
+        List<CreateTaskDTO> tasks = List.of(
+                createDTO("First", "Description", List.of(1L)),
+                createDTO("Second", "Description", List.of(2L)),
+                createDTO("Third", "Desc", null),
+                createDTO("Fourth", "Description", null));
+
+        // Act
+        BulkResultDTO result = taskBulkService.createTasks(tasks, new Person());
+
+        // Assert
+        assertEquals(2, result.getSucceeded());
+        assertEquals(2, result.getFailed());
+        assertEquals("CREATED", result.getItems().get(0).getStatus());
+        assertEquals("No executor with id 2", result.getItems().get(1).getError());
+        assertTrue(result.getItems().get(2).getError().startsWith("description"));
+        assertEquals("CREATED", result.getItems().get(3).getStatus());
+        assertEquals(2L, result.getItems().get(3).getId());
+        verify(personService, times(1)).findAllById(any());
+        verify(taskRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void createTasks_shouldAddRepeatedExecutorOnce() throws WrongDataException {
+        // Arrange
+        Person executor = new Person();
+        executor.setId(1L);
+        when(personService.findAllById(Set.of(1L))).thenReturn(Map.of(1L, executor));
+        List<Task> saved = new ArrayList<>();
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            tasks.forEach(task -> task.setId(1L));
+            saved.addAll(tasks);
+            return tasks;
+        });
+
+        // Act
+        BulkResultDTO result = taskBulkService.createTasks(List.of(createDTO("First", "Description", List.of(1L, 1L))), new Person());
+
+        // Assert
+        assertEquals(1, result.getSucceeded());
+        assertEquals(List.of(executor), saved.get(0).getExecutors());
+    }
+
+    @Test
+    void createTasks_shouldFailWholeChunkWhenTransactionFails() throws WrongDataException {
+        // Arrange
+        when(personService.findAllById(any())).thenReturn(Collections.emptyMap());
+        when(taskRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        List<CreateTaskDTO> tasks = List.of(
+                createDTO("First", "Description", null),
+                createDTO("Second", "Description", null),
+                createDTO("Third", "Description", null));
+
+        // Act
+        BulkResultDTO result = taskBulkService.createTasks(tasks, new Person());
+
+        // Assert
+        assertEquals(1, result.getSucceeded());
+        assertEquals("FAILED", result.getItems().get(0).getStatus());
+        assertEquals("FAILED", result.getItems().get(1).getStatus());
+        assertEquals("CREATED", result.getItems().get(2).getStatus());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    void updateTasks_shouldUpdateFoundTasksAndReportMissing() throws WrongDataException {
+        // Arrange
+        Task task = new Task();
+        task.setId(1L);
+        task.setTitle("Old");
+        task.setDescription("Description");
+        when(personService.findAllById(any())).thenReturn(Collections.emptyMap());
+        when(taskRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(task));
+        UpdateTaskDTO first = updateDTO(1L, "New", "completed");
+        UpdateTaskDTO second = updateDTO(2L, "Missing", null);
+
+        // Act
+        BulkResultDTO result = taskBulkService.updateTasks(List.of(first, second));
+
+        // Assert
+        assertEquals("UPDATED", result.getItems().get(0).getStatus());
+        assertEquals("No task with id 2", result.getItems().get(1).getError());
+        assertEquals("New", task.getTitle());
+        assertEquals(Status.COMPLETED, task.getStatus());
+        verify(taskRepository, times(1)).flush();
+    }
+
+    @Test
+    void createTasks_shouldRejectTooManyTasks() {
+        // Arrange
+        List<CreateTaskDTO> tasks = Collections.nCopies(11, createDTO("Title", "Description", null));
+
+        // Act & Assert
+        assertThrows(WrongDataException.class, () -> taskBulkService.createTasks(tasks, new Person()));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void transitionTasks_shouldWalkFilterInChunks() throws WrongDataException {
+        // Arrange
+        when(taskRepository.findIdsAfter(any(), eq(0L), eq(2))).thenReturn(List.of(1L, 2L));
+        when(taskRepository.findIdsAfter(any(), eq(2L), eq(2))).thenReturn(List.of(5L));
+        when(taskRepository.updateStatus(anyList(), eq(Status.COMPLETED))).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        TaskTransitionDTO transition = new TaskTransitionDTO();
+        transition.setStatus("in_progress");
+        transition.setAuthorId(1L);
+        transition.setToStatus("completed");
+
+        // Act
+        TaskTransitionResultDTO result = taskBulkService.transitionTasks(transition);
+
+        // Assert
+        assertEquals(3, result.getMatched());
+        assertEquals(3, result.getStatusChanged());
+        assertEquals(0, result.getPriorityChanged());
+        verify(taskRepository, times(2)).findIdsAfter(any(), anyLong(), eq(2));
+        verify(taskRepository, never()).updatePriority(anyList(), any());
+        verify(eventPublisher, times(3)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void transitionTasks_shouldPublishFeedEventsWithRecipientsReadBeforeUpdate() throws WrongDataException {
+        // Arrange
+        when(taskRepository.findIdsAfter(any(), eq(0L), eq(2))).thenReturn(List.of(1L));
+        TaskRepository.FeedRow row = mock(TaskRepository.FeedRow.class);
+        when(row.getTaskId()).thenReturn(1L);
+        when(row.getTitle()).thenReturn("Task 1");
+        when(row.getStatus()).thenReturn(Status.IN_PROGRESS);
+        when(row.getAuthorId()).thenReturn(7L);
+        TaskRepository.TaskPersonRow executor = mock(TaskRepository.TaskPersonRow.class);
+        when(executor.getTaskId()).thenReturn(1L);
+        when(executor.getPersonId()).thenReturn(3L);
+        when(taskRepository.findFeedRows(List.of(1L))).thenReturn(List.of(row));
+        when(taskRepository.findExecutorRows(List.of(1L))).thenReturn(List.of(executor));
+        TaskTransitionDTO transition = new TaskTransitionDTO();
+        transition.setStatus("in_progress");
+        transition.setToStatus("completed");
+
+        // Act
+        taskBulkService.transitionTasks(transition);
+
+        // Assert
+        InOrder order = inOrder(taskRepository, eventPublisher);
+        order.verify(taskRepository).findExecutorRows(List.of(1L));
+        order.verify(taskRepository).updateStatus(List.of(1L), Status.COMPLETED);
+        order.verify(eventPublisher).publishEvent(new TaskFeedEvent(1L, TaskChangedEvent.Type.CHANGED, "Task 1",
+                Status.COMPLETED, null, Set.of(3L, 7L)));
+    }
+
+    @Test
+    void transitionTasks_shouldRejectEmptySelection() {
+        // Arrange
+        TaskTransitionDTO transition = new TaskTransitionDTO();
+        transition.setToPriority("high");
+
+        // Act & Assert
+        assertThrows(WrongDataException.class, () -> taskBulkService.transitionTasks(transition));
+        verifyNoInteractions(taskRepository);
+    }
+
+    private static CreateTaskDTO createDTO(String title, String description, List<Long> executorsId) {
+        CreateTaskDTO dto = new CreateTaskDTO();
+        dto.setTitle(title);
+        dto.setDescription(description);
+        dto.setExecutorsId(executorsId);
+        return dto;
+    }
+
+    private static UpdateTaskDTO updateDTO(Long id, String title, String status) {
+        UpdateTaskDTO dto = new UpdateTaskDTO();
+        dto.setId(id);
+        dto.setTitle(title);
+        dto.setStatus(status);
+        return dto;
+    }
+}
@@ -0,0 +1,265 @@
+package ru.develop.manager;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.github.fppt.jedismock.operations.server.MockExecutor;
+import com.github.fppt.jedismock.server.Response;
+import com.github.fppt.jedismock.server.ServiceOptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.develop.manager.domain.events.TaskChangedEvent;
+import ru.develop.manager.extern.DTOs.taskDTO.InfoTaskDTO;
+import ru.develop.manager.extern.cache.CacheInvalidationBus;
+import ru.develop.manager.extern.cache.TaskCache;
+import ru.develop.manager.extern.config.RedisConfig;
+import ru.develop.manager.extern.datasource.PrimaryReads;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskCacheTest {
+
+    /**
+     * Redis в памяти процесса (jedis-mock), скрипты выполняются через luaj
+     */
+    private RedisServer redis;
+    /**
+     * Сколько следующих скриптов завершить ошибкой, как при таймауте команды
+     */
+    private final AtomicInteger failingScripts = new AtomicInteger();
+    private final List<LettuceConnectionFactory> connectionFactories = new ArrayList<>();
+
+    private StringRedisTemplate redisTemplate;
+    private TaskCache cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        redis = RedisServer.newRedisServer()
+                .setOptions(ServiceOptions.withInterceptor((state, command, params) ->
+                        command.toLowerCase().startsWith("eval") && failingScripts.getAndUpdate(n -> Math.max(0, n - 1)) > 0
+                                ? Response.error("ERR injected failure")
+                                : MockExecutor.proceed(state, command, params)))
+                .start();
+        cache = cache(redis.getBindPort(), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionFactories.forEach(LettuceConnectionFactory::destroy);
+        redis.stop();
+    }
+
+    /**
+     * Кэш отдельного узла: свое соединение с Redis и свой локальный уровень
+     */
+    private TaskCache cache(int port, MeterRegistry meterRegistry) {
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactories.add(connectionFactory);
+        RedisTemplate<String, InfoTaskDTO> taskRedisTemplate = new RedisConfig().taskRedisTemplate(connectionFactory);
+        taskRedisTemplate.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        TaskCache taskCache = new TaskCache(taskRedisTemplate, redisTemplate, meterRegistry,
+                new CacheInvalidationBus(null, null, false, Duration.ofDays(1), Duration.ofSeconds(15)));
+        ReflectionTestUtils.setField(taskCache, "localMaxSize", 100L);
+        ReflectionTestUtils.setField(taskCache, "localTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(taskCache, "ttl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(taskCache, "generationTtl", Duration.ofDays(1));
+        ReflectionTestUtils.setField(taskCache, "redisRetryAfter", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(taskCache, "maxPendingEvictions", 2);
+        ReflectionTestUtils.invokeMethod(taskCache, "init");
+        return taskCache;
+    }
+
+    private static InfoTaskDTO task(String title) {
+        InfoTaskDTO task = new InfoTaskDTO();
+        task.setId(1L);
+        task.setTitle(title);
+        return task;
+    }
+
+    @Test
+    void get_shouldLoadOnceFromPrimaryAndServeFromRedis() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        TaskCache otherNode = cache(redis.getBindPort(), new SimpleMeterRegistry());
+
+        // Act
+        InfoTaskDTO first = cache.get(1L, () -> {
+            loads.incrementAndGet();
+            assertTrue(PrimaryReads.isForced());
+            return task("Task");
+        });
+        InfoTaskDTO second = cache.get(1L, () -> { loads.incrementAndGet(); return task("Task"); });
+        InfoTaskDTO fromOtherNode = otherNode.get(1L, () -> { loads.incrementAndGet(); return task("Task"); });
+
+        // Assert
+        assertEquals("Task", first.getTitle());
+        assertEquals("Task", second.getTitle());
+        assertEquals("Task", fromOtherNode.getTitle());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_shouldShareOneLoadBetweenConcurrentMisses() throws Exception {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<InfoTaskDTO>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> cache.get(1L, () -> {
+                loads.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return task("Task");
+            })));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        // Assert
+        for (Future<InfoTaskDTO> result : results) {
+            assertEquals("Task", result.get(5, TimeUnit.SECONDS).getTitle());
+        }
+        assertEquals(1, loads.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void evict_shouldKeepLoadStartedBeforeChangeOutOfRedis() {
+        // Act
+        InfoTaskDTO loaded = cache.get(1L, () -> {
+            cache.onTaskChanged(TaskChangedEvent.changed(1L));
+            return task("Old");
+        });
+
+        // Assert
+        assertEquals("Old", loaded.getTitle());
+        assertFalse(redisTemplate.hasKey("task:dto:1"));
+        assertEquals("New", cache.get(1L, () -> task("New")).getTitle());
+    }
+
+    @Test
+    void evict_onOtherNodeShouldKeepLoadStartedBeforeChangeOutOfRedis() {
+        // Arrange
+        TaskCache otherNode = cache(redis.getBindPort(), new SimpleMeterRegistry());
+
+        // Act
+        InfoTaskDTO loaded = cache.get(1L, () -> {
+            otherNode.onTaskChanged(TaskChangedEvent.changed(1L));
+            return task("Old");
+        });
+
+        // Assert
+        assertEquals("Old", loaded.getTitle());
+        assertFalse(redisTemplate.hasKey("task:dto:1"));
+        assertEquals("1", redisTemplate.opsForValue().get("task:dto:gen:1"));
+        assertEquals("New", cache.get(1L, () -> task("New")).getTitle());
+        assertEquals("New", otherNode.get(1L, () -> task("Other")).getTitle());
+    }
+
+    @Test
+    void get_shouldDegradeToLoaderWhenRedisIsUnavailable() throws IOException {
+        // Arrange
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaskCache unavailable = cache(closedPort, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        InfoTaskDTO first = unavailable.get(1L, () -> { loads.incrementAndGet(); return task("Task"); });
+        InfoTaskDTO second = unavailable.get(2L, () -> { loads.incrementAndGet(); return task("Task"); });
+
+        // Assert
+        assertEquals("Task", first.getTitle());
+        assertEquals("Task", second.getTitle());
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.counter("task.cache.redis.errors").count());
+    }
+
+    @Test
+    void evict_shouldReachRedisAfterRedisErrorSoOtherNodeReadsNewTask() {
+        // Arrange
+        TaskCache otherNode = cache(redis.getBindPort(), new SimpleMeterRegistry());
+        cache.get(1L, () -> task("Old"));
+        failingScripts.set(1);
+        cache.onTaskChanged(TaskChangedEvent.changed(2L));
+
+        // Act
+        cache.onTaskChanged(TaskChangedEvent.changed(1L));
+
+        // Assert
+        assertFalse(redisTemplate.hasKey("task:dto:1"));
+        assertEquals("New", otherNode.get(1L, () -> task("New")).getTitle());
+    }
+
+    @Test
+    void retryEvictions_shouldRepeatFailedEvictionAndBypassRedisUntilThen() {
+        // Arrange
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaskCache node = cache(redis.getBindPort(), meterRegistry);
+        TaskCache otherNode = cache(redis.getBindPort(), new SimpleMeterRegistry());
+        node.get(1L, () -> task("Old"));
+        failingScripts.set(1);
+        node.onTaskChanged(TaskChangedEvent.changed(1L));
+
+        // Act
+        InfoTaskDTO whilePending = node.get(1L, () -> task("New"));
+        node.retryEvictions();
+
+        // Assert
+        assertEquals("New", whilePending.getTitle());
+        assertEquals(1.0, meterRegistry.counter("task.cache.redis.errors").count());
+        assertEquals("1", redisTemplate.opsForValue().get("task:dto:gen:1"));
+        assertEquals("New", otherNode.get(1L, () -> task("New")).getTitle());
+    }
+
+    @Test
+    void retryEvictions_shouldFlushTaskEntriesAfterTooManyFailedEvictions() {
+        // Arrange
+        TaskCache otherNode = cache(redis.getBindPort(), new SimpleMeterRegistry());
+        for (long id = 1; id <= 3; id++) {
+            long taskId = id;
+            otherNode.get(taskId, () -> task("Old " + taskId));
+        }
+        redisTemplate.opsForValue().set("task:dto:gen:9", "5");
+        failingScripts.set(3);
+        for (long id = 1; id <= 3; id++) cache.onTaskChanged(TaskChangedEvent.changed(id));
+
+        // Act
+        cache.retryEvictions();
+
+        // Assert
+        for (long id = 1; id <= 3; id++) assertFalse(redisTemplate.hasKey("task:dto:" + id));
+        assertEquals("5", redisTemplate.opsForValue().get("task:dto:gen:9"));
+        assertEquals("New", cache.get(3L, () -> task("New")).getTitle());
+    }
+}
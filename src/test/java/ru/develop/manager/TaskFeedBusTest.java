@@ -0,0 +1,97 @@
+package ru.develop.manager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.develop.manager.domain.enums.Status;
+import ru.develop.manager.domain.events.TaskChangedEvent;
+import ru.develop.manager.domain.events.TaskFeedEvent;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskFeedEventDTO;
+import ru.develop.manager.extern.feed.TaskFeed;
+import ru.develop.manager.extern.feed.TaskFeedBus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TaskFeedBusTest {
+
+    private final List<TaskFeedBus> buses = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        buses.forEach(bus -> ReflectionTestUtils.invokeMethod(bus, "shutdown"));
+    }
+
+    private TaskFeedBus bus(TaskFeed feed, StringRedisTemplate redisTemplate) {
+        TaskFeedBus bus = new TaskFeedBus(feed, redisTemplate, new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(bus, "distributed", true);
+        ReflectionTestUtils.setField(bus, "publishBuffer", 100);
+        ReflectionTestUtils.setField(bus, "publishBatchSize", 10);
+        ReflectionTestUtils.setField(bus, "retryAfter", Duration.ofMillis(10));
+        ReflectionTestUtils.invokeMethod(bus, "init");
+        buses.add(bus);
+        return bus;
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TaskFeedBus.CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void onMessage_shouldDeliverEventsOfOtherNodeOnly() {
+        // Arrange
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        TaskFeed localFeed = mock(TaskFeed.class);
+        TaskFeed remoteFeed = mock(TaskFeed.class);
+        TaskFeedBus local = bus(localFeed, redisTemplate);
+        TaskFeedBus remote = bus(remoteFeed, mock(StringRedisTemplate.class));
+        local.onTaskChanged(new TaskFeedEvent(10L, TaskChangedEvent.Type.CHANGED, "Task 10", Status.COMPLETED, null, Set.of(1L)));
+        ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, timeout(5000)).convertAndSend(eq(TaskFeedBus.CHANNEL), sent.capture());
+
+        // Act
+        local.onMessage(message(sent.getValue()), null);
+        remote.onMessage(message(sent.getValue()), null);
+        remote.onMessage(message("broken"), null);
+
+        // Assert
+        verify(localFeed, never()).deliver(any(), any());
+        verify(remoteFeed).deliver(new TaskFeedEventDTO(10L, "CHANGED", "Task 10", "COMPLETED", null), Set.of(1L));
+        verify(remoteFeed, never()).resync();
+    }
+
+    @Test
+    void onMessage_shouldResyncOtherNodesAfterFailedPublish() {
+        // Arrange
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        doThrow(new IllegalStateException("Redis is down")).doReturn(1L).when(redisTemplate).convertAndSend(anyString(), anyString());
+        TaskFeed remoteFeed = mock(TaskFeed.class);
+        TaskFeedBus local = bus(mock(TaskFeed.class), redisTemplate);
+        TaskFeedBus remote = bus(remoteFeed, mock(StringRedisTemplate.class));
+        local.onTaskChanged(new TaskFeedEvent(10L, TaskChangedEvent.Type.CHANGED, "Task 10", Status.COMPLETED, null, Set.of(1L)));
+        verify(redisTemplate, timeout(5000)).convertAndSend(anyString(), anyString());
+        local.onTaskChanged(TaskFeedEvent.deleted(11L, Set.of(1L)));
+        ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, timeout(5000).times(2)).convertAndSend(eq(TaskFeedBus.CHANNEL), sent.capture());
+
+        // Act
+        remote.onMessage(message(sent.getValue()), null);
+
+        // Assert
+        verify(remoteFeed).resync();
+        verify(remoteFeed).deliver(new TaskFeedEventDTO(11L, "DELETED", null, null, null), Set.of(1L));
+    }
+}
@@ -0,0 +1,141 @@
+package ru.develop.manager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.develop.manager.domain.PersonPrincipal;
+import ru.develop.manager.domain.enums.Role;
+import ru.develop.manager.domain.enums.Status;
+import ru.develop.manager.domain.events.TaskChangedEvent;
+import ru.develop.manager.domain.events.TaskFeedEvent;
+import ru.develop.manager.extern.feed.TaskFeed;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskFeedTest {
+
+    /**
+     * Соединение, которое записывает отправленные события вместо ответа
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private volatile CountDownLatch blocked = new CountDownLatch(0);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sent.add(builder.build().stream().map(d -> String.valueOf(d.getData())).collect(Collectors.joining()));
+        }
+
+        private String next() throws InterruptedException {
+            return sent.poll(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private TaskFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new TaskFeed(new SimpleMeterRegistry()) {
+            @Override
+            protected SseEmitter createEmitter(Duration timeout) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(feed, "bufferSize", 2);
+        ReflectionTestUtils.setField(feed, "timeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.invokeMethod(feed, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(feed, "shutdown");
+    }
+
+    private static TaskFeedEvent event(long taskId, Status status, Long... recipientIds) {
+        return new TaskFeedEvent(taskId, TaskChangedEvent.Type.CHANGED, "Task " + taskId, status, null, Set.of(recipientIds));
+    }
+
+    @Test
+    void onTaskChanged_shouldSendOnlyToRecipientsAndAdmins() throws Exception {
+        // Arrange
+        feed.subscribe(new PersonPrincipal(1L, "executor@mail.ru", Role.ROLE_USER));
+        feed.subscribe(new PersonPrincipal(2L, "other@mail.ru", Role.ROLE_USER));
+        feed.subscribe(new PersonPrincipal(3L, "admin@mail.ru", Role.ROLE_ADMIN));
+        for (RecordingEmitter emitter : emitters) assertTrue(emitter.next().contains("ping"));
+
+        // Act
+        feed.onTaskChanged(event(10L, Status.IN_PROGRESS, 1L));
+
+        // Assert
+        assertTrue(emitters.get(0).next().contains("taskId=10"));
+        assertTrue(emitters.get(2).next().contains("status=IN_PROGRESS"));
+        assertNull(emitters.get(1).sent.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(3, feed.subscribers());
+    }
+
+    @Test
+    void onTaskChanged_shouldCoalesceAndDropEventsForSlowSubscriber() throws Exception {
+        // Arrange
+        feed.subscribe(new PersonPrincipal(1L, "executor@mail.ru", Role.ROLE_USER));
+        RecordingEmitter emitter = emitters.get(0);
+        assertTrue(emitter.next().contains("ping"));
+        emitter.blocked = new CountDownLatch(1);
+        feed.onTaskChanged(event(10L, Status.APPOINTED, 1L));
+        Thread.sleep(100);
+
+        // Act
+        feed.onTaskChanged(event(11L, Status.APPOINTED, 1L));
+        feed.onTaskChanged(event(12L, Status.APPOINTED, 1L));
+        feed.onTaskChanged(event(12L, Status.IN_PROGRESS, 1L));
+        feed.onTaskChanged(event(13L, Status.APPOINTED, 1L));
+        emitter.blocked.countDown();
+
+        // Assert
+        assertTrue(emitter.next().contains("taskId=10"));
+        assertTrue(emitter.next().contains("event:" + TaskFeed.RESYNC));
+        String coalesced = emitter.next();
+        assertTrue(coalesced.contains("taskId=12") && coalesced.contains("IN_PROGRESS"));
+        assertTrue(emitter.next().contains("taskId=13"));
+        assertNull(emitter.sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void deliver_shouldSendEventOfOtherNodeAndResyncEverySubscriber() throws Exception {
+        // Arrange
+        feed.subscribe(new PersonPrincipal(1L, "executor@mail.ru", Role.ROLE_USER));
+        feed.subscribe(new PersonPrincipal(3L, "admin@mail.ru", Role.ROLE_ADMIN));
+        for (RecordingEmitter emitter : emitters) assertTrue(emitter.next().contains("ping"));
+
+        // Act
+        feed.deliver(TaskFeed.toDTO(event(10L, Status.COMPLETED, 1L)), List.of(1L));
+        String delivered = emitters.get(0).next();
+        String deliveredToAdmin = emitters.get(1).next();
+        feed.resync();
+
+        // Assert
+        assertTrue(delivered.contains("taskId=10"));
+        assertTrue(deliveredToAdmin.contains("status=COMPLETED"));
+        for (RecordingEmitter emitter : emitters) assertTrue(emitter.next().contains("event:" + TaskFeed.RESYNC));
+    }
+}
@@ -0,0 +1,137 @@
+package ru.develop.manager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.develop.manager.application.services.TaskAccessService;
+import ru.develop.manager.application.services.TaskStatsService;
+import ru.develop.manager.application.services.impls.PersonServiceImpl;
+import ru.develop.manager.application.services.impls.TaskImportServiceImpl;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.TaskImport;
+import ru.develop.manager.domain.enums.FileFormat;
+import ru.develop.manager.domain.enums.Role;
+import ru.develop.manager.extern.DTOs.taskDTO.TaskImportResultDTO;
+import ru.develop.manager.extern.cache.PersonCache;
+import ru.develop.manager.extern.repositories.PersonRepository;
+import ru.develop.manager.extern.repositories.TaskImportRepository;
+import ru.develop.manager.extern.repositories.TaskRepository;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class TaskImportServiceTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskImportRepository taskImportRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private TaskImportServiceImpl taskImportService;
+    private Person author;
+
+    @BeforeEach
+    void setUp() {
+        taskImportService = new TaskImportServiceImpl(taskRepository, taskImportRepository,
+                new PersonServiceImpl(personRepository, null, mock(PersonCache.class)), mock(TaskAccessService.class),
+                mock(TaskStatsService.class),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), jdbcTemplate,
+                transactionManager, mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(taskImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(taskImportService, "personCacheSize", 10);
+        ReflectionTestUtils.setField(taskImportService, "maxErrors", 10);
+
+        author = person("author@example.com");
+        person("executor@example.com");
+    }
+
+    private Person person(String email) {
+        Person person = new Person();
+        person.setFirstName("First");
+        person.setLastName("Last");
+        person.setEmail(email);
+        person.setPassword("password");
+        person.setRole(Role.ROLE_USER);
+        entityManager.persist(person);
+        return person;
+    }
+
+    private static ByteArrayInputStream file(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importTasks_shouldCreateTasksWithCommentsAndSkipWrongRecords() throws Exception {
+        // Arrange
+        String ndjson = """
+                {"title":"First","description":"Description","executorEmails":["executor@example.com"],"comments":["Comment one","Comment two"]}
+                {"title":"Second","description":"Description","executorEmails":["missing@example.com"]}
+                not json
+                {"title":"Fourth","description":"Desc"}
+                {"title":"Fifth","description":"Description","status":"completed","authorEmail":"executor@example.com"}
+                """;
+
+        // Act
+        TaskImportResultDTO result = taskImportService.importTasks(file(ndjson), FileFormat.NDJSON, null, author);
+
+        // Assert
+        assertEquals("COMPLETED", result.getState());
+        assertEquals(5, result.getProcessed());
+        assertEquals(2, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertEquals("Record 2: No executor with email missing@example.com", result.getErrors().get(0));
+        assertTrue(result.getErrors().get(1).startsWith("Record 3: Malformed JSON"));
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM comment", Long.class));
+        assertEquals(2, taskRepository.count());
+    }
+
+    @Test
+    void importTasks_shouldResumeAfterCheckpoint() throws Exception {
+        // Arrange
+        String csv = "title,description,executor_emails,comments\r\n" +
+                "First,Description,,\r\n" +
+                "Second,Description,,\r\n" +
+                "Third,\"Multi, line\nDescription\",executor@example.com,\"Comment one\nComment two\"\r\n";
+        TaskImport stopped = new TaskImport(FileFormat.CSV);
+        stopped.setState(TaskImport.State.FAILED);
+        stopped.setProcessed(2);
+        stopped.setCreated(2);
+        Long importId = taskImportRepository.save(stopped).getId();
+
+        // Act
+        TaskImportResultDTO result = taskImportService.importTasks(file(csv), FileFormat.CSV, importId, author);
+
+        // Assert
+        assertEquals("COMPLETED", result.getState());
+        assertEquals(3, result.getProcessed());
+        assertEquals(3, result.getCreated());
+        assertEquals(1, taskRepository.count());
+        assertEquals("Multi, line\nDescription", taskRepository.findAll().get(0).getDescription());
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM comment", Long.class));
+    }
+}
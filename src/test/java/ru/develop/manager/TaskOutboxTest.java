@@ -0,0 +1,198 @@
+package ru.develop.manager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.develop.manager.domain.events.TaskChangedEvent;
+import ru.develop.manager.extern.outbox.TaskOutbox;
+import ru.develop.manager.extern.outbox.TaskOutboxRelay;
+import ru.develop.manager.extern.repositories.TaskOutboxRepository;
+import ru.develop.manager.extern.repositories.TaskOutboxShardRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Транзакции в тесте фиксируются по-настоящему: события пишутся в outbox перед фиксацией
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskOutboxTest {
+
+    @Autowired
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Autowired
+    private TaskOutboxShardRepository taskOutboxShardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<String> stream = new CopyOnWriteArrayList<>();
+    private StringRedisTemplate redisTemplate;
+    private TaskOutbox outbox;
+    private TaskOutboxRelay relay;
+    private SimpleMeterRegistry meterRegistry;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setUp() {
+        outbox = new TaskOutbox(jdbcTemplate, transactionManager);
+        ReflectionTestUtils.setField(outbox, "entityManager", entityManager);
+        ReflectionTestUtils.setField(outbox, "shards", 2);
+
+        RedisStreamCommands streamCommands = mock(RedisStreamCommands.class);
+        when(streamCommands.xAdd(any(MapRecord.class), any(RedisStreamCommands.XAddOptions.class))).thenAnswer(inv -> {
+            Map<byte[], byte[]> fields = inv.<MapRecord<byte[], byte[], byte[]>>getArgument(0).getValue();
+            StringBuilder record = new StringBuilder();
+            fields.forEach((field, value) -> record.append(new String(field, StandardCharsets.UTF_8)).append('=')
+                    .append(new String(value, StandardCharsets.UTF_8)).append(' '));
+            stream.add(record.toString().trim().replaceAll("id=\\d+ ", ""));
+            return null;
+        });
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.streamCommands()).thenReturn(streamCommands);
+        redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenAnswer(inv -> {
+                    inv.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+                    return List.of();
+                });
+
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new TaskOutboxRelay(taskOutboxRepository, taskOutboxShardRepository, redisTemplate, transactionManager,
+                meterRegistry);
+        ReflectionTestUtils.setField(relay, "enabled", true);
+        ReflectionTestUtils.setField(relay, "shards", 2);
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        ReflectionTestUtils.setField(relay, "stream", "task:events");
+        ReflectionTestUtils.setField(relay, "streamMaxLength", 1000L);
+        ReflectionTestUtils.setField(relay, "retryAfter", Duration.ZERO);
+        ReflectionTestUtils.invokeMethod(relay, "init");
+        relay.createShards();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskOutboxRepository.deleteAll();
+        taskOutboxShardRepository.deleteAll();
+    }
+
+    private void inTransaction(boolean rollback, TaskChangedEvent... events) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (TaskChangedEvent event : events) outbox.onTaskChanged(event);
+            if (rollback) status.setRollbackOnly();
+        });
+    }
+
+    @Test
+    void relay_shouldPublishCommittedEventsInOrderPerTask() {
+        // Arrange
+        inTransaction(false, TaskChangedEvent.created(1L, "Task", "Description"), TaskChangedEvent.created(2L, "Task", "Description"));
+        inTransaction(true, TaskChangedEvent.deleted(1L));
+        inTransaction(false, TaskChangedEvent.changed(1L), TaskChangedEvent.commented(1L, "Comment"));
+        assertEquals(4, taskOutboxRepository.count());
+
+        // Act
+        relay.relay();
+
+        // Assert
+        List<String> task1 = stream.stream().filter(r -> r.contains("taskId=1 ")).map(r -> r.replaceAll(" createdAt=\\d+", "")).toList();
+        assertEquals(List.of("taskId=1 type=CREATED", "taskId=1 type=CHANGED", "taskId=1 type=COMMENTED"), task1);
+        assertEquals(4, stream.size());
+        assertEquals(0, taskOutboxRepository.count());
+    }
+
+    @Test
+    void relay_shouldKeepEventsWhileRedisIsUnavailable() {
+        // Arrange
+        inTransaction(false, TaskChangedEvent.changed(1L));
+        doThrow(new RedisConnectionFailureException("Redis is down")).when(redisTemplate).executePipelined(any(RedisCallback.class));
+
+        // Act
+        relay.relay();
+
+        // Assert
+        assertEquals(1, taskOutboxRepository.count());
+        assertTrue(stream.isEmpty());
+    }
+
+    @Test
+    void relayBatch_shouldSkipShardLockedByAnotherNode() throws Exception {
+        // Arrange
+        inTransaction(false, TaskChangedEvent.changed(2L));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread otherNode = Thread.ofPlatform().start(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            taskOutboxShardRepository.tryLock(0);
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        locked.await();
+
+        // Act
+        int whileLocked = relay.relayBatch(0);
+        release.countDown();
+        otherNode.join();
+        int afterRelease = relay.relayBatch(0);
+
+        // Assert
+        assertEquals(0, whileLocked);
+        assertEquals(1, afterRelease);
+    }
+
+    @Test
+    void relay_shouldPublishEventWrittenWithoutTransactionAndTrackBacklog() {
+        // Arrange
+        outbox.onTaskChanged(TaskChangedEvent.changed(1L));
+        inTransaction(false, TaskChangedEvent.changed(2L), TaskChangedEvent.changed(3L));
+        ReflectionTestUtils.setField(relay, "redisDownUntil", Long.MAX_VALUE);
+
+        // Act
+        relay.relay();
+        double pendingWhileRedisIsDown = meterRegistry.get("task.outbox.pending").gauge().value();
+        ReflectionTestUtils.setField(relay, "redisDownUntil", 0L);
+        relay.relay();
+        relay.relay();
+
+        // Assert
+        assertEquals(3.0, pendingWhileRedisIsDown);
+        assertEquals(3, stream.size());
+        assertEquals(0.0, meterRegistry.get("task.outbox.pending").gauge().value());
+        assertEquals(0.0, meterRegistry.get("task.outbox.lag.seconds").gauge().value());
+    }
+}
@@ -0,0 +1,55 @@
+package ru.develop.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.develop.manager.application.services.CommentService;
+import ru.develop.manager.application.services.TaskService;
+import ru.develop.manager.application.services.impls.TaskQueryServiceImpl;
+import ru.develop.manager.extern.assemblers.TaskAssembler;
+import ru.develop.manager.extern.cache.TaskCache;
+import ru.develop.manager.extern.exceptions.WrongDataException;
+import ru.develop.manager.extern.search.FullTextIndex;
+import ru.develop.manager.extern.search.FullTextIndexer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TaskQueryServiceTest {
+
+    private final TaskService taskService = mock(TaskService.class);
+    private final FullTextIndexer fullTextIndexer = mock(FullTextIndexer.class);
+    private TaskQueryServiceImpl taskQueryService;
+
+    @BeforeEach
+    void setUp() {
+        taskQueryService = new TaskQueryServiceImpl(taskService, mock(CommentService.class), mock(TaskAssembler.class),
+                fullTextIndexer, mock(TaskCache.class));
+        ReflectionTestUtils.setField(taskQueryService, "maxFullTextLimit", 100);
+    }
+
+    @Test
+    void searchFullText_shouldRejectLimitOutOfBounds() {
+        // Act & Assert
+        assertThrows(WrongDataException.class, () -> taskQueryService.searchFullText("задача", 101));
+        assertThrows(WrongDataException.class, () -> taskQueryService.searchFullText("задача", 0));
+        verify(fullTextIndexer, never()).search(anyString(), anyInt());
+    }
+
+    @Test
+    void searchFullText_shouldSearchIndexWithMaxLimit() throws WrongDataException {
+        // Arrange
+        when(fullTextIndexer.search("задача", 100)).thenReturn(List.of(new FullTextIndex.Hit(1L, 1.0)));
+
+        // Act
+        taskQueryService.searchFullText("задача", 100);
+
+        // Assert
+        verify(fullTextIndexer).search("задача", 100);
+        verify(taskService).findTasksByIds(List.of(1L));
+    }
+}
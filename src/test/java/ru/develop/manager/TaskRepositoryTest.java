@@ -0,0 +1,224 @@
+package ru.develop.manager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.develop.manager.application.services.impls.CommentServiceImpl;
+import ru.develop.manager.application.services.impls.TaskExportServiceImpl;
+import ru.develop.manager.domain.Comment;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.TaskFilter;
+import ru.develop.manager.domain.enums.FileFormat;
+import ru.develop.manager.domain.enums.Priority;
+import ru.develop.manager.domain.enums.Role;
+import ru.develop.manager.domain.enums.Status;
+import ru.develop.manager.extern.DTOs.taskDTO.InfoTaskDTO;
+import ru.develop.manager.extern.assemblers.PersonAssembler;
+import ru.develop.manager.extern.assemblers.TaskAssembler;
+import ru.develop.manager.extern.repositories.CommentRepository;
+import ru.develop.manager.extern.repositories.TaskRepository;
+import ru.develop.manager.extern.repositories.TaskSpecifications;
+import ru.develop.manager.extern.utils.CursorCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TaskRepositoryTest {
+
+    private static final int TASKS = 30;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CommentServiceImpl commentService;
+    private TaskAssembler taskAssembler;
+
+    private Person author;
+    private Person executor;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        commentService = new CommentServiceImpl(commentRepository);
+        ReflectionTestUtils.setField(commentService, "latestLimit", 1);
+        taskAssembler = new TaskAssembler(new PersonAssembler(), new CursorCodec(), commentService);
+
+        author = person("author@example.com");
+        executor = person("executor@example.com");
+        Person secondExecutor = person("second@example.com");
+
+        for (int i = 0; i < TASKS; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setDescription("Description " + i);
+            task.setStatus(Status.APPOINTED);
+            task.setPriority(Priority.MEDIUM);
+            task.setAuthor(author);
+            task.getExecutors().addAll(List.of(executor, secondExecutor));
+            for (int j = 0; j < 2; j++) {
+                Comment comment = new Comment("Comment " + j);
+                comment.setTask(task);
+                task.getComments().add(comment);
+            }
+            entityManager.persist(task);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private Person person(String email) {
+        Person person = new Person();
+        person.setFirstName("First");
+        person.setLastName("Last");
+        person.setEmail(email);
+        person.setPassword("password");
+        person.setRole(Role.ROLE_USER);
+        entityManager.persist(person);
+        return person;
+    }
+
+    /**
+     * Страница, ее count, пачка исполнителей, количество и последние комментарии
+     */
+    private void assertConstantStatements(Page<Task> page) {
+        List<InfoTaskDTO> dtos = taskAssembler.fromTaskPageToDTO(page).getContent();
+
+        assertEquals(PAGE_SIZE, dtos.size());
+        assertEquals(2, dtos.get(0).getExecutors().size());
+        assertEquals(2L, dtos.get(0).getCommentsCount());
+        assertEquals(List.of("Comment 1"), dtos.get(0).getComments());
+        assertTrue(statistics.getPrepareStatementCount() <= 5,
+                "Statements per page: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAll_shouldRenderPageInConstantNumberOfStatements() {
+        assertConstantStatements(taskRepository.findAll(PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    @Test
+    void findByAuthor_shouldRenderPageInConstantNumberOfStatements() {
+        assertConstantStatements(taskRepository.findByAuthor(author, PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    @Test
+    void findByExecutorsId_shouldRenderPageInConstantNumberOfStatements() {
+        assertConstantStatements(taskRepository.findByExecutorsId(executor.getId(), PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    @Test
+    void findByExecutorIdAfter_shouldWalkAllTasksWithoutCountQuery() {
+        Long afterId = 0L;
+        int total = 0;
+        Slice<Task> slice;
+        do {
+            slice = taskRepository.findByExecutorIdAfter(executor.getId(), afterId, PageRequest.of(0, PAGE_SIZE));
+            for (Task task : slice) {
+                assertTrue(task.getId() > afterId);
+                afterId = task.getId();
+            }
+            total += slice.getNumberOfElements();
+        } while (slice.hasNext());
+
+        assertEquals(TASKS, total);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByTaskId_shouldPageCommentsNewestFirst() {
+        Long taskId = taskRepository.findAllAfter(0L, PageRequest.of(0, 1)).getContent().get(0).getId();
+
+        Page<Comment> comments = commentRepository.findByTaskId(taskId, PageRequest.of(0, 1));
+
+        assertEquals(2, comments.getTotalElements());
+        assertEquals("Comment 1", comments.getContent().get(0).getComment());
+    }
+
+    @Test
+    void findSlice_shouldCombineFiltersWithoutCountQuery() {
+        TaskFilter filter = new TaskFilter(Status.APPOINTED, Priority.MEDIUM, author.getId(), executor.getId(), "Task 1");
+
+        Slice<Task> slice = taskRepository.findSlice(TaskSpecifications.of(filter), PageRequest.of(0, 5));
+
+        assertEquals(5, slice.getNumberOfElements());
+        assertTrue(slice.hasNext());
+        assertEquals("Task 1", slice.getContent().get(0).getTitle());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllBySpecification_shouldCountWhenAsked() {
+        TaskFilter filter = new TaskFilter(Status.APPOINTED, null, null, executor.getId(), "Task 1");
+
+        Page<Task> page = taskRepository.findAll(TaskSpecifications.of(filter), PageRequest.of(0, 5));
+
+        assertEquals(11, page.getTotalElements());
+        assertEquals(0, taskRepository.findSlice(
+                TaskSpecifications.of(new TaskFilter(null, null, null, null, "Task_")), PageRequest.of(0, 5)).getNumberOfElements());
+    }
+
+    @Test
+    void updateStatus_shouldChangeChunkWithoutLoadingTasks() {
+        TaskFilter filter = new TaskFilter(Status.APPOINTED, null, author.getId(), null, null);
+        List<Long> ids = taskRepository.findIdsAfter(TaskSpecifications.of(filter), 0L, PAGE_SIZE);
+
+        int changed = taskRepository.updateStatus(ids, Status.COMPLETED);
+        int unchanged = taskRepository.updateStatus(ids, Status.COMPLETED);
+
+        assertEquals(PAGE_SIZE, changed);
+        assertEquals(0, unchanged);
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(TASKS - PAGE_SIZE, taskRepository.findIdsAfter(TaskSpecifications.of(filter), 0L, TASKS).size());
+        assertEquals(Status.COMPLETED, taskRepository.findById(ids.get(0)).orElseThrow().getStatus());
+    }
+
+    @Test
+    void exportTasks_shouldStreamAllTasksInConstantStatementsPerBatch() throws Exception {
+        TaskExportServiceImpl exportService = new TaskExportServiceImpl(taskRepository, commentService, taskAssembler,
+                new ObjectMapper(), transactionManager);
+        ReflectionTestUtils.setField(exportService, "entityManager", entityManager);
+        ReflectionTestUtils.setField(exportService, "batchSize", 10);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = exportService.exportTasks(FileFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(TASKS, exported);
+        assertEquals(TASKS + 1, lines.length);
+        assertTrue(lines[1].endsWith(",author@example.com,executor@example.com;second@example.com,2"), lines[1]);
+        // курсор и по два запроса на часть: исполнители пачкой и количество комментариев
+        assertTrue(statistics.getPrepareStatementCount() <= 1 + 2 * (TASKS / 10),
+                "Statements: " + statistics.getPrepareStatementCount());
+    }
+}
@@ -5,15 +5,22 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import ru.develop.manager.application.services.PersonService;
+import ru.develop.manager.application.services.TaskAccessService;
+import ru.develop.manager.application.services.TaskStatsService;
 import ru.develop.manager.application.services.impls.TaskServiceImpl;
+import ru.develop.manager.domain.Comment;
 import ru.develop.manager.domain.Person;
 import ru.develop.manager.domain.Task;
 import ru.develop.manager.domain.enums.Priority;
 import ru.develop.manager.domain.enums.Status;
+import ru.develop.manager.domain.events.TaskChangedEvent;
+import ru.develop.manager.extern.exceptions.PreconditionFailedException;
+import ru.develop.manager.extern.repositories.CommentRepository;
 import ru.develop.manager.extern.repositories.TaskRepository;
 
 import java.util.Collections;
@@ -28,9 +35,21 @@ class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private CommentRepository commentRepository;
+
     @Mock
     private PersonService personService;
 
+    @Mock
+    private TaskAccessService taskAccessService;
+
+    @Mock
+    private TaskStatsService taskStatsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -61,6 +80,7 @@ class TaskServiceTest {
         assertEquals(author, task.getAuthor());
         assertTrue(task.getExecutors().contains(executor));
         verify(taskRepository, times(1)).save(task);
+        verify(taskAccessService, times(1)).evictExecutors(executorIds);
     }
 
     @Test
@@ -76,7 +96,7 @@ class TaskServiceTest {
         when(taskRepository.save(task)).thenReturn(task);
 
         // Act
-        Task updatedTask = taskService.updateTaskInfo(taskId, newTitle, newDescription);
+        Task updatedTask = taskService.updateTaskInfo(taskId, newTitle, newDescription, null);
 
         // Assert
         assertEquals(newTitle, updatedTask.getTitle());
@@ -138,7 +158,7 @@ class TaskServiceTest {
         when(taskRepository.save(task)).thenReturn(task);
 
         // Act
-        Task updatedTask = taskService.addExecutors(executorIds, taskId);
+        Task updatedTask = taskService.addExecutors(executorIds, taskId, null);
 
         // Assert
         assertNotNull(updatedTask);
@@ -146,6 +166,46 @@ class TaskServiceTest {
         verify(taskRepository, times(1)).save(task);
     }
 
+    @Test
+    void addExecutors_shouldSkipAlreadyAssignedAndRepeatedExecutors() {
+        // Arrange
+        Long taskId = 1L;
+        Person assigned = new Person();
+        assigned.setId(2L);
+        Person added = new Person();
+        added.setId(3L);
+        Task task = new Task();
+        task.setId(taskId);
+        task.getExecutors().add(assigned);
+
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        when(personService.findById(3L)).thenReturn(Optional.of(added));
+        when(taskRepository.save(task)).thenReturn(task);
+
+        // Act
+        taskService.addExecutors(List.of(2L, 3L, 3L), taskId, null);
+
+        // Assert
+        assertEquals(List.of(assigned, added), task.getExecutors());
+        verify(personService, never()).findById(2L);
+    }
+
+    @Test
+    void createTask_shouldAddRepeatedExecutorOnce() {
+        // Arrange
+        Task task = new Task();
+        Person executor = new Person();
+        executor.setId(1L);
+        when(personService.findById(1L)).thenReturn(Optional.of(executor));
+        when(taskRepository.save(task)).thenReturn(task);
+
+        // Act
+        taskService.createTask(task, new Person(), List.of(1L, 1L));
+
+        // Assert
+        assertEquals(List.of(executor), task.getExecutors());
+    }
+
     @Test
     void changeTaskPriority_shouldChangePriority() {
         // Arrange
@@ -158,7 +218,7 @@ class TaskServiceTest {
         when(taskRepository.save(task)).thenReturn(task);
 
         // Act
-        Task updatedTask = taskService.changeTaskPriority(newPriority, taskId);
+        Task updatedTask = taskService.changeTaskPriority(newPriority, taskId, null);
 
         // Assert
         assertNotNull(updatedTask);
@@ -178,6 +238,45 @@ class TaskServiceTest {
 
         // Assert
         verify(taskRepository, times(1)).deleteById(taskId);
+        verify(eventPublisher, times(1)).publishEvent(TaskChangedEvent.deleted(taskId));
     }
-}
 
+    @Test
+    void sendTaskComment_shouldSaveCommentWithoutTouchingTaskComments() {
+        // Arrange
+        Long taskId = 1L;
+        Task task = new Task();
+        task.setId(taskId);
+        Comment comment = new Comment("Looks good");
+
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+
+        // Act
+        Task commentedTask = taskService.sendTaskComment(comment, taskId);
+
+        // Assert
+        assertEquals(task, commentedTask);
+        assertEquals(task, comment.getTask());
+        verify(commentRepository, times(1)).save(comment);
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void updateTaskInfo_shouldFailFastOnStaleVersion() {
+        // Arrange
+        Long taskId = 1L;
+        Task task = new Task();
+        task.setId(taskId);
+        task.setTitle("Title");
+        task.setVersion(3L);
+
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class,
+                () -> taskService.updateTaskInfo(taskId, "New title", null, 2L));
+        assertEquals("Title", task.getTitle());
+        verify(taskRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+}
@@ -0,0 +1,177 @@
+package ru.develop.manager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.develop.manager.application.services.TaskStatsService.TaskState;
+import ru.develop.manager.application.services.impls.TaskStatsServiceImpl;
+import ru.develop.manager.domain.Person;
+import ru.develop.manager.domain.PersonTaskStats;
+import ru.develop.manager.domain.Task;
+import ru.develop.manager.domain.enums.Priority;
+import ru.develop.manager.domain.enums.Role;
+import ru.develop.manager.domain.enums.Status;
+import ru.develop.manager.domain.enums.TaskRole;
+import ru.develop.manager.extern.repositories.PersonRepository;
+import ru.develop.manager.extern.repositories.PersonTaskStatsRepository;
+import ru.develop.manager.extern.repositories.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class TaskStatsServiceTest {
+
+    @Autowired
+    private PersonTaskStatsRepository personTaskStatsRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private TaskStatsServiceImpl taskStatsService;
+    private Person author;
+    private Person executor;
+
+    @BeforeEach
+    void setUp() {
+        taskStatsService = new TaskStatsServiceImpl(personTaskStatsRepository, taskRepository, personRepository,
+                jdbcTemplate, transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(taskStatsService, "reconcileBatchSize", 1);
+        ReflectionTestUtils.invokeMethod(taskStatsService, "init");
+
+        author = person("author@example.com");
+        executor = person("executor@example.com");
+    }
+
+    @Test
+    void apply_shouldCreateAndMoveCounters() {
+        // Arrange
+        TaskState created = new TaskState(author.getId(), Set.of(executor.getId()), Status.APPOINTED, Priority.HIGH);
+        TaskState started = new TaskState(author.getId(), Set.of(executor.getId()), Status.IN_PROGRESS, Priority.HIGH);
+
+        // Act
+        taskStatsService.apply(List.of(), List.of(created, created));
+        taskStatsService.apply(List.of(created), List.of(started));
+
+        // Assert
+        assertEquals(1, tasks(author.getId(), TaskRole.AUTHOR, Status.APPOINTED, Priority.HIGH));
+        assertEquals(1, tasks(author.getId(), TaskRole.AUTHOR, Status.IN_PROGRESS, Priority.HIGH));
+        assertEquals(1, tasks(executor.getId(), TaskRole.EXECUTOR, Status.IN_PROGRESS, Priority.HIGH));
+        assertEquals(0, tasks(executor.getId(), TaskRole.AUTHOR, Status.IN_PROGRESS, Priority.HIGH));
+    }
+
+    @Test
+    void transition_shouldMoveCountersOfSelectedTasks() {
+        // Arrange
+        Task first = task(Status.APPOINTED, Priority.LOW);
+        Task second = task(Status.IN_PROGRESS, Priority.LOW);
+        taskStatsService.apply(List.of(), List.of(TaskState.of(first), TaskState.of(second)));
+
+        // Act
+        taskStatsService.transition(List.of(first.getId(), second.getId()), Status.COMPLETED, null);
+
+        // Assert
+        assertEquals(0, tasks(author.getId(), TaskRole.AUTHOR, Status.APPOINTED, Priority.LOW));
+        assertEquals(0, tasks(author.getId(), TaskRole.AUTHOR, Status.IN_PROGRESS, Priority.LOW));
+        assertEquals(2, tasks(author.getId(), TaskRole.AUTHOR, Status.COMPLETED, Priority.LOW));
+        assertEquals(2, tasks(executor.getId(), TaskRole.EXECUTOR, Status.COMPLETED, Priority.LOW));
+    }
+
+    @Test
+    void reconcile_shouldRepairDrift() {
+        // Arrange
+        Task task = task(Status.APPOINTED, Priority.MEDIUM);
+        taskStatsService.apply(List.of(), List.of(TaskState.of(task)));
+        jdbcTemplate.update("UPDATE person_task_stats SET tasks = 7 WHERE person_id = ?", author.getId());
+        jdbcTemplate.update("DELETE FROM person_task_stats WHERE person_id = ?", executor.getId());
+        jdbcTemplate.update("INSERT INTO person_task_stats (person_id, role, status, priority, tasks) VALUES (?, ?, ?, ?, ?)",
+                executor.getId(), TaskRole.AUTHOR.name(), Status.COMPLETED.name(), Priority.HIGH.name(), 3);
+
+        // Act
+        long fixed = taskStatsService.reconcile();
+
+        // Assert
+        assertEquals(3, fixed);
+        assertEquals(1, tasks(author.getId(), TaskRole.AUTHOR, Status.APPOINTED, Priority.MEDIUM));
+        assertEquals(1, tasks(executor.getId(), TaskRole.EXECUTOR, Status.APPOINTED, Priority.MEDIUM));
+        assertEquals(0, tasks(executor.getId(), TaskRole.AUTHOR, Status.COMPLETED, Priority.HIGH));
+        assertEquals(0, taskStatsService.reconcile());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void apply_shouldWriteCountersInReconcileLockOrder() {
+        // Arrange
+        List<TaskState> states = new ArrayList<>();
+        for (Status status : Status.values()) {
+            for (Priority priority : Priority.values()) {
+                states.add(new TaskState(author.getId(), Set.of(author.getId()), status, priority));
+            }
+        }
+        taskStatsService.apply(List.of(), states);
+        Comparator<PersonTaskStats.Key> keyOrder =
+                (Comparator<PersonTaskStats.Key>) ReflectionTestUtils.getField(TaskStatsServiceImpl.class, "KEY_ORDER");
+
+        // Act
+        List<PersonTaskStats.Key> locked = personTaskStatsRepository.lockByPersonIds(List.of(author.getId())).stream()
+                .map(PersonTaskStats::key)
+                .toList();
+
+        // Assert
+        assertEquals(18, locked.size());
+        assertEquals(locked.stream().sorted(keyOrder).toList(), locked);
+    }
+
+    private long tasks(Long personId, TaskRole role, Status status, Priority priority) {
+        return taskStatsService.findStats(personId).stream()
+                .filter(stats -> stats.key().equals(new PersonTaskStats.Key(personId, role, status, priority)))
+                .mapToLong(PersonTaskStats::getTasks)
+                .sum();
+    }
+
+    private Task task(Status status, Priority priority) {
+        Task task = new Task();
+        task.setTitle("Task");
+        task.setDescription("Description");
+        task.setStatus(status);
+        task.setPriority(priority);
+        task.setAuthor(author);
+        task.setExecutors(new ArrayList<>(List.of(executor)));
+        entityManager.persist(task);
+        entityManager.flush();
+        return task;
+    }
+
+    private Person person(String email) {
+        Person person = new Person();
+        person.setFirstName("First");
+        person.setLastName("Last");
+        person.setEmail(email);
+        person.setPassword("password");
+        person.setRole(Role.ROLE_USER);
+        entityManager.persist(person);
+        return person;
+    }
+}
@@ -0,0 +1,129 @@
+package ru.develop.manager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.develop.manager.extern.config.VirtualThreadsConfig;
+import ru.develop.manager.extern.datasource.ReadWriteRoutingDataSource;
+import ru.develop.manager.extern.threads.BulkheadDataSource;
+import ru.develop.manager.extern.threads.PinnedThreadMonitor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VirtualThreadsTest {
+
+    @Test
+    void bulkhead_shouldRejectOverLimitAndReleaseOnClose() throws Exception {
+        // Arrange
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BulkheadDataSource dataSource = new BulkheadDataSource("primary", target, 1, 0, Duration.ofMillis(50), meterRegistry);
+
+        // Act
+        Connection first = dataSource.getConnection();
+        SQLException rejected = assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        first.close();
+        first.close();
+        Connection second = dataSource.getConnection();
+
+        // Assert
+        assertTrue(rejected.getMessage().contains("bulkhead"));
+        assertEquals(1, dataSource.active());
+        assertEquals(1.0, meterRegistry.get("db.bulkhead.rejected").tag("pool", "primary").counter().count());
+        verify(connection, times(2)).close();
+        second.close();
+        assertEquals(0, dataSource.active());
+    }
+
+    @Test
+    void bulkhead_shouldReleasePermitWhenTargetFails() throws Exception {
+        // Arrange
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLException("down")).thenReturn(mock(Connection.class));
+        BulkheadDataSource dataSource = new BulkheadDataSource("primary", target, 1, 1, Duration.ofMillis(50), new SimpleMeterRegistry());
+
+        // Act
+        assertThrows(SQLException.class, dataSource::getConnection);
+        Connection connection = dataSource.getConnection();
+
+        // Assert
+        assertNotNull(connection);
+        assertEquals(1, dataSource.active());
+    }
+
+    @Test
+    void pinnedThreadMonitor_shouldCountPinningInsideSynchronized() throws Exception {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Object monitor = new Object();
+        try (PinnedThreadMonitor pinnedThreadMonitor = new PinnedThreadMonitor(meterRegistry, Duration.ofMillis(10), Duration.ofMinutes(1))) {
+            pinnedThreadMonitor.start();
+
+            // Act
+            Thread.ofVirtual().start(() -> {
+                synchronized (monitor) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).join();
+
+            // Assert
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (meterRegistry.find("virtual.threads.pinned").counters().isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(100);
+            }
+            String site = meterRegistry.get("virtual.threads.pinned").counter().getId().getTag("site");
+            assertTrue(site.startsWith(VirtualThreadsTest.class.getName() + "."), site);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void dataSourceBulkhead_shouldLimitEachPhysicalPoolBySize() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+        when(meterRegistryProvider.getObject()).thenReturn(meterRegistry);
+        BeanPostProcessor postProcessor = VirtualThreadsConfig.dataSourceBulkhead(meterRegistryProvider, 0, 10, Duration.ofSeconds(1));
+        HikariDataSource primary = new HikariDataSource();
+        primary.setMaximumPoolSize(20);
+        HikariDataSource replica = new HikariDataSource();
+        replica.setMaximumPoolSize(5);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(replica), false);
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(routing);
+
+        // Act
+        postProcessor.postProcessAfterInitialization(routing, "routingDataSource");
+        Object dataSource = postProcessor.postProcessAfterInitialization(lazy, "dataSource");
+
+        // Assert
+        assertSame(lazy, dataSource);
+        Map<Object, DataSource> pools = routing.getResolvedDataSources();
+        BulkheadDataSource primaryBulkhead = assertInstanceOf(BulkheadDataSource.class, pools.get("primary"));
+        BulkheadDataSource replicaBulkhead = assertInstanceOf(BulkheadDataSource.class, pools.get("replica-0"));
+        assertSame(primary, primaryBulkhead.getTargetDataSource());
+        assertSame(replica, replicaBulkhead.getTargetDataSource());
+        assertEquals(20, ReflectionTestUtils.getField(primaryBulkhead, "maxConcurrent"));
+        assertEquals(5, ReflectionTestUtils.getField(replicaBulkhead, "maxConcurrent"));
+        assertNotNull(meterRegistry.get("db.bulkhead.active").tag("pool", "replica-0").gauge());
+    }
+}